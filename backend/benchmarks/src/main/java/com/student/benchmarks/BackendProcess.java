@@ -0,0 +1,109 @@
+package com.student.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BackendProcess — the backend jar started in its own JVM, for harnesses
+ * that measure it from the outside (StartupTimeHarness,
+ * ProfileThroughputReport). It runs on the database from
+ * application.properties; the output goes to a log file.
+ */
+final class BackendProcess implements AutoCloseable {
+
+    static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final Path log;
+    private final long startNanos;
+    private final String baseUrl;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private BackendProcess(Process process, Path log, long startNanos, int port) {
+        this.process = process;
+        this.log = log;
+        this.startNanos = startNanos;
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    /** Launch java [jvmArgs] -jar jar --server.port=port [appArgs], from the jar's folder. */
+    static BackendProcess start(Path jar, int port, List<String> jvmArgs, List<String> appArgs, Path log)
+            throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmArgs);
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.addAll(appArgs);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new BackendProcess(process, log, start, port);
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Log in as admin / admin123, retrying until the backend answers (any
+     * status below 500 counts — it needed JPA either way).
+     *
+     * @return milliseconds from launch to that answer, and its body
+     */
+    Login awaitLogin() throws IOException, InterruptedException {
+        HttpRequest login = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .timeout(START_TIMEOUT)
+                .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"admin\",\"password\":\"admin123\"}"))
+                .build();
+        while (true) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Backend exited with " + process.exitValue() + ", see " + log);
+            }
+            if (System.nanoTime() - startNanos > START_TIMEOUT.toNanos()) {
+                throw new IllegalStateException("No answer after " + START_TIMEOUT + ", see " + log);
+            }
+            try {
+                HttpResponse<String> response = client.send(login, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() < 500) {
+                    long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                    @SuppressWarnings("unchecked")
+                    Map<String, String> body = new ObjectMapper().readValue(response.body(), Map.class);
+                    return new Login(millis, response.statusCode(), body.get("token"));
+                }
+            } catch (ConnectException | HttpTimeoutException e) {
+                // not listening yet
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    record Login(long millis, int status, String token) {}
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
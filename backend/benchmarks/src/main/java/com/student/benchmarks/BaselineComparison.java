@@ -0,0 +1,100 @@
+package com.student.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * BaselineComparison — compares two JMH JSON result files.
+ *
+ * Usage: BaselineComparison <baseline.json> <current.json> [tolerance, e.g. 0.10]
+ *
+ * Benchmarks are matched by name + @Param values. A benchmark counts as a
+ * regression when its score is worse than the baseline by more than the
+ * tolerance (lower is better for time modes, higher is better for thrpt).
+ * Benchmarks present in only one file are listed but never fail the run.
+ */
+public class BaselineComparison {
+
+    static final double DEFAULT_TOLERANCE = 0.10;
+
+    private record Score(double value, String unit, boolean higherIsBetter) {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <current.json> [tolerance]");
+            System.exit(2);
+        }
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_TOLERANCE;
+        boolean regressed = compare(Path.of(args[0]), Path.of(args[1]), tolerance);
+        System.exit(regressed ? 1 : 0);
+    }
+
+    /**
+     * Print a comparison table.
+     *
+     * @return true if at least one benchmark regressed beyond the tolerance
+     */
+    static boolean compare(Path baselineFile, Path currentFile, double tolerance) throws IOException {
+        Map<String, Score> baseline = load(baselineFile);
+        Map<String, Score> current = load(currentFile);
+
+        System.out.printf("%nCompared with %s (tolerance %.0f%%)%n", baselineFile, tolerance * 100);
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+
+        boolean regressed = false;
+        Map<String, Score> all = new TreeMap<>(baseline);
+        current.forEach(all::putIfAbsent);
+        for (String name : all.keySet()) {
+            Score before = baseline.get(name);
+            Score after = current.get(name);
+            if (before == null || after == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", name,
+                        format(before), format(after), before == null ? "new" : "removed");
+                continue;
+            }
+            double change = (after.value - before.value) / before.value;
+            double worse = after.higherIsBetter ? -change : change;
+            String flag = "";
+            if (worse > tolerance) {
+                regressed = true;
+                flag = "  ⚠ slower";
+            } else if (worse < -tolerance) {
+                flag = "  ✅ faster";
+            }
+            System.out.printf("%-70s %14s %14s %+8.1f%%%s%n", name, format(before), format(after), change * 100, flag);
+        }
+        return regressed;
+    }
+
+    private static Map<String, Score> load(Path file) throws IOException {
+        Map<String, Score> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+            StringBuilder name = new StringBuilder(shortName(run.path("benchmark").asText()));
+            run.path("params").fields().forEachRemaining(param ->
+                    name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+
+            JsonNode metric = run.path("primaryMetric");
+            scores.put(name.toString(), new Score(
+                    metric.path("score").asDouble(),
+                    metric.path("scoreUnit").asText(),
+                    "thrpt".equals(run.path("mode").asText())));
+        }
+        return scores;
+    }
+
+    private static String shortName(String benchmark) {
+        return benchmark.startsWith("com.student.benchmarks.")
+                ? benchmark.substring("com.student.benchmarks.".length())
+                : benchmark;
+    }
+
+    private static String format(Score score) {
+        return score == null ? "-" : String.format("%.2f %s", score.value, score.unit);
+    }
+}
@@ -0,0 +1,187 @@
+package com.student.benchmarks;
+
+import com.student.StudentManagementApplication;
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import com.student.security.PasswordHasher;
+import com.student.service.StudentEmailIndex;
+import com.student.service.StudentSearchIndex;
+import com.student.service.StudentStatsService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * BenchmarkContext — the real backend (services, caches, indexes, JPA) started
+ * without the web layer (or with it, see startServer), on an in-memory H2
+ * database in MySQL mode.
+ *
+ * Each benchmark trial gets its own fresh database seeded with generated
+ * students (or, with shards > 0, that many extra in-memory databases as
+ * student shards) and two users:
+ *  - admin / admin123 (ADMIN)
+ *  - user1 / user123  (USER)
+ */
+final class BenchmarkContext implements AutoCloseable {
+
+    static final String[] FIRST_NAMES = {
+            "Aarav", "Ali", "Ananya", "Arjun", "Diya", "Fatima", "Ishaan", "Kavya",
+            "Meera", "Mohammed", "Neha", "Priya", "Rahul", "Rohan", "Sara", "Vikram"
+    };
+    static final String[] LAST_NAMES = {
+            "Khan", "Sharma", "Patel", "Reddy", "Iyer", "Malik", "Gupta", "Nair",
+            "Das", "Singh", "Kumar", "Joshi", "Menon", "Ahmed", "Verma", "Rao"
+    };
+    static final String[] COURSES = { "B.Tech", "M.Tech", "MCA", "BCA", "MBA", "B.Sc" };
+    static final String[] DEPARTMENTS = {
+            "Computer Science", "Mechanical", "Electrical", "Civil", "Electronics", "Management"
+    };
+
+    private static final int SEED_BATCH = 10_000;
+
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    /**
+     * Start the backend and insert this many students.
+     */
+    static BenchmarkContext start(int students) {
+        return start(students, 0);
+    }
+
+    /**
+     * Start the backend with the students split over this many shards
+     * (0 = no sharding) and insert this many students.
+     */
+    static BenchmarkContext start(int students, int shards) {
+        return start(students, shards, new String[0]);
+    }
+
+    /**
+     * Same, with extra application properties ("key=value") on top of the
+     * benchmark defaults.
+     */
+    static BenchmarkContext start(int students, int shards, String... properties) {
+        return start(WebApplicationType.NONE, students, shards, properties);
+    }
+
+    /**
+     * The backend with its web layer on a free port (see port()), for
+     * harnesses that drive the REST API (LoadTest). Only the two users are
+     * inserted; extra application properties as in start().
+     */
+    static BenchmarkContext startServer(String... properties) {
+        String[] withPort = Arrays.copyOf(properties, properties.length + 1);
+        withPort[properties.length] = "server.port=0";
+        return start(WebApplicationType.SERVLET, 0, 0, withPort);
+    }
+
+    private static BenchmarkContext start(WebApplicationType web, int students, int shards, String... properties) {
+        String run = UUID.randomUUID().toString();
+        List<String> shardUrls = new ArrayList<>();
+        for (int i = 1; i <= shards; i++) {
+            shardUrls.add(h2Url("bench-" + run + "-shard-" + i));
+        }
+        List<String> settings = new ArrayList<>(List.of(
+                "spring.datasource.url=" + h2Url("bench-" + run),
+                "student.shards.urls=" + String.join(",", shardUrls),
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.jpa.hibernate.ddl-auto=create",
+                "spring.jpa.show-sql=false",
+                "spring.jpa.properties.hibernate.format_sql=false",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "logging.level.root=WARN"));
+        settings.addAll(Arrays.asList(properties));
+
+        // As command-line arguments: builder .properties() are only defaults,
+        // which application.properties (MySQL) would override
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentManagementApplication.class)
+                .web(web)
+                .logStartupInfo(false)
+                .run(settings.stream().map(setting -> "--" + setting).toArray(String[]::new));
+
+        BenchmarkContext bench = new BenchmarkContext(context);
+        bench.seed(students);
+        return bench;
+    }
+
+    private static String h2Url(String name) {
+        return "jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+
+    <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /** The HTTP port of a context from startServer(). */
+    int port() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    // ─── SEED DATA ─────────────────────────────────────────────────────────────
+
+    /** Deterministic student number i, so every run sees the same data. */
+    static Object[] studentRow(long i) {
+        String name = FIRST_NAMES[(int) (i % FIRST_NAMES.length)] + " "
+                + LAST_NAMES[(int) ((i / FIRST_NAMES.length) % LAST_NAMES.length)];
+        return new Object[] {
+                name,
+                "student" + i + "@example.edu",
+                COURSES[(int) (i % COURSES.length)],
+                DEPARTMENTS[(int) ((i / 7) % DEPARTMENTS.length)]
+        };
+    }
+
+    private void seed(int students) {
+        JdbcTemplate jdbc = bean(JdbcTemplate.class);
+        PasswordHasher hasher = bean(PasswordHasher.class);
+
+        jdbc.update("INSERT INTO users (username, password, role) VALUES (?, ?, ?)",
+                "admin", hasher.hash("admin123"), "ADMIN");
+        jdbc.update("INSERT INTO users (username, password, role) VALUES (?, ?, ?)",
+                "user1", hasher.hash("user123"), "USER");
+
+        ShardedStudentRepository shards = bean(ShardedStudentRepository.class);
+        if (shards.isEnabled()) {
+            List<Student> rows = new ArrayList<>(SEED_BATCH);
+            for (long i = 0; i < students; i++) {
+                Object[] row = studentRow(i);
+                rows.add(new Student((String) row[0], (String) row[1], (String) row[2], (String) row[3]));
+                if (rows.size() == SEED_BATCH || i == students - 1) {
+                    shards.insertAll(rows);
+                    rows.clear();
+                }
+            }
+        } else {
+            List<Object[]> batch = new ArrayList<>(SEED_BATCH);
+            for (long i = 0; i < students; i++) {
+                batch.add(studentRow(i));
+                if (batch.size() == SEED_BATCH || i == students - 1) {
+                    jdbc.batchUpdate("INSERT INTO students (name, email, course, department) VALUES (?, ?, ?, ?)", batch);
+                    batch.clear();
+                }
+            }
+        }
+
+        // These were built at startup from the then-empty table
+        bean(StudentSearchIndex.class).build();
+        bean(StudentEmailIndex.class).build();
+        bean(StudentStatsService.class).reconcile();
+    }
+}
@@ -0,0 +1,53 @@
+package com.student.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * BenchmarkRunner — runs the JMH suites and saves the results as JSON.
+ *
+ * Usage: BenchmarkRunner [include-regex]
+ *
+ * Each run writes results/jmh-<timestamp>.json. If results/baseline.json
+ * exists, the run is compared against it (see BaselineComparison) and the
+ * process exits with 1 when something got slower than allowed.
+ *
+ * To make a run the new baseline, copy its file to results/baseline.json.
+ */
+public class BenchmarkRunner {
+
+    private static final Path RESULTS = Path.of("results");
+
+    public static void main(String[] args) throws RunnerException, IOException {
+        String include = args.length > 0 && !args[0].isBlank() ? args[0] : ".*";
+
+        Files.createDirectories(RESULTS);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path result = RESULTS.resolve("jmh-" + stamp + ".json");
+
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("\n📌 Results: " + result.toAbsolutePath());
+
+        Path baseline = RESULTS.resolve("baseline.json");
+        if (Files.exists(baseline)) {
+            boolean regressed = BaselineComparison.compare(baseline, result, BaselineComparison.DEFAULT_TOLERANCE);
+            if (regressed) {
+                System.exit(1);
+            }
+        }
+    }
+}
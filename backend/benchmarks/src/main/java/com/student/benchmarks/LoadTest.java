@@ -0,0 +1,573 @@
+package com.student.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.student.metrics.Histogram;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoadTest — load and soak test of the REST API, against the backend started
+ * in this JVM on an in-memory H2 database (BenchmarkContext.startServer).
+ *
+ * Usage (from benchmarks/, after installing the backend):
+ *     mvn compile exec:exec@load                                    # closed loop, 32 clients, 60 s
+ *     mvn compile exec:exec@load -Dload.mode=open -Dload.rate=800   # fixed arrival rate
+ *     mvn compile exec:exec@load -Dload.seconds=3600 -Dload.report-seconds=60   # soak
+ * Settings are system properties load.*, listed in the pom with their defaults
+ * (load.heap sets -Xmx).
+ *
+ * Steps:
+ * 1. Start the backend and log in as admin
+ * 2. Seed load.students students through POST /api/students/bulk and read their ids back
+ * 3. Replay load.mix (list, search, get, add, update, delete, login) for
+ *    load.warmup-seconds, then measure for load.seconds:
+ *    - closed loop: load.clients threads, each sending its next call once the last one answered
+ *    - open loop: load.rate calls per second whatever the answers; latency counts from
+ *      when a call was due, so a stall shows up as latency rather than as a slower
+ *      send rate. Beyond load.max-in-flight outstanding calls, new ones count as dropped.
+ * 4. Every load.report-seconds print throughput, latency, errors and heap after GC —
+ *    over a soak run, heap after GC that keeps rising points at a leak
+ * 5. Report per call: throughput, latency percentiles, errors; heap and GC for the run
+ *
+ * Deletes only remove students the run added itself, so reads and updates of
+ * seeded ids never miss. Every call must answer 200 (add: 201) to count as a success.
+ *
+ * Results go to results/load-<timestamp>.json in JMH's format, so they compare
+ * like the JMH suites: with results/load-baseline.json present, a throughput
+ * or p99 worse than it by more than load.tolerance fails the run (exit 1), as
+ * does an error rate above load.max-error-rate. Copy a run's file there to
+ * make it the baseline. None ships with the repository (the figures depend
+ * on the machine); without one the run says so and only checks errors.
+ *
+ * The load generator shares the JVM with the backend, so heap and GC include
+ * its (small) part; the figures are for comparing runs, not for sizing servers.
+ */
+public class LoadTest {
+
+    private static final Path RESULTS = Path.of("results");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final int SEED_CHUNK = 5_000;
+    private static final int PAGE = 500;
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    enum Op { LIST, SEARCH, GET, ADD, UPDATE, DELETE, LOGIN }
+
+    public static void main(String[] args) throws Exception {
+        String mode = setting("mode", "closed");
+        int students = Integer.parseInt(setting("students", "10000"));
+        int seconds = Integer.parseInt(setting("seconds", "60"));
+        int warmupSeconds = Integer.parseInt(setting("warmup-seconds", "15"));
+        int clients = Integer.parseInt(setting("clients", "32"));
+        double rate = Double.parseDouble(setting("rate", "500"));
+        int maxInFlight = Integer.parseInt(setting("max-in-flight", "1000"));
+        int reportSeconds = Integer.parseInt(setting("report-seconds", "10"));
+        Map<Op, Integer> mix = mix(setting("mix", "list=30,search=15,get=30,add=8,update=10,delete=5,login=2"));
+        double tolerance = Double.parseDouble(setting("tolerance", "0.20"));
+        double maxErrorRate = Double.parseDouble(setting("max-error-rate", "0.01"));
+        Path baseline = Path.of(setting("baseline", RESULTS.resolve("load-baseline.json").toString()));
+        if (!mode.equals("closed") && !mode.equals("open")) {
+            throw new IllegalArgumentException("load.mode must be closed or open, not " + mode);
+        }
+
+        List<String> properties = new ArrayList<>(List.of(
+                "student.auth.rate-limit.username.burst=1000000000",
+                "student.auth.rate-limit.username.per-minute=1000000000",
+                "student.auth.rate-limit.ip.burst=1000000000",
+                "student.auth.rate-limit.ip.per-minute=1000000000"));
+        for (String property : setting("backend", "").split(";")) {
+            if (!property.isBlank()) {
+                properties.add(property.trim()); // e.g. -Dload.backend=student.json-cache.enabled=true
+            }
+        }
+
+        Map<String, String> params = new LinkedHashMap<>();
+        params.put("mode", mode);
+        params.put(mode.equals("closed") ? "clients" : "rate", mode.equals("closed") ? "" + clients : "" + (long) rate);
+        params.put("students", "" + students);
+
+        int exitCode = 0;
+        try (BenchmarkContext backend = BenchmarkContext.startServer(properties.toArray(String[]::new))) {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            String baseUrl = "http://localhost:" + backend.port();
+            String token = login(client, baseUrl, "admin", "admin123");
+
+            long seedStart = System.nanoTime();
+            seed(client, baseUrl, token, students);
+            Target target = target(client, baseUrl, token);
+            System.out.printf("Seeded %d students through the API in %d ms%n",
+                    target.ids.length, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - seedStart));
+
+            String loop = mode.equals("closed") ? clients + " clients (closed loop)" : (long) rate + " calls/s (open loop)";
+            System.out.printf("Warming up for %ds, then %s for %ds — mix %s%n", warmupSeconds, loop, seconds, mix);
+            run(mode, target, mix, new Phase(), warmupSeconds, clients, rate, maxInFlight, 0);
+
+            System.gc();
+            Jvm before = Jvm.now();
+            Phase measured = new Phase();
+            run(mode, target, mix, measured, seconds, clients, rate, maxInFlight, reportSeconds);
+            Jvm after = Jvm.now();
+
+            print(measured, seconds, loop, before, after);
+
+            Files.createDirectories(RESULTS);
+            Path result = RESULTS.resolve("load-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+            save(result, measured, seconds, params);
+            System.out.println("\n📌 Results: " + result.toAbsolutePath());
+
+            double errorRate = measured.total.errorRate();
+            if (errorRate > maxErrorRate) {
+                System.out.printf("%n⚠ Error rate %.2f%% is above load.max-error-rate (%.2f%%)%n",
+                        errorRate * 100, maxErrorRate * 100);
+                exitCode = 1;
+            }
+            if (!Files.exists(baseline)) {
+                // None is committed: figures depend on the machine, so each setup makes its own
+                System.out.printf("%nℹ No baseline at %s — throughput and p99 were not checked."
+                        + " Copy this run's file there to compare later runs against it.%n", baseline);
+            } else if (BaselineComparison.compare(baseline, result, tolerance)) {
+                exitCode = 1;
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static String setting(String name, String defaultValue) {
+        String value = System.getProperty("load." + name);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    /** "list=30,search=15,..." → weight per call; calls left out get 0. */
+    static Map<Op, Integer> mix(String spec) {
+        Map<Op, Integer> mix = new EnumMap<>(Op.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            mix.put(Op.valueOf(kv[0].trim().toUpperCase()), Integer.parseInt(kv[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("load.mix has no calls: " + spec);
+        }
+        return mix;
+    }
+
+    // ─── SETUP ─────────────────────────────────────────────────────────────────
+
+    /** What calls are built from. */
+    private static final class Target {
+        final HttpClient client;
+        final String baseUrl;
+        final String token;
+        final long[] ids;             // seeded students: read and updated, never deleted
+        final String[] namePrefixes;
+        final Queue<Long> added = new ConcurrentLinkedQueue<>(); // added by this run, the ones deletes take
+        final AtomicLong emails = new AtomicLong();
+
+        Target(HttpClient client, String baseUrl, String token, long[] ids, String[] namePrefixes) {
+            this.client = client;
+            this.baseUrl = baseUrl;
+            this.token = token;
+            this.ids = ids;
+            this.namePrefixes = namePrefixes;
+        }
+    }
+
+    private static String login(HttpClient client, String baseUrl, String username, String password)
+            throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(loginRequest(baseUrl, username, password),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Login as " + username + " failed: " + response.statusCode() + " " + response.body());
+        }
+        return MAPPER.readTree(response.body()).path("token").asText();
+    }
+
+    private static HttpRequest loginRequest(String baseUrl, String username, String password) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"" + username + "\",\"password\":\"" + password + "\"}"))
+                .build();
+    }
+
+    /** Insert students 0..count-1 (BenchmarkContext.studentRow) as NDJSON bulk imports. */
+    private static void seed(HttpClient client, String baseUrl, String token, int count)
+            throws IOException, InterruptedException {
+        for (int from = 0; from < count; from += SEED_CHUNK) {
+            StringBuilder body = new StringBuilder();
+            for (long i = from; i < Math.min(count, from + SEED_CHUNK); i++) {
+                Object[] row = BenchmarkContext.studentRow(i);
+                body.append(MAPPER.writeValueAsString(Map.of(
+                        "name", row[0], "email", row[1], "course", row[2], "department", row[3]))).append('\n');
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/students/bulk"))
+                    .header("Authorization", "Bearer " + token)
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            JsonNode result = MAPPER.readTree(response.body());
+            if (response.statusCode() != 200 || result.path("failed").asLong() > 0) {
+                throw new IllegalStateException("Seeding failed: " + response.statusCode() + " " + response.body());
+            }
+        }
+    }
+
+    /** Read every student id (and a name prefix for searches) back through GET /api/students. */
+    private static Target target(HttpClient client, String baseUrl, String token) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        String after = "";
+        while (true) {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(
+                            baseUrl + "/api/students?limit=" + PAGE + (after.isEmpty() ? "" : "&after=" + after)))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+            JsonNode page = MAPPER.readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+            for (JsonNode student : page.path("items")) {
+                ids.add(student.path("id").asLong());
+                String name = student.path("name").asText();
+                prefixes.add(name.substring(0, Math.min(3, name.length())));
+            }
+            if (!page.path("hasMore").asBoolean()) {
+                break;
+            }
+            after = page.path("nextCursor").asText();
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No students to run against — set load.students above 0");
+        }
+        return new Target(client, baseUrl, token,
+                ids.stream().mapToLong(Long::longValue).toArray(), prefixes.toArray(String[]::new));
+    }
+
+    // ─── CALLS ─────────────────────────────────────────────────────────────────
+
+    private record Call(Op op, HttpRequest request) {}
+
+    /** A random call from the mix; a delete with nothing of ours left to delete becomes an add. */
+    private static Call next(Target t, Map<Op, Integer> mix) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int pick = random.nextInt(total);
+        Op op = Op.ADD;
+        for (Map.Entry<Op, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                op = entry.getKey();
+                break;
+            }
+        }
+        Long deleteId = op == Op.DELETE ? t.added.poll() : null;
+        if (op == Op.DELETE && deleteId == null) {
+            op = Op.ADD;
+        }
+
+        long id = t.ids[random.nextInt(t.ids.length)];
+        HttpRequest.Builder request = switch (op) {
+            case LIST -> get(t, "/api/students?limit=50&after=" + (id - 1));
+            case SEARCH -> get(t, "/api/students/search?limit=20&name="
+                    + URLEncoder.encode(t.namePrefixes[random.nextInt(t.namePrefixes.length)], StandardCharsets.UTF_8));
+            case GET -> get(t, "/api/students/" + id);
+            case ADD -> json(t, "/api/students", "POST", "{\"name\":\"Load Test\",\"email\":\"load"
+                    + t.emails.incrementAndGet() + "@example.edu\",\"course\":\"MCA\",\"department\":\"Computer Science\"}");
+            case UPDATE -> json(t, "/api/students/" + id, "PATCH",
+                    "{\"course\":\"" + BenchmarkContext.COURSES[random.nextInt(BenchmarkContext.COURSES.length)] + "\"}");
+            case DELETE -> get(t, "/api/students/" + deleteId).DELETE();
+            case LOGIN -> HttpRequest.newBuilder(loginRequest(t.baseUrl, "user1", "user123"), (name, value) -> true);
+        };
+        return new Call(op, request.timeout(Duration.ofSeconds(30)).build());
+    }
+
+    private static HttpRequest.Builder get(Target t, String path) {
+        return HttpRequest.newBuilder(URI.create(t.baseUrl + path)).header("Authorization", "Bearer " + t.token);
+    }
+
+    private static HttpRequest.Builder json(Target t, String path, String method, String body) {
+        return get(t, path).header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    /** Record an answer; an added student's id goes to the ones deletes take. */
+    private static void complete(Target t, Phase phase, Call call, HttpResponse<byte[]> response, long startNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        int expected = call.op() == Op.ADD ? 201 : 200;
+        if (response.statusCode() != expected) {
+            phase.error(call.op(), "HTTP " + response.statusCode());
+            return;
+        }
+        phase.ok(call.op(), micros);
+        if (call.op() == Op.ADD) {
+            try {
+                t.added.add(MAPPER.readTree(response.body()).path("id").asLong());
+            } catch (IOException e) {
+                // not deletable then
+            }
+        }
+    }
+
+    // ─── LOAD ──────────────────────────────────────────────────────────────────
+
+    private static void run(String mode, Target t, Map<Op, Integer> mix, Phase phase, int seconds, int clients,
+                            double rate, int maxInFlight, int reportSeconds) throws InterruptedException {
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        Thread reporter = reportSeconds > 0 ? reporter(phase, reportSeconds, start) : null;
+        try {
+            if (mode.equals("closed")) {
+                closedLoop(t, mix, phase, clients, end);
+            } else {
+                openLoop(t, mix, phase, rate, maxInFlight, end);
+            }
+        } finally {
+            if (reporter != null) {
+                reporter.interrupt();
+            }
+        }
+    }
+
+    private static void closedLoop(Target t, Map<Op, Integer> mix, Phase phase, int clients, long end)
+            throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    Call call = next(t, mix);
+                    long start = System.nanoTime();
+                    try {
+                        complete(t, phase, call, t.client.send(call.request(), HttpResponse.BodyHandlers.ofByteArray()), start);
+                    } catch (IOException e) {
+                        phase.error(call.op(), e.getClass().getSimpleName());
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "client-" + c);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static void openLoop(Target t, Map<Op, Integer> mix, Phase phase, double rate, int maxInFlight, long end)
+            throws InterruptedException {
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        long start = System.nanoTime();
+        double interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        for (long n = 0; ; n++) {
+            long due = start + (long) (n * interval);
+            if (due >= end) {
+                break;
+            }
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Call call = next(t, mix);
+            if (!inFlight.tryAcquire()) {
+                phase.error(call.op(), "dropped (max in flight)");
+                continue;
+            }
+            t.client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofByteArray()).whenComplete((response, e) -> {
+                try {
+                    if (e != null) {
+                        phase.error(call.op(), (e.getCause() != null ? e.getCause() : e).getClass().getSimpleName());
+                    } else {
+                        complete(t, phase, call, response, due);
+                    }
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+        // Calls still outstanding belong to this phase
+        if (inFlight.tryAcquire(maxInFlight, 60, TimeUnit.SECONDS)) {
+            inFlight.release(maxInFlight);
+        }
+    }
+
+    // ─── STATS ─────────────────────────────────────────────────────────────────
+
+    /** Latency of successful calls and counted errors. */
+    static final class Stats {
+        final Histogram latency = new Histogram();
+        final LongAdder errors = new LongAdder();
+        final Map<String, LongAdder> errorKinds = new ConcurrentHashMap<>();
+
+        void error(String kind) {
+            errors.increment();
+            errorKinds.computeIfAbsent(kind, k -> new LongAdder()).increment();
+        }
+
+        double errorRate() {
+            long failed = errors.sum();
+            long calls = latency.count() + failed;
+            return calls == 0 ? 0.0 : (double) failed / calls;
+        }
+    }
+
+    /** One warm-up or measured run: stats per call, overall, and for the current report interval. */
+    static final class Phase {
+        final Map<Op, Stats> ops = new EnumMap<>(Op.class);
+        final Stats total = new Stats();
+        volatile Stats interval = new Stats();
+
+        Phase() {
+            for (Op op : Op.values()) {
+                ops.put(op, new Stats());
+            }
+        }
+
+        void ok(Op op, long micros) {
+            ops.get(op).latency.record(micros);
+            total.latency.record(micros);
+            interval.latency.record(micros);
+        }
+
+        void error(Op op, String kind) {
+            ops.get(op).error(kind);
+            total.error(kind);
+            interval.error(kind);
+        }
+    }
+
+    /** Heap and GC figures of this JVM at one moment. */
+    private record Jvm(long gcCount, long gcMillis, long heapUsed, long heapAfterGc, List<String> collectors) {
+        static Jvm now() {
+            long count = 0;
+            long millis = 0;
+            List<String> names = new ArrayList<>();
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                count += Math.max(0, gc.getCollectionCount());
+                millis += Math.max(0, gc.getCollectionTime());
+                names.add(gc.getName());
+            }
+            long afterGc = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (pool.getType() == MemoryType.HEAP && usage != null) {
+                    afterGc += usage.getUsed();
+                }
+            }
+            long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            return new Jvm(count, millis, used, afterGc, names);
+        }
+    }
+
+    /** Prints one line per interval while a measured run goes on. */
+    private static Thread reporter(Phase phase, int seconds, long startNanos) {
+        Thread thread = new Thread(() -> {
+            Jvm last = Jvm.now();
+            try {
+                while (true) {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+                    Stats stats = phase.interval;
+                    phase.interval = new Stats();
+                    Jvm now = Jvm.now();
+                    long[] p = stats.latency.percentiles(0.5, 0.99);
+                    System.out.printf("%6ds %9.0f calls/s   p50 %7.2f ms   p99 %7.2f ms   errors %6d   heap after GC %6.0f MB   GC %4d (%d ms)%n",
+                            TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startNanos),
+                            (double) stats.latency.count() / seconds, p[0] / 1e3, p[1] / 1e3, stats.errors.sum(),
+                            now.heapAfterGc() / 1e6, now.gcCount() - last.gcCount(), now.gcMillis() - last.gcMillis());
+                    last = now;
+                }
+            } catch (InterruptedException e) {
+                // run over
+            }
+        }, "load-reporter");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    // ─── REPORT ────────────────────────────────────────────────────────────────
+
+    private static void print(Phase phase, int seconds, String loop, Jvm before, Jvm after) {
+        System.out.printf("%nREST API, %s, %ds (latency in ms)%n", loop, seconds);
+        System.out.printf("%-8s %9s %9s %9s %9s %9s %9s %9s %8s%n",
+                "call", "count", "calls/s", "p50", "p90", "p99", "p99.9", "max", "errors");
+        Map<String, Stats> rows = new LinkedHashMap<>();
+        phase.ops.forEach((op, stats) -> rows.put(op.name().toLowerCase(), stats));
+        rows.put("total", phase.total);
+        for (Map.Entry<String, Stats> row : rows.entrySet()) {
+            Stats stats = row.getValue();
+            if (stats.latency.count() + stats.errors.sum() == 0) {
+                continue;
+            }
+            long[] p = stats.latency.percentiles(QUANTILES);
+            System.out.printf("%-8s %9d %9.0f %9.2f %9.2f %9.2f %9.2f %9.2f %7.2f%%%n", row.getKey(),
+                    stats.latency.count(), (double) stats.latency.count() / seconds,
+                    p[0] / 1e3, p[1] / 1e3, p[2] / 1e3, p[3] / 1e3, stats.latency.max() / 1e3,
+                    stats.errorRate() * 100);
+        }
+        phase.ops.forEach((op, stats) -> stats.errorKinds.forEach((kind, count) ->
+                System.out.printf("  %s: %s × %d%n", op.name().toLowerCase(), kind, count.sum())));
+
+        long gcMillis = after.gcMillis() - before.gcMillis();
+        System.out.printf("%nHeap: %.0f MB used at the end, %.0f MB after the last GC (%.0f MB before the run)%n",
+                after.heapUsed() / 1e6, after.heapAfterGc() / 1e6, before.heapAfterGc() / 1e6);
+        System.out.printf("GC: %d collections, %d ms in total (%.2f%% of the run) — %s%n",
+                after.gcCount() - before.gcCount(), gcMillis, gcMillis / (seconds * 10.0), String.join(", ", after.collectors()));
+    }
+
+    /** Throughput and p99 per call and in total, as JMH-style results (see BaselineComparison). */
+    static void save(Path file, Phase phase, int seconds, Map<String, String> params) throws IOException {
+        ArrayNode runs = MAPPER.createArrayNode();
+        Map<String, Stats> rows = new LinkedHashMap<>();
+        phase.ops.forEach((op, stats) -> rows.put(op.name().toLowerCase(), stats));
+        rows.put("total", phase.total);
+        rows.forEach((name, stats) -> {
+            if (stats.latency.count() == 0) {
+                return;
+            }
+            add(runs, "LoadTest." + name + ".throughput", "thrpt", (double) stats.latency.count() / seconds, "ops/s", params);
+            add(runs, "LoadTest." + name + ".p99", "avgt", stats.latency.percentiles(0.99)[0] / 1e3, "ms", params);
+        });
+        MAPPER.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), runs);
+    }
+
+    private static void add(ArrayNode runs, String benchmark, String mode, double score, String unit,
+                            Map<String, String> params) {
+        ObjectNode run = runs.addObject();
+        run.put("benchmark", benchmark);
+        run.put("mode", mode);
+        ObjectNode paramsNode = run.putObject("params");
+        params.forEach(paramsNode::put);
+        ObjectNode metric = run.putObject("primaryMetric");
+        metric.put("score", score);
+        metric.put("scoreUnit", unit);
+    }
+}
@@ -0,0 +1,52 @@
+package com.student.benchmarks;
+
+import com.student.model.User;
+import com.student.service.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService.login with the credential cache warm.
+ *
+ *  - success       : right password — one PBKDF2 check (student.auth.pbkdf2-iterations)
+ *  - wrongPassword : same cost as success; must not be cheaper, or it leaks which users exist
+ *  - unknownUser   : negative cache entry, plus a decoy PBKDF2 check so it costs the same
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private BenchmarkContext bench;
+    private UserService userService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(0);
+        userService = bench.bean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public User success() {
+        return userService.login("admin", "admin123");
+    }
+
+    @Benchmark
+    public User wrongPassword() {
+        return userService.login("admin", "not-the-password");
+    }
+
+    @Benchmark
+    public User unknownUser() {
+        return userService.login("nobody", "admin123");
+    }
+}
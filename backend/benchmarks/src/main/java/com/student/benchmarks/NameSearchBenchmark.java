@@ -0,0 +1,60 @@
+package com.student.benchmarks;
+
+import com.student.model.Student;
+import com.student.repository.StudentRepository;
+import com.student.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search at 10k / 100k / 1M students.
+ *
+ *  - repositoryContains : StudentRepository.searchByName, one page of the same size
+ *                         (the LIKE '%...%' query — full table scan)
+ *  - indexSearch        : StudentService.searchByName, served by the trigram index
+ *
+ * "ali" matches a broad slice of the generated names (Ali, Malik); "khan ali" is narrow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class NameSearchBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int students;
+
+    @Param({ "ali", "ali khan" })
+    public String query;
+
+    private BenchmarkContext bench;
+    private StudentRepository studentRepository;
+    private StudentService studentService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(students);
+        studentRepository = bench.bean(StudentRepository.class);
+        studentService = bench.bean(StudentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public List<Student> repositoryContains() {
+        return studentRepository.searchByName(query, PageRequest.of(0, StudentService.DEFAULT_PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<Student> indexSearch() {
+        return studentService.searchByName(query, StudentService.DEFAULT_PAGE_SIZE);
+    }
+}
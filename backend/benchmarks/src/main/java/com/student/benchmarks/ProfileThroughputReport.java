@@ -0,0 +1,218 @@
+package com.student.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.metrics.Histogram;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * ProfileThroughputReport — throughput and latency of the student endpoints
+ * over HTTP, with application.properties as is ("default") and with the prod
+ * profile (prepared-statement caching, sampled async SQL log, sized pool).
+ *
+ * Usage (from benchmarks/, after building the backend jar):
+ *     mvn compile exec:exec@throughput
+ *     mvn compile exec:exec@throughput -Dthroughput.seconds=60 -Dthroughput.clients=64
+ * or directly: ProfileThroughputReport [jar] [seconds] [clients] [port]
+ *
+ * Each profile gets a fresh backend JVM on the database from
+ * application.properties (MySQL with some students and the users from
+ * database/setup.sql). clients threads then send a fixed mix of requests —
+ * list page, one student, filtered list, name search, stats — for a warm-up
+ * and then for the measured seconds. The report has requests per second
+ * and p50 / p99 latency per endpoint, plus the average number of pooled
+ * connections in use (from GET /metrics), which is what the prod profile's
+ * maximum-pool-size is sized by.
+ */
+public class ProfileThroughputReport {
+
+    private static final int WARMUP_SECONDS = 10;
+    private static final Pattern POOL_USAGE =
+            Pattern.compile("student_db_pool_usage_seconds_sum\\{pool=\"primary\"} ([0-9.eE+-]+)");
+
+    private record Profile(String name, List<String> appArgs) {}
+
+    /** One kind of request: a name for the report and how to build a URL from sample data. */
+    private record Endpoint(String name, Function<Samples, String> path) {}
+
+    /** Ids, name prefixes and courses of existing students, to build requests from. */
+    private record Samples(List<Long> ids, List<String> namePrefixes, List<String> courses) {
+        <T> T any(List<T> values) {
+            return values.get(ThreadLocalRandom.current().nextInt(values.size()));
+        }
+    }
+
+    private static final List<Endpoint> MIX = List.of(
+            new Endpoint("GET /api/students", s -> "/api/students?limit=50&after=" + s.any(s.ids())),
+            new Endpoint("GET /api/students/{id}", s -> "/api/students/" + s.any(s.ids())),
+            new Endpoint("GET /api/students?course=&sort=name", s -> "/api/students?limit=50&sort=name&course="
+                    + URLEncoder.encode(s.any(s.courses()), StandardCharsets.UTF_8)),
+            new Endpoint("GET /api/students/search", s -> "/api/students/search?name="
+                    + URLEncoder.encode(s.any(s.namePrefixes()), StandardCharsets.UTF_8)),
+            new Endpoint("GET /api/students/stats", s -> "/api/students/stats"));
+
+    /** Results of one endpoint under one profile. */
+    private static final class Result {
+        final Histogram latency = new Histogram();
+        final LongAdder errors = new LongAdder();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args.length > 0 ? args[0] : "../target/student-management-1.0.0.jar").toAbsolutePath();
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        int clients = args.length > 2 ? Integer.parseInt(args[2]) : 32;
+        int port = args.length > 3 ? Integer.parseInt(args[3]) : 18080;
+        if (!Files.exists(jar)) {
+            System.err.println("No jar at " + jar + " — build the backend first");
+            System.exit(2);
+        }
+        Path logs = Path.of("target", "throughput");
+        Files.createDirectories(logs);
+
+        List<Profile> profiles = List.of(
+                new Profile("default", List.of()),
+                new Profile("prod", List.of("--spring.profiles.active=prod")));
+        Map<String, Map<String, Result>> results = new LinkedHashMap<>();
+        Map<String, Double> busyConnections = new LinkedHashMap<>();
+        for (Profile profile : profiles) {
+            Path log = logs.resolve(profile.name() + ".log");
+            try (BackendProcess backend = BackendProcess.start(jar, port, List.of(), profile.appArgs(), log)) {
+                BackendProcess.Login login = backend.awaitLogin();
+                if (login.token() == null) {
+                    throw new IllegalStateException("Login as admin failed (" + login.status() + ") — run database/setup.sql");
+                }
+                HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+                Samples samples = samples(client, backend.baseUrl(), login.token());
+
+                System.out.printf("%s: warming up for %ds, then %d clients for %ds%n",
+                        profile.name(), WARMUP_SECONDS, clients, seconds);
+                run(client, backend.baseUrl(), login.token(), samples, clients, WARMUP_SECONDS);
+                double usageBefore = poolUsageSeconds(client, backend.baseUrl());
+                results.put(profile.name(), run(client, backend.baseUrl(), login.token(), samples, clients, seconds));
+                busyConnections.put(profile.name(), (poolUsageSeconds(client, backend.baseUrl()) - usageBefore) / seconds);
+            }
+        }
+        print(results, busyConnections, seconds, clients);
+    }
+
+    // ─── LOAD ──────────────────────────────────────────────────────────────────
+
+    /** clients threads, each sending the mix round and round for the given time. */
+    private static Map<String, Result> run(HttpClient client, String baseUrl, String token, Samples samples,
+                                           int clients, int seconds) throws InterruptedException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        MIX.forEach(endpoint -> results.put(endpoint.name(), new Result()));
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < clients; c++) {
+            int offset = c;
+            Thread thread = new Thread(() -> {
+                for (int i = offset; System.nanoTime() < end; i++) {
+                    Endpoint endpoint = MIX.get(i % MIX.size());
+                    Result result = results.get(endpoint.name());
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + endpoint.path().apply(samples)))
+                            .header("Authorization", "Bearer " + token)
+                            .timeout(Duration.ofSeconds(30))
+                            .build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            result.errors.increment();
+                            continue;
+                        }
+                        result.latency.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+                    } catch (IOException e) {
+                        result.errors.increment();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "client-" + c);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return results;
+    }
+
+    /** The first page of students, for ids, name prefixes and courses to ask for. */
+    private static Samples samples(HttpClient client, String baseUrl, String token) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/students?limit=200"))
+                .header("Authorization", "Bearer " + token)
+                .build();
+        JsonNode items = new ObjectMapper().readTree(client.send(request, HttpResponse.BodyHandlers.ofString()).body())
+                .path("items");
+        List<Long> ids = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        List<String> courses = new ArrayList<>();
+        for (JsonNode student : items) {
+            ids.add(student.path("id").asLong());
+            String name = student.path("name").asText();
+            prefixes.add(name.substring(0, Math.min(3, name.length())));
+            courses.add(student.path("course").asText());
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No students in the database — add some first (e.g. POST /api/students/bulk)");
+        }
+        return new Samples(ids, prefixes, courses);
+    }
+
+    /** student_db_pool_usage_seconds_sum of the primary pool, from GET /metrics. */
+    private static double poolUsageSeconds(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/metrics")).build();
+        Matcher matcher = POOL_USAGE.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+    }
+
+    // ─── REPORT ────────────────────────────────────────────────────────────────
+
+    private static void print(Map<String, Map<String, Result>> results, Map<String, Double> busyConnections,
+                              int seconds, int clients) {
+        Map<String, Result> before = results.get("default");
+        Map<String, Result> after = results.get("prod");
+
+        System.out.printf("%nStudent endpoints, %d clients, %ds per profile (req/s, latency in ms)%n", clients, seconds);
+        System.out.printf("%-38s %10s %10s %8s %9s %9s %9s %9s%n", "endpoint",
+                "default", "prod", "change", "p50 def", "p50 prod", "p99 def", "p99 prod");
+        for (Endpoint endpoint : MIX) {
+            Result a = before.get(endpoint.name());
+            Result b = after.get(endpoint.name());
+            double rateA = (double) a.latency.count() / seconds;
+            double rateB = (double) b.latency.count() / seconds;
+            long[] pA = a.latency.percentiles(0.5, 0.99);
+            long[] pB = b.latency.percentiles(0.5, 0.99);
+            System.out.printf("%-38s %10.0f %10.0f %+7.1f%% %9.2f %9.2f %9.2f %9.2f%s%n", endpoint.name(),
+                    rateA, rateB, (rateB - rateA) / rateA * 100,
+                    pA[0] / 1e3, pB[0] / 1e3, pA[1] / 1e3, pB[1] / 1e3,
+                    a.errors.sum() + b.errors.sum() > 0
+                            ? "  (errors: " + a.errors.sum() + " / " + b.errors.sum() + ")" : "");
+        }
+        System.out.printf("%nConnections in use on average: default %.1f, prod %.1f%n",
+                busyConnections.get("default"), busyConnections.get("prod"));
+        System.out.println("(size the prod pool at about twice the figure seen at peak load)");
+    }
+}
@@ -0,0 +1,75 @@
+package com.student.benchmarks;
+
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ShardedStudentRepository on 1, 2 and 4 in-memory H2 shards, 100k students.
+ *
+ *  - findById   : routed to the one shard that has the student
+ *  - page       : keyset page of 50 from every shard, merged by id
+ *  - nameSearch : LIKE '%ali%' on every shard in parallel, first 50 by id
+ *  - count      : COUNT(*) on every shard, summed
+ *
+ * The fan-out queries should get faster with more shards (each scans a
+ * smaller table) while findById stays flat.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ShardFanOutBenchmark {
+
+    private static final int STUDENTS = 100_000;
+
+    @Param({ "1", "2", "4" })
+    public int shards;
+
+    private BenchmarkContext bench;
+    private ShardedStudentRepository repository;
+    private long maxId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(STUDENTS, shards);
+        repository = bench.bean(ShardedStudentRepository.class);
+        maxId = repository.nextId() - 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, maxId + 1);
+    }
+
+    @Benchmark
+    public Optional<Student> findById() {
+        return repository.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Student> page() {
+        return repository.findPageAfter(randomId(), 50);
+    }
+
+    @Benchmark
+    public List<Student> nameSearch() {
+        return repository.findByNameContaining("ali", 50);
+    }
+
+    @Benchmark
+    public long count() {
+        return repository.count();
+    }
+}
@@ -0,0 +1,147 @@
+package com.student.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.model.Student;
+import com.student.service.StudentService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Streaming all students to slow clients: 16 clients, a pool of 4
+ * connections, 20k students, each client taking 1 ms per 16 KB.
+ *
+ *  - cursor  : GET /api/students/stream — one database cursor per response,
+ *              the connection is held until the last byte is written
+ *  - chunked : GET /api/students/async/stream — 500-row keyset queries,
+ *              the connection is returned before each chunk is written
+ *
+ * Throughput is whole streams per second. Teardown prints the connection
+ * pool occupancy seen while the benchmark ran (sampled every millisecond):
+ * with cursor streams it sits at the pool size and clients queue for
+ * connections; with chunks it stays low although the clients are as slow.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Threads(16)
+public class SlowClientBenchmark {
+
+    private static final int STUDENTS = 20_000;
+    private static final int POOL_SIZE = 4;
+    private static final int CLIENT_BYTES_PER_MS = 16 * 1024;
+
+    private BenchmarkContext bench;
+    private StudentService studentService;
+    private ObjectMapper objectMapper;
+    private HikariPoolMXBean pool;
+
+    private Thread sampler;
+    private volatile boolean sampling;
+    private long samples;
+    private long activeTotal;
+    private int activeMax;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(STUDENTS, 0,
+                "spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                "spring.datasource.hikari.connection-timeout=600000");
+        studentService = bench.bean(StudentService.class);
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        pool = ((HikariDataSource) bench.bean(DataSource.class)).getHikariPoolMXBean();
+
+        sampling = true;
+        sampler = new Thread(() -> {
+            while (sampling) {
+                int active = pool.getActiveConnections();
+                samples++;
+                activeTotal += active;
+                activeMax = Math.max(activeMax, active);
+                LockSupport.parkNanos(1_000_000);
+            }
+        }, "pool-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        sampling = false;
+        sampler.join();
+        System.out.printf("%nConnections in use: average %.1f, max %d of %d%n",
+                (double) activeTotal / Math.max(1, samples), activeMax, POOL_SIZE);
+        bench.close();
+    }
+
+    @Benchmark
+    public long cursor() throws IOException {
+        SlowClient client = new SlowClient();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(client)) {
+            studentService.streamAllStudents(student -> write(generator, student));
+        }
+        return client.written;
+    }
+
+    @Benchmark
+    public long chunked() throws IOException {
+        SlowClient client = new SlowClient();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(client)) {
+            studentService.streamAllStudentsInChunks(500, chunk -> {
+                chunk.forEach(student -> write(generator, student));
+                flush(generator);
+            });
+        }
+        return client.written;
+    }
+
+    private static void write(JsonGenerator generator, Student student) {
+        try {
+            generator.writeObject(student);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(JsonGenerator generator) {
+        try {
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** A client on a slow network: every 16 KB written takes another millisecond. */
+    private static final class SlowClient extends OutputStream {
+        long written;
+        private long owed;
+
+        @Override
+        public void write(int b) {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            written += len;
+            owed += len;
+            while (owed >= CLIENT_BYTES_PER_MS) {
+                owed -= CLIENT_BYTES_PER_MS;
+                LockSupport.parkNanos(1_000_000);
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.student.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * StartupTimeHarness — time to first request of the backend, started the
+ * normal way and with each step of the production startup profile.
+ *
+ * Usage (from benchmarks/, after "mvn -Pproduction package" in backend/):
+ *     mvn compile exec:exec@startup                     # 5 starts per mode
+ *     mvn compile exec:exec@startup -Dstartup.runs=10
+ * or directly: StartupTimeHarness [jar] [runs] [port]
+ *
+ * Modes:
+ *  - default      : application.properties as is (ddl-auto=update)
+ *  - prod         : --spring.profiles.active=prod (Flyway, deferred JPA bootstrap)
+ *  - prod+aot     : plus -Dspring.aot.enabled=true (needs a jar built with -Pproduction)
+ *  - prod+aot+cds : plus -XX:SharedArchiveFile=application.jsa next to the jar
+ *
+ * Each start is a fresh JVM on the database from application.properties
+ * (MySQL, with the users from database/setup.sql). The clock runs from
+ * launching the process until POST /api/auth/login gets an answer — the
+ * first request that needs JPA. Spring's own "Started ... in" time is shown
+ * beside it. Process logs go to target/startup/.
+ */
+public class StartupTimeHarness {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in ([0-9.]+) seconds");
+
+    private record Mode(String name, List<String> jvmArgs, List<String> appArgs) {}
+
+    public static void main(String[] args) throws Exception {
+        Path jar = Path.of(args.length > 0 ? args[0] : "../target/student-management-1.0.0.jar").toAbsolutePath();
+        int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : 18080;
+        if (!Files.exists(jar)) {
+            System.err.println("No jar at " + jar + " — build the backend first (mvn -Pproduction package)");
+            System.exit(2);
+        }
+
+        List<Mode> modes = modes(jar);
+        Path logs = Path.of("target", "startup");
+        Files.createDirectories(logs);
+
+        System.out.printf("%nTime to first request, %d starts each (%s)%n", runs, jar.getFileName());
+        System.out.printf("%-14s %12s %12s %12s %14s%n", "mode", "min ms", "median ms", "max ms", "Started in s");
+        for (Mode mode : modes) {
+            long[] millis = new long[runs];
+            double[] started = new double[runs];
+            for (int i = 0; i < runs; i++) {
+                Path log = logs.resolve(mode.name().replace('+', '-') + "-" + (i + 1) + ".log");
+                millis[i] = timeToFirstRequest(jar, mode, port, log);
+                started[i] = startedSeconds(log);
+            }
+            Arrays.sort(millis);
+            Arrays.sort(started);
+            System.out.printf("%-14s %12d %12d %12d %14.2f%n", mode.name(),
+                    millis[0], millis[runs / 2], millis[runs - 1], started[runs / 2]);
+        }
+    }
+
+    private static List<Mode> modes(Path jar) throws IOException {
+        List<Mode> modes = new ArrayList<>();
+        List<String> prod = List.of("--spring.profiles.active=prod");
+        modes.add(new Mode("default", List.of(), List.of()));
+        modes.add(new Mode("prod", List.of(), prod));
+
+        boolean aot;
+        try (JarFile file = new JarFile(jar.toFile())) {
+            aot = file.getEntry("com/student/StudentManagementApplication__ApplicationContextInitializer.class") != null;
+        }
+        if (!aot) {
+            System.out.println("(no AOT classes in the jar — build with -Pproduction for the aot modes)");
+            return modes;
+        }
+        modes.add(new Mode("prod+aot", List.of("-Dspring.aot.enabled=true"), prod));
+
+        Path archive = jar.resolveSibling("application.jsa");
+        if (Files.exists(archive)) {
+            modes.add(new Mode("prod+aot+cds",
+                    List.of("-XX:SharedArchiveFile=" + archive, "-Dspring.aot.enabled=true"), prod));
+        } else {
+            System.out.println("(no " + archive.getFileName() + " next to the jar — skipping the cds mode)");
+        }
+        return modes;
+    }
+
+    /** Start the jar, wait for the first answer from the login endpoint, stop it. */
+    private static long timeToFirstRequest(Path jar, Mode mode, int port, Path log) throws Exception {
+        try (BackendProcess backend = BackendProcess.start(jar, port, mode.jvmArgs(), mode.appArgs(), log)) {
+            return backend.awaitLogin().millis();
+        }
+    }
+
+    private static double startedSeconds(Path log) throws IOException {
+        Matcher matcher = STARTED.matcher(Files.readString(log));
+        return matcher.find() ? Double.parseDouble(matcher.group(1)) : Double.NaN;
+    }
+}
@@ -0,0 +1,114 @@
+package com.student.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.cache.StudentJsonCache;
+import com.student.config.JsonConfig;
+import com.student.model.Student;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of List<Student> at 10k / 100k / 1M students.
+ * No database — only the JSON writing the controllers do.
+ *
+ *  - jsonArray : the whole list as one JSON array, as a byte[] (old getAllStudents)
+ *  - ndjson    : one object per line through a streaming generator (GET /api/students/stream)
+ *
+ * Output goes to a discarding stream so only serialization is measured.
+ * With jsonCache=true the mapper has the StudentJsonCache module, warmed by
+ * the warm-up iterations — every student is then a copy of cached bytes
+ * (run with -prof gc to see the allocation difference too).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentSerializationBenchmark {
+
+    @Param({ "10000", "100000", "1000000" })
+    public int students;
+
+    @Param({ "false", "true" })
+    public boolean jsonCache;
+
+    private List<Student> list;
+    private ObjectMapper objectMapper;
+    private AnnotationConfigApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Only the JSON cache and its Jackson module, configured like the backend
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "student.json-cache.enabled", jsonCache,
+                "student.json-cache.max-size", students)));
+        context.register(StudentJsonCache.class, JsonConfig.class);
+        context.refresh();
+
+        // Same defaults as the ObjectMapper Spring Boot builds for the controllers
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(context.getBean(Module.class))
+                .build();
+        list = new ArrayList<>(students);
+        Instant now = Instant.now();
+        for (long i = 0; i < students; i++) {
+            Object[] row = BenchmarkContext.studentRow(i);
+            Student student = new Student((String) row[0], (String) row[1], (String) row[2], (String) row[3]);
+            student.setId(i + 1);
+            student.setChangeSeq(i + 1);
+            student.setUpdatedAt(now);
+            list.add(student);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] jsonArray() throws IOException {
+        return objectMapper.writeValueAsBytes(list);
+    }
+
+    @Benchmark
+    public long ndjson() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            for (Student student : list) {
+                generator.writeObject(student);
+                generator.writeRaw('\n');
+            }
+        }
+        return out.count;
+    }
+
+    /** Throws the bytes away, only counts them. */
+    static final class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.student.benchmarks;
+
+import com.student.cache.StudentCache;
+import com.student.dto.StudentPage;
+import com.student.model.Student;
+import com.student.service.StudentService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * StudentService CRUD against 10k students.
+ *
+ *  - getByIdCached   : read-through cache hit
+ *  - getByIdUncached : cache entry dropped first, so the row comes from the database
+ *  - page            : one keyset page of 50 from a random position
+ *  - update          : change a student's course (DB write + cache/index/stats listeners)
+ *  - addThenDelete   : insert a new student and delete it again
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    private static final int STUDENTS = 10_000;
+
+    private BenchmarkContext bench;
+    private StudentService studentService;
+    private StudentCache studentCache;
+    private final AtomicLong nextEmail = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(STUDENTS);
+        studentService = bench.bean(StudentService.class);
+        studentCache = bench.bean(StudentCache.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    private static long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, STUDENTS + 1);
+    }
+
+    @Benchmark
+    public Optional<Student> getByIdCached() {
+        return studentService.getStudentById(randomId());
+    }
+
+    @Benchmark
+    public Optional<Student> getByIdUncached() {
+        long id = randomId();
+        studentCache.invalidate(id);
+        return studentService.getStudentById(id);
+    }
+
+    @Benchmark
+    public StudentPage page() {
+        return studentService.getStudentsPage(randomId(), StudentService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Student update() {
+        long id = randomId();
+        Object[] row = BenchmarkContext.studentRow(id - 1);
+        String course = BenchmarkContext.COURSES[ThreadLocalRandom.current().nextInt(BenchmarkContext.COURSES.length)];
+        return studentService.updateStudent(id, new Student((String) row[0], (String) row[1], course, (String) row[3]));
+    }
+
+    @Benchmark
+    public boolean addThenDelete() {
+        Student added = studentService.addStudent(new Student("Bench Student",
+                "bench" + nextEmail.incrementAndGet() + "@example.edu", "MCA", "Computer Science"));
+        return studentService.deleteStudent(added.getId());
+    }
+}
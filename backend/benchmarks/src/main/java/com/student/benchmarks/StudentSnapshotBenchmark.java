@@ -0,0 +1,120 @@
+package com.student.benchmarks;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.dto.StudentPage;
+import com.student.model.Student;
+import com.student.service.StudentSnapshot;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentSnapshot (columns) against a List<Student> of entities, 100k / 1M
+ * students. No database.
+ *
+ *  - pageEntities / pageSnapshot     : one GET /api/students page of 50 as JSON
+ *  - ndjsonEntities / ndjsonSnapshot : every student as NDJSON (GET /api/students/stream)
+ *
+ * Setup also prints the retained heap of both per million students, e.g.
+ * "Heap per 1M students: entities 287 MB, snapshot 68 MB (+0 MB off-heap)".
+ * Entities get their own String copies, as Hibernate would load them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class StudentSnapshotBenchmark {
+
+    private static final int PAGE = 50;
+
+    @Param({ "100000", "1000000" })
+    public int students;
+
+    private List<Student> entities;
+    private StudentSnapshot snapshot;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        Instant now = Instant.now();
+
+        long before = usedHeap();
+        entities = new ArrayList<>(students);
+        for (long i = 0; i < students; i++) {
+            Object[] row = BenchmarkContext.studentRow(i);
+            Student student = new Student(new String((String) row[0]), new String((String) row[1]),
+                    new String((String) row[2]), new String((String) row[3]));
+            student.setId(i + 1);
+            student.setChangeSeq(i + 1);
+            student.setUpdatedAt(now);
+            entities.add(student);
+        }
+        long entityBytes = usedHeap() - before;
+
+        before = usedHeap();
+        snapshot = new StudentSnapshot();
+        snapshot.load(entities, students);
+        long snapshotBytes = usedHeap() - before;
+
+        double perMillion = 1_000_000.0 / students / (1024 * 1024);
+        System.out.printf("%nHeap per 1M students: entities %.0f MB, snapshot %.0f MB (+%.0f MB off-heap)%n",
+                entityBytes * perMillion, snapshotBytes * perMillion, snapshot.offHeapBytes() * perMillion);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private long randomAfter() {
+        return ThreadLocalRandom.current().nextLong(0, students - PAGE);
+    }
+
+    @Benchmark
+    public byte[] pageEntities() throws IOException {
+        int from = (int) randomAfter();
+        List<Student> rows = entities.subList(from, from + PAGE);
+        return objectMapper.writeValueAsBytes(new StudentPage(rows, PAGE, String.valueOf(from + PAGE), true, students));
+    }
+
+    @Benchmark
+    public byte[] pageSnapshot() throws IOException {
+        return objectMapper.writeValueAsBytes(snapshot.page(randomAfter(), PAGE));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long ndjsonEntities() throws IOException {
+        StudentSerializationBenchmark.CountingOutputStream out = new StudentSerializationBenchmark.CountingOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            for (Student student : entities) {
+                generator.writeObject(student);
+                generator.writeRaw('\n');
+            }
+        }
+        return out.count;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public long ndjsonSnapshot() throws IOException {
+        StudentSerializationBenchmark.CountingOutputStream out = new StudentSerializationBenchmark.CountingOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            snapshot.writeAll(generator);
+        }
+        return out.count;
+    }
+}
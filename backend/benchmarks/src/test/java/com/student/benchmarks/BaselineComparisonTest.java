@@ -0,0 +1,55 @@
+package com.student.benchmarks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaselineComparisonTest {
+
+    @TempDir
+    Path dir;
+
+    /** A one-benchmark JMH result file. */
+    private Path result(String name, String mode, double score, String params) throws IOException {
+        Path file = dir.resolve(name);
+        Files.writeString(file, """
+                [ {
+                  "benchmark" : "com.student.benchmarks.NameSearchBenchmark.indexSearch",
+                  "mode" : "%s",
+                  "params" : { %s },
+                  "primaryMetric" : { "score" : %s, "scoreUnit" : "us/op" }
+                } ]
+                """.formatted(mode, params, score));
+        return file;
+    }
+
+    @Test
+    void aSlowerTimeBeyondTheToleranceIsARegression() throws IOException {
+        Path baseline = result("baseline.json", "avgt", 100, "\"students\" : \"10000\"");
+
+        assertThat(BaselineComparison.compare(baseline, result("a.json", "avgt", 109, "\"students\" : \"10000\""), 0.10)).isFalse();
+        assertThat(BaselineComparison.compare(baseline, result("b.json", "avgt", 111, "\"students\" : \"10000\""), 0.10)).isTrue();
+        assertThat(BaselineComparison.compare(baseline, result("c.json", "avgt", 50, "\"students\" : \"10000\""), 0.10)).isFalse();
+    }
+
+    @Test
+    void forThroughputLowerIsWorse() throws IOException {
+        Path baseline = result("baseline.json", "thrpt", 100, "");
+
+        assertThat(BaselineComparison.compare(baseline, result("a.json", "thrpt", 150, ""), 0.10)).isFalse();
+        assertThat(BaselineComparison.compare(baseline, result("b.json", "thrpt", 80, ""), 0.10)).isTrue();
+    }
+
+    @Test
+    void benchmarksWithDifferentParamsAreNotCompared() throws IOException {
+        Path baseline = result("baseline.json", "avgt", 100, "\"students\" : \"10000\"");
+        Path current = result("current.json", "avgt", 1000, "\"students\" : \"1000000\"");
+
+        assertThat(BaselineComparison.compare(baseline, current, 0.10)).isFalse();
+    }
+}
@@ -0,0 +1,77 @@
+package com.student.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoadTestTest {
+
+    @TempDir
+    Path dir;
+
+    /** A measured run of 10 s: 100 gets and 50 adds at the given latency, plus errors. */
+    private static LoadTest.Phase phase(long micros, int errors) {
+        LoadTest.Phase phase = new LoadTest.Phase();
+        for (int i = 0; i < 100; i++) {
+            phase.ok(LoadTest.Op.GET, micros);
+        }
+        for (int i = 0; i < 50; i++) {
+            phase.ok(LoadTest.Op.ADD, micros);
+        }
+        for (int i = 0; i < errors; i++) {
+            phase.error(LoadTest.Op.ADD, "HTTP 409");
+        }
+        return phase;
+    }
+
+    private Path save(String name, LoadTest.Phase phase) throws IOException {
+        Path file = dir.resolve(name);
+        LoadTest.save(file, phase, 10, Map.of("mode", "closed", "clients", "8"));
+        return file;
+    }
+
+    @Test
+    void theMixIsParsedByName() {
+        assertThat(LoadTest.mix(" list=3, GET=2 ,delete=0"))
+                .containsExactly(Map.entry(LoadTest.Op.LIST, 3), Map.entry(LoadTest.Op.GET, 2), Map.entry(LoadTest.Op.DELETE, 0));
+        assertThatThrownBy(() -> LoadTest.mix("list=0")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LoadTest.mix("browse=1")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void resultsAreJmhRowsPerCallWithCallsThatNeverRanLeftOut() throws IOException {
+        JsonNode rows = new ObjectMapper().readTree(save("run.json", phase(2_000, 0)).toFile());
+
+        assertThat(rows.findValuesAsText("benchmark")).containsExactly(
+                "LoadTest.get.throughput", "LoadTest.get.p99", "LoadTest.add.throughput", "LoadTest.add.p99",
+                "LoadTest.total.throughput", "LoadTest.total.p99");
+        assertThat(rows.get(4).at("/primaryMetric/score").asDouble()).isEqualTo(15.0);
+        assertThat(rows.get(5).at("/primaryMetric/score").asDouble()).isBetween(1.9, 2.1); // ms
+        assertThat(rows.get(0).at("/params/clients").asText()).isEqualTo("8");
+    }
+
+    @Test
+    void aSlowerRunFailsAgainstTheBaseline() throws IOException {
+        Path baseline = save("load-baseline.json", phase(2_000, 0));
+
+        assertThat(BaselineComparison.compare(baseline, save("same.json", phase(2_000, 0)), 0.20)).isFalse();
+        assertThat(BaselineComparison.compare(baseline, save("slower.json", phase(4_000, 0)), 0.20)).isTrue();
+    }
+
+    @Test
+    void errorsCountTowardsTheErrorRateButNotTheLatency() {
+        LoadTest.Phase phase = phase(2_000, 50);
+
+        assertThat(phase.total.errorRate()).isEqualTo(0.25);
+        assertThat(phase.ops.get(LoadTest.Op.ADD).errorKinds.get("HTTP 409").sum()).isEqualTo(50);
+        assertThat(phase.total.latency.count()).isEqualTo(150);
+    }
+}
@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# ===================================
+# Platform vs virtual threads — /api/students load test
+# ===================================
+# Starts the backend twice (default Tomcat thread pool, then the
+# virtual-threads profile), hits the same read endpoints with the same load,
+# and prints requests/sec and latency side by side.
+#
+# Needs: Java 21+, a running MySQL with student_db, and `hey`
+#        (https://github.com/rakyll/hey — `go install github.com/rakyll/hey@latest`).
+#
+# Usage (from backend/):
+#   ./loadtest/compare-threads.sh [concurrency] [requests-per-endpoint]
+#
+# The defaults (500 concurrent clients) are well above Tomcat's 200 threads,
+# which is where the two modes start to differ.
+
+set -euo pipefail
+
+CONCURRENCY=${1:-500}
+REQUESTS=${2:-20000}
+PORT=8080
+BASE="http://localhost:${PORT}/api/students"
+OUT=loadtest/results
+JAR=target/student-management-1.0.0-exec.jar
+
+ENDPOINTS=(
+    "${BASE}?limit=50"
+    "${BASE}/1"
+    "${BASE}/search?name=ali"
+    "${BASE}/count"
+)
+
+command -v hey >/dev/null || { echo "hey is not installed"; exit 1; }
+
+mkdir -p "$OUT"
+mvn -B -q -DskipTests package
+
+run_mode() {
+    local mode=$1 profile=$2
+    echo "▶ Starting backend ($mode threads)"
+    java -jar "$JAR" --spring.profiles.active="$profile" --spring.jpa.show-sql=false \
+        > "$OUT/$mode-server.log" 2>&1 &
+    local pid=$!
+
+    until curl -sf "${BASE}/count" >/dev/null; do
+        kill -0 "$pid" 2>/dev/null || { echo "backend exited, see $OUT/$mode-server.log"; exit 1; }
+        sleep 1
+    done
+
+    for url in "${ENDPOINTS[@]}"; do
+        hey -n 2000 -c 50 "$url" >/dev/null # warm up the JIT, caches and pool
+        echo "  $url"
+        hey -n "$REQUESTS" -c "$CONCURRENCY" "$url" > "$OUT/$mode-$(echo "$url" | md5sum | cut -c1-8).txt"
+    done
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+}
+
+summary() {
+    local file=$1
+    local rps p50 p99
+    rps=$(awk '/Requests\/sec/ {print $2}' "$file")
+    p50=$(awk '/50% in/ {print $3}' "$file")
+    p99=$(awk '/99% in/ {print $3}' "$file")
+    printf "%10s %10s %10s" "$rps" "$p50" "$p99"
+}
+
+run_mode platform default
+run_mode virtual virtual-threads
+
+echo
+printf "%-45s | %-32s | %-32s\n" "endpoint" "platform  req/s  p50(s)  p99(s)" "virtual   req/s  p50(s)  p99(s)"
+for url in "${ENDPOINTS[@]}"; do
+    key=$(echo "$url" | md5sum | cut -c1-8)
+    printf "%-45s | %s | %s\n" "${url#http://localhost:${PORT}}" \
+        "$(summary "$OUT/platform-$key.txt")" "$(summary "$OUT/virtual-$key.txt")"
+done
+echo
+echo "Pinning warnings (virtual run):"
+grep -c "Virtual thread pinned" "$OUT/virtual-server.log" || true
@@ -2,6 +2,7 @@ package com.student;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the Student Management System Spring Boot Application.
@@ -10,8 +11,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *   - @Configuration (bean definitions)
  *   - @EnableAutoConfiguration (auto-configures Spring)
  *   - @ComponentScan (scans for components in this package)
+ * 
+ * @EnableScheduling runs the periodic jobs (e.g. stats reconciliation).
  */
 @SpringBootApplication
+@EnableScheduling
 public class StudentManagementApplication {
 
     public static void main(String[] args) {
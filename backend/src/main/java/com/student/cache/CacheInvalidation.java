@@ -0,0 +1,9 @@
+package com.student.cache;
+
+/**
+ * CacheInvalidation — message sent between backend nodes when a student changes.
+ *
+ * @param originNode id of the node that made the change (it ignores its own messages)
+ * @param studentId  the student whose cached copy is now stale
+ */
+public record CacheInvalidation(String originNode, Long studentId) {}
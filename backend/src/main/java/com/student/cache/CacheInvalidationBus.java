@@ -0,0 +1,23 @@
+package com.student.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * CacheInvalidationBus — how StudentCache tells other backend nodes to drop
+ * a stale entry.
+ *
+ * The default implementation (LocalCacheInvalidationBus) only reaches caches
+ * inside the same JVM. To run several nodes for real, provide another
+ * implementation (Redis pub/sub, Kafka, ...) as a @Primary bean.
+ */
+public interface CacheInvalidationBus {
+
+    /** Send an invalidation to every subscribed node. */
+    void publish(CacheInvalidation message);
+
+    /** Register a handler that is called for every published invalidation. */
+    void subscribe(Consumer<CacheInvalidation> handler);
+
+    /** Remove a handler registered with subscribe (e.g. on shutdown). */
+    void unsubscribe(Consumer<CacheInvalidation> handler);
+}
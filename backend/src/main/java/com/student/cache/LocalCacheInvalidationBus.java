@@ -0,0 +1,47 @@
+package com.student.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * LocalCacheInvalidationBus — in-process stand-in for a real message bus.
+ *
+ * The subscriber list is static, so several application contexts started in
+ * the same JVM (e.g. a test or benchmark simulating several nodes) all see
+ * each other's invalidations, just like separate servers on a shared bus.
+ * Delivery is synchronous: when publish() returns, every node has dropped
+ * its copy.
+ */
+@Component
+public class LocalCacheInvalidationBus implements CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalCacheInvalidationBus.class);
+
+    private static final List<Consumer<CacheInvalidation>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation message) {
+        for (Consumer<CacheInvalidation> subscriber : SUBSCRIBERS) {
+            try {
+                subscriber.accept(message);
+            } catch (RuntimeException e) {
+                log.warn("Cache invalidation subscriber failed for {}", message, e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> handler) {
+        SUBSCRIBERS.add(handler);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<CacheInvalidation> handler) {
+        SUBSCRIBERS.remove(handler);
+    }
+}
@@ -0,0 +1,317 @@
+package com.student.cache;
+
+import com.student.model.Student;
+import com.student.service.StudentChangeListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * StudentCache — bounded read-through cache in front of StudentRepository.findById.
+ *
+ * Eviction is a segmented LRU (SLRU): a new entry starts in a small
+ * "probation" area and is only promoted to the larger "protected" area when it
+ * is read again. One-off lookups therefore can't push out the hot records
+ * that most traffic asks for. Entries also expire after a TTL.
+ *
+ * The cache is split into lock-striped stripes by id so concurrent requests
+ * rarely wait on each other.
+ *
+ * Consistency:
+ *  - Writes in StudentService arrive as StudentChangeListener calls:
+ *    saves are written through, deletes remove the entry.
+ *  - Every local change is also published on the CacheInvalidationBus so
+ *    other nodes drop their copy.
+ *  - A read-through load only fills the cache if nothing changed that id's
+ *    stripe while the database was being read (see stamp()).
+ */
+@Component
+public class StudentCache implements StudentChangeListener {
+
+    private static final int STRIPES = 16;
+    private static final double PROTECTED_SHARE = 0.8;
+
+    @Value("${student.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${student.cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${student.cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${student.cache.node-id:}")
+    private String nodeId;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    private Stripe[] stripes;
+    private long ttlNanos;
+    private final Consumer<CacheInvalidation> remoteHandler = this::onRemoteInvalidation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder remoteInvalidations = new LongAdder();
+
+    @PostConstruct
+    void init() {
+        int perStripe = Math.max(1, (maxSize + STRIPES - 1) / STRIPES);
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(perStripe);
+        }
+        ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        if (nodeId == null || nodeId.isBlank()) {
+            nodeId = UUID.randomUUID().toString();
+        }
+        invalidationBus.subscribe(remoteHandler);
+    }
+
+    @PreDestroy
+    void close() {
+        invalidationBus.unsubscribe(remoteHandler);
+    }
+
+    /** This node's id on the invalidation bus — messages carrying it are our own. */
+    public String nodeId() {
+        return nodeId;
+    }
+
+    // ─── READ ──────────────────────────────────────────────────────────────────
+
+    /**
+     * Look up a cached student. The returned object is shared — don't modify it.
+     *
+     * @param id the student ID
+     * @return the cached student, or null on a miss
+     */
+    public Student get(Long id) {
+        if (!enabled) {
+            return null;
+        }
+        Student student = stripeFor(id).get(id);
+        if (student == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return student;
+    }
+
+    /**
+     * Take a stamp before loading id from the database; pass it to
+     * putIfUnchanged afterwards. If a write or invalidation touched the same
+     * stripe in between, the (possibly stale) loaded value is not cached.
+     */
+    public long stamp(Long id) {
+        return enabled ? stripeFor(id).generation : 0L;
+    }
+
+    /** Cache a student loaded from the database, unless it may already be stale. */
+    public void putIfUnchanged(Student student, long stamp) {
+        if (enabled) {
+            stripeFor(student.getId()).put(new Student(student), stamp);
+        }
+    }
+
+    // ─── WRITE / INVALIDATE ────────────────────────────────────────────────────
+
+    public void invalidate(Long id) {
+        if (enabled) {
+            stripeFor(id).remove(id);
+        }
+    }
+
+    @Override
+    public void onStudentSaved(Student before, Student after) {
+        if (enabled) {
+            stripeFor(after.getId()).put(new Student(after), -1L);
+        }
+        invalidationBus.publish(new CacheInvalidation(nodeId, after.getId()));
+    }
+
+    @Override
+    public void onStudentDeleted(Student removed) {
+        invalidate(removed.getId());
+        invalidationBus.publish(new CacheInvalidation(nodeId, removed.getId()));
+    }
+
+    private void onRemoteInvalidation(CacheInvalidation message) {
+        if (!nodeId.equals(message.originNode())) {
+            remoteInvalidations.increment();
+            invalidate(message.studentId());
+        }
+    }
+
+    // ─── STATS ─────────────────────────────────────────────────────────────────
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("nodeId", nodeId);
+        stats.put("size", size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("remoteInvalidations", remoteInvalidations.sum());
+        return stats;
+    }
+
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long hitCount() { return hits.sum(); }
+    public long missCount() { return misses.sum(); }
+    public long evictionCount() { return evictions.sum(); }
+
+    private Stripe stripeFor(Long id) {
+        long h = id * 0x9E3779B97F4A7C15L; // spread sequential ids over all stripes
+        return stripes[(int) (h >>> 60) & (STRIPES - 1)];
+    }
+
+    // ─── ONE STRIPE (SLRU) ─────────────────────────────────────────────────────
+
+    private record Node(Student student, long expiresAt) {}
+
+    private static long seqOf(Student student) {
+        return student.getChangeSeq() == null ? -1L : student.getChangeSeq();
+    }
+
+    private final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+
+        // accessOrder = true: iteration starts at the least recently used entry
+        final LinkedHashMap<Long, Node> probation = new LinkedHashMap<>(16, 0.75f, true);
+        final LinkedHashMap<Long, Node> protectedArea = new LinkedHashMap<>(16, 0.75f, true);
+        final int capacity;
+        final int protectedCapacity;
+
+        // Bumped by every change to this stripe; guarded by lock, read without it
+        volatile long generation;
+
+        Stripe(int capacity) {
+            this.capacity = capacity;
+            this.protectedCapacity = Math.max(1, (int) (capacity * PROTECTED_SHARE));
+        }
+
+        Student get(Long id) {
+            lock.lock();
+            try {
+                long now = System.nanoTime();
+                Node node = protectedArea.get(id);
+                if (node != null) {
+                    if (node.expiresAt - now < 0) {
+                        protectedArea.remove(id);
+                        expirations.increment();
+                        return null;
+                    }
+                    return node.student;
+                }
+                node = probation.remove(id);
+                if (node == null) {
+                    return null;
+                }
+                if (node.expiresAt - now < 0) {
+                    expirations.increment();
+                    return null;
+                }
+                // Second hit: promote, demoting the coldest protected entry if full
+                protectedArea.put(id, node);
+                if (protectedArea.size() > protectedCapacity) {
+                    Map.Entry<Long, Node> coldest = eldest(protectedArea);
+                    protectedArea.remove(coldest.getKey());
+                    probation.put(coldest.getKey(), coldest.getValue());
+                }
+                return node.student;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @param stamp the generation seen before loading, or -1 to write
+         *              unless the entry held is newer (by changeSeq)
+         */
+        void put(Student student, long stamp) {
+            lock.lock();
+            try {
+                if (stamp >= 0 && stamp != generation) {
+                    return; // something changed meanwhile — don't cache a maybe-stale load
+                }
+                Long id = student.getId();
+                if (stamp < 0) {
+                    generation++;
+                    Node held = protectedArea.containsKey(id) ? protectedArea.get(id) : probation.get(id);
+                    if (held != null && seqOf(held.student) > seqOf(student)) {
+                        return; // an older write whose callback came late
+                    }
+                }
+                Node node = new Node(student, System.nanoTime() + ttlNanos);
+                if (protectedArea.containsKey(id)) {
+                    protectedArea.put(id, node);
+                } else {
+                    probation.put(id, node);
+                }
+                while (probation.size() + protectedArea.size() > capacity) {
+                    LinkedHashMap<Long, Node> victims = probation.isEmpty() ? protectedArea : probation;
+                    victims.remove(eldest(victims).getKey());
+                    evictions.increment();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.lock();
+            try {
+                generation++;
+                if (protectedArea.remove(id) == null) {
+                    probation.remove(id);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int size() {
+            lock.lock();
+            try {
+                return probation.size() + protectedArea.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private Map.Entry<Long, Node> eldest(LinkedHashMap<Long, Node> map) {
+            Iterator<Map.Entry<Long, Node>> it = map.entrySet().iterator();
+            return it.next();
+        }
+    }
+}
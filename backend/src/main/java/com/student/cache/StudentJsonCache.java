@@ -0,0 +1,250 @@
+package com.student.cache;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.student.model.Student;
+import com.student.service.StudentChangeListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StudentJsonCache — each student's JSON, encoded once and kept as UTF-8
+ * bytes, so writing a list of students is mostly copying byte arrays into
+ * the response buffer (opt-in: student.json-cache.enabled).
+ *
+ * Every Student Jackson writes goes through here (see JsonConfig): page,
+ * filtered list, search, single student. An entry belongs to one version of
+ * the row — id and change number — and is only used for exactly that
+ * version, so a stale entry can never be served, whichever node changed the
+ * row. Writes on this node (StudentChangeListener) drop the entry at once to
+ * free the memory; entries of rows changed elsewhere are replaced the next
+ * time the new version is written.
+ *
+ * Bounded by student.json-cache.max-size entries: once full, new rows are
+ * encoded as usual and not kept, until writes make room.
+ */
+@Component
+public class StudentJsonCache implements StudentChangeListener {
+
+    private static final JsonFactory FALLBACK_FACTORY = new JsonFactory();
+
+    @Value("${student.json-cache.enabled:false}")
+    private boolean enabled;
+
+    @Value("${student.json-cache.max-size:200000}")
+    private int maxSize;
+
+    private final ConcurrentHashMap<Long, Encoded> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ─── WRITE JSON ────────────────────────────────────────────────────────────
+
+    /**
+     * Write a student as JSON: the cached bytes if they are for this version
+     * of the row, else base's output, which is then cached.
+     *
+     * @param base Jackson's own serializer for Student
+     */
+    public void write(Student student, JsonGenerator gen, SerializerProvider provider,
+                      JsonSerializer<Object> base) throws IOException {
+        Long id = student.getId();
+        Long version = student.getChangeSeq();
+        if (!enabled || id == null || version == null) {
+            base.serialize(student, gen, provider);
+            return;
+        }
+
+        Encoded encoded = entries.get(id);
+        if (encoded != null && encoded.version == version) {
+            hits.increment();
+        } else {
+            misses.increment();
+            encoded = new Encoded(version, encode(student, gen, provider, base));
+            store(id, encoded);
+        }
+        gen.writeRawValue(encoded);
+    }
+
+    /** student's JSON as base writes it, with the same generator settings as gen. */
+    private static byte[] encode(Student student, JsonGenerator gen, SerializerProvider provider,
+                                 JsonSerializer<Object> base) throws IOException {
+        JsonFactory factory = gen.getCodec() != null ? gen.getCodec().getFactory() : FALLBACK_FACTORY;
+        try (ByteArrayBuilder buffer = new ByteArrayBuilder(256)) {
+            try (JsonGenerator out = factory.createGenerator(buffer)) {
+                base.serialize(student, out, provider);
+            }
+            return buffer.toByteArray();
+        }
+    }
+
+    private void store(Long id, Encoded encoded) {
+        Encoded previous = entries.get(id);
+        if (previous == null && entries.size() >= maxSize) {
+            return;
+        }
+        // Never replace a newer version written meanwhile by another request
+        Encoded stored = entries.merge(id, encoded, (old, fresh) -> fresh.version >= old.version ? fresh : old);
+        if (stored == encoded) {
+            bytes.add(encoded.json.length - (previous != null ? previous.json.length : 0));
+        }
+    }
+
+    // ─── INVALIDATE ────────────────────────────────────────────────────────────
+
+    @Override
+    public void onStudentSaved(Student before, Student after) {
+        remove(after.getId());
+    }
+
+    @Override
+    public void onStudentDeleted(Student removed) {
+        remove(removed.getId());
+    }
+
+    private void remove(Long id) {
+        Encoded removed = entries.remove(id);
+        if (removed != null) {
+            bytes.add(-removed.json.length);
+        }
+    }
+
+    // ─── STATS ─────────────────────────────────────────────────────────────────
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("bytes", bytes.sum());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+
+    // ─── ONE ENCODED ROW ───────────────────────────────────────────────────────
+
+    /**
+     * A row's JSON as UTF-8 bytes, handed to JsonGenerator.writeRawValue.
+     * The byte generator (all HTTP responses) copies the bytes straight into
+     * its buffer; a character-based generator gets them decoded. The
+     * "quoted" forms are for JSON strings and never asked of a raw value.
+     */
+    private static final class Encoded implements SerializableString {
+        final long version;
+        final byte[] json;
+
+        Encoded(long version, byte[] json) {
+            this.version = version;
+            this.json = json;
+        }
+
+        @Override
+        public int appendUnquotedUTF8(byte[] buffer, int offset) {
+            if (offset + json.length > buffer.length) {
+                return -1;
+            }
+            System.arraycopy(json, 0, buffer, offset, json.length);
+            return json.length;
+        }
+
+        @Override
+        public byte[] asUnquotedUTF8() {
+            return json;
+        }
+
+        @Override
+        public int writeUnquotedUTF8(OutputStream out) throws IOException {
+            out.write(json);
+            return json.length;
+        }
+
+        @Override
+        public int putUnquotedUTF8(ByteBuffer buffer) {
+            if (json.length > buffer.remaining()) {
+                return -1;
+            }
+            buffer.put(json);
+            return json.length;
+        }
+
+        @Override
+        public String getValue() {
+            return new String(json, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int charLength() {
+            return getValue().length();
+        }
+
+        @Override
+        public int appendUnquoted(char[] buffer, int offset) {
+            String value = getValue();
+            if (offset + value.length() > buffer.length) {
+                return -1;
+            }
+            value.getChars(0, value.length(), buffer, offset);
+            return value.length();
+        }
+
+        @Override
+        public char[] asQuotedChars() {
+            throw new UnsupportedOperationException("raw JSON value");
+        }
+
+        @Override
+        public byte[] asQuotedUTF8() {
+            throw new UnsupportedOperationException("raw JSON value");
+        }
+
+        @Override
+        public int appendQuotedUTF8(byte[] buffer, int offset) {
+            throw new UnsupportedOperationException("raw JSON value");
+        }
+
+        @Override
+        public int appendQuoted(char[] buffer, int offset) {
+            throw new UnsupportedOperationException("raw JSON value");
+        }
+
+        @Override
+        public int writeQuotedUTF8(OutputStream out) {
+            throw new UnsupportedOperationException("raw JSON value");
+        }
+
+        @Override
+        public int putQuotedUTF8(ByteBuffer buffer) {
+            throw new UnsupportedOperationException("raw JSON value");
+        }
+
+        @Override
+        public String toString() {
+            return getValue();
+        }
+    }
+}
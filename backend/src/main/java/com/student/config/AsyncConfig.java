@@ -0,0 +1,65 @@
+package com.student.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * AsyncConfig — the thread pool behind the asynchronous student endpoints
+ * (/api/students/async..., see StudentController).
+ *
+ * Those return a CompletableFuture or StreamingResponseBody, so the servlet
+ * container thread goes back to the pool at once and the work — reading from
+ * the database, writing to a slow client — runs here instead. The pool is
+ * bounded on both sides: student.async.threads workers and a queue of
+ * student.async.queue-capacity; beyond that requests are refused with 503
+ * rather than piling up.
+ *
+ * applicationTaskExecutor is Spring's default executor for background work
+ * — with the prod profile, building the JPA EntityManagerFactory while the
+ * rest of the context starts (spring.data.jpa.repositories.bootstrap-mode=deferred).
+ * Defining studentAsyncExecutor switches off Spring Boot's own, so it is
+ * declared here.
+ */
+@Configuration
+public class AsyncConfig implements WebMvcConfigurer {
+
+    @Value("${student.async.threads:16}")
+    private int threads;
+
+    @Value("${student.async.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${student.async.timeout-ms:600000}")
+    private long timeoutMs;
+
+    @Bean
+    public ThreadPoolTaskExecutor studentAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("student-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor applicationTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setThreadNamePrefix("task-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(studentAsyncExecutor());
+        configurer.setDefaultTimeout(timeoutMs);
+    }
+}
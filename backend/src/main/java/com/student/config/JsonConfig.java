@@ -0,0 +1,91 @@
+package com.student.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.student.cache.StudentJsonCache;
+import com.student.model.Student;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * JsonConfig — additions to Spring Boot's ObjectMapper (every Jackson Module
+ * bean is registered on it):
+ *  - Student is written through StudentJsonCache, which reuses each row's
+ *    encoded JSON when student.json-cache.enabled is on
+ */
+@Configuration
+public class JsonConfig {
+
+    @Bean
+    public Module studentJsonModule(StudentJsonCache jsonCache) {
+        SimpleModule module = new SimpleModule("student-json-cache");
+        module.setSerializerModifier(new BeanSerializerModifier() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public JsonSerializer<?> modifySerializer(SerializationConfig config, BeanDescription description,
+                                                      JsonSerializer<?> serializer) {
+                if (description.getBeanClass() != Student.class) {
+                    return serializer;
+                }
+                return new CachedStudentSerializer(jsonCache, (JsonSerializer<Object>) serializer);
+            }
+        });
+        return module;
+    }
+
+    /**
+     * Jackson's own Student serializer, asked only for rows StudentJsonCache
+     * hasn't encoded yet. Resolving and contextualizing are passed on to it.
+     */
+    private static final class CachedStudentSerializer extends JsonSerializer<Student>
+            implements ResolvableSerializer, ContextualSerializer {
+
+        private final StudentJsonCache jsonCache;
+        private final JsonSerializer<Object> base;
+
+        CachedStudentSerializer(StudentJsonCache jsonCache, JsonSerializer<Object> base) {
+            this.jsonCache = jsonCache;
+            this.base = base;
+        }
+
+        @Override
+        public void serialize(Student student, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            jsonCache.write(student, gen, provider, base);
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            if (base instanceof ResolvableSerializer resolvable) {
+                resolvable.resolve(provider);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+                throws JsonMappingException {
+            if (!(base instanceof ContextualSerializer contextual)) {
+                return this;
+            }
+            JsonSerializer<?> resolved = contextual.createContextual(provider, property);
+            return resolved == base ? this : new CachedStudentSerializer(jsonCache, (JsonSerializer<Object>) resolved);
+        }
+
+        @Override
+        public Class<Student> handledType() {
+            return Student.class;
+        }
+    }
+}
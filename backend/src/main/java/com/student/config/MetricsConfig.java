@@ -0,0 +1,78 @@
+package com.student.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.metrics.MetricsRegistry;
+import com.student.metrics.RequestMetrics;
+import com.student.metrics.SqlLog;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * MetricsConfig — hooks MetricsRegistry into the parts Spring Boot builds
+ * for us:
+ *  - the JSON message converter, to time response serialization
+ *  - the Hikari pool, to record connection wait time, usage and pool gauges
+ *  - Hibernate, to pass every statement through SqlLog
+ *
+ * (Hibernate statement counts and DB time come from HibernateMetricsListener,
+ * registered in application.properties.)
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Replaces Spring Boot's default JSON converter (same ObjectMapper) with one
+     * that adds the time spent writing each response body to RequestMetrics.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter timedJsonConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long start = System.nanoTime();
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                } finally {
+                    RequestMetrics metrics = RequestMetrics.current();
+                    if (metrics != null) {
+                        metrics.addSerializationNanos(System.nanoTime() - start);
+                    }
+                }
+            }
+        };
+    }
+
+    /** Registers SqlLog as Hibernate's statement inspector. */
+    @Bean
+    public HibernatePropertiesCustomizer sqlLogInstaller(SqlLog sqlLog) {
+        return properties -> properties.put("hibernate.session_factory.statement_inspector", sqlLog);
+    }
+
+    /**
+     * Installs the Hikari metrics tracker before the pool starts.
+     * Static so it doesn't force this configuration class to be created early.
+     */
+    @Bean
+    public static BeanPostProcessor hikariMetricsInstaller(ObjectProvider<MetricsRegistry> metricsRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+                    dataSource.setMetricsTrackerFactory(metricsRegistry.getObject().hikariTrackerFactory());
+                }
+                return bean;
+            }
+        };
+    }
+}
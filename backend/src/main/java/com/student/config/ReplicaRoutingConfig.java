@@ -0,0 +1,111 @@
+package com.student.config;
+
+import com.student.datasource.ReadYourWritesFilter;
+import com.student.datasource.Replica;
+import com.student.datasource.ReplicaMonitor;
+import com.student.datasource.ReplicaRoutingDataSource;
+import com.student.metrics.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReplicaRoutingConfig — read replicas, active only when student.replicas.urls
+ * is set. Without it Spring Boot builds its usual single pool and nothing
+ * here exists.
+ *
+ * Beans:
+ *  - primaryDataSource : the normal Hikari pool (spring.datasource.*), named "primary"
+ *  - replicaRoutingDataSource : one pool per replica URL ("replica-1", ...)
+ *    plus the routing rules (see ReplicaRoutingDataSource)
+ *  - dataSource : what JPA and JdbcTemplate use — the router behind a
+ *    LazyConnectionDataSourceProxy, so the target is picked at the first
+ *    statement, once the transaction is known to be read-only
+ *  - replicaMonitor / readYourWritesFilter : health, lag and watermark
+ *    checks, and the X-Read-After header the router checks them against
+ */
+@Configuration
+@ConditionalOnProperty("student.replicas.urls")
+public class ReplicaRoutingConfig {
+
+    @Value("${student.replicas.urls}")
+    private List<String> urls;
+
+    @Value("${student.replicas.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${student.replicas.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${student.replicas.pool-size:10}")
+    private int poolSize;
+
+    @Value("${student.replicas.max-lag-ms:5000}")
+    private long maxLagMs;
+
+    @Value("${student.replicas.read-your-writes-margin-ms:1000}")
+    private long readYourWritesMarginMs;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(HikariDataSource primaryDataSource) {
+        return new ReadYourWritesFilter(primaryDataSource);
+    }
+
+    /** Replica pools are closed with this bean (close() is picked up as its destroy method). */
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties properties,
+                                                             MetricsRegistry metrics) {
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + (replicas.size() + 1));
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setDriverClassName(properties.getDriverClassName());
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // Fail over quickly, and don't stop the application from starting if a replica is down
+            pool.setConnectionTimeout(2000);
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(metrics.hikariTrackerFactory());
+            replicas.add(new Replica(pool.getPoolName(), pool));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, metrics, maxLagMs, readYourWritesMarginMs);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaMonitor replicaMonitor(HikariDataSource primaryDataSource,
+                                         ReplicaRoutingDataSource replicaRoutingDataSource,
+                                         MetricsRegistry metrics) {
+        return new ReplicaMonitor(primaryDataSource, replicaRoutingDataSource.getReplicas(), metrics);
+    }
+}
@@ -0,0 +1,111 @@
+package com.student.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * VirtualThreadPinningMonitor — reports virtual threads that get pinned.
+ *
+ * A virtual thread that blocks while inside a synchronized block (or native
+ * code) can't unmount, so it holds on to one of the few carrier threads.
+ * Enough of these and virtual threads perform worse than the platform-thread
+ * pool they replaced.
+ *
+ * Only active with spring.threads.virtual.enabled=true. Listens to the JDK's
+ * own jdk.VirtualThreadPinned flight-recorder event in-process and logs each
+ * distinct pinning site once at WARN (first com.student frame, or the top
+ * frame if none), with the stack. Repeats are only counted and logged at DEBUG.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APP_PACKAGE = "com.student.";
+    private static final int LOGGED_FRAMES = 12;
+
+    @Value("${student.virtual-threads.pinning-threshold-ms:20}")
+    private long thresholdMs;
+
+    private final ConcurrentHashMap<String, LongAdder> pinsBySite = new ConcurrentHashMap<>();
+    private RecordingStream stream;
+
+    @PostConstruct
+    void start() {
+        if (Runtime.version().feature() < 21) {
+            log.warn("spring.threads.virtual.enabled is set but this JVM is Java {} — requests stay on platform threads",
+                    Runtime.version().feature());
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMs)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", thresholdMs);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void onPinned(RecordedEvent event) {
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        List<RecordedFrame> frames = stackTrace == null ? List.of() : stackTrace.getFrames();
+        String site = siteOf(frames);
+
+        LongAdder count = pinsBySite.get(site);
+        if (count == null) {
+            LongAdder fresh = new LongAdder();
+            count = pinsBySite.putIfAbsent(site, fresh);
+            if (count == null) {
+                count = fresh;
+                log.warn("Virtual thread pinned for {} ms at {}:\n{}",
+                        event.getDuration().toMillis(), site, format(frames));
+            }
+        }
+        count.increment();
+        log.debug("Virtual thread pinned for {} ms at {} ({} times so far)",
+                event.getDuration().toMillis(), site, count.sum());
+    }
+
+    private static String siteOf(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            if (frame.getMethod().getType().getName().startsWith(APP_PACKAGE)) {
+                return describe(frame);
+            }
+        }
+        return frames.isEmpty() ? "<no stack trace>" : describe(frames.get(0));
+    }
+
+    private static String format(List<RecordedFrame> frames) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < frames.size() && i < LOGGED_FRAMES; i++) {
+            sb.append("    at ").append(describe(frames.get(i))).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
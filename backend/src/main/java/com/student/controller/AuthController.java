@@ -1,7 +1,10 @@
 package com.student.controller;
 
 import com.student.model.User;
+import com.student.security.LoginRateLimiter;
+import com.student.security.TokenService;
 import com.student.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,23 +21,39 @@ public class AuthController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+
+    @Autowired
+    private TokenService tokenService;
+
     
     
     @PostMapping("/login")
-    public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> credentials) {
+    public ResponseEntity<Map<String, String>> login(@RequestBody Map<String, String> credentials,
+                                                     HttpServletRequest request) {
         String username = credentials.get("username");
         String password = credentials.get("password");
 
+        // Too many attempts for this username or IP? Reject without checking anything
+        if (!loginRateLimiter.tryAcquire(username, request.getRemoteAddr())) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", "Too many login attempts. Please wait a minute and try again.");
+            return ResponseEntity.status(429).body(response);
+        }
+
         // Attempt to authenticate
         User user = userService.login(username, password);
 
         Map<String, String> response = new HashMap<>();
 
         if (user != null) {
-            // ✅ Login successful — return user info
+            // ✅ Login successful — return user info and a signed token
             response.put("message", "Login successful");
             response.put("username", user.getUsername());
             response.put("role", user.getRole());
+            response.put("token", tokenService.issue(user.getUsername(), user.getRole()));
+            response.put("expiresIn", String.valueOf(tokenService.ttlSeconds()));
             return ResponseEntity.ok(response);
         } else {
             // ❌ Login failed
@@ -0,0 +1,50 @@
+package com.student.controller;
+
+import com.student.metrics.MetricsRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+
+/**
+ * MetricsController — exposes MetricsRegistry for Prometheus.
+ *
+ * Endpoint:
+ *   GET /metrics — Prometheus text format
+ *
+ * Only answered for requests from the same machine (a local Prometheus or
+ * agent), unless student.metrics.allow-remote=true.
+ */
+@RestController
+public class MetricsController {
+
+    private static final MediaType PROMETHEUS_TEXT = MediaType.parseMediaType("text/plain;version=0.0.4;charset=utf-8");
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Value("${student.metrics.allow-remote:false}")
+    private boolean allowRemote;
+
+    @GetMapping("/metrics")
+    public ResponseEntity<String> metrics(HttpServletRequest request) {
+        if (!allowRemote && !isLoopback(request.getRemoteAddr())) {
+            return ResponseEntity.status(403).body("Metrics are only available from localhost.\n");
+        }
+        return ResponseEntity.ok().contentType(PROMETHEUS_TEXT).body(metricsRegistry.scrape());
+    }
+
+    private static boolean isLoopback(String address) {
+        try {
+            return InetAddress.getByName(address).isLoopbackAddress(); // an IP literal, so no DNS lookup
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+}
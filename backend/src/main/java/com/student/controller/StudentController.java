@@ -1,59 +1,410 @@
 package com.student.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.cache.StudentCache;
+import com.student.cache.StudentJsonCache;
+import com.student.datasource.ReadYourWritesFilter;
+import com.student.dto.BulkImportResult;
 import com.student.model.Student;
+import com.student.repository.StudentListQuery;
+import com.student.service.StudentEmailIndex;
+import com.student.service.StudentEventRelay;
+import com.student.service.StudentExportService;
+import com.student.service.StudentImportService;
+import com.student.service.StudentOutbox;
 import com.student.service.StudentService;
+import com.student.service.StudentSnapshot;
+import com.student.service.StudentStatsService;
+import com.student.service.StudentWriteBehind;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * StudentController — handles all student-related API requests.
  * 
  * Endpoints:
- *   GET    /api/students              — get all students
+ *   GET    /api/students?after=&limit= — get one page of students
+ *          (&course=&department=&emailDomain=&namePrefix=&sort=&facets= to filter / sort / count)
+ *   GET    /api/students/stream       — all students as NDJSON (one per line)
+ *   GET    /api/students/async?after=&limit= — like GET /api/students, off the request thread
+ *   GET    /api/students/async/stream — like /stream, paced by the client (for slow readers)
+ *   GET    /api/students/export       — all students as compact binary or CSV, optionally compressed
+ *   GET    /api/students/changes?since= — inserts, updates and deletes since a watermark
+ *   GET    /api/students/events       — the same changes pushed as Server-Sent Events (outbox)
  *   GET    /api/students/search?name= — search by name
  *   GET    /api/students/count        — total count
+ *   GET    /api/students/stats        — counts per department and course
+ *   GET    /api/students/cache/stats  — cache hit/miss/eviction counters
  *   POST   /api/students              — add student (ADMIN)
+ *   POST   /api/students/bulk         — bulk import from CSV / NDJSON (ADMIN)
  *   PUT    /api/students/{id}         — update student (ADMIN)
+ *   PATCH  /api/students/{id}         — update only the given fields (ADMIN)
  *   DELETE /api/students/{id}         — delete student (ADMIN)
  * 
- * NOTE: Role-based access is enforced on the FRONTEND side (simple implementation).
- *       In a real app, you'd secure this with Spring Security + JWT.
+ * NOTE: ADMIN-only endpoints are enforced by AuthTokenFilter using the signed
+ *       token returned from /api/auth/login. The frontend also hides them.
  */
 @RestController
 @RequestMapping("/api/students")
-@CrossOrigin(origins = "http://localhost:5173") // Allow React frontend
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = ReadYourWritesFilter.HEADER) // Allow React frontend
 public class StudentController {
 
+    // Rows per query for /async/stream
+    private static final int ASYNC_CHUNK = 500;
+
     @Autowired
     private StudentService studentService;
 
+    @Autowired
+    private StudentImportService importService;
+
+    @Autowired
+    private StudentExportService exportService;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private StudentJsonCache studentJsonCache;
+
+    @Autowired
+    private StudentStatsService statsService;
+
+    // Serves the list and stream when student.snapshot.enabled=true
+    @Autowired
+    private StudentSnapshot snapshot;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Pushes outbox events to /events subscribers when student.outbox.enabled=true
+    @Autowired
+    private StudentOutbox studentOutbox;
+
+    @Autowired
+    private StudentEventRelay eventRelay;
+
+    // Bounded pool for the /async endpoints (see AsyncConfig)
+    @Autowired
+    private ThreadPoolTaskExecutor studentAsyncExecutor;
+
     // ─── GET ALL STUDENTS ──────────────────────────────────────────────────────
 
     /**
-     * GET /api/students
-     * Returns all students in the database.
+     * GET /api/students?after=120&limit=50
+     * Returns one page of students ordered by id.
+     *
+     * Leave out "after" for the first page, then pass the returned
+     * "nextCursor" to get the following page.
+     *
+     * The ETag changes whenever any student changes, so a client polling with
+     * If-None-Match gets 304 Not Modified — without the page being read at all.
+     *
+     * With the in-memory StudentSnapshot the page is written straight from its
+     * columns and the ETag is the snapshot's version (no database access).
+     *
+     * Optional filters and sorting, done by the database (see StudentListQuery):
+     *   course / department : exact value, repeat the parameter for several
+     *   emailDomain         : e.g. college.edu
+     *   namePrefix          : names starting with it
+     *   sort                : e.g. department,-name (a leading '-' sorts descending)
+     *   facets=true         : add counts per course and department to the response
+     * With any of these, "after" takes the opaque nextCursor of the previous page.
      */
     @GetMapping
-    public ResponseEntity<List<Student>> getAllStudents() {
-        List<Student> students = studentService.getAllStudents();
-        return ResponseEntity.ok(students);
+    public ResponseEntity<?> getAllStudents(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + StudentService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) List<String> course,
+            @RequestParam(required = false) List<String> department,
+            @RequestParam(required = false) String emailDomain,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean facets,
+            WebRequest webRequest) {
+        StudentListQuery query;
+        try {
+            query = new StudentListQuery(course, department, emailDomain, namePrefix, sort);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(400).body(error);
+        }
+        if (!query.isDefault() || facets) {
+            return findStudents(query, after, limit, facets, webRequest);
+        }
+
+        Long afterId;
+        try {
+            afterId = (after == null || after.isBlank()) ? null : Long.valueOf(after);
+        } catch (NumberFormatException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Invalid cursor: " + after);
+            return ResponseEntity.status(400).body(error);
+        }
+        if (snapshot.isReady()) {
+            StudentSnapshot.Page page = snapshot.page(afterId, limit);
+            String etag = "\"p" + (afterId == null ? 0 : afterId) + "-" + limit + "-s" + page.getVersion() + "\"";
+            if (webRequest.checkNotModified(etag)) {
+                return null; // 304 Not Modified
+            }
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(page);
+        }
+        String etag = "\"p" + (afterId == null ? 0 : afterId) + "-" + limit + "-" + studentService.currentChangeSeq() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag).body(studentService.getStudentsPage(afterId, limit));
+    }
+
+    private ResponseEntity<?> findStudents(StudentListQuery query, String after, int limit, boolean facets,
+                                           WebRequest webRequest) {
+        String request = query.key() + "|" + after + "|" + limit + "|" + facets;
+        String etag = "\"f" + Integer.toHexString(request.hashCode()) + "-" + studentService.currentChangeSeq() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null; // 304 Not Modified
+        }
+        try {
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag(etag)
+                    .body(studentService.findStudents(query, after, limit, facets));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(400).body(error);
+        }
+    }
+
+    // ─── CHANGES SINCE (DELTA SYNC) ────────────────────────────────────────────
+
+    /**
+     * GET /api/students/changes?since=1234&limit=500
+     * Returns students inserted or updated and ids of students deleted after
+     * the given watermark, plus the next watermark.
+     *
+     * Take the first watermark from GET /api/students, then poll this instead
+     * of reloading the list. A poll with nothing new is a couple of index reads.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<?> getChanges(
+            @RequestParam long since,
+            @RequestParam(defaultValue = "" + StudentService.MAX_PAGE_SIZE) int limit) {
+        return ResponseEntity.ok(studentService.getChangesSince(since, limit));
+    }
+
+    // ─── CHANGE EVENTS (SERVER-SENT EVENTS) ────────────────────────────────────
+
+    /**
+     * GET /api/students/events
+     * Every insert, update and delete, in change-number order, pushed as they
+     * happen (text/event-stream). Each "students" event carries a JSON array of
+     * changes: { id, type: SAVED | DELETED, studentId, changeSeq, at, student }.
+     * The SSE id is the last change's changeSeq — reconnect with Last-Event-ID (or
+     * ?after=) to get everything missed. A "resync" event means changes were
+     * purged since then: reload GET /api/students and carry on.
+     *
+     * Without either, the stream starts with the next change.
+     * 404 unless student.outbox.enabled=true.
+     */
+    @GetMapping("/events")
+    public ResponseEntity<SseEmitter> streamEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            @RequestParam(required = false) Long after) throws IOException {
+        // Typed as SseEmitter so Spring streams it; with ResponseEntity<?> it was written as JSON
+        if (!studentOutbox.isEnabled()) {
+            throw new EventsOffException();
+        }
+        return ResponseEntity.ok(eventRelay.subscribe(lastEventId != null ? lastEventId : after));
+    }
+
+    private static class EventsOffException extends RuntimeException {
+    }
+
+    @ExceptionHandler(EventsOffException.class)
+    public ResponseEntity<Map<String, String>> eventsOff(EventsOffException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Change events are off (student.outbox.enabled=false).");
+        return ResponseEntity.status(404).body(error);
+    }
+
+    // ─── STREAM ALL STUDENTS ───────────────────────────────────────────────────
+
+    /**
+     * GET /api/students/stream
+     * Writes every student as newline-delimited JSON (NDJSON), one row at a time.
+     *
+     * Rows go straight from the database cursor to the response, so the
+     * server never holds the whole table in memory. With the StudentSnapshot
+     * ready, rows are written from it instead of the database.
+     */
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public void streamStudents(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+
+        try (JsonGenerator generator = ndjsonGenerator(response.getOutputStream())) {
+            if (snapshot.isReady()) {
+                snapshot.writeAll(generator);
+                return;
+            }
+            studentService.streamAllStudents(student -> {
+                try {
+                    generator.writeObject(student);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    // ─── ASYNC VARIANTS ────────────────────────────────────────────────────────
+
+    /**
+     * GET /api/students/async?after=120&limit=50
+     * Same page as GET /api/students (without filters), but read on the
+     * async pool: the container thread is free while the query waits for a
+     * connection or the database.
+     */
+    @GetMapping("/async")
+    public CompletableFuture<ResponseEntity<?>> getStudentsAsync(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "" + StudentService.DEFAULT_PAGE_SIZE) int limit) {
+        return CompletableFuture.supplyAsync(
+                () -> ResponseEntity.ok(studentService.getStudentsPage(after, limit)), studentAsyncExecutor);
+    }
+
+    /**
+     * GET /api/students/async/stream
+     * Every student as NDJSON, like /stream, for clients that read slowly.
+     *
+     * /stream keeps one database cursor (and connection) open until the last
+     * byte is sent. Here rows are read ASYNC_CHUNK at a time, each chunk with
+     * its own short query, and the next chunk is only read after the previous
+     * one has been flushed to the client — a slow client slows down the
+     * reading instead of holding a connection (see streamAllStudentsInChunks).
+     */
+    @GetMapping(value = "/async/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamStudentsAsync() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = ndjsonGenerator(out)) {
+                studentService.streamAllStudentsInChunks(ASYNC_CHUNK, chunk -> {
+                    try {
+                        for (Student student : chunk) {
+                            generator.writeObject(student);
+                            generator.writeRaw('\n');
+                        }
+                        generator.flush(); // blocks while the client is behind
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().header("Content-Type", "application/x-ndjson; charset=UTF-8").body(body);
+    }
+
+    /**
+     * A generator for one JSON value per line. Without a root value separator:
+     * Jackson's default would put a space before every value after the first,
+     * so every line but the first would start with it.
+     */
+    private JsonGenerator ndjsonGenerator(OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(null);
+        return generator;
+    }
+
+    private static ResponseEntity<Map<String, String>> conflict(StudentEmailIndex.DuplicateEmailException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(409).body(error);
+    }
+
+    /** 503 + Retry-After when the async pool and its queue are full. */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Map<String, String>> asyncPoolFull(RejectedExecutionException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", "Server busy, try again shortly");
+        return ResponseEntity.status(503).header("Retry-After", "1").body(error);
+    }
+
+    // ─── EXPORT ALL STUDENTS ───────────────────────────────────────────────────
+
+    /**
+     * GET /api/students/export?format=binary&compression=zstd
+     * Writes every student for reporting jobs, straight from a database
+     * cursor — much smaller and cheaper than JSON.
+     *
+     * format      : binary (column-oriented, see StudentExportService) or csv;
+     *               default csv if the Accept header asks for text/csv, else binary
+     * compression : none, gzip or zstd (sent as Content-Encoding);
+     *               default zstd or gzip if Accept-Encoding allows it, else none
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> exportStudents(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String compression,
+            @RequestHeader(value = "Accept", required = false) String accept,
+            @RequestHeader(value = "Accept-Encoding", required = false) String acceptEncoding,
+            HttpServletResponse response) throws IOException {
+        StudentExportService.Format exportFormat;
+        StudentExportService.Compression exportCompression;
+        try {
+            exportFormat = format != null ? StudentExportService.parseFormat(format)
+                    : accept != null && accept.contains("text/csv") ? StudentExportService.Format.CSV
+                    : StudentExportService.Format.BINARY;
+            exportCompression = compression != null ? StudentExportService.parseCompression(compression)
+                    : acceptEncoding != null && acceptEncoding.contains("zstd") ? StudentExportService.Compression.ZSTD
+                    : acceptEncoding != null && acceptEncoding.contains("gzip") ? StudentExportService.Compression.GZIP
+                    : StudentExportService.Compression.NONE;
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(400).body(error);
+        }
+
+        response.setContentType(exportFormat.contentType);
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + exportFormat.fileName + "\"");
+        response.setHeader("Vary", "Accept, Accept-Encoding");
+        if (exportCompression.contentEncoding != null) {
+            response.setHeader("Content-Encoding", exportCompression.contentEncoding);
+        }
+        exportService.export(exportFormat, exportCompression, response.getOutputStream());
+        return null; // body already written
     }
 
     // ─── SEARCH BY NAME ────────────────────────────────────────────────────────
 
     /**
-     * GET /api/students/search?name=Alice
-     * Returns students whose name contains the search keyword (case-insensitive).
+     * GET /api/students/search?name=Alice&limit=20
+     * Returns students whose name contains the search keyword (case-insensitive),
+     * best matches first.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<Student>> searchStudents(@RequestParam String name) {
-        List<Student> results = studentService.searchByName(name);
+    public ResponseEntity<List<Student>> searchStudents(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "" + StudentService.DEFAULT_PAGE_SIZE) int limit) {
+        List<Student> results = studentService.searchByName(name, limit);
         return ResponseEntity.ok(results);
     }
 
@@ -70,17 +421,50 @@ public class StudentController {
         return ResponseEntity.ok(response);
     }
 
+    // ─── GET STATS ─────────────────────────────────────────────────────────────
+
+    /**
+     * GET /api/students/stats
+     * Returns the total plus counts per department and per course
+     * (kept in memory — no database query).
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(statsService.snapshot());
+    }
+
+    // ─── CACHE STATS ───────────────────────────────────────────────────────────
+
+    /**
+     * GET /api/students/cache/stats
+     * Returns hit/miss/eviction counters of the student lookup cache, and
+     * under "json" those of the pre-encoded JSON cache.
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(studentCache.stats());
+        stats.put("json", studentJsonCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+
     // ─── GET STUDENT BY ID ─────────────────────────────────────────────────────
 
     /**
      * GET /api/students/{id}
      * Returns a single student by their ID.
+     *
+     * The ETag is the row's change number; Spring answers a matching
+     * If-None-Match with 304 Not Modified and no body.
      */
     @GetMapping("/{id}")
     public ResponseEntity<?> getStudentById(@PathVariable Long id) {
         Optional<Student> student = studentService.getStudentById(id);
         if (student.isPresent()) {
-            return ResponseEntity.ok(student.get());
+            Long changeSeq = student.get().getChangeSeq();
+            if (changeSeq == null) {
+                return ResponseEntity.ok(student.get());
+            }
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).eTag("\"" + id + "-" + changeSeq + "\"").body(student.get());
         }
         Map<String, String> error = new HashMap<>();
         error.put("message", "Student not found with id: " + id);
@@ -100,13 +484,18 @@ public class StudentController {
      *   "department": "Computer Science"
      * }
      * 
-     * Returns: The saved student with generated ID
+     * Returns: The saved student with generated ID,
+     * or 409 Conflict if another student already has the email
      */
     @PostMapping
     public ResponseEntity<?> addStudent(@RequestBody Student student) {
         try {
             Student saved = studentService.addStudent(student);
             return ResponseEntity.status(201).body(saved); // 201 Created
+        } catch (StudentWriteBehind.BusyException e) {
+            return busy(e);
+        } catch (StudentEmailIndex.DuplicateEmailException e) {
+            return conflict(e);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to add student: " + e.getMessage());
@@ -114,6 +503,32 @@ public class StudentController {
         }
     }
 
+    // ─── BULK IMPORT (ADMIN) ───────────────────────────────────────────────────
+
+    /**
+     * POST /api/students/bulk
+     *
+     * Content-Type: text/csv — header line "name,email,course,department", then one student per line
+     * Content-Type: application/x-ndjson — one JSON student object per line
+     *
+     * The body is read as a stream and inserted in batches, so uploads of
+     * any size use the same amount of memory.
+     * Returns: counts plus the row number and reason for every rejected row.
+     */
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<?> bulkImport(HttpServletRequest request) throws IOException {
+        try {
+            BulkImportResult result = request.getContentType().startsWith("text/csv")
+                    ? importService.importCsv(request.getInputStream())
+                    : importService.importNdjson(request.getInputStream());
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.status(400).body(error);
+        }
+    }
+
     // ─── UPDATE STUDENT (ADMIN) ────────────────────────────────────────────────
 
     /**
@@ -121,12 +536,47 @@ public class StudentController {
      * 
      * Request Body: Same as POST
      * Updates an existing student's information.
+     *
+     * Optional header If-Match: the ETag from GET /api/students/{id}
+     * (or "id-changeSeq" from a list item). If the student changed since,
+     * nothing is written and 412 Precondition Failed is returned.
+     * 409 Conflict if the new email belongs to another student.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateStudent(@PathVariable Long id, @RequestBody Student student) {
-        Student updated = studentService.updateStudent(id, student);
+    public ResponseEntity<?> updateStudent(@PathVariable Long id, @RequestBody Student student,
+                                           @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return update(id, student, ifMatch);
+    }
+
+    /**
+     * PATCH /api/students/{id}
+     *
+     * Request Body: only the fields to change, e.g. { "course": "MCA" }
+     * Other columns are left as they are. Supports If-Match like PUT.
+     */
+    @PatchMapping("/{id}")
+    public ResponseEntity<?> patchStudent(@PathVariable Long id, @RequestBody Student changes,
+                                          @RequestHeader(value = "If-Match", required = false) String ifMatch) {
+        return update(id, changes, ifMatch);
+    }
+
+    private ResponseEntity<?> update(Long id, Student student, String ifMatch) {
+        Student updated;
+        try {
+            Long expected = expectedVersion(id, ifMatch);
+            updated = studentService.updateStudent(id, student, expected);
+        } catch (StudentWriteBehind.BusyException e) {
+            return busy(e);
+        } catch (StudentService.VersionConflictException | InvalidIfMatchException e) {
+            return preconditionFailed(e);
+        } catch (StudentEmailIndex.DuplicateEmailException e) {
+            return conflict(e);
+        }
         if (updated != null) {
-            return ResponseEntity.ok(updated);
+            if (updated.getChangeSeq() == null) {
+                return ResponseEntity.ok(updated); // no version, so nothing an If-Match could use
+            }
+            return ResponseEntity.ok().eTag("\"" + id + "-" + updated.getChangeSeq() + "\"").body(updated);
         }
         Map<String, String> error = new HashMap<>();
         error.put("message", "Student not found with id: " + id);
@@ -139,12 +589,22 @@ public class StudentController {
      * DELETE /api/students/{id}
      * 
      * Deletes a student by their ID.
-     * Returns 200 OK if deleted, 404 if not found.
+     * Returns 200 OK if deleted, 404 if not found,
+     * 412 if an If-Match version was sent and the student changed since.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<Map<String, String>> deleteStudent(@PathVariable Long id) {
+    public ResponseEntity<?> deleteStudent(@PathVariable Long id,
+                                           @RequestHeader(value = "If-Match", required = false) String ifMatch) {
         Map<String, String> response = new HashMap<>();
-        boolean deleted = studentService.deleteStudent(id);
+        boolean deleted;
+        try {
+            Long expected = expectedVersion(id, ifMatch);
+            deleted = studentService.deleteStudent(id, expected);
+        } catch (StudentWriteBehind.BusyException e) {
+            return busy(e);
+        } catch (StudentService.VersionConflictException | InvalidIfMatchException e) {
+            return preconditionFailed(e);
+        }
         if (deleted) {
             response.put("message", "Student deleted successfully");
             return ResponseEntity.ok(response);
@@ -152,4 +612,48 @@ public class StudentController {
         response.put("message", "Student not found with id: " + id);
         return ResponseEntity.status(404).body(response);
     }
+
+    /**
+     * The changeSeq from an If-Match header of the form "id-changeSeq"
+     * (null when absent or "*").
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        String prefix = id + "-";
+        if (!tag.startsWith(prefix)) {
+            throw new InvalidIfMatchException("If-Match " + ifMatch + " is not a version of student " + id);
+        }
+        try {
+            return Long.valueOf(tag.substring(prefix.length()));
+        } catch (NumberFormatException e) {
+            throw new InvalidIfMatchException("Invalid If-Match: " + ifMatch);
+        }
+    }
+
+    /** An If-Match header that can never match this student. */
+    private static class InvalidIfMatchException extends RuntimeException {
+        InvalidIfMatchException(String message) {
+            super(message);
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> preconditionFailed(RuntimeException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(412).body(error);
+    }
+
+    /** 503 + Retry-After when write-behind is full or the write wasn't confirmed in time. */
+    private static ResponseEntity<Map<String, String>> busy(StudentWriteBehind.BusyException e) {
+        Map<String, String> error = new HashMap<>();
+        error.put("message", e.getMessage());
+        return ResponseEntity.status(503).header("Retry-After", "1").body(error);
+    }
 }
@@ -1,7 +1,8 @@
 package com.student.controller;
 
+import com.student.datasource.ReadYourWritesFilter;
 import com.student.model.User;
-import com.student.repository.UserRepository;
+import com.student.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -9,7 +10,6 @@ import org.springframework.web.bind.annotation.*;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * UserController — handles user management APIs (ADMIN only).
@@ -21,16 +21,16 @@ import java.util.Optional;
  */
 @RestController
 @RequestMapping("/api/users")
-@CrossOrigin(origins = "http://localhost:5173")
+@CrossOrigin(origins = "http://localhost:5173", exposedHeaders = ReadYourWritesFilter.HEADER)
 public class UserController {
 
     @Autowired
-    private UserRepository userRepository;
+    private UserService userService;
 
     // ─── GET ALL USERS ─────────────────────────────────────────────────────────
     @GetMapping
     public ResponseEntity<List<User>> getAllUsers() {
-        List<User> users = userRepository.findAll();
+        List<User> users = userService.getAllUsers();
         // Clear passwords before sending to frontend
         users.forEach(u -> u.setPassword(""));
         return ResponseEntity.ok(users);
@@ -59,14 +59,13 @@ public class UserController {
         }
 
         // Check username uniqueness
-        if (userRepository.findByUsername(username).isPresent()) {
+        if (userService.usernameExists(username)) {
             response.put("message", "Username '" + username + "' is already taken.");
             return ResponseEntity.status(409).body(response);
         }
 
-        // Save new user
-        User newUser = new User(username, password, role);
-        User saved = userRepository.save(newUser);
+        // Save new user (password is stored hashed)
+        User saved = userService.createUser(username, password, role);
 
         response.put("message", "User created successfully!");
         response.put("id", saved.getId());
@@ -79,9 +78,7 @@ public class UserController {
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, String>> deleteUser(@PathVariable Long id) {
         Map<String, String> response = new HashMap<>();
-        Optional<User> optional = userRepository.findById(id);
-        if (optional.isPresent()) {
-            userRepository.deleteById(id);
+        if (userService.deleteUser(id)) {
             response.put("message", "User deleted successfully.");
             return ResponseEntity.ok(response);
         }
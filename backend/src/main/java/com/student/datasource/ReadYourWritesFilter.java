@@ -0,0 +1,181 @@
+package com.student.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReadYourWritesFilter — tells each client how far a replica must have
+ * caught up before it may serve that client's reads.
+ *
+ * Any POST / PUT / PATCH / DELETE under /api/students or /api/users that
+ * didn't fail gets an X-Read-After response header, "<change number>:<epoch ms>": the students change counter
+ * on the primary once the write has committed, and when that was. The client
+ * sends the last one it got back on every request (the frontend does so for
+ * all API calls), and ReplicaRoutingDataSource only uses a replica that has
+ * applied every change up to that number (see ReplicaMonitor) and whose lag
+ * is shorter than the time since the write — the latter covers writes that
+ * take no change number, like users. Other POSTs (POST /api/auth/login)
+ * change nothing replicas serve, so they skip the extra counter query.
+ *
+ * Nothing is kept on the server, so this holds whichever node the next
+ * request lands on; no sticky sessions needed. A client that doesn't send
+ * the header back reads like anyone else. A forged header can only push
+ * that client's own reads to the primary.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadYourWritesFilter.class);
+
+    public static final String HEADER = "X-Read-After";
+
+    // Older writes are assumed to be on every replica that is within max-lag-ms
+    private static final long FORGET_AFTER_MS = TimeUnit.MINUTES.toMillis(5);
+
+    // Percent-decodes and cleans up the path, as Spring MVC does before mapping it
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private static final String COUNTER_SQL = "SELECT current_value FROM change_sequences WHERE name = 'students'";
+
+    private final DataSource primary;
+
+    /**
+     * What a client has written: reads need every change up to changeSeq,
+     * and a replica whose lag is shorter than the time since writtenAtMillis.
+     */
+    public record ReadAfter(long changeSeq, long writtenAtMillis) {
+
+        @Override
+        public String toString() {
+            return changeSeq + ":" + writtenAtMillis;
+        }
+
+        /** Parse a header value; null if it is missing, malformed or too old to matter. */
+        static ReadAfter parse(String value, long now) {
+            if (value == null) {
+                return null;
+            }
+            int colon = value.indexOf(':');
+            try {
+                ReadAfter readAfter = new ReadAfter(Long.parseLong(value.substring(0, colon).trim()),
+                        Long.parseLong(value.substring(colon + 1).trim()));
+                return now - readAfter.writtenAtMillis() <= FORGET_AFTER_MS ? readAfter : null;
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                return null;
+            }
+        }
+    }
+
+    public ReadYourWritesFilter(DataSource primary) {
+        this.primary = primary;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        if (!isWrite(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        StampingResponse stamping = new StampingResponse(response);
+        try {
+            chain.doFilter(request, stamping);
+        } finally {
+            stamping.stamp(); // a response without a body, e.g. 204
+        }
+    }
+
+    /** What the client of the current request has written, or null (also outside web requests). */
+    static ReadAfter ofCurrentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servlet)) {
+            return null;
+        }
+        return ReadAfter.parse(servlet.getRequest().getHeader(HEADER), System.currentTimeMillis());
+    }
+
+    /** A student or user mutation — the writes replicas have to catch up with. */
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method)) {
+            return false;
+        }
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        return path.startsWith("/api/students") || path.startsWith("/api/users");
+    }
+
+    /** The primary's counter; it covers this request's writes, which committed before we got here. */
+    private long readCounter() throws SQLException {
+        try (Connection connection = primary.getConnection();
+             PreparedStatement statement = connection.prepareStatement(COUNTER_SQL);
+             ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Adds the header just before the body is written — after that it would
+     * be too late — or at the end if there is no body. By then the service
+     * call, and so the write's transaction, has finished.
+     */
+    private final class StampingResponse extends HttpServletResponseWrapper {
+
+        private boolean stamped;
+
+        StampingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        void stamp() {
+            if (stamped || isCommitted()) {
+                return;
+            }
+            stamped = true;
+            if (getStatus() >= 400) {
+                return;
+            }
+            try {
+                setHeader(HEADER, new ReadAfter(readCounter(), System.currentTimeMillis()).toString());
+            } catch (SQLException e) {
+                log.warn("No {} header, could not read the change counter: {}", HEADER, e.getMessage());
+            }
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+    }
+}
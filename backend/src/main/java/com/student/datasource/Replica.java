@@ -0,0 +1,56 @@
+package com.student.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Replica — one read replica: its connection pool plus the health and lag
+ * last measured by ReplicaMonitor.
+ *
+ * A replica starts out unhealthy, so nothing is routed to it before the
+ * first successful check.
+ */
+public class Replica {
+
+    private final String name;
+    private final HikariDataSource dataSource;
+
+    private volatile boolean healthy;
+    private volatile long lagMs;
+    private volatile long changeSeq;
+    private volatile long watermark;
+
+    public Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public String getName() { return name; }
+
+    public HikariDataSource getDataSource() { return dataSource; }
+
+    public boolean isHealthy() { return healthy; }
+
+    /** How far behind the primary this replica was at the last check (0 = caught up). */
+    public long getLagMs() { return lagMs; }
+
+    /** The students change number the replica had applied at the last check. */
+    public long getChangeSeq() { return changeSeq; }
+
+    /**
+     * The highest change number up to which the replica had applied every
+     * change at the last check (the counter, held back below writes that
+     * were still open — see StudentChangeLog.current()).
+     */
+    public long getWatermark() { return watermark; }
+
+    void checked(long changeSeq, long watermark, long lagMs) {
+        this.changeSeq = changeSeq;
+        this.watermark = watermark;
+        this.lagMs = lagMs;
+        this.healthy = true;
+    }
+
+    void markDown() {
+        this.healthy = false;
+    }
+}
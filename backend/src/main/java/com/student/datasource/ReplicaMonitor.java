@@ -0,0 +1,135 @@
+package com.student.datasource;
+
+import com.student.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReplicaMonitor — checks every replica each student.replicas.check-interval-ms.
+ *
+ * Lag is measured with the students change counter (change_sequences, see
+ * StudentChangeLog) instead of SHOW REPLICA STATUS, so it needs no extra
+ * privileges and also works for other replication setups:
+ *  - every check reads the counter on the primary and remembers
+ *    (time, value) for the last minute
+ *  - a replica that has the same value as the primary is caught up (lag 0)
+ *  - otherwise its lag is the time since the primary first went past the
+ *    replica's value, i.e. how old the oldest change it is missing is
+ *    (at startup, a replica that is behind counts as a minute behind until
+ *    it catches up)
+ * Each check also records the replica's watermark, the number up to which
+ * it has applied every change, for read-your-writes (see ReadYourWritesFilter).
+ * A replica whose query fails or times out is marked down until a later
+ * check succeeds.
+ */
+public class ReplicaMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaMonitor.class);
+
+    // The counter, and the lowest change number handed out but not committed
+    private static final String COUNTER_SQL = "SELECT s.current_value, (SELECT MIN(r.first_seq) FROM change_reservations r)"
+            + " FROM change_sequences s WHERE s.name = 'students'";
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+    private static final long HISTORY_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final MetricsRegistry metrics;
+
+    // (time, primary counter) samples, oldest first; only touched by the scheduler thread
+    private final ArrayDeque<long[]> history = new ArrayDeque<>();
+
+    public ReplicaMonitor(DataSource primary, List<Replica> replicas, MetricsRegistry metrics) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.metrics = metrics;
+    }
+
+    @Scheduled(fixedDelayString = "${student.replicas.check-interval-ms:1000}")
+    public void check() {
+        long now = System.currentTimeMillis();
+        long primarySeq;
+        try {
+            primarySeq = readCounter(primary)[0];
+        } catch (SQLException e) {
+            log.warn("Replica check skipped, primary unavailable: {}", e.getMessage());
+            return;
+        }
+        if (history.isEmpty() || history.peekLast()[1] != primarySeq) {
+            history.addLast(new long[] { now, primarySeq });
+        }
+        // Keep the newest sample from before the window: it is the value in effect at its start
+        long cutoff = now - HISTORY_MS;
+        while (history.size() > 1 && second(history)[0] < cutoff) {
+            history.removeFirst();
+        }
+
+        for (Replica replica : replicas) {
+            boolean wasHealthy = replica.isHealthy();
+            try {
+                long[] counter = readCounter(replica.getDataSource());
+                replica.checked(counter[0], counter[1], lagMillis(counter[0], now));
+                if (!wasHealthy) {
+                    log.info("Replica {} is up (lag {} ms)", replica.getName(), replica.getLagMs());
+                }
+            } catch (SQLException e) {
+                replica.markDown();
+                if (wasHealthy) {
+                    log.warn("Replica {} is down: {}", replica.getName(), e.getMessage());
+                }
+            }
+            metrics.replicaStatus(replica.getName(), replica.isHealthy(), replica.getLagMs());
+        }
+    }
+
+    /**
+     * How long ago the primary first passed replicaSeq (0 if the replica is
+     * caught up). If even the oldest remembered value is past it, we don't
+     * know when that happened and report at least the whole history window.
+     */
+    private long lagMillis(long replicaSeq, long now) {
+        Iterator<long[]> samples = history.iterator();
+        boolean oldest = true;
+        while (samples.hasNext()) {
+            long[] sample = samples.next();
+            if (sample[1] > replicaSeq) {
+                return oldest ? Math.max(now - sample[0], HISTORY_MS) : now - sample[0];
+            }
+            oldest = false;
+        }
+        return 0;
+    }
+
+    private static long[] second(ArrayDeque<long[]> samples) {
+        Iterator<long[]> it = samples.iterator();
+        it.next();
+        return it.next();
+    }
+
+    /** { counter, watermark } as the given database sees them. */
+    private static long[] readCounter(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(COUNTER_SQL)) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    return new long[] { 0, 0 };
+                }
+                long counter = rs.getLong(1);
+                long lowestOpen = rs.getLong(2);
+                return new long[] { counter, rs.wasNull() ? counter : Math.min(counter, lowestOpen - 1) };
+            }
+        }
+    }
+}
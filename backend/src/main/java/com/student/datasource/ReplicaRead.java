@@ -0,0 +1,22 @@
+package com.student.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * ReplicaRead — marks a method whose queries may be served by a read replica
+ * (when student.replicas.urls is set; otherwise it has no effect).
+ *
+ * Only use it on reads that can tolerate data a few seconds old. Even then a
+ * replica is only used if it is healthy, not too far behind, and the caller
+ * hasn't written anything recently (see ReplicaRoutingDataSource). Inside a
+ * read-write transaction the annotation is ignored.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ReplicaRead {
+}
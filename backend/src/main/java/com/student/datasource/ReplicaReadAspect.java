@@ -0,0 +1,27 @@
+package com.student.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * ReplicaReadAspect — sets the "replica allowed" flag for the duration of
+ * a {@link ReplicaRead} method. ReplicaRoutingDataSource reads it when the
+ * first statement asks for a connection.
+ */
+@Aspect
+@Component
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.student.datasource.ReplicaRead)")
+    public Object allowReplica(ProceedingJoinPoint call) throws Throwable {
+        boolean outer = ReplicaRoutingDataSource.replicaAllowed();
+        ReplicaRoutingDataSource.setReplicaAllowed(true);
+        try {
+            return call.proceed();
+        } finally {
+            ReplicaRoutingDataSource.setReplicaAllowed(outer);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.student.datasource;
+
+import com.student.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ReplicaRoutingDataSource — hands out primary or replica connections.
+ *
+ * Wrapped in a LazyConnectionDataSourceProxy (see ReplicaRoutingConfig), so
+ * the choice is made when the first statement runs, after the transaction
+ * has been marked read-only.
+ *
+ * A replica is used only if all of these hold:
+ *  - the code is inside a {@link ReplicaRead} method
+ *  - there is no read-write transaction
+ *  - the replica passed its last health check and is at most
+ *    student.replicas.max-lag-ms behind
+ *  - if the request carries an X-Read-After header (its client wrote
+ *    something, see ReadYourWritesFilter): the replica has applied every
+ *    change up to that write, and the write is older than the replica's lag
+ *    plus a margin — so people see their own changes right after making
+ *    them (read-your-writes), whichever node they come back to
+ * Replicas are taken round-robin; if none qualifies, or getting a replica
+ * connection fails (the replica is then marked down), the primary is used.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> REPLICA_ALLOWED = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final MetricsRegistry metrics;
+    private final long maxLagMs;
+    private final long readYourWritesMarginMs;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas, MetricsRegistry metrics,
+                                    long maxLagMs, long readYourWritesMarginMs) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.metrics = metrics;
+        this.maxLagMs = maxLagMs;
+        this.readYourWritesMarginMs = readYourWritesMarginMs;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    /** Closes the replica pools (the primary pool is its own bean). */
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.getDataSource().close();
+        }
+    }
+
+    static boolean replicaAllowed() {
+        return Boolean.TRUE.equals(REPLICA_ALLOWED.get());
+    }
+
+    static void setReplicaAllowed(boolean allowed) {
+        if (allowed) {
+            REPLICA_ALLOWED.set(Boolean.TRUE);
+        } else {
+            REPLICA_ALLOWED.remove();
+        }
+    }
+
+    // ─── ROUTING ───────────────────────────────────────────────────────────────
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!replicaAllowed()
+                || (TransactionSynchronizationManager.isActualTransactionActive()
+                    && !TransactionSynchronizationManager.isCurrentTransactionReadOnly())) {
+            return primary.getConnection();
+        }
+
+        Replica replica = choose();
+        if (replica != null) {
+            try {
+                Connection connection = replica.getDataSource().getConnection();
+                metrics.recordRead(replica.getName());
+                return connection;
+            } catch (SQLException e) {
+                replica.markDown();
+                log.warn("Replica {} unavailable, reading from the primary: {}", replica.getName(), e.getMessage());
+                metrics.recordReadFallback("unhealthy");
+            }
+        }
+        metrics.recordRead("primary");
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /** A replica this read may use, or null (the reason is counted in the metrics). */
+    private Replica choose() {
+        ReadYourWritesFilter.ReadAfter readAfter = ReadYourWritesFilter.ofCurrentRequest();
+        long now = System.currentTimeMillis();
+        boolean skippedForLag = false;
+        boolean skippedForOwnWrite = false;
+
+        int start = next.getAndIncrement();
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(Math.floorMod(start + i, replicas.size()));
+            if (!replica.isHealthy()) {
+                continue;
+            }
+            long lag = replica.getLagMs();
+            if (lag > maxLagMs) {
+                skippedForLag = true;
+            } else if (readAfter != null && (replica.getWatermark() < readAfter.changeSeq()
+                    || now - readAfter.writtenAtMillis() <= lag + readYourWritesMarginMs)) {
+                skippedForOwnWrite = true;
+            } else {
+                return replica;
+            }
+        }
+        metrics.recordReadFallback(skippedForOwnWrite ? "read_your_writes" : skippedForLag ? "lag" : "unhealthy");
+        return null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.student.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BulkImportResult — report returned by POST /api/students/bulk.
+ *
+ * Fields:
+ *  - received  : data rows read from the upload (header not counted)
+ *  - imported  : rows inserted into the database
+ *  - failed    : rows rejected by validation or by the database
+ *  - errors    : per-row details (only the first MAX_REPORTED_ERRORS are listed)
+ *  - elapsedMs : total time spent on the import
+ */
+public class BulkImportResult {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private long received;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+    private long elapsedMs;
+
+    /**
+     * Record a failed row. Counts every failure but keeps only the first
+     * MAX_REPORTED_ERRORS details, so a bad file can't blow up the report.
+     */
+    public void addError(long row, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, message));
+        }
+    }
+
+    public void addReceived() { received++; }
+    public void addImported(long count) { imported += count; }
+
+    // ─── Getters & Setters ─────────────────────────────────────────────────────
+
+    public long getReceived() { return received; }
+    public void setReceived(long received) { this.received = received; }
+
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+
+    public long getFailed() { return failed; }
+    public void setFailed(long failed) { this.failed = failed; }
+
+    public List<RowError> getErrors() { return errors; }
+    public void setErrors(List<RowError> errors) { this.errors = errors; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    /**
+     * One rejected row.
+     *  - row     : 1-based line number in the upload
+     *  - message : why it was rejected
+     */
+    public record RowError(long row, String message) {}
+}
@@ -0,0 +1,54 @@
+package com.student.dto;
+
+import com.student.model.Student;
+
+import java.util.List;
+
+/**
+ * StudentChanges — what changed since a sync position, returned by
+ * GET /api/students/changes?since=.
+ *
+ * Fields:
+ *  - upserts   : students inserted or updated since then (current values)
+ *  - deletes   : ids of students deleted since then
+ *  - watermark : pass this back as ?since= next time
+ *  - hasMore   : true if there are more changes — call again right away with the new watermark
+ *  - resync    : true if "since" is too old (its deletes were purged) — reload the whole list
+ */
+public class StudentChanges {
+
+    private List<Student> upserts;
+    private List<Long> deletes;
+    private long watermark;
+    private boolean hasMore;
+    private boolean resync;
+
+    // ─── Constructors ──────────────────────────────────────────────────────────
+
+    public StudentChanges() {}
+
+    public StudentChanges(List<Student> upserts, List<Long> deletes, long watermark, boolean hasMore, boolean resync) {
+        this.upserts = upserts;
+        this.deletes = deletes;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+        this.resync = resync;
+    }
+
+    // ─── Getters & Setters ─────────────────────────────────────────────────────
+
+    public List<Student> getUpserts() { return upserts; }
+    public void setUpserts(List<Student> upserts) { this.upserts = upserts; }
+
+    public List<Long> getDeletes() { return deletes; }
+    public void setDeletes(List<Long> deletes) { this.deletes = deletes; }
+
+    public long getWatermark() { return watermark; }
+    public void setWatermark(long watermark) { this.watermark = watermark; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public boolean isResync() { return resync; }
+    public void setResync(boolean resync) { this.resync = resync; }
+}
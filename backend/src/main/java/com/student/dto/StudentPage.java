@@ -0,0 +1,64 @@
+package com.student.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.student.model.Student;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StudentPage — one page of students returned by GET /api/students.
+ *
+ * Pagination is cursor based (keyset on id) instead of offset based:
+ *  - items      : the students on this page, ordered by id
+ *  - limit      : the page size that was used
+ *  - nextCursor : pass this back as ?after= to get the next page (null on the last page)
+ *  - hasMore    : true if there are more students after this page
+ *  - watermark  : change number the page is at least as new as — pass it to
+ *                 GET /api/students/changes?since= to keep the list up to date
+ *  - facets     : only with ?facets=true — number of matching students per
+ *                 course and per department, e.g. {"course": {"MCA": 12, ...}, ...}
+ */
+public class StudentPage {
+
+    private List<Student> items;
+    private int limit;
+    private String nextCursor;
+    private boolean hasMore;
+    private long watermark;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Map<String, Map<String, Long>> facets;
+
+    // ─── Constructors ──────────────────────────────────────────────────────────
+
+    public StudentPage() {}
+
+    public StudentPage(List<Student> items, int limit, String nextCursor, boolean hasMore, long watermark) {
+        this.items = items;
+        this.limit = limit;
+        this.nextCursor = nextCursor;
+        this.hasMore = hasMore;
+        this.watermark = watermark;
+    }
+
+    // ─── Getters & Setters ─────────────────────────────────────────────────────
+
+    public List<Student> getItems() { return items; }
+    public void setItems(List<Student> items) { this.items = items; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public boolean isHasMore() { return hasMore; }
+    public void setHasMore(boolean hasMore) { this.hasMore = hasMore; }
+
+    public long getWatermark() { return watermark; }
+    public void setWatermark(long watermark) { this.watermark = watermark; }
+
+    public Map<String, Map<String, Long>> getFacets() { return facets; }
+    public void setFacets(Map<String, Map<String, Long>> facets) { this.facets = facets; }
+}
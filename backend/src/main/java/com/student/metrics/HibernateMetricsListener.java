@@ -0,0 +1,75 @@
+package com.student.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * HibernateMetricsListener — counts JDBC statements and the time spent in
+ * them for the current request.
+ *
+ * Hibernate creates one per Session (hibernate.session.events.auto in
+ * application.properties) and calls it around every JDBC operation, so this
+ * covers every repository call — including queries nobody expected, like an
+ * N+1 loop, which show up as a high statements-per-request count.
+ * With student.sql-log.enabled it also hands each statement's time to SqlLog.
+ */
+public class HibernateMetricsListener implements SessionEventListener {
+
+    @Override
+    public void jdbcConnectionAcquisitionStart() {
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics != null) {
+            metrics.acquireStart = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void jdbcConnectionAcquisitionEnd() {
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics != null && metrics.acquireStart != 0) {
+            metrics.poolWaitNanos += System.nanoTime() - metrics.acquireStart;
+            metrics.acquireStart = 0;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        statementEnd();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        statementStart();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        statementEnd();
+    }
+
+    private static void statementStart() {
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics != null) {
+            metrics.statements++;
+            metrics.dbStart = System.nanoTime();
+        }
+    }
+
+    private static void statementEnd() {
+        RequestMetrics metrics = RequestMetrics.current();
+        if (metrics != null && metrics.dbStart != 0) {
+            long elapsed = System.nanoTime() - metrics.dbStart;
+            metrics.dbNanos += elapsed;
+            metrics.dbStart = 0;
+            if (metrics.sqlLog != null) {
+                metrics.sqlLog.executed(metrics.sql, elapsed);
+                metrics.sqlLog = null;
+                metrics.sql = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.student.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram — fixed-size, lock-free histogram of non-negative long values
+ * (HdrHistogram-style log-linear buckets).
+ *
+ * Values below 32 get a bucket each; above that every power of two is split
+ * into 16 buckets, so any recorded value is reported within ~6% of its true
+ * value. The whole range of a long fits in under 1000 buckets, so recording
+ * never allocates and a percentile is a single pass over one small array.
+ *
+ * Used for latencies (recorded in microseconds) and per-request counts.
+ */
+public class Histogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;   // 32 exact buckets at the bottom
+    private static final int HALF = SUB_COUNT / 2;         // 16 buckets per power of two above
+    private static final int BUCKETS = SUB_COUNT + (64 - SUB_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        count.increment();
+        sum.add(v);
+        max.accumulate(v);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long sum() {
+        return sum.sum();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Values at the given quantiles (each 0..1), from one consistent pass.
+     * A bucket is reported by its highest value, so results never understate.
+     */
+    public long[] percentiles(double... quantiles) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+
+        long[] result = new long[quantiles.length];
+        if (total == 0) {
+            return result;
+        }
+        long highest = max.get();
+        for (int q = 0; q < quantiles.length; q++) {
+            long rank = Math.max(1, (long) Math.ceil(quantiles[q] * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    result[q] = Math.min(highestValueIn(i), highest);
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    // ─── BUCKET MATH ───────────────────────────────────────────────────────────
+
+    static int indexOf(long v) {
+        if (v < SUB_COUNT) {
+            return (int) v;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(v);
+        int shift = msb - SUB_BITS + 1;                 // >= 1
+        int sub = (int) (v >>> shift);                  // HALF .. SUB_COUNT-1
+        return SUB_COUNT + (shift - 1) * HALF + (sub - HALF);
+    }
+
+    static long highestValueIn(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int k = index - SUB_COUNT;
+        int shift = k / HALF + 1;
+        long sub = k % HALF + HALF;
+        long high = ((sub + 1) << shift) - 1;
+        return high < 0 ? Long.MAX_VALUE : high;
+    }
+}
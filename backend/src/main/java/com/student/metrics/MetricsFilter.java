@@ -0,0 +1,109 @@
+package com.student.metrics;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * MetricsFilter — times every request and hands the result to MetricsRegistry.
+ *
+ * Runs first (before AuthTokenFilter), so rejected requests are counted too.
+ * Requests are grouped by the route pattern Spring matched
+ * (/api/students/{id}, not /api/students/42), which keeps the number of
+ * series small; anything that never reached a controller is "unmatched".
+ *
+ * Async requests (the streaming and /async endpoints) leave this filter as
+ * soon as the controller hands off, long before the response is written.
+ * For those the request stays in flight and its time is recorded only once
+ * the async work completes, fails or times out. DB and serialization time
+ * are still only counted on the request's original thread.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MetricsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        int area = metricsRegistry.enter(request.getRequestURI());
+        RequestMetrics metrics = RequestMetrics.open();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            async = request.isAsyncStarted();
+        } finally {
+            RequestMetrics.close();
+            if (async) {
+                request.getAsyncContext().addListener(new CompletionListener(request, response, start, area, metrics));
+            } else {
+                finish(request, response, start, area, metrics);
+            }
+        }
+    }
+
+    private void finish(HttpServletRequest request, HttpServletResponse response,
+                        long start, int area, RequestMetrics metrics) {
+        long elapsed = System.nanoTime() - start;
+        metricsRegistry.exit(area);
+
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String route = pattern != null ? pattern.toString() : "unmatched";
+        metricsRegistry.record(request.getMethod(), route, response.getStatus(), elapsed, metrics);
+    }
+
+    /**
+     * Records an async request when it ends. onComplete follows onError and
+     * onTimeout, so it is the one place that records (the status is final by then).
+     */
+    private final class CompletionListener implements AsyncListener {
+
+        private final HttpServletRequest request;
+        private final HttpServletResponse response;
+        private final long start;
+        private final int area;
+        private final RequestMetrics metrics;
+
+        CompletionListener(HttpServletRequest request, HttpServletResponse response,
+                           long start, int area, RequestMetrics metrics) {
+            this.request = request;
+            this.response = response;
+            this.start = start;
+            this.area = area;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            finish(request, response, start, area, metrics);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // startAsync() again clears the listeners; stay registered
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
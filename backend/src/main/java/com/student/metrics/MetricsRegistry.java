@@ -0,0 +1,319 @@
+package com.student.metrics;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MetricsRegistry — all hot-path metrics, rendered in Prometheus text format
+ * by GET /metrics.
+ *
+ * Per endpoint (HTTP method + route pattern, e.g. GET /api/students/{id}):
+ *  - request latency, DB time, connection wait, JSON serialization time and
+ *    JDBC statements per request, each as a Histogram (p50 / p99 / p999)
+ *  - responses by status class (2xx, 4xx, ...)
+ *
+ * Global:
+ *  - requests in flight per API area (/api/students, /api/users, /api/auth)
+ *  - Hikari connection-pool wait time, timeouts and pool gauges, per pool
+ *    (primary, replica-1, ...), and how long connections are held: the rate
+ *    of student_db_pool_usage_seconds_sum is the average number of
+ *    connections in use — the figure to size the pool by
+ *  - with read replicas: reads per target, fallbacks to the primary by
+ *    reason, and each replica's health and lag
+ *  - whether spring.jpa.show-sql is on (it logs every statement — costly under load)
+ *
+ * Recording is a map lookup plus a few atomic increments; nothing is
+ * aggregated until /metrics is scraped.
+ */
+@Component
+public class MetricsRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsRegistry.class);
+
+    private static final double[] QUANTILES = { 0.5, 0.99, 0.999 };
+    private static final String[] AREAS = { "/api/students", "/api/users", "/api/auth" };
+    private static final long WARN_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    @Value("${student.metrics.statement-warn-threshold:25}")
+    private int statementWarnThreshold;
+
+    @Value("${spring.jpa.show-sql:false}")
+    private boolean showSql;
+
+    private final ConcurrentHashMap<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    // One counter per entry of AREAS, plus one for everything else
+    private final AtomicInteger[] inFlight = new AtomicInteger[AREAS.length + 1];
+
+    private final ConcurrentHashMap<String, Pool> pools = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, LongAdder> readsByTarget = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> readFallbacks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, long[]> replicaStatus = new ConcurrentHashMap<>();
+
+    public MetricsRegistry() {
+        for (int i = 0; i < inFlight.length; i++) {
+            inFlight[i] = new AtomicInteger();
+        }
+    }
+
+    // ─── RECORDING ─────────────────────────────────────────────────────────────
+
+    /** A request started; returns the area to pass to exit(). */
+    int enter(String path) {
+        int area = AREAS.length;
+        for (int i = 0; i < AREAS.length; i++) {
+            if (path.startsWith(AREAS[i])) {
+                area = i;
+                break;
+            }
+        }
+        inFlight[area].incrementAndGet();
+        return area;
+    }
+
+    void exit(int area) {
+        inFlight[area].decrementAndGet();
+    }
+
+    /** A request finished. route is the matched pattern, or "unmatched". */
+    void record(String method, String route, int status, long totalNanos, RequestMetrics request) {
+        String key = method + " " + route;
+        Endpoint endpoint = endpoints.get(key);
+        if (endpoint == null) {
+            endpoint = endpoints.computeIfAbsent(key, k -> new Endpoint(method, route));
+        }
+        endpoint.latency.record(TimeUnit.NANOSECONDS.toMicros(totalNanos));
+        endpoint.db.record(TimeUnit.NANOSECONDS.toMicros(request.dbNanos));
+        endpoint.connectionWait.record(TimeUnit.NANOSECONDS.toMicros(request.poolWaitNanos));
+        endpoint.serialization.record(TimeUnit.NANOSECONDS.toMicros(request.serializationNanos));
+        endpoint.statements.record(request.statements);
+        endpoint.byStatus[Math.min(Math.max(status / 100, 1), 5) - 1].increment();
+
+        if (request.statements > statementWarnThreshold) {
+            endpoint.warnManyStatements(request.statements, statementWarnThreshold);
+        }
+    }
+
+    /** Hikari calls the tracker this creates on every connection checkout. */
+    public MetricsTrackerFactory hikariTrackerFactory() {
+        return (poolName, stats) -> {
+            Pool pool = pools.computeIfAbsent(poolName, Pool::new);
+            pool.stats = stats;
+            return new IMetricsTracker() {
+                @Override
+                public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                    pool.wait.record(TimeUnit.NANOSECONDS.toMicros(elapsedAcquiredNanos));
+                }
+
+                @Override
+                public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                    pool.usage.record(TimeUnit.MILLISECONDS.toMicros(elapsedBorrowedMillis));
+                }
+
+                @Override
+                public void recordConnectionTimeout() {
+                    pool.timeouts.increment();
+                }
+            };
+        };
+    }
+
+    /** A replica-eligible read got a connection from target ("primary" or a replica name). */
+    public void recordRead(String target) {
+        counter(readsByTarget, target).increment();
+    }
+
+    /** A replica-eligible read went to the primary: read_your_writes, lag or unhealthy. */
+    public void recordReadFallback(String reason) {
+        counter(readFallbacks, reason).increment();
+    }
+
+    /** Result of the latest ReplicaMonitor check. */
+    public void replicaStatus(String replica, boolean healthy, long lagMs) {
+        replicaStatus.put(replica, new long[] { healthy ? 1 : 0, lagMs });
+    }
+
+    private static LongAdder counter(ConcurrentHashMap<String, LongAdder> counters, String key) {
+        LongAdder counter = counters.get(key);
+        return counter != null ? counter : counters.computeIfAbsent(key, k -> new LongAdder());
+    }
+
+    // ─── PROMETHEUS TEXT FORMAT ────────────────────────────────────────────────
+
+    /** All metrics in the Prometheus text exposition format (version 0.0.4). */
+    public String scrape() {
+        StringBuilder out = new StringBuilder(8192);
+        Map<String, Endpoint> sorted = new TreeMap<>(endpoints);
+
+        header(out, "student_http_request_seconds", "summary", "Request latency per endpoint");
+        sorted.values().forEach(e -> summary(out, "student_http_request_seconds", e.labels(), e.latency, true));
+
+        header(out, "student_http_db_seconds", "summary", "Time spent in JDBC statements per request");
+        sorted.values().forEach(e -> summary(out, "student_http_db_seconds", e.labels(), e.db, true));
+
+        header(out, "student_http_connection_wait_seconds", "summary", "Time spent waiting for a pooled connection per request");
+        sorted.values().forEach(e -> summary(out, "student_http_connection_wait_seconds", e.labels(), e.connectionWait, true));
+
+        header(out, "student_http_serialization_seconds", "summary", "Time spent writing the JSON response per request");
+        sorted.values().forEach(e -> summary(out, "student_http_serialization_seconds", e.labels(), e.serialization, true));
+
+        header(out, "student_http_db_statements", "summary", "JDBC statements executed per request");
+        sorted.values().forEach(e -> summary(out, "student_http_db_statements", e.labels(), e.statements, false));
+
+        header(out, "student_http_responses_total", "counter", "Responses per endpoint and status class");
+        sorted.values().forEach(e -> {
+            for (int i = 0; i < e.byStatus.length; i++) {
+                long count = e.byStatus[i].sum();
+                if (count > 0) {
+                    sample(out, "student_http_responses_total", e.labels() + ",status=\"" + (i + 1) + "xx\"", count);
+                }
+            }
+        });
+
+        header(out, "student_http_requests_in_flight", "gauge", "Requests currently being handled");
+        for (int i = 0; i < inFlight.length; i++) {
+            String area = i < AREAS.length ? AREAS[i] : "other";
+            sample(out, "student_http_requests_in_flight", "area=\"" + area + "\"", inFlight[i].get());
+        }
+
+        Map<String, Pool> sortedPools = new TreeMap<>(pools);
+        header(out, "student_db_pool_wait_seconds", "summary", "Time spent waiting for a pooled connection");
+        sortedPools.values().forEach(p -> summary(out, "student_db_pool_wait_seconds", p.label, p.wait, true));
+        header(out, "student_db_pool_usage_seconds", "summary", "Time a connection was held per checkout");
+        sortedPools.values().forEach(p -> summary(out, "student_db_pool_usage_seconds", p.label, p.usage, true));
+        header(out, "student_db_pool_timeouts_total", "counter", "Connection requests that timed out");
+        sortedPools.values().forEach(p -> sample(out, "student_db_pool_timeouts_total", p.label, p.timeouts.sum()));
+
+        header(out, "student_db_pool_connections", "gauge", "Connections in the pool by state");
+        sortedPools.values().forEach(p -> {
+            PoolStats stats = p.stats;
+            if (stats != null) {
+                sample(out, "student_db_pool_connections", p.label + ",state=\"active\"", stats.getActiveConnections());
+                sample(out, "student_db_pool_connections", p.label + ",state=\"idle\"", stats.getIdleConnections());
+                sample(out, "student_db_pool_connections", p.label + ",state=\"max\"", stats.getMaxConnections());
+            }
+        });
+        header(out, "student_db_pool_pending_threads", "gauge", "Threads waiting for a connection");
+        sortedPools.values().forEach(p -> {
+            if (p.stats != null) {
+                sample(out, "student_db_pool_pending_threads", p.label, p.stats.getPendingThreads());
+            }
+        });
+
+        if (!replicaStatus.isEmpty()) {
+            header(out, "student_db_reads_total", "counter", "Replica-eligible reads by the database they went to");
+            new TreeMap<>(readsByTarget).forEach((target, count) ->
+                    sample(out, "student_db_reads_total", "target=\"" + escape(target) + "\"", count.sum()));
+            header(out, "student_db_read_fallbacks_total", "counter", "Replica-eligible reads sent to the primary, by reason");
+            new TreeMap<>(readFallbacks).forEach((reason, count) ->
+                    sample(out, "student_db_read_fallbacks_total", "reason=\"" + reason + "\"", count.sum()));
+            Map<String, long[]> sortedReplicas = new TreeMap<>(replicaStatus);
+            header(out, "student_db_replica_healthy", "gauge", "1 if the replica passed its last check");
+            sortedReplicas.forEach((name, status) ->
+                    sample(out, "student_db_replica_healthy", "replica=\"" + escape(name) + "\"", status[0]));
+            header(out, "student_db_replica_lag_seconds", "gauge", "How far the replica was behind the primary at its last check");
+            sortedReplicas.forEach((name, status) ->
+                    sample(out, "student_db_replica_lag_seconds", "replica=\"" + escape(name) + "\"", status[1] / 1e3));
+        }
+
+        header(out, "student_jpa_show_sql_enabled", "gauge", "1 if spring.jpa.show-sql is on");
+        sample(out, "student_jpa_show_sql_enabled", "", showSql ? 1 : 0);
+        return out.toString();
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /** @param micros true if the histogram holds microseconds (exported as seconds) */
+    private static void summary(StringBuilder out, String name, String labels, Histogram histogram, boolean micros) {
+        long[] values = histogram.percentiles(QUANTILES);
+        String separator = labels.isEmpty() ? "" : ",";
+        for (int i = 0; i < QUANTILES.length; i++) {
+            out.append(name).append('{').append(labels).append(separator)
+               .append("quantile=\"").append(QUANTILES[i]).append("\"} ")
+               .append(micros ? values[i] / 1e6 : values[i]).append('\n');
+        }
+        sample(out, name + "_sum", labels, micros ? histogram.sum() / 1e6 : histogram.sum());
+        sample(out, name + "_count", labels, histogram.count());
+    }
+
+    private static void sample(StringBuilder out, String name, String labels, Number value) {
+        out.append(name);
+        if (!labels.isEmpty()) {
+            out.append('{').append(labels).append('}');
+        }
+        out.append(' ').append(value).append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    // ─── ONE CONNECTION POOL ───────────────────────────────────────────────────
+
+    private static final class Pool {
+        final String label;
+        final Histogram wait = new Histogram();
+        final Histogram usage = new Histogram();
+        final LongAdder timeouts = new LongAdder();
+        volatile PoolStats stats;
+
+        Pool(String name) {
+            this.label = "pool=\"" + escape(name) + "\"";
+        }
+    }
+
+    // ─── ONE ENDPOINT ──────────────────────────────────────────────────────────
+
+    private static final class Endpoint {
+        final String method;
+        final String route;
+        final String labels;
+        final Histogram latency = new Histogram();
+        final Histogram db = new Histogram();
+        final Histogram connectionWait = new Histogram();
+        final Histogram serialization = new Histogram();
+        final Histogram statements = new Histogram();
+        final LongAdder[] byStatus = new LongAdder[5];
+        final AtomicLong lastWarning = new AtomicLong(System.nanoTime() - WARN_INTERVAL_NANOS);
+
+        Endpoint(String method, String route) {
+            this.method = method;
+            this.route = route;
+            this.labels = "method=\"" + escape(method) + "\",route=\"" + escape(route) + "\"";
+            for (int i = 0; i < byStatus.length; i++) {
+                byStatus[i] = new LongAdder();
+            }
+        }
+
+        String labels() {
+            return labels;
+        }
+
+        /** Log at most once a minute per endpoint — a likely N+1 query or missing fetch join. */
+        void warnManyStatements(int count, int threshold) {
+            long now = System.nanoTime();
+            long last = lastWarning.get();
+            if (now - last >= WARN_INTERVAL_NANOS && lastWarning.compareAndSet(last, now)) {
+                log.warn("{} {} ran {} SQL statements in one request (threshold {}) — possible N+1 query",
+                        method, route, count, threshold);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.student.metrics;
+
+/**
+ * RequestMetrics — where the time of the current HTTP request went.
+ *
+ * MetricsFilter opens one per request and binds it to the request thread;
+ * the Hibernate listener and the timed JSON converter add to it from deeper
+ * down the call stack. Outside a request (scheduled jobs, startup) current()
+ * is null and those calls are simply not counted.
+ *
+ * Only ever touched by the request's own thread, so plain fields are enough.
+ */
+public final class RequestMetrics {
+
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    long dbNanos;
+    long poolWaitNanos;
+    long serializationNanos;
+    int statements;
+
+    // Start times of the JDBC call / connection checkout in progress
+    long dbStart;
+    long acquireStart;
+
+    // The statement in progress, when SqlLog is on
+    String sql;
+    SqlLog sqlLog;
+
+    public static RequestMetrics current() {
+        return CURRENT.get();
+    }
+
+    static RequestMetrics open() {
+        RequestMetrics metrics = new RequestMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    public void addSerializationNanos(long nanos) {
+        serializationNanos += nanos;
+    }
+}
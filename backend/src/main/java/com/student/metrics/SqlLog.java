@@ -0,0 +1,68 @@
+package com.student.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * SqlLog — a sampled, structured log of the SQL run for requests, in place
+ * of spring.jpa.show-sql (which prints every statement, synchronously, on
+ * the request thread).
+ *
+ * A statement is logged when it took at least student.sql-log.slow-ms, and
+ * otherwise with probability student.sql-log.sample-rate. Lines go to the
+ * "com.student.sql" logger, one key=value line per statement:
+ *     ms=0.84 slow=false sql="select s1_0.id,... from students s1_0 where s1_0.id=?"
+ * logback-spring.xml sends that logger through an async appender that drops
+ * lines rather than block when it falls behind.
+ *
+ * Hibernate passes every statement through here before preparing it (see
+ * MetricsConfig); HibernateMetricsListener times it and calls executed().
+ * Only SQL run for HTTP requests is seen — JdbcTemplate queries and
+ * statements outside a request (startup, scheduled jobs) are not.
+ */
+@Component
+public class SqlLog implements StatementInspector {
+
+    private static final Logger sqlLog = LoggerFactory.getLogger("com.student.sql");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    @Value("${student.sql-log.enabled:false}")
+    private boolean enabled;
+
+    @Value("${student.sql-log.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${student.sql-log.slow-ms:100}")
+    private long slowMs;
+
+    @Override
+    public String inspect(String sql) {
+        if (enabled) {
+            RequestMetrics metrics = RequestMetrics.current();
+            if (metrics != null) {
+                metrics.sql = sql;
+                metrics.sqlLog = this;
+            }
+        }
+        return sql;
+    }
+
+    /** A statement passed to inspect() has run, taking this long. */
+    void executed(String sql, long nanos) {
+        boolean slow = nanos >= TimeUnit.MILLISECONDS.toNanos(slowMs);
+        if (!slow && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        if (sqlLog.isInfoEnabled()) {
+            sqlLog.info("ms={} slow={} sql=\"{}\"", String.format("%.2f", nanos / 1e6), slow,
+                    WHITESPACE.matcher(sql).replaceAll(" ").replace("\"", "\\\""));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.student.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * ChangeReservation — change numbers handed out to a write that has not
+ * committed yet (see StudentChangeLog).
+ *
+ * Fields:
+ *  - firstSeq   : the first of the reserved numbers (they are consecutive)
+ *  - reservedAt : when they were handed out; a reservation left behind by a
+ *                 node that died mid-write is dropped after a timeout
+ *
+ * The row is written in a short transaction of its own and deleted by the
+ * writing transaction itself, so it disappears exactly when the write
+ * becomes visible.
+ */
+@Entity
+@Table(name = "change_reservations")
+public class ChangeReservation {
+
+    @Id
+    @Column(name = "first_seq")
+    private Long firstSeq;
+
+    @Column(name = "reserved_at", nullable = false)
+    private Instant reservedAt;
+
+    // ─── Constructors ──────────────────────────────────────────────────────────
+
+    public ChangeReservation() {}
+
+    public ChangeReservation(Long firstSeq, Instant reservedAt) {
+        this.firstSeq = firstSeq;
+        this.reservedAt = reservedAt;
+    }
+
+    // ─── Getters & Setters ─────────────────────────────────────────────────────
+
+    public Long getFirstSeq() { return firstSeq; }
+    public void setFirstSeq(Long firstSeq) { this.firstSeq = firstSeq; }
+
+    public Instant getReservedAt() { return reservedAt; }
+    public void setReservedAt(Instant reservedAt) { this.reservedAt = reservedAt; }
+}
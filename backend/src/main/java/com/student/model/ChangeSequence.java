@@ -0,0 +1,45 @@
+package com.student.model;
+
+import jakarta.persistence.*;
+
+/**
+ * ChangeSequence — a named counter stored in the database (one row per name).
+ *
+ * Fields:
+ *  - name          : which sequence, e.g. "students"
+ *  - value         : the last number handed out
+ *  - purgedThrough : tombstones up to this number have been deleted; clients
+ *                    syncing from an older position must reload everything
+ */
+@Entity
+@Table(name = "change_sequences")
+public class ChangeSequence {
+
+    @Id
+    private String name;
+
+    @Column(name = "current_value", nullable = false)
+    private long value;
+
+    @Column(name = "purged_through", nullable = false)
+    private long purgedThrough;
+
+    // ─── Constructors ──────────────────────────────────────────────────────────
+
+    public ChangeSequence() {}
+
+    public ChangeSequence(String name) {
+        this.name = name;
+    }
+
+    // ─── Getters & Setters ─────────────────────────────────────────────────────
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public long getValue() { return value; }
+    public void setValue(long value) { this.value = value; }
+
+    public long getPurgedThrough() { return purgedThrough; }
+    public void setPurgedThrough(long purgedThrough) { this.purgedThrough = purgedThrough; }
+}
@@ -2,6 +2,8 @@ package com.student.model;
 
 import jakarta.persistence.*;
 
+import java.time.Instant;
+
 /**
  * Student Entity — represents a student record in the system.
  * 
@@ -11,9 +13,18 @@ import jakarta.persistence.*;
  *  - email      : student's email address
  *  - course     : e.g., "B.Tech", "MCA", "BCA"
  *  - department : e.g., "Computer Science", "Mechanical"
+ *  - changeSeq  : position of this row's last change in the global change
+ *                 sequence (see StudentChangeLog) — doubles as the row version / ETag
+ *  - updatedAt  : when the row was last written
  */
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+        @Index(name = "idx_students_change_seq", columnList = "change_seq"),
+        // Filters, sort and facet counts of GET /api/students (see StudentListQuery)
+        @Index(name = "idx_students_course_department", columnList = "course, department"),
+        @Index(name = "idx_students_department_course", columnList = "department, course"),
+        @Index(name = "idx_students_name", columnList = "name")
+})
 public class Student {
 
     @Id
@@ -32,6 +43,12 @@ public class Student {
     @Column(nullable = false)
     private String department;
 
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
     // ─── Constructors ──────────────────────────────────────────────────────────
 
     public Student() {}
@@ -43,6 +60,37 @@ public class Student {
         this.department = department;
     }
 
+    /**
+     * Every column — for read queries that select
+     * "new com.student.model.Student(s.id, ...)" (StudentRepository.NEW_STUDENT).
+     * Those rows are plain objects: Hibernate keeps no snapshot of them and
+     * doesn't register them in the persistence context.
+     */
+    public Student(Long id, String name, String email, String course, String department,
+                   Long changeSeq, Instant updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.course = course;
+        this.department = department;
+        this.changeSeq = changeSeq;
+        this.updatedAt = updatedAt;
+    }
+
+    /**
+     * Copy constructor — used by in-memory indexes and caches so they keep
+     * their own detached copy instead of a Hibernate-managed entity.
+     */
+    public Student(Student source) {
+        this.id = source.id;
+        this.name = source.name;
+        this.email = source.email;
+        this.course = source.course;
+        this.department = source.department;
+        this.changeSeq = source.changeSeq;
+        this.updatedAt = source.updatedAt;
+    }
+
     // ─── Getters & Setters ─────────────────────────────────────────────────────
 
     public Long getId() { return id; }
@@ -60,6 +108,12 @@ public class Student {
     public String getDepartment() { return department; }
     public void setDepartment(String department) { this.department = department; }
 
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
     @Override
     public String toString() {
         return "Student{id=" + id + ", name='" + name + "', email='" + email + 
@@ -0,0 +1,73 @@
+package com.student.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * StudentEvent — one student change in the outbox, written in the same
+ * transaction as the change itself (see StudentOutbox) and relayed to
+ * subscribers by StudentEventRelay.
+ *
+ * Fields:
+ *  - id        : row id (assigned at insert, so not in commit order)
+ *  - type      : SAVED (insert or update) or DELETED
+ *  - studentId : the student that changed
+ *  - changeSeq : the change number of the write — the position in the event
+ *                stream (null only in rows written before deletes had one)
+ *  - payload   : the student as JSON — as saved, or as it was when deleted
+ *  - createdAt : when the change was made (old events are purged)
+ */
+@Entity
+@Table(name = "student_events", indexes = {
+        @Index(name = "idx_student_events_created_at", columnList = "created_at"),
+        @Index(name = "idx_student_events_change_seq", columnList = "change_seq") })
+public class StudentEvent {
+
+    public enum Type { SAVED, DELETED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Type type;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    @Column(name = "change_seq")
+    private Long changeSeq;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    // ─── Constructors ──────────────────────────────────────────────────────────
+
+    public StudentEvent() {}
+
+    // ─── Getters & Setters ─────────────────────────────────────────────────────
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Type getType() { return type; }
+    public void setType(Type type) { this.type = type; }
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,50 @@
+package com.student.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+/**
+ * StudentTombstone — remembers that a student was deleted, so clients syncing
+ * with GET /api/students/changes learn about deletes, not just inserts and updates.
+ *
+ * Fields:
+ *  - studentId : id of the deleted student (ids are never reused)
+ *  - changeSeq : position of the delete in the global change sequence
+ *  - deletedAt : when it was deleted (old tombstones are purged, see StudentChangeLog)
+ */
+@Entity
+@Table(name = "student_tombstones", indexes = @Index(name = "idx_tombstones_change_seq", columnList = "change_seq"))
+public class StudentTombstone {
+
+    @Id
+    @Column(name = "student_id")
+    private Long studentId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    // ─── Constructors ──────────────────────────────────────────────────────────
+
+    public StudentTombstone() {}
+
+    public StudentTombstone(Long studentId, Long changeSeq, Instant deletedAt) {
+        this.studentId = studentId;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    // ─── Getters & Setters ─────────────────────────────────────────────────────
+
+    public Long getStudentId() { return studentId; }
+    public void setStudentId(Long studentId) { this.studentId = studentId; }
+
+    public Long getChangeSeq() { return changeSeq; }
+    public void setChangeSeq(Long changeSeq) { this.changeSeq = changeSeq; }
+
+    public Instant getDeletedAt() { return deletedAt; }
+    public void setDeletedAt(Instant deletedAt) { this.deletedAt = deletedAt; }
+}
@@ -8,7 +8,7 @@ import jakarta.persistence.*;
  * Fields:
  *  - id       : auto-generated primary key
  *  - username : unique login name
- *  - password : plain text password (simple auth for beginners)
+ *  - password : PBKDF2 hash of the password (see PasswordHasher)
  *  - role     : either "ADMIN" or "USER"
  */
 @Entity
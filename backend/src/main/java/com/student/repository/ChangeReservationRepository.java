@@ -0,0 +1,37 @@
+package com.student.repository;
+
+import com.student.model.ChangeReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+/**
+ * ChangeReservationRepository — change numbers handed out but not yet committed.
+ */
+@Repository
+public interface ChangeReservationRepository extends JpaRepository<ChangeReservation, Long> {
+
+    /**
+     * The lowest change number that may still be committed (null if none).
+     * Everything below it is either committed or rolled back.
+     */
+    @Query("SELECT MIN(r.firstSeq) FROM ChangeReservation r")
+    Long lowestOpen();
+
+    /**
+     * Drop one reservation. Called inside the writing transaction, so the
+     * reservation ends exactly when that transaction commits.
+     */
+    @Modifying
+    @Query("DELETE FROM ChangeReservation r WHERE r.firstSeq = :firstSeq")
+    int release(@Param("firstSeq") long firstSeq);
+
+    /** Drop reservations of writers that never finished (e.g. a node that crashed). */
+    @Modifying
+    @Query("DELETE FROM ChangeReservation r WHERE r.reservedAt < :cutoff")
+    int deleteReservedBefore(@Param("cutoff") Instant cutoff);
+}
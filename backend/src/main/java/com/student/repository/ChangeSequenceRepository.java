@@ -0,0 +1,29 @@
+package com.student.repository;
+
+import com.student.model.ChangeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * ChangeSequenceRepository — reads and locks the named change counters.
+ */
+@Repository
+public interface ChangeSequenceRepository extends JpaRepository<ChangeSequence, String> {
+
+    /**
+     * Load a counter and lock its row until the transaction ends.
+     *
+     * SQL equivalent: SELECT ... WHERE name = :name FOR UPDATE
+     * Taken in short transactions of their own (StudentChangeLog.take, id
+     * blocks, the shard email check), so no write holds it until it commits.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ChangeSequence c WHERE c.name = :name")
+    Optional<ChangeSequence> lockByName(@Param("name") String name);
+}
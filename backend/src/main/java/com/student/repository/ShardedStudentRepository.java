@@ -0,0 +1,792 @@
+package com.student.repository;
+
+import com.student.metrics.MetricsRegistry;
+import com.student.model.ChangeSequence;
+import com.student.model.Student;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * ShardedStudentRepository — the students table split across several
+ * databases (opt-in, student.shards.urls). Without it every method is unused
+ * and StudentRepository works on the single database as before.
+ *
+ * Routing:
+ *  - a student lives on shard hash(id) % shard count, so one-student reads
+ *    and writes (findById, insert, updateIfVersion, deleteIfVersion) go to
+ *    exactly one database
+ *  - everything else (pages, name search, counts, changes, full scans) is
+ *    asked of all shards in parallel and merged here — by id, or by change
+ *    number for delta sync
+ *
+ * Ids come from the "student_ids" row of change_sequences on the main
+ * database (blocks of student.shards.id-block-size per node) instead of
+ * AUTO_INCREMENT, so they are unique across shards and stay small enough for
+ * JavaScript numbers.
+ *
+ * Writes are single statements (autocommit) on the shard. Writes that set an
+ * email check the other shards and write under the "student_emails" row
+ * lock of change_sequences, taken in a short transaction of its own, which
+ * keeps emails unique across shards; each shard still has its own unique
+ * index on email. Emails compare like StudentEmailIndex (trimmed, ignoring
+ * case): in SQL through the column's collation, case-insensitive by default
+ * on MySQL, and in Java by emailKey(). Other writes don't lock anything:
+ * updates and deletes only apply at the version they read (updateIfVersion,
+ * deleteIfVersion).
+ *
+ * A shard write can't join the caller's transaction on the main database
+ * (change numbers, tombstones, outbox), so each one leaves an undo step with
+ * it instead: if that transaction rolls back, the steps run newest first —
+ * an insert is deleted, an update or delete puts the previous row back —
+ * each only if the row is still as that write left it.
+ *
+ * Shard tables are created at startup if missing. The shard count is fixed:
+ * adding a shard later moves most students to a different shard, so the
+ * rows would have to be re-imported.
+ */
+@Repository
+public class ShardedStudentRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedStudentRepository.class);
+
+    static final String ID_SEQUENCE = "student_ids";
+
+    static final String EMAIL_LOCK = "student_emails";
+
+    static final String COLUMNS = "id, name, email, course, department, change_seq, updated_at";
+
+    private static final String CREATE_TABLE_SQL = "CREATE TABLE IF NOT EXISTS students ("
+            + "id BIGINT NOT NULL PRIMARY KEY, "
+            + "name VARCHAR(255) NOT NULL, "
+            + "email VARCHAR(255) NOT NULL, "
+            + "course VARCHAR(255) NOT NULL, "
+            + "department VARCHAR(255) NOT NULL, "
+            + "change_seq BIGINT, "
+            + "updated_at DATETIME(6), "
+            + "CONSTRAINT uk_students_email UNIQUE (email), "
+            + "INDEX idx_students_change_seq (change_seq), "
+            + "INDEX idx_students_course_department (course, department), "
+            + "INDEX idx_students_department_course (department, course), "
+            + "INDEX idx_students_name (name))";
+
+    private static final String INSERT_SQL = "INSERT INTO students (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL = "UPDATE students SET name = COALESCE(?, name), email = COALESCE(?, email), "
+            + "course = COALESCE(?, course), department = COALESCE(?, department), change_seq = ?, updated_at = ? "
+            + "WHERE id = ? AND ";
+
+    private static final String RESTORE_SQL = "UPDATE students SET name = ?, email = ?, course = ?, department = ?, "
+            + "change_seq = ?, updated_at = ? WHERE id = ? AND change_seq = ?";
+
+    static final RowMapper<Student> ROW_MAPPER = (rs, rowNum) -> toStudent(rs);
+
+    @Value("${student.shards.urls:}")
+    private List<String> urls;
+
+    @Value("${student.shards.username:${spring.datasource.username}}")
+    private String username;
+
+    @Value("${student.shards.password:${spring.datasource.password}}")
+    private String password;
+
+    @Value("${student.shards.pool-size:10}")
+    private int poolSize;
+
+    @Value("${student.shards.id-block-size:100}")
+    private int idBlockSize;
+
+    @Value("${student.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Autowired
+    private ChangeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MetricsRegistry metrics;
+
+    private final List<Shard> shards = new ArrayList<>();
+    private ExecutorService fanOut;
+    private TransactionTemplate newTransaction;
+
+    // Bound to the caller's transaction while it has shard writes to undo on rollback
+    private final Object undoKey = new Object();
+
+    // The current block of ids: next to hand out, and the last one in the block
+    private final Object idLock = new Object();
+    private long nextId = 1;
+    private long lastId = 0;
+
+    /** One database holding a share of the students. */
+    private record Shard(HikariDataSource dataSource, JdbcTemplate jdbc, TransactionTemplate transaction) {
+        String name() {
+            return dataSource.getPoolName();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("shard-" + (shards.size() + 1));
+            pool.setJdbcUrl(url.trim());
+            pool.setUsername(username);
+            pool.setPassword(password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setMetricsTrackerFactory(metrics.hikariTrackerFactory());
+            JdbcTemplate jdbc = new JdbcTemplate(pool);
+            jdbc.execute(CREATE_TABLE_SQL);
+            shards.add(new Shard(pool, jdbc,
+                    new TransactionTemplate(new DataSourceTransactionManager(pool))));
+        }
+        if (shards.isEmpty()) {
+            return;
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        fanOut = Executors.newFixedThreadPool(shards.size() * poolSize, task -> {
+            Thread thread = new Thread(task, "student-shard-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        log.info("Student sharding on: {} shards", shards.size());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (fanOut != null) {
+            fanOut.shutdownNow();
+        }
+        shards.forEach(shard -> shard.dataSource().close());
+    }
+
+    public boolean isEnabled() {
+        return !shards.isEmpty();
+    }
+
+    private Shard shardOf(long id) {
+        // Fibonacci hashing: consecutive ids (one node's id block) spread over all shards
+        return shards.get(Math.floorMod(Long.hashCode(id * 0x9E3779B97F4A7C15L), shards.size()));
+    }
+
+    // ─── ONE SHARD ─────────────────────────────────────────────────────────────
+
+    public Optional<Student> findById(Long id) {
+        List<Student> rows = shardOf(id).jdbc().query(
+                "SELECT " + COLUMNS + " FROM students WHERE id = ?", ROW_MAPPER, id);
+        return rows.stream().findFirst();
+    }
+
+    /**
+     * Insert one student. Assigns the id if it has none; the caller has set
+     * changeSeq and updatedAt.
+     *
+     * @throws DuplicateKeyException if another student already has the email
+     */
+    public Student insert(Student student) {
+        if (student.getId() == null) {
+            student.setId(nextId());
+        }
+        Shard shard = shardOf(student.getId());
+        withEmailsLocked(() -> {
+            if (emailTaken(student.getEmail(), student.getId())) {
+                throw duplicateEmail(student.getEmail());
+            }
+            return shard.jdbc().update(INSERT_SQL, ps -> bind(ps, student));
+        });
+        Long id = student.getId();
+        Long seq = student.getChangeSeq();
+        onRollback(() -> deleteAt(id, seq));
+        return student;
+    }
+
+    /**
+     * Same as StudentRepository.updateIfVersion: one UPDATE on the student's
+     * shard, only if change_seq is still before's (null = never numbered).
+     *
+     * @param before the row as last read; it is put back if the caller's transaction rolls back
+     * @return 1 if updated, 0 if the student is gone or was changed meanwhile
+     * @throws DuplicateKeyException if email is set and belongs to another student
+     */
+    public int updateIfVersion(Student before, String name, String email, String course, String department,
+                               long seq, Instant now) {
+        Long id = before.getId();
+        Long version = before.getChangeSeq();
+        String sql = UPDATE_SQL + (version == null ? "change_seq IS NULL" : "change_seq = ?");
+        Object[] args = version == null
+                ? new Object[] { name, email, course, department, seq, Timestamp.from(now), id }
+                : new Object[] { name, email, course, department, seq, Timestamp.from(now), id, version };
+        int updated = email == null
+                ? shardOf(id).jdbc().update(sql, args)
+                : withEmailsLocked(() -> {
+                    if (emailTaken(email, id)) {
+                        throw duplicateEmail(email);
+                    }
+                    return shardOf(id).jdbc().update(sql, args);
+                });
+        if (updated == 1) {
+            Student previous = new Student(before);
+            onRollback(() -> restore(previous, seq));
+        }
+        return updated;
+    }
+
+    /**
+     * Same as StudentRepository.deleteIfVersion (null version = never numbered).
+     *
+     * @param before the row as last read; it is put back if the caller's transaction rolls back
+     */
+    public int deleteIfVersion(Student before) {
+        int deleted = deleteAt(before.getId(), before.getChangeSeq());
+        if (deleted == 1) {
+            Student previous = new Student(before);
+            onRollback(() -> reinsert(previous));
+        }
+        return deleted;
+    }
+
+    private int deleteAt(Long id, Long version) {
+        return version == null
+                ? shardOf(id).jdbc().update("DELETE FROM students WHERE id = ? AND change_seq IS NULL", id)
+                : shardOf(id).jdbc().update("DELETE FROM students WHERE id = ? AND change_seq = ?", id, version);
+    }
+
+    // ─── BATCH INSERT ──────────────────────────────────────────────────────────
+
+    /**
+     * Insert many students (bulk import): ids are assigned, then each shard's
+     * share goes in as one JDBC batch in its own transaction, all shards in
+     * parallel. Rows whose email is already taken are skipped.
+     *
+     * @return the rows that were not inserted (email taken, or their shard's
+     *         batch failed and was rolled back) — retry those one by one
+     */
+    public List<Student> insertAll(List<Student> rows) {
+        List<Student> rejected = withEmailsLocked(() -> insertAllLocked(rows));
+
+        Set<Student> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        failed.addAll(rejected);
+        List<Student> inserted = new ArrayList<>(rows.size() - rejected.size());
+        for (Student student : rows) {
+            if (!failed.contains(student)) {
+                inserted.add(new Student(student));
+            }
+        }
+        onRollback(() -> inserted.forEach(row -> deleteAt(row.getId(), row.getChangeSeq())));
+        return rejected;
+    }
+
+    private List<Student> insertAllLocked(List<Student> rows) {
+        List<Student> rejected = new ArrayList<>();
+        Set<String> taken = takenEmails(rows.stream().map(Student::getEmail).toList());
+        Map<Shard, List<Student>> byShard = new HashMap<>();
+        Set<String> seen = new HashSet<>();
+        for (Student student : rows) {
+            String key = emailKey(student.getEmail());
+            if (taken.contains(key) || !seen.add(key)) {
+                rejected.add(student);
+                continue;
+            }
+            if (student.getId() == null) {
+                student.setId(nextId());
+            }
+            byShard.computeIfAbsent(shardOf(student.getId()), s -> new ArrayList<>()).add(student);
+        }
+
+        List<Future<?>> pending = new ArrayList<>();
+        List<List<Student>> batches = new ArrayList<>();
+        for (Map.Entry<Shard, List<Student>> entry : byShard.entrySet()) {
+            Shard shard = entry.getKey();
+            List<Student> batch = entry.getValue();
+            batches.add(batch);
+            pending.add(fanOut.submit(() -> shard.transaction().executeWithoutResult(status ->
+                    shard.jdbc().batchUpdate(INSERT_SQL, batch, batch.size(), ShardedStudentRepository::bind))));
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            try {
+                await(pending.get(i));
+            } catch (DataAccessException e) {
+                log.debug("Shard batch of {} students failed: {}", batches.get(i).size(), e.getMessage());
+                rejected.addAll(batches.get(i));
+            }
+        }
+        return rejected;
+    }
+
+    // ─── ALL SHARDS ────────────────────────────────────────────────────────────
+
+    /** Keyset page across all shards: the next limit students after an id, in id order. */
+    public List<Student> findPageAfter(long after, int limit) {
+        List<List<Student>> perShard = fanOut(shard -> shard.jdbc().query(
+                "SELECT " + COLUMNS + " FROM students WHERE id > ? ORDER BY id LIMIT ?", ROW_MAPPER, after, limit));
+        return merge(perShard, Comparator.comparing(Student::getId), limit);
+    }
+
+    /** Case-insensitive partial name match, the first limit matches in id order. */
+    public List<Student> findByNameContaining(String name, int limit) {
+        String pattern = "%" + name.toLowerCase(Locale.ROOT)
+                .replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        List<List<Student>> perShard = fanOut(shard -> shard.jdbc().query(
+                "SELECT " + COLUMNS + " FROM students WHERE LOWER(name) LIKE ? ESCAPE '!' ORDER BY id LIMIT ?",
+                ROW_MAPPER, pattern, limit));
+        return merge(perShard, Comparator.comparing(Student::getId), limit);
+    }
+
+    /**
+     * Students changed after since and up to through (the counter value the
+     * caller read first), oldest change first. The upper bound keeps a
+     * delta-sync page from running ahead of the tombstones it is merged with.
+     */
+    public List<Student> findChangedSince(long since, long through, int limit) {
+        List<List<Student>> perShard = fanOut(shard -> shard.jdbc().query(
+                "SELECT " + COLUMNS + " FROM students WHERE change_seq > ? AND change_seq <= ? "
+                        + "ORDER BY change_seq LIMIT ?", ROW_MAPPER, since, through, limit));
+        return merge(perShard, Comparator.comparing(Student::getChangeSeq), limit);
+    }
+
+    /** A filtered, sorted keyset page across all shards (see StudentListQuery). */
+    public List<Student> findPage(StudentListQuery query, Object[] after, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = query.pageSql(COLUMNS, after, limit, args);
+        List<List<Student>> perShard = fanOut(shard -> shard.jdbc().query(sql, ROW_MAPPER, args.toArray()));
+        return merge(perShard, query.order(), limit);
+    }
+
+    /** Facet counts of one column under the query's other filters, summed over all shards. */
+    public Map<String, Long> countBy(StudentListQuery query, StudentListQuery.Field field) {
+        List<Object> args = new ArrayList<>();
+        String sql = query.facetSql(field, args);
+        Map<String, Long> totals = new HashMap<>();
+        for (List<Object[]> rows : fanOut(shard -> shard.jdbc().query(sql,
+                (rs, rowNum) -> new Object[] { rs.getString(1), rs.getLong(2) }, args.toArray()))) {
+            for (Object[] row : rows) {
+                totals.merge((String) row[0], (Long) row[1], Long::sum);
+            }
+        }
+        return totals;
+    }
+
+    public long count() {
+        return fanOut(shard -> shard.jdbc().queryForObject("SELECT COUNT(*) FROM students", Long.class))
+                .stream().mapToLong(Long::longValue).sum();
+    }
+
+    /** [department, count] rows summed over all shards, like StudentRepository.countByDepartment. */
+    public List<Object[]> countByDepartment() {
+        return countBy("department");
+    }
+
+    /** [course, count] rows summed over all shards. */
+    public List<Object[]> countByCourse() {
+        return countBy("course");
+    }
+
+    private List<Object[]> countBy(String column) {
+        Map<String, Long> totals = new HashMap<>();
+        for (List<Object[]> rows : fanOut(shard -> shard.jdbc().query(
+                "SELECT " + column + ", COUNT(*) FROM students GROUP BY " + column,
+                (rs, rowNum) -> new Object[] { rs.getString(1), rs.getLong(2) }))) {
+            for (Object[] row : rows) {
+                totals.merge((String) row[0], (Long) row[1], Long::sum);
+            }
+        }
+        List<Object[]> result = new ArrayList<>(totals.size());
+        totals.forEach((key, count) -> result.add(new Object[] { key, count }));
+        return result;
+    }
+
+    public boolean existsByChangeSeqIsNull() {
+        return fanOut(shard -> !shard.jdbc().queryForList(
+                "SELECT id FROM students WHERE change_seq IS NULL LIMIT 1", Long.class).isEmpty())
+                .contains(Boolean.TRUE);
+    }
+
+    public int assignMissingChangeSeq(long seq) {
+        return fanOut(shard -> shard.jdbc().update("UPDATE students SET change_seq = ? WHERE change_seq IS NULL", seq))
+                .stream().mapToInt(Integer::intValue).sum();
+    }
+
+    /**
+     * Every student in id order, streamed from all shards at once (one
+     * cursor per shard, merged as it goes). The stream must be closed.
+     */
+    public Stream<Student> streamAllOrderById() {
+        List<Cursor> cursors = new ArrayList<>(shards.size());
+        try {
+            for (Shard shard : shards) {
+                cursors.add(new Cursor(shard));
+            }
+        } catch (RuntimeException e) {
+            cursors.forEach(Cursor::close);
+            throw e;
+        }
+
+        PriorityQueue<Cursor> queue = new PriorityQueue<>(Comparator.comparing(c -> c.current.getId()));
+        for (Cursor cursor : cursors) {
+            if (cursor.advance()) {
+                queue.add(cursor);
+            }
+        }
+        Iterator<Student> merged = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !queue.isEmpty();
+            }
+
+            @Override
+            public Student next() {
+                Cursor cursor = queue.poll();
+                if (cursor == null) {
+                    throw new NoSuchElementException();
+                }
+                Student student = cursor.current;
+                if (cursor.advance()) {
+                    queue.add(cursor);
+                }
+                return student;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(() -> cursors.forEach(Cursor::close));
+    }
+
+    /** One shard's open SELECT ... ORDER BY id, read a row at a time. */
+    private final class Cursor {
+        final Shard shard;
+        final Connection connection;
+        PreparedStatement statement;
+        ResultSet rows;
+        Student current;
+
+        Cursor(Shard shard) {
+            this.shard = shard;
+            this.connection = DataSourceUtils.getConnection(shard.dataSource());
+            try {
+                statement = connection.prepareStatement("SELECT " + COLUMNS + " FROM students ORDER BY id",
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                rows = statement.executeQuery();
+            } catch (SQLException e) {
+                close();
+                throw translate(e);
+            }
+        }
+
+        boolean advance() {
+            try {
+                current = rows.next() ? toStudent(rows) : null;
+                return current != null;
+            } catch (SQLException e) {
+                throw translate(e);
+            }
+        }
+
+        void close() {
+            JdbcUtils.closeResultSet(rows);
+            JdbcUtils.closeStatement(statement);
+            DataSourceUtils.releaseConnection(connection, shard.dataSource());
+        }
+
+        private DataAccessException translate(SQLException e) {
+            return shard.jdbc().getExceptionTranslator().translate("stream students from " + shard.name(), null, e);
+        }
+    }
+
+    // ─── EMAILS ────────────────────────────────────────────────────────────────
+
+    /** How emails are compared, as in StudentEmailIndex. */
+    private static String emailKey(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private boolean emailTaken(String email, Long exceptId) {
+        return fanOut(shard -> shard.jdbc().queryForList("SELECT id FROM students WHERE email = ?", Long.class,
+                email.trim()))
+                .stream().flatMap(List::stream).anyMatch(id -> !id.equals(exceptId));
+    }
+
+    /** The emails (by emailKey) among these that some student already has. */
+    private Set<String> takenEmails(List<String> emails) {
+        List<String> trimmed = emails.stream().map(String::trim).toList();
+        Set<String> taken = new HashSet<>();
+        for (int from = 0; from < trimmed.size(); from += 1000) {
+            List<String> chunk = trimmed.subList(from, Math.min(from + 1000, trimmed.size()));
+            String in = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            fanOut(shard -> shard.jdbc().queryForList(
+                    "SELECT email FROM students WHERE email IN (" + in + ")", String.class, chunk.toArray()))
+                    .forEach(found -> found.forEach(email -> taken.add(emailKey(email))));
+        }
+        return taken;
+    }
+
+    private static DuplicateKeyException duplicateEmail(String email) {
+        return new DuplicateKeyException("Duplicate entry '" + email + "' for key 'uk_students_email'");
+    }
+
+    // ─── ROLLBACK ──────────────────────────────────────────────────────────────
+
+    /**
+     * Undo a shard write that was just made if the caller's transaction
+     * rolls back. Outside a transaction the write simply stands.
+     */
+    private void onRollback(Runnable undo) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        UndoLog undoLog = (UndoLog) TransactionSynchronizationManager.getResource(undoKey);
+        if (undoLog == null) {
+            undoLog = new UndoLog();
+            TransactionSynchronizationManager.bindResource(undoKey, undoLog);
+            TransactionSynchronizationManager.registerSynchronization(undoLog);
+        }
+        undoLog.steps.push(undo);
+    }
+
+    /** The undo steps of one transaction, newest first. */
+    private final class UndoLog implements TransactionSynchronization {
+        final Deque<Runnable> steps = new ArrayDeque<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(undoKey);
+            if (status == STATUS_COMMITTED) {
+                return;
+            }
+            if (status == STATUS_UNKNOWN) {
+                log.error("Outcome of a transaction with {} shard writes is unknown; the shard writes are kept",
+                        steps.size());
+                return;
+            }
+            while (!steps.isEmpty()) {
+                try {
+                    steps.pop().run();
+                } catch (RuntimeException e) {
+                    log.error("Could not undo a shard write after a rollback", e);
+                }
+            }
+        }
+    }
+
+    /** Put back a row that an update numbered seq changed, unless it has changed again since. */
+    private void restore(Student before, long seq) {
+        int restored = withEmailsLocked(() -> {
+            if (emailTaken(before.getEmail(), before.getId())) {
+                throw duplicateEmail(before.getEmail());
+            }
+            return shardOf(before.getId()).jdbc().update(RESTORE_SQL, before.getName(), before.getEmail(),
+                    before.getCourse(), before.getDepartment(), before.getChangeSeq(),
+                    before.getUpdatedAt() == null ? null : Timestamp.from(before.getUpdatedAt()),
+                    before.getId(), seq);
+        });
+        if (restored == 0) {
+            log.warn("Rolled-back update of student {} not undone: the row changed again", before.getId());
+        }
+    }
+
+    /** Insert a deleted row again, unless its email has been taken since. */
+    private void reinsert(Student before) {
+        withEmailsLocked(() -> {
+            if (emailTaken(before.getEmail(), before.getId())) {
+                throw duplicateEmail(before.getEmail());
+            }
+            return shardOf(before.getId()).jdbc().update(INSERT_SQL, ps -> bind(ps, before));
+        });
+    }
+
+    // ─── ID BLOCKS ─────────────────────────────────────────────────────────────
+
+    /** A new globally unique student id. */
+    public long nextId() {
+        synchronized (idLock) {
+            if (nextId > lastId) {
+                long first = reserveIdBlock();
+                nextId = first;
+                lastId = first + idBlockSize - 1;
+            }
+            return nextId++;
+        }
+    }
+
+    /**
+     * Run an email check and the write that depends on it while holding the
+     * "student_emails" counter row, in a transaction of its own so the lock
+     * ends with the write instead of with the caller's transaction.
+     */
+    private <T> T withEmailsLocked(Supplier<T> write) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return newTransaction.execute(status -> {
+                    if (sequenceRepository.lockByName(EMAIL_LOCK).isEmpty()) {
+                        sequenceRepository.saveAndFlush(new ChangeSequence(EMAIL_LOCK));
+                        sequenceRepository.lockByName(EMAIL_LOCK).orElseThrow();
+                    }
+                    return write.get();
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (attempt > 0 || e instanceof DuplicateKeyException) {
+                    throw e;
+                }
+                // Another node created the lock row first — use theirs
+            }
+        }
+    }
+
+    /**
+     * Take the next idBlockSize ids from the "student_ids" counter, in a
+     * transaction of its own so the counter row is only locked briefly. The
+     * counter starts at the highest id found on the shards.
+     */
+    private long reserveIdBlock() {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                Long first = newTransaction.execute(status -> {
+                    ChangeSequence sequence = sequenceRepository.lockByName(ID_SEQUENCE).orElseGet(() -> {
+                        ChangeSequence created = new ChangeSequence(ID_SEQUENCE);
+                        created.setValue(maxId());
+                        sequenceRepository.saveAndFlush(created);
+                        return sequenceRepository.lockByName(ID_SEQUENCE).orElseThrow();
+                    });
+                    long start = sequence.getValue() + 1;
+                    sequence.setValue(sequence.getValue() + idBlockSize);
+                    return start;
+                });
+                return first;
+            } catch (DataIntegrityViolationException e) {
+                if (attempt > 0) {
+                    throw e;
+                }
+                // Another node created the counter row first — use theirs
+            }
+        }
+    }
+
+    private long maxId() {
+        return fanOut(shard -> shard.jdbc().queryForObject("SELECT COALESCE(MAX(id), 0) FROM students", Long.class))
+                .stream().mapToLong(Long::longValue).max().orElse(0);
+    }
+
+    // ─── HELPERS ───────────────────────────────────────────────────────────────
+
+    /** Run query on every shard in parallel; results in shard order. */
+    private <T> List<T> fanOut(Function<Shard, T> query) {
+        if (shards.size() == 1) {
+            return List.of(query.apply(shards.get(0)));
+        }
+        List<Future<T>> pending = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            pending.add(fanOut.submit(() -> query.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        for (Future<T> future : pending) {
+            results.add(await(future));
+        }
+        return results;
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+    }
+
+    /** The first limit rows of several lists that are each sorted by order. */
+    private static List<Student> merge(List<List<Student>> perShard, Comparator<Student> order, int limit) {
+        List<Student> all = new ArrayList<>();
+        perShard.forEach(all::addAll);
+        all.sort(order);
+        return all.size() > limit ? new ArrayList<>(all.subList(0, limit)) : all;
+    }
+
+    private static void bind(PreparedStatement ps, Student s) throws SQLException {
+        ps.setLong(1, s.getId());
+        ps.setString(2, s.getName());
+        ps.setString(3, s.getEmail());
+        ps.setString(4, s.getCourse());
+        ps.setString(5, s.getDepartment());
+        if (s.getChangeSeq() == null) {
+            ps.setNull(6, Types.BIGINT);
+        } else {
+            ps.setLong(6, s.getChangeSeq());
+        }
+        ps.setTimestamp(7, s.getUpdatedAt() == null ? null : Timestamp.from(s.getUpdatedAt()));
+    }
+
+    private static Student toStudent(ResultSet rs) throws SQLException {
+        Student student = new Student(rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+        student.setId(rs.getLong(1));
+        long changeSeq = rs.getLong(6);
+        student.setChangeSeq(rs.wasNull() ? null : changeSeq);
+        Timestamp updatedAt = rs.getTimestamp(7);
+        student.setUpdatedAt(updatedAt == null ? null : updatedAt.toInstant());
+        return student;
+    }
+}
@@ -0,0 +1,314 @@
+package com.student.repository;
+
+import com.student.model.Student;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * StudentListQuery — filters and sort order for GET /api/students, and the
+ * SQL for them (shared by StudentQueryRepository and ShardedStudentRepository).
+ *
+ * Filters (all optional, combined with AND):
+ *  - courses / departments : any of the given values
+ *  - emailDomain : the part of the email after '@', e.g. "college.edu"
+ *  - namePrefix  : names starting with it (case-insensitive with MySQL's default collation)
+ * Sort: one or more of id, name, email, course, department, ascending or,
+ * with a leading '-', descending. id is always added last, so every row's
+ * sort key is unique and keyset pagination works for any order: the cursor
+ * is the sort key of the last row, and the next page is "rows after it".
+ *
+ * Indexes behind it (Student @Table, and setup.sql for the email domain):
+ *  - (course, department) and (department, course): a filter on either or
+ *    both, and the facet counts of one under a filter on the other
+ *  - (name): name prefix and sort by name
+ *  - SUBSTRING_INDEX(email, '@', -1): email domain (MySQL functional index)
+ * InnoDB ends every secondary index with the primary key, so a course filter
+ * already returns its rows in id order — no sort step for the default order.
+ */
+public final class StudentListQuery {
+
+    /** A column the list can be filtered, sorted or counted by. */
+    public enum Field {
+        ID("id"), NAME("name"), EMAIL("email"), COURSE("course"), DEPARTMENT("department");
+
+        final String column;
+
+        Field(String column) {
+            this.column = column;
+        }
+
+        static Field parse(String name) {
+            for (Field field : values()) {
+                if (field.column.equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Cannot sort by " + name + " (use id, name, email, course or department)");
+        }
+
+        String valueOf(Student student) {
+            return switch (this) {
+                case ID -> String.valueOf(student.getId());
+                case NAME -> student.getName();
+                case EMAIL -> student.getEmail();
+                case COURSE -> student.getCourse();
+                case DEPARTMENT -> student.getDepartment();
+            };
+        }
+    }
+
+    public record SortKey(Field field, boolean descending) {}
+
+    private static final String EMAIL_DOMAIN = "SUBSTRING_INDEX(email, '@', -1)";
+
+    private final List<String> courses;
+    private final List<String> departments;
+    private final String emailDomain;
+    private final String namePrefix;
+    private final List<SortKey> sort;
+
+    /**
+     * @param sort comma-separated fields, '-' in front for descending,
+     *             e.g. "department,-name" (null or blank = by id)
+     * @throws IllegalArgumentException for an unknown sort field
+     */
+    public StudentListQuery(List<String> courses, List<String> departments,
+                            String emailDomain, String namePrefix, String sort) {
+        this.courses = nonBlank(courses);
+        this.departments = nonBlank(departments);
+        this.emailDomain = blankToNull(emailDomain);
+        this.namePrefix = blankToNull(namePrefix);
+        this.sort = parseSort(sort);
+    }
+
+    /** No filters and sorted by id — the plain list (served by getStudentsPage). */
+    public boolean isDefault() {
+        return courses.isEmpty() && departments.isEmpty() && emailDomain == null && namePrefix == null
+                && sort.size() == 1 && !sort.get(0).descending();
+    }
+
+    /** A canonical description of this query, e.g. for ETags. */
+    public String key() {
+        StringBuilder key = new StringBuilder();
+        key.append(courses).append('|').append(departments).append('|')
+                .append(emailDomain).append('|').append(namePrefix).append('|');
+        for (SortKey k : sort) {
+            key.append(k.descending ? "-" : "").append(k.field.column).append(',');
+        }
+        return key.toString();
+    }
+
+    // ─── SQL ───────────────────────────────────────────────────────────────────
+
+    /**
+     * SELECT of the next limit rows after the given sort key, in sort order.
+     *
+     * The keyset condition is spelled out per key — (k1 > ?) OR (k1 = ? AND
+     * k2 > ?) ... — because keys may mix directions, which a row comparison
+     * (k1, k2) > (?, ?) can't express. The extra k1 >= ? in front gives the
+     * optimizer a plain range on the first key.
+     *
+     * @param after values from parseCursor, or null for the first page
+     * @param args  receives the bind values, in order
+     */
+    String pageSql(String columns, Object[] after, int limit, List<Object> args) {
+        List<String> conditions = filters(null, args);
+        if (after != null) {
+            SortKey first = sort.get(0);
+            StringBuilder keyset = new StringBuilder();
+            keyset.append(first.field.column).append(first.descending ? " <= ?" : " >= ?").append(" AND (");
+            args.add(after[0]);
+            for (int i = 0; i < sort.size(); i++) {
+                keyset.append(i == 0 ? "(" : " OR (");
+                for (int j = 0; j < i; j++) {
+                    keyset.append(sort.get(j).field.column).append(" = ? AND ");
+                    args.add(after[j]);
+                }
+                keyset.append(sort.get(i).field.column).append(sort.get(i).descending ? " < ?" : " > ?").append(')');
+                args.add(after[i]);
+            }
+            keyset.append(')');
+            conditions.add(keyset.toString());
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM students");
+        appendWhere(sql, conditions);
+        sql.append(" ORDER BY ");
+        for (int i = 0; i < sort.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(sort.get(i).field.column).append(sort.get(i).descending ? " DESC" : " ASC");
+        }
+        sql.append(" LIMIT ?");
+        args.add(limit);
+        return sql.toString();
+    }
+
+    /**
+     * [value, count] of one column under the filters on the other columns —
+     * the filter on this column itself is left out, so the counts show how
+     * many students each other choice would give.
+     */
+    String facetSql(Field field, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(field.column).append(", COUNT(*) FROM students");
+        appendWhere(sql, filters(field, args));
+        sql.append(" GROUP BY ").append(field.column);
+        return sql.toString();
+    }
+
+    private List<String> filters(Field without, List<Object> args) {
+        List<String> conditions = new ArrayList<>();
+        if (without != Field.COURSE) {
+            in(conditions, args, Field.COURSE.column, courses);
+        }
+        if (without != Field.DEPARTMENT) {
+            in(conditions, args, Field.DEPARTMENT.column, departments);
+        }
+        if (emailDomain != null) {
+            conditions.add(EMAIL_DOMAIN + " = ?");
+            args.add(emailDomain);
+        }
+        if (namePrefix != null) {
+            conditions.add("name LIKE ? ESCAPE '!'");
+            args.add(namePrefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%");
+        }
+        return conditions;
+    }
+
+    /**
+     * column IN (?, ...), padded to a power of two by repeating the last
+     * value: 3 and 4 values give the same SQL, so a handful of statements
+     * cover every list and stay in the prepared-statement caches.
+     */
+    private static void in(List<String> conditions, List<Object> args, String column, List<String> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        int padded = values.size() == 1 ? 1 : Integer.highestOneBit(values.size() - 1) << 1;
+        conditions.add(column + " IN (" + String.join(", ", Collections.nCopies(padded, "?")) + ")");
+        args.addAll(values);
+        args.addAll(Collections.nCopies(padded - values.size(), values.get(values.size() - 1)));
+    }
+
+    private static void appendWhere(StringBuilder sql, List<String> conditions) {
+        for (int i = 0; i < conditions.size(); i++) {
+            sql.append(i == 0 ? " WHERE " : " AND ").append(conditions.get(i));
+        }
+    }
+
+    // ─── ORDER AND CURSOR ──────────────────────────────────────────────────────
+
+    /**
+     * The sort order in Java, for merging shard results. Text is compared
+     * ignoring case and accents, like MySQL's default utf8mb4 collation.
+     */
+    Comparator<Student> order() {
+        Collator collator = Collator.getInstance(Locale.ROOT);
+        collator.setStrength(Collator.PRIMARY);
+        Comparator<Student> order = null;
+        for (SortKey key : sort) {
+            Comparator<Student> next = key.field == Field.ID
+                    ? Comparator.comparing(Student::getId)
+                    : Comparator.comparing(key.field::valueOf, collator);
+            if (key.descending) {
+                next = next.reversed();
+            }
+            order = order == null ? next : order.thenComparing(next);
+        }
+        return order;
+    }
+
+    /**
+     * The cursor for the page after this row: just the id for the default
+     * order, else the row's sort key, encoded.
+     */
+    public String cursorOf(Student last) {
+        if (sort.size() == 1) {
+            return String.valueOf(last.getId());
+        }
+        StringBuilder raw = new StringBuilder();
+        for (SortKey key : sort) {
+            String value = key.field.valueOf(last);
+            raw.append(value.length()).append(':').append(value);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The sort key a cursor from cursorOf stands for, one value per sort key
+     * (Long for id, String otherwise); null for no cursor.
+     *
+     * @throws IllegalArgumentException if the cursor wasn't made for this sort order
+     */
+    public Object[] parseCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            if (sort.size() == 1) {
+                return new Object[] { Long.valueOf(cursor) };
+            }
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Object[] values = new Object[sort.size()];
+            int at = 0;
+            for (int i = 0; i < values.length; i++) {
+                int colon = raw.indexOf(':', at);
+                int length = Integer.parseInt(raw.substring(at, colon));
+                String value = raw.substring(colon + 1, colon + 1 + length);
+                values[i] = sort.get(i).field == Field.ID ? (Object) Long.valueOf(value) : value;
+                at = colon + 1 + length;
+            }
+            if (at != raw.length()) {
+                throw new IllegalArgumentException("trailing data");
+            }
+            return values;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    // ─── PARSING ───────────────────────────────────────────────────────────────
+
+    private static List<SortKey> parseSort(String sort) {
+        List<SortKey> keys = new ArrayList<>();
+        boolean hasId = false;
+        if (sort != null) {
+            for (String part : sort.split(",")) {
+                String name = part.trim();
+                if (name.isEmpty()) {
+                    continue;
+                }
+                boolean descending = name.startsWith("-");
+                Field field = Field.parse(descending ? name.substring(1) : name);
+                if (keys.stream().anyMatch(k -> k.field == field)) {
+                    continue;
+                }
+                keys.add(new SortKey(field, descending));
+                if (field == Field.ID) {
+                    hasId = true;
+                    break; // unique — later keys could never matter
+                }
+            }
+        }
+        if (!hasId) {
+            keys.add(new SortKey(Field.ID, false));
+        }
+        return List.copyOf(keys);
+    }
+
+    private static List<String> nonBlank(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream().filter(v -> v != null && !v.isBlank()).map(String::trim).distinct().toList();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,48 @@
+package com.student.repository;
+
+import com.student.model.Student;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StudentQueryRepository — filtered and sorted student lists with facet
+ * counts (StudentListQuery) on the main database.
+ *
+ * Plain SQL through JdbcTemplate, because the WHERE and ORDER BY are put
+ * together per request; the same SQL runs on every shard in
+ * ShardedStudentRepository. Joins the caller's (read-only) transaction.
+ */
+@Repository
+public class StudentQueryRepository {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * The next limit students matching the query after a sort key, in sort order.
+     *
+     * @param after values from StudentListQuery.parseCursor, or null for the first page
+     */
+    public List<Student> findPage(StudentListQuery query, Object[] after, int limit) {
+        List<Object> args = new ArrayList<>();
+        String sql = query.pageSql(ShardedStudentRepository.COLUMNS, after, limit, args);
+        return jdbcTemplate.query(sql, ShardedStudentRepository.ROW_MAPPER, args.toArray());
+    }
+
+    /** value → number of students, for one column under the query's other filters. */
+    public Map<String, Long> countBy(StudentListQuery query, StudentListQuery.Field field) {
+        List<Object> args = new ArrayList<>();
+        String sql = query.facetSql(field, args);
+        Map<String, Long> counts = new HashMap<>();
+        jdbcTemplate.query(sql, rs -> {
+            counts.put(rs.getString(1), rs.getLong(2));
+        }, args.toArray());
+        return counts;
+    }
+}
@@ -1,10 +1,23 @@
 package com.student.repository;
 
 import com.student.model.Student;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * StudentRepository — handles database operations for the Student entity.
@@ -13,17 +26,141 @@ import java.util.List;
  *  - findAll(), findById(), save(), deleteById(), count(), etc.
  * 
  * Custom methods for search functionality.
+ *
+ * The read queries behind the endpoints select NEW_STUDENT: a constructor
+ * expression, so the rows come back as plain Student objects instead of
+ * managed entities — no dirty-checking snapshot, nothing added to the
+ * persistence context, nothing to detach afterwards. Each runs in its own
+ * read-only transaction unless the caller has one. Use findById when the
+ * entity is to be changed.
  */
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
+    String NEW_STUDENT = "SELECT new com.student.model.Student("
+            + "s.id, s.name, s.email, s.course, s.department, s.changeSeq, s.updatedAt)";
+
     /**
      * Search students by name (case-insensitive, partial match).
      * 
-     * SQL equivalent: WHERE LOWER(name) LIKE LOWER('%keyword%')
+     * SQL equivalent: WHERE LOWER(name) LIKE LOWER('%keyword%') ORDER BY id LIMIT :pageSize
      * 
-     * @param name the name keyword to search
-     * @return list of matching students
+     * @param name     the name keyword to search
+     * @param pageable only the page size is used — always pass page number 0
+     * @return up to pageSize matching students
+     */
+    @Transactional(readOnly = true)
+    @Query(NEW_STUDENT + " FROM Student s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY s.id ASC")
+    List<Student> searchByName(@Param("name") String name, Pageable pageable);
+
+    /**
+     * One student as a plain object (see NEW_STUDENT), for reads.
+     */
+    @Transactional(readOnly = true)
+    @Query(NEW_STUDENT + " FROM Student s WHERE s.id = :id")
+    Optional<Student> readById(@Param("id") Long id);
+
+    /**
+     * Keyset pagination: the next students after a given id.
+     *
+     * SQL equivalent: WHERE id > :after ORDER BY id LIMIT :pageSize
+     * The primary key index serves this directly, so every page costs the same
+     * no matter how deep into the table it is (unlike OFFSET).
+     *
+     * @param after    the last id of the previous page (0 for the first page)
+     * @param pageable only the page size is used — always pass page number 0
+     * @return up to pageSize students ordered by id
+     */
+    @Transactional(readOnly = true)
+    @Query(NEW_STUDENT + " FROM Student s WHERE s.id > :after ORDER BY s.id ASC")
+    List<Student> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    /**
+     * Stream every student ordered by id, fetching rows from MySQL in small chunks.
+     *
+     * Must be called inside a read-only transaction and the stream must be closed.
+     * The fetch size only takes effect with useCursorFetch=true on the JDBC URL.
+     * The rows are plain objects, so the persistence context stays empty
+     * however many are read.
+     *
+     * @return a lazily-fetched stream of students
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query(NEW_STUDENT + " FROM Student s ORDER BY s.id ASC")
+    Stream<Student> streamAllOrderById();
+
+    /**
+     * Number of students per department, as [department, count] rows.
+     * Used to reconcile the in-memory dashboard counters.
+     */
+    @Query("SELECT s.department, COUNT(s) FROM Student s GROUP BY s.department")
+    List<Object[]> countByDepartment();
+
+    /**
+     * Number of students per course, as [course, count] rows.
+     */
+    @Query("SELECT s.course, COUNT(s) FROM Student s GROUP BY s.course")
+    List<Object[]> countByCourse();
+
+    /**
+     * Students inserted or updated after a sync position, up to the watermark,
+     * oldest change first. Rows above the watermark may have committed ahead of
+     * a lower number that has not, so they wait for the next poll.
+     *
+     * SQL equivalent: WHERE change_seq > :since AND change_seq <= :through ORDER BY change_seq LIMIT :pageSize
+     * Served by idx_students_change_seq, so a poll with nothing new reads one index entry.
+     */
+    @Transactional(readOnly = true)
+    @Query(NEW_STUDENT + " FROM Student s WHERE s.changeSeq > :since AND s.changeSeq <= :through ORDER BY s.changeSeq ASC")
+    List<Student> findChangedSince(@Param("since") long since, @Param("through") long through, Pageable pageable);
+
+    /**
+     * Give rows that were inserted outside the application (setup.sql, manual
+     * SQL, rows from before change tracking existed) a change number.
+     */
+    boolean existsByChangeSeqIsNull();
+
+    @Modifying
+    @Query("UPDATE Student s SET s.changeSeq = :seq WHERE s.changeSeq IS NULL")
+    int assignMissingChangeSeq(@Param("seq") long seq);
+
+    /**
+     * Update a student in one statement, only if it is still at the given
+     * version (change_seq). Null arguments leave that column unchanged.
+     *
+     * SQL equivalent: UPDATE students SET name = COALESCE(:name, name), ...
+     *                 WHERE id = :id AND change_seq = :version
+     *
+     * The CASTs give Hibernate the parameters' type: a bare COALESCE(:name, ...)
+     * in a SET clause fails to translate (NullPointerException in Hibernate 6.3).
+     *
+     * @return 1 if updated, 0 if the student is gone or was changed meanwhile
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Student s SET s.name = COALESCE(CAST(:name AS String), s.name), "
+            + "s.email = COALESCE(CAST(:email AS String), s.email), "
+            + "s.course = COALESCE(CAST(:course AS String), s.course), "
+            + "s.department = COALESCE(CAST(:department AS String), s.department), "
+            + "s.changeSeq = :seq, s.updatedAt = :now WHERE s.id = :id AND s.changeSeq = :version")
+    int updateIfVersion(@Param("id") Long id, @Param("version") long version,
+                        @Param("name") String name, @Param("email") String email,
+                        @Param("course") String course, @Param("department") String department,
+                        @Param("seq") long seq, @Param("now") Instant now);
+
+    /**
+     * Delete a student in one statement, only if it is still at the given version.
+     *
+     * @return 1 if deleted, 0 if the student is gone or was changed meanwhile
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM Student s WHERE s.id = :id AND s.changeSeq = :version")
+    int deleteIfVersion(@Param("id") Long id, @Param("version") long version);
+
+    /**
+     * Load a student and lock its row (SELECT ... FOR UPDATE) until the
+     * transaction ends — the fallback when the version isn't known up front.
      */
-    List<Student> findByNameContainingIgnoreCase(String name);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Student s WHERE s.id = :id")
+    Optional<Student> lockById(@Param("id") Long id);
 }
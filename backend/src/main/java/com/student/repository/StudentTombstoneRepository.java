@@ -0,0 +1,35 @@
+package com.student.repository;
+
+import com.student.model.StudentTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * StudentTombstoneRepository — database operations for deleted-student markers.
+ */
+@Repository
+public interface StudentTombstoneRepository extends JpaRepository<StudentTombstone, Long> {
+
+    /**
+     * Deletes after a sync position, up to the watermark, oldest first.
+     *
+     * SQL equivalent: WHERE change_seq > :since AND change_seq <= :through ORDER BY change_seq LIMIT :pageSize
+     */
+    @Query("SELECT t FROM StudentTombstone t WHERE t.changeSeq > :since AND t.changeSeq <= :through ORDER BY t.changeSeq ASC")
+    List<StudentTombstone> findChangedSince(@Param("since") long since, @Param("through") long through, Pageable pageable);
+
+    /** Highest change number among tombstones older than the cutoff (null if none). */
+    @Query("SELECT MAX(t.changeSeq) FROM StudentTombstone t WHERE t.deletedAt < :cutoff")
+    Long maxChangeSeqDeletedBefore(@Param("cutoff") Instant cutoff);
+
+    @Modifying
+    @Query("DELETE FROM StudentTombstone t WHERE t.changeSeq <= :seq")
+    int deleteThrough(@Param("seq") long seq);
+}
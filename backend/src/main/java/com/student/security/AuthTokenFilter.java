@@ -0,0 +1,102 @@
+package com.student.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+
+/**
+ * AuthTokenFilter — enforces roles on the server using the signed login token.
+ *
+ * Rules:
+ *  - /api/users/**                       → ADMIN only
+ *  - POST/PUT/PATCH/DELETE /api/students/** → ADMIN only
+ *  - everything else (reads, /api/auth/login) → open, as before
+ *
+ * The token comes from the "Authorization: Bearer <token>" header and is
+ * checked by TokenService alone — no database and no session, so any node
+ * can serve any request.
+ *
+ * For a valid token the claims are also put on the request as
+ * "auth.username" and "auth.role" for controllers that want them.
+ *
+ * The rules match the decoded, cleaned-up path — the one Spring MVC maps to a
+ * controller — never the raw request URI: "/api/%75sers" or "/api/users;x"
+ * reach UserController just the same.
+ */
+@Component
+public class AuthTokenFilter extends OncePerRequestFilter {
+
+    public static final String USERNAME_ATTRIBUTE = "auth.username";
+    public static final String ROLE_ATTRIBUTE = "auth.role";
+
+    private static final String BEARER = "Bearer ";
+    private static final String FRONTEND_ORIGIN = "http://localhost:5173";
+
+    // Percent-decodes, drops ";..." path parameters and collapses "//"
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        // CORS preflight requests carry no Authorization header
+        if ("OPTIONS".equals(request.getMethod())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        TokenService.Claims claims = null;
+        String header = request.getHeader("Authorization");
+        if (header != null && header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            claims = tokenService.verify(header.substring(BEARER.length()).trim());
+        }
+        if (claims != null) {
+            request.setAttribute(USERNAME_ATTRIBUTE, claims.username());
+            request.setAttribute(ROLE_ATTRIBUTE, claims.role());
+        }
+
+        if (requiresAdmin(request)) {
+            if (claims == null) {
+                reject(response, 401, "Please log in to continue.");
+                return;
+            }
+            if (!claims.isAdmin()) {
+                reject(response, 403, "Only admins can do this.");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static boolean requiresAdmin(HttpServletRequest request) {
+        String path = PATH_HELPER.getPathWithinApplication(request);
+        if (path.startsWith("/api/users")) {
+            return true;
+        }
+        if (path.startsWith("/api/students")) {
+            String method = request.getMethod();
+            return "POST".equals(method) || "PUT".equals(method)
+                    || "PATCH".equals(method) || "DELETE".equals(method);
+        }
+        return false;
+    }
+
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        // The controllers' @CrossOrigin never runs for a rejected request, so
+        // add the header here or the browser hides the status from the frontend
+        response.setStatus(status);
+        response.setHeader("Access-Control-Allow-Origin", FRONTEND_ORIGIN);
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+        response.getWriter().write("{\"message\":\"" + message + "\"}");
+    }
+}
@@ -0,0 +1,110 @@
+package com.student.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LoginRateLimiter — rejects credential-stuffing bursts before they reach
+ * the credential check or the database.
+ *
+ * There are two independent limits: per username and per client IP.
+ * An attempt is allowed only if both still have a token left.
+ *
+ * Each key is a token bucket stored as a single AtomicLong using the
+ * Generic Cell Rate Algorithm (GCRA): the long holds the "theoretical
+ * arrival time" of the next attempt, and one compareAndSet both checks and
+ * takes a token. No locks, and no allocation once a key exists.
+ */
+@Component
+public class LoginRateLimiter {
+
+    // Keys idle for longer than this are dropped by the sweep
+    private static final long IDLE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    @Value("${student.auth.rate-limit.username.burst:5}")
+    private int usernameBurst;
+
+    @Value("${student.auth.rate-limit.username.per-minute:5}")
+    private int usernamePerMinute;
+
+    @Value("${student.auth.rate-limit.ip.burst:20}")
+    private int ipBurst;
+
+    @Value("${student.auth.rate-limit.ip.per-minute:30}")
+    private int ipPerMinute;
+
+    @Value("${student.auth.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    private Buckets byUsername;
+    private Buckets byIp;
+
+    @PostConstruct
+    void init() {
+        byUsername = new Buckets(usernameBurst, usernamePerMinute);
+        byIp = new Buckets(ipBurst, ipPerMinute);
+    }
+
+    /**
+     * Take one login attempt for this username and IP.
+     *
+     * @return true if the attempt may proceed, false if it should get HTTP 429
+     */
+    public boolean tryAcquire(String username, String ip) {
+        String user = username == null ? "" : username.toLowerCase(Locale.ROOT);
+        return byIp.tryAcquire(ip == null ? "" : ip) && byUsername.tryAcquire(user);
+    }
+
+    /** Forget idle keys so the tables don't grow forever. */
+    @Scheduled(fixedDelay = 60_000)
+    public void sweep() {
+        long now = System.nanoTime();
+        byUsername.sweep(now);
+        byIp.sweep(now);
+    }
+
+    // ─── ONE TABLE OF BUCKETS ──────────────────────────────────────────────────
+
+    private final class Buckets {
+        final ConcurrentHashMap<String, AtomicLong> table = new ConcurrentHashMap<>();
+        final long interval;  // nanos between tokens
+        final long tolerance; // how far ahead of "now" the bucket may run (= burst)
+
+        Buckets(int burst, int perMinute) {
+            this.interval = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.tolerance = interval * Math.max(0, burst - 1);
+        }
+
+        boolean tryAcquire(String key) {
+            AtomicLong tat = table.get(key);
+            if (tat == null) {
+                if (table.size() >= maxKeys) {
+                    sweep(System.nanoTime());
+                }
+                tat = table.computeIfAbsent(key, k -> new AtomicLong(System.nanoTime()));
+            }
+            while (true) {
+                long now = System.nanoTime();
+                long current = tat.get();
+                long start = current - now > 0 ? current : now;
+                if (start - now > tolerance) {
+                    return false; // bucket empty
+                }
+                if (tat.compareAndSet(current, start + interval)) {
+                    return true;
+                }
+            }
+        }
+
+        void sweep(long now) {
+            table.entrySet().removeIf(e -> now - e.getValue().get() > IDLE_NANOS);
+        }
+    }
+}
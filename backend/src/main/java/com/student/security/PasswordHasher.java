@@ -0,0 +1,111 @@
+package com.student.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * PasswordHasher — salted PBKDF2 password hashes.
+ *
+ * Stored format: pbkdf2$<iterations>$<base64 salt>$<base64 hash>
+ *
+ * Older rows may still hold a plain-text password (e.g. the ones inserted by
+ * database/setup.sql). matches() still accepts those, and needsUpgrade()
+ * tells UserService to replace them with a hash after the next good login.
+ */
+@Component
+public class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Hash of a random password, checked against when there is no real one
+    private volatile String decoyHash;
+
+    @Value("${student.auth.pbkdf2-iterations:50000}")
+    private int iterations;
+
+    /** Hash a new password with a fresh random salt. */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder b64 = Base64.getEncoder();
+        return PREFIX + iterations + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(hash);
+    }
+
+    /**
+     * Check a password against a stored value (hash or legacy plain text).
+     * Comparison is constant-time so response timing leaks nothing.
+     */
+    public boolean matches(String password, String stored) {
+        if (password == null || stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PREFIX)) {
+            return MessageDigest.isEqual(
+                    password.getBytes(StandardCharsets.UTF_8),
+                    stored.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4) {
+            return false;
+        }
+        Base64.Decoder b64 = Base64.getDecoder();
+        byte[] expected = b64.decode(parts[3]);
+        byte[] actual = pbkdf2(password, b64.decode(parts[2]), Integer.parseInt(parts[1]));
+        return MessageDigest.isEqual(expected, actual);
+    }
+
+    /**
+     * Spend the same time as matches() on a real hash, with no result. Used for
+     * unknown usernames, so a login's response time doesn't tell whether
+     * the account exists.
+     */
+    public void matchDecoy(String password) {
+        String decoy = decoyHash;
+        if (decoy == null) {
+            byte[] secret = new byte[SALT_BYTES];
+            random.nextBytes(secret);
+            decoy = hash(Base64.getEncoder().encodeToString(secret));
+            decoyHash = decoy;
+        }
+        matches(password, decoy);
+    }
+
+    /** True if the stored value is a PBKDF2 hash produced by this class. */
+    public boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    /** True if the stored value is plain text or uses fewer iterations than configured. */
+    public boolean needsUpgrade(String stored) {
+        if (stored == null || !stored.startsWith(PREFIX)) {
+            return true;
+        }
+        String[] parts = stored.split("\\$");
+        return parts.length != 4 || Integer.parseInt(parts[1]) < iterations;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
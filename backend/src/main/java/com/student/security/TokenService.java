@@ -0,0 +1,206 @@
+package com.student.security;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * TokenService — issues and verifies signed login tokens.
+ *
+ * A token is "<payload>.<signature>", both base64url encoded:
+ *  - payload   : "<role>\n<expiry epoch seconds>\n<username>"
+ *  - signature : HMAC-SHA256 of the encoded payload with a shared secret
+ *
+ * Any backend node configured with the same student.auth.token-secret can
+ * verify a token on its own — no database lookup and no shared session store,
+ * so nodes behind a load balancer need no sticky sessions.
+ *
+ * verify() runs on every protected request, so it borrows a pooled Mac and
+ * scratch buffers and only decodes the payload once the signature checks out.
+ * (A pool rather than a ThreadLocal: with virtual threads every request is a
+ * new thread, so a ThreadLocal would build a fresh Mac each time.)
+ */
+@Component
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int SIGNATURE_BYTES = 32;
+    private static final int MAX_TOKEN_LENGTH = 1024;
+    private static final Base64.Encoder URL_ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final int POOLED_SCRATCH = 64;
+
+    /** What a valid token says about its holder. */
+    public record Claims(String username, String role, long expiresAtEpochSecond) {
+        public boolean isAdmin() {
+            return "ADMIN".equals(role);
+        }
+    }
+
+    @Value("${student.auth.token-secret:}")
+    private String secret;
+
+    @Value("${student.auth.token-ttl-minutes:480}")
+    private long ttlMinutes;
+
+    private SecretKeySpec key;
+
+    private final ArrayBlockingQueue<Scratch> scratchPool = new ArrayBlockingQueue<>(POOLED_SCRATCH);
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            log.warn("student.auth.token-secret is not set — using a random key. "
+                    + "Tokens will not survive a restart or work across several nodes.");
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    // ─── ISSUE ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Create a token for a user who has just logged in.
+     */
+    public String issue(String username, String role) {
+        long expiresAt = System.currentTimeMillis() / 1000 + ttlMinutes * 60;
+        String payload = role + "\n" + expiresAt + "\n" + username;
+        String encodedPayload = URL_ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+
+        byte[] signature = new byte[SIGNATURE_BYTES];
+        Scratch s = borrow();
+        try {
+            sign(s, encodedPayload, encodedPayload.length(), signature);
+        } finally {
+            release(s);
+        }
+        return encodedPayload + "." + URL_ENCODER.encodeToString(signature);
+    }
+
+    public long ttlSeconds() {
+        return ttlMinutes * 60;
+    }
+
+    // ─── VERIFY ────────────────────────────────────────────────────────────────
+
+    /**
+     * Check a token's signature and expiry.
+     *
+     * @param token the value after "Bearer "
+     * @return the claims, or null if the token is malformed, forged or expired
+     */
+    public Claims verify(String token) {
+        if (token == null || token.length() > MAX_TOKEN_LENGTH) {
+            return null;
+        }
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+
+        Scratch s = borrow();
+        try {
+            // 1. Recompute the signature and base64url-encode it into a reused buffer
+            sign(s, token, dot, s.expected);
+            int encodedLength = URL_ENCODER.encode(s.expected, s.encoded);
+
+            // 2. Compare with the presented signature in constant time
+            if (token.length() - dot - 1 != encodedLength) {
+                return null;
+            }
+            int diff = 0;
+            for (int i = 0; i < encodedLength; i++) {
+                diff |= s.encoded[i] ^ token.charAt(dot + 1 + i);
+            }
+            if (diff != 0) {
+                return null;
+            }
+        } finally {
+            release(s);
+        }
+
+        // 3. Only now decode the payload
+        String payload;
+        try {
+            payload = new String(Base64.getUrlDecoder().decode(token.substring(0, dot)), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        int first = payload.indexOf('\n');
+        int second = first < 0 ? -1 : payload.indexOf('\n', first + 1);
+        if (second < 0) {
+            return null;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(payload, first + 1, second, 10);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (expiresAt < System.currentTimeMillis() / 1000) {
+            return null;
+        }
+        return new Claims(payload.substring(second + 1), payload.substring(0, first), expiresAt);
+    }
+
+    // ─── HMAC ──────────────────────────────────────────────────────────────────
+
+    /** HMAC of the first length chars of text (all ASCII) into out. */
+    private void sign(Scratch s, String text, int length, byte[] out) {
+        for (int i = 0; i < length; i++) {
+            s.chars[i] = (byte) text.charAt(i);
+        }
+        try {
+            s.mac.update(s.chars, 0, length);
+            s.mac.doFinal(out, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC failed", e);
+        }
+    }
+
+    private Scratch borrow() {
+        Scratch s = scratchPool.poll();
+        return s != null ? s : newScratch();
+    }
+
+    private void release(Scratch s) {
+        scratchPool.offer(s); // dropped if the pool is already full
+    }
+
+    private Scratch newScratch() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return new Scratch(mac);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        }
+    }
+
+    /** A Mac and buffers, reused so verification allocates almost nothing. */
+    private static final class Scratch {
+        final Mac mac;
+        final byte[] chars = new byte[MAX_TOKEN_LENGTH];
+        final byte[] expected = new byte[SIGNATURE_BYTES];
+        final byte[] encoded = new byte[64];
+
+        Scratch(Mac mac) {
+            this.mac = mac;
+        }
+    }
+}
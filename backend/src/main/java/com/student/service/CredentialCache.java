@@ -0,0 +1,183 @@
+package com.student.service;
+
+import com.student.model.User;
+import com.student.repository.UserRepository;
+import com.student.security.PasswordHasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+/**
+ * CredentialCache — username → stored credential, kept in memory for logins.
+ *
+ * Holds:
+ *  - positive entries: id, username, role and the password HASH (never plain
+ *    text — a legacy plain-text row is hashed before it is cached)
+ *  - negative entries: usernames that don't exist, so repeated guesses for
+ *    unknown accounts don't hit MySQL either
+ *
+ * Keys are lower-cased because MySQL compares usernames case-insensitively.
+ *
+ * Entries expire after a TTL (so changes made by another node or directly in
+ * the database are eventually picked up) and are invalidated immediately when
+ * UserService creates, deletes or re-hashes a user. A load that was already
+ * reading the database when its username was invalidated may have read the
+ * row from before the change, so its result is not cached (see lookup()).
+ *
+ * Both kinds are bounded, each in its own least-recently-used map: when one is
+ * full, only its oldest entry is dropped. Negative entries get the smaller map
+ * of their own, so spraying made-up usernames only churns other made-up
+ * usernames and never pushes real accounts out.
+ */
+@Component
+public class CredentialCache {
+
+    /**
+     * The cached part of a User row.
+     * storedInPlainText is true when the database row still needs upgrading to a hash.
+     */
+    public record Credential(Long id, String username, String role, String passwordHash,
+                             boolean storedInPlainText) {
+
+        /** A User object safe to hand out: no password inside. */
+        public User toUser() {
+            User user = new User(username, "", role);
+            user.setId(id);
+            return user;
+        }
+    }
+
+    private record Entry(Credential credential, long expiresAt) {}
+
+    // Invalidation counters, by hash of the username (a few usernames share one)
+    private static final int GENERATION_STRIPES = 256;
+
+    @Value("${student.auth.cache-ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${student.auth.negative-ttl-seconds:60}")
+    private long negativeTtlSeconds;
+
+    @Value("${student.auth.cache-max-size:10000}")
+    private int maxSize;
+
+    @Value("${student.auth.negative-cache-max-size:1000}")
+    private int negativeMaxSize;
+
+    // Existing users, and (null credential) usernames that do not exist
+    private final Map<String, Entry> known = lruMap(() -> maxSize);
+    private final Map<String, Entry> unknown = lruMap(() -> negativeMaxSize);
+
+    // Bumped by invalidate(); a load only caches its result if its counter didn't move
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    /**
+     * Find the credential for a username, loading it from the database only
+     * on a miss or after the entry expired.
+     *
+     * If the username is invalidated while the database is being read, the
+     * result is returned but not cached: it may be the row from before the
+     * user was created or deleted, and caching it would outlive that change
+     * by a whole TTL.
+     *
+     * @return the credential, or null if no such user exists
+     */
+    public Credential lookup(String username) {
+        long now = System.nanoTime();
+        String key = key(username);
+        Entry entry = known.get(key);
+        if (entry == null) {
+            entry = unknown.get(key);
+        }
+        if (entry != null && entry.expiresAt - now > 0) {
+            return entry.credential;
+        }
+
+        int stripe = stripe(key);
+        long generation = generations.get(stripe);
+        Optional<User> user = userRepository.findByUsername(username);
+        Credential credential = user.map(this::toCredential).orElse(null);
+        synchronized (generations) {
+            if (generations.get(stripe) != generation) {
+                return credential; // invalidated meanwhile: don't cache what may be stale
+            }
+            if (credential != null) {
+                unknown.remove(key);
+                known.put(key, new Entry(credential, now + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+            } else {
+                known.remove(key);
+                unknown.put(key, new Entry(null, now + TimeUnit.SECONDS.toNanos(negativeTtlSeconds)));
+            }
+        }
+        return credential;
+    }
+
+    /**
+     * Replace the cached credential after it changed (e.g. password re-hashed).
+     * Does nothing if the username is no longer cached — e.g. the user was
+     * deleted meanwhile; the next lookup reads the database.
+     */
+    public void put(Credential credential) {
+        known.replace(key(credential.username()),
+                new Entry(credential, System.nanoTime() + TimeUnit.SECONDS.toNanos(ttlSeconds)));
+    }
+
+    /** Forget a username (user created or deleted). */
+    public void invalidate(String username) {
+        String key = key(username);
+        synchronized (generations) {
+            generations.incrementAndGet(stripe(key));
+            known.remove(key);
+            unknown.remove(key);
+        }
+    }
+
+    /** Number of cached usernames, existing and unknown. */
+    public int size() {
+        return known.size() + unknown.size();
+    }
+
+    private Credential toCredential(User user) {
+        String stored = user.getPassword();
+        boolean plainText = !passwordHasher.isHash(stored);
+        String hash = plainText ? passwordHasher.hash(stored) : stored;
+        return new Credential(user.getId(), user.getUsername(), user.getRole(), hash, plainText);
+    }
+
+    /**
+     * A synchronized map in access order that drops its least recently used
+     * entry once it holds more than the bound. The bound is read lazily
+     * because @Value fields are injected after construction.
+     */
+    private static Map<String, Entry> lruMap(IntSupplier bound) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > bound.getAsInt();
+            }
+        });
+    }
+
+    private static int stripe(String key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private static String key(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+}
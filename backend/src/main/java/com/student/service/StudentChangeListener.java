@@ -0,0 +1,42 @@
+package com.student.service;
+
+import com.student.model.Student;
+
+/**
+ * StudentChangeListener — notified by StudentService after every successful write.
+ *
+ * In-memory structures (search index, caches, counters, ...) implement this
+ * interface to stay in sync with the database without re-querying it.
+ * Any Spring bean implementing it is picked up by StudentService automatically.
+ *
+ * Listeners must be fast and must not throw — they run on the request thread.
+ *
+ * Callbacks for one student never overlap, but may arrive out of commit
+ * order (see StudentChangePublisher): a listener that keeps rows ignores a
+ * save older (by changeSeq) than the one it holds.
+ */
+public interface StudentChangeListener {
+
+    /**
+     * A student was inserted or updated.
+     *
+     * @param before the previous state, or null for an insert (or when unknown)
+     * @param after  the state that is now in the database
+     */
+    void onStudentSaved(Student before, Student after);
+
+    /**
+     * A student was deleted.
+     *
+     * @param removed the state that was deleted
+     */
+    void onStudentDeleted(Student removed);
+
+    /**
+     * A save whose callback arrived after the student's delete had already
+     * been applied. Listeners that keep rows ignore it (the default); ones
+     * that count changes apply it like any other save.
+     */
+    default void onStudentSavedAfterDelete(Student before, Student after) {
+    }
+}
@@ -0,0 +1,303 @@
+package com.student.service;
+
+import com.student.model.ChangeReservation;
+import com.student.model.ChangeSequence;
+import com.student.model.StudentTombstone;
+import com.student.repository.ChangeReservationRepository;
+import com.student.repository.ChangeSequenceRepository;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentRepository;
+import com.student.repository.StudentTombstoneRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.function.Consumer;
+
+/**
+ * StudentChangeLog — numbers every change to the students table, for
+ * ETags and GET /api/students/changes.
+ *
+ * Every insert, update and delete takes the next number from one counter row
+ * (change_sequences, name "students") and stores it on the row (change_seq)
+ * or, for a delete, in a tombstone.
+ *
+ * Numbers are handed out in a short transaction of their own, which locks
+ * the counter row only for that moment and leaves a change_reservations row
+ * behind. The writing transaction deletes that row itself, so it disappears
+ * exactly when the write becomes visible (or stays, and is cleaned up, if
+ * the write rolls back). Writes on any node therefore run side by side, but
+ * may commit out of number order — so readers are given a watermark instead
+ * of the raw counter: the highest N with no reservation at or below it (see
+ * current()). A client that has seen everything up to N never misses a
+ * change below N.
+ *
+ * Cost: one small extra transaction per write (or per batch, see execute()),
+ * in exchange for not holding the counter lock until the writer commits.
+ * Take the numbers before the writing transaction (execute()) so that extra
+ * transaction never needs a second pooled connection; next() inside an
+ * already running transaction still works but briefly uses two.
+ *
+ * Maintenance (at startup and every student.sync.maintenance-interval-ms):
+ *  - rows inserted outside the application get a change number
+ *  - reservations older than student.sync.reservation-timeout-seconds (a
+ *    node that died mid-write) are dropped so the watermark moves on
+ *  - tombstones older than student.sync.tombstone-retention-days are purged;
+ *    clients syncing from before that point are told to reload everything
+ */
+@Component
+public class StudentChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentChangeLog.class);
+
+    static final String SEQUENCE = "students";
+
+    @Value("${student.sync.tombstone-retention-days:30}")
+    private long tombstoneRetentionDays;
+
+    @Value("${student.sync.reservation-timeout-seconds:60}")
+    private long reservationTimeoutSeconds;
+
+    @Autowired
+    private ChangeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private ChangeReservationRepository reservationRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    @Autowired
+    private StudentTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate newTransaction;
+
+    // Numbers taken by execute() for the transaction running on this thread
+    private final ThreadLocal<Block> taken = new ThreadLocal<>();
+
+    /** Consecutive numbers reserved for one writing transaction. */
+    private static final class Block {
+        long next;
+        final long last;
+
+        Block(long first, int count) {
+            this.next = first;
+            this.last = first + count - 1;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        newTransaction = new TransactionTemplate(transactionManager);
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ─── WRITERS ───────────────────────────────────────────────────────────────
+
+    /**
+     * Run action in a new transaction, with count change numbers reserved
+     * for it beforehand; next() and reserve() inside it hand those out first.
+     * Use this for student writes instead of TransactionTemplate.execute.
+     */
+    public <T> T execute(int count, TransactionCallback<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Already inside a transaction: numbers come from next() as usual
+            return transactionTemplate.execute(action);
+        }
+        long first = take(count);
+        boolean[] committed = { false };
+        try {
+            return transactionTemplate.execute(status -> {
+                reservationRepository.release(first);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completion) {
+                        committed[0] = completion == STATUS_COMMITTED;
+                    }
+                });
+                taken.set(new Block(first, count));
+                try {
+                    return action.doInTransaction(status);
+                } finally {
+                    taken.remove();
+                }
+            });
+        } finally {
+            if (!committed[0]) {
+                giveBack(first);
+            }
+        }
+    }
+
+    /** execute() for an action without a result. */
+    public void executeWithoutResult(int count, Consumer<TransactionStatus> action) {
+        execute(count, status -> {
+            action.accept(status);
+            return null;
+        });
+    }
+
+    /** The change number for one write. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next() {
+        return reserve(1);
+    }
+
+    /**
+     * Reserve count consecutive change numbers (e.g. for one import batch).
+     *
+     * @return the first of them
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long reserve(int count) {
+        Block block = taken.get();
+        if (block != null && block.last - block.next + 1 >= count) {
+            long first = block.next;
+            block.next += count;
+            return first;
+        }
+
+        // Not reserved ahead by execute(): take them now (a second connection, briefly)
+        long first = take(count);
+        reservationRepository.release(first);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int completion) {
+                if (completion != STATUS_COMMITTED) {
+                    giveBack(first);
+                }
+            }
+        });
+        return first;
+    }
+
+    /** Leave a tombstone for a deleted student, numbered with next(). */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Long studentId, long changeSeq) {
+        tombstoneRepository.save(new StudentTombstone(studentId, changeSeq, Instant.now()));
+    }
+
+    /**
+     * Hand out count numbers and record them as reserved, in a transaction
+     * of their own: the counter row is locked only until that one commits.
+     */
+    private long take(int count) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return newTransaction.execute(status -> {
+                    ChangeSequence sequence = sequenceRepository.lockByName(SEQUENCE).orElseGet(this::createSequence);
+                    long first = sequence.getValue() + 1;
+                    sequence.setValue(sequence.getValue() + count);
+                    reservationRepository.save(new ChangeReservation(first, Instant.now()));
+                    return first;
+                });
+            } catch (DataIntegrityViolationException e) {
+                if (attempt > 0) {
+                    throw e;
+                }
+                // Another node created the counter row first — use theirs
+            }
+        }
+    }
+
+    /** Drop the reservation of a write that rolled back (the numbers are simply skipped). */
+    private void giveBack(long first) {
+        try {
+            newTransaction.executeWithoutResult(status -> reservationRepository.release(first));
+        } catch (RuntimeException e) {
+            log.warn("Could not release change reservation {}; it expires after {} s",
+                    first, reservationTimeoutSeconds, e);
+        }
+    }
+
+    private ChangeSequence createSequence() {
+        sequenceRepository.saveAndFlush(new ChangeSequence(SEQUENCE));
+        return sequenceRepository.lockByName(SEQUENCE).orElseThrow();
+    }
+
+    // ─── READERS ───────────────────────────────────────────────────────────────
+
+    /**
+     * The sync position: value is the highest change number N such that
+     * every change up to N has committed (or rolled back) — the counter,
+     * held back below the lowest open reservation. purgedThrough as stored.
+     * Inside a read-only transaction it matches the rows that transaction sees.
+     */
+    public ChangeSequence current() {
+        // Counter first: a number it covers is either committed or still reserved
+        ChangeSequence stored = sequenceRepository.findById(SEQUENCE).orElseGet(() -> new ChangeSequence(SEQUENCE));
+        Long open = reservationRepository.lowestOpen();
+
+        ChangeSequence visible = new ChangeSequence(SEQUENCE);
+        visible.setValue(open == null ? stored.getValue() : Math.min(stored.getValue(), open - 1));
+        visible.setPurgedThrough(stored.getPurgedThrough());
+        return visible;
+    }
+
+    // ─── MAINTENANCE ───────────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${student.sync.maintenance-interval-ms:300000}",
+               fixedDelayString = "${student.sync.maintenance-interval-ms:300000}")
+    public void maintain() {
+        if (sequenceRepository.findById(SEQUENCE).isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        sequenceRepository.saveAndFlush(new ChangeSequence(SEQUENCE)));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+
+        Instant abandoned = Instant.now().minusSeconds(reservationTimeoutSeconds);
+        Integer expired = transactionTemplate.execute(status -> reservationRepository.deleteReservedBefore(abandoned));
+        if (expired != null && expired > 0) {
+            log.warn("Dropped {} change reservations older than {} s (a writer died before committing)",
+                    expired, reservationTimeoutSeconds);
+        }
+
+        if (shards.isEnabled() ? shards.existsByChangeSeqIsNull() : studentRepository.existsByChangeSeqIsNull()) {
+            Integer numbered = execute(1, status -> shards.isEnabled()
+                    ? shards.assignMissingChangeSeq(next()) : studentRepository.assignMissingChangeSeq(next()));
+            log.info("Assigned change numbers to {} students inserted outside the application", numbered);
+        }
+
+        Instant cutoff = Instant.now().minus(tombstoneRetentionDays, ChronoUnit.DAYS);
+        Long purgeThrough = tombstoneRepository.maxChangeSeqDeletedBefore(cutoff);
+        if (purgeThrough != null) {
+            Integer purged = transactionTemplate.execute(status -> {
+                ChangeSequence sequence = sequenceRepository.lockByName(SEQUENCE).orElseThrow();
+                sequence.setPurgedThrough(Math.max(sequence.getPurgedThrough(), purgeThrough));
+                return tombstoneRepository.deleteThrough(purgeThrough);
+            });
+            log.info("Purged {} student tombstones up to change {}", purged, purgeThrough);
+        }
+    }
+}
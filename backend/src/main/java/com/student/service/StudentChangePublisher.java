@@ -0,0 +1,150 @@
+package com.student.service;
+
+import com.student.model.Student;
+import com.student.model.StudentEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * StudentChangePublisher — fans a committed student write out to every
+ * StudentChangeListener (search index, ...).
+ *
+ * Used by every write path (StudentService, bulk import) so they all keep
+ * the in-memory views in sync the same way. A failing listener is logged
+ * but never fails the write itself.
+ *
+ * Called inside a transaction, listeners run only after it commits — a
+ * rolled-back write never reaches the caches or counters. The outbox event
+ * (StudentOutbox) is written straight away, as part of that transaction;
+ * writes published after their own commit (bulk import) add their events
+ * themselves.
+ *
+ * Writes to one student commit in order, but their callbacks run after the
+ * commit, on each writer's own thread, so they can arrive the other way
+ * round. Callbacks for one id never overlap (a lock per stripe of ids), and
+ * each listener skips a save older than the one it already holds (by
+ * changeSeq). A save arriving after the student's delete goes to
+ * onStudentSavedAfterDelete instead: ids are never reused, so remembering
+ * the last RECENT_DELETES deleted ids is enough to tell.
+ */
+@Component
+public class StudentChangePublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentChangePublisher.class);
+
+    static final int RECENT_DELETES = 10_000;
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private List<StudentChangeListener> listeners;
+
+    @Autowired
+    private StudentOutbox outbox;
+
+    private final Object[] stripes = new Object[STRIPES];
+
+    // Ids deleted lately, oldest first
+    private final Set<Long> recentlyDeleted = Collections.newSetFromMap(new LinkedHashMap<>(16, 0.75f, false) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > RECENT_DELETES;
+        }
+    });
+
+    public StudentChangePublisher() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    public void publishSaved(Student before, Student after) {
+        if (outbox.isEnabled() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            outbox.append(StudentEvent.Type.SAVED, after);
+        }
+        afterCommit(() -> fireSaved(before, after));
+    }
+
+    /**
+     * @param removed   the student as it was before the delete
+     * @param changeSeq the delete's own change number (that of its tombstone)
+     */
+    public void publishDeleted(Student removed, long changeSeq) {
+        if (outbox.isEnabled() && TransactionSynchronizationManager.isActualTransactionActive()) {
+            Student event = new Student(removed);
+            event.setChangeSeq(changeSeq);
+            outbox.append(StudentEvent.Type.DELETED, event);
+        }
+        afterCommit(() -> fireDeleted(removed));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private Object stripeFor(Long id) {
+        return stripes[Long.hashCode(id) & (STRIPES - 1)];
+    }
+
+    private void fireSaved(Student before, Student after) {
+        synchronized (stripeFor(after.getId())) {
+            boolean deleted;
+            synchronized (recentlyDeleted) {
+                deleted = recentlyDeleted.contains(after.getId());
+            }
+            notifySaved(before, after, deleted);
+        }
+    }
+
+    private void fireDeleted(Student removed) {
+        synchronized (stripeFor(removed.getId())) {
+            synchronized (recentlyDeleted) {
+                recentlyDeleted.add(removed.getId());
+            }
+            notifyDeleted(removed);
+        }
+    }
+
+    private void notifySaved(Student before, Student after, boolean deleted) {
+        for (StudentChangeListener listener : listeners) {
+            try {
+                if (deleted) {
+                    listener.onStudentSavedAfterDelete(before, after);
+                } else {
+                    listener.onStudentSaved(before, after);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Change listener {} failed for student {}", listener.getClass().getSimpleName(), after.getId(), e);
+            }
+        }
+    }
+
+    private void notifyDeleted(Student removed) {
+        for (StudentChangeListener listener : listeners) {
+            try {
+                listener.onStudentDeleted(removed);
+            } catch (RuntimeException e) {
+                log.warn("Change listener {} failed for student {}", listener.getClass().getSimpleName(), removed.getId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.student.service;
+
+import com.student.cache.CacheInvalidation;
+import com.student.cache.CacheInvalidationBus;
+import com.student.cache.StudentCache;
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * StudentEmailIndex — every student's email in memory, so a duplicate is
+ * refused before anything is sent to the database.
+ *
+ * students.email is unique, and without this a duplicate only shows up as
+ * a rejected INSERT and a rollback — during a bulk enrollment the error path
+ * costs more than the success path. Here a write first claims its email:
+ * one putIfAbsent on a ConcurrentHashMap, which also makes two requests
+ * racing for the same new email see each other. The claim is released after
+ * the write; a committed write has by then made the email its student's
+ * (StudentChangeListener).
+ *
+ * The unique key stays the final authority: emails written on other nodes
+ * are only learned when the database rejects them, and students changed on
+ * other nodes (CacheInvalidationBus) are forgotten rather than guessed.
+ * Until the startup build is done nothing is refused here.
+ *
+ * Emails are compared lower-cased, like MySQL's default collation.
+ */
+@Component
+public class StudentEmailIndex implements StudentChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentEmailIndex.class);
+
+    /** The email is already used by another student (HTTP 409). */
+    public static class DuplicateEmailException extends RuntimeException {
+        public DuplicateEmailException(String email) {
+            super("A student with email " + email + " already exists.");
+        }
+    }
+
+    /** A claimed email, to be released once the write is over. */
+    public static final class Claim {
+        static final Claim NONE = new Claim(null, 0L);
+
+        private final String key;
+        private final long token;
+
+        private Claim(String key, long token) {
+            this.key = key;
+            this.token = token;
+        }
+    }
+
+    @Value("${student.email-index.enabled:true}")
+    private boolean enabled;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    @Autowired
+    private CacheInvalidationBus invalidationBus;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    // lower-cased email → id of its student, or a negative claim token while a write is in flight
+    private final ConcurrentHashMap<String, Long> owners = new ConcurrentHashMap<>();
+
+    // id → lower-cased email and the change it came from, to find a student's entry on update and delete
+    private final ConcurrentHashMap<Long, Email> emails = new ConcurrentHashMap<>();
+
+    // ids deleted or changed elsewhere while the startup build runs, so the build won't re-add them
+    private final Set<Long> deletedDuringBuild = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong tokens = new AtomicLong();
+    private final Consumer<CacheInvalidation> remoteHandler = this::onRemoteInvalidation;
+
+    private volatile boolean building;
+    private volatile boolean ready;
+
+    @PostConstruct
+    void init() {
+        invalidationBus.subscribe(remoteHandler);
+    }
+
+    @PreDestroy
+    void close() {
+        invalidationBus.unsubscribe(remoteHandler);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ─── BUILD AT STARTUP ──────────────────────────────────────────────────────
+
+    /**
+     * Load every student's email once the application has started. Writes
+     * during the build are applied straight away and win over the rows read
+     * here (same approach as StudentSearchIndex.build).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        building = true;
+        int count = 0;
+        try (Stream<Student> stream = shards.isEnabled()
+                ? shards.streamAllOrderById() : studentRepository.streamAllOrderById()) {
+            Iterator<Student> rows = stream.iterator();
+            while (rows.hasNext()) {
+                Student s = rows.next();
+                String key = key(s.getEmail());
+                if (key != null && !deletedDuringBuild.contains(s.getId())
+                        && emails.putIfAbsent(s.getId(), new Email(key, seqOf(s))) == null) {
+                    owners.putIfAbsent(key, s.getId());
+                }
+                count++;
+            }
+        } finally {
+            building = false;
+            deletedDuringBuild.clear();
+        }
+
+        ready = true;
+        log.info("Student email index built: {} students in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // ─── CLAIM ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Claim an email for a write; always pair with release, in a finally.
+     *
+     * @param email     the email about to be written, or null if it isn't changing
+     * @param studentId the student being updated, or null for an insert
+     * @return the claim to release after the write
+     * @throws DuplicateEmailException if another student has the email, or
+     *         another write in flight is claiming it
+     */
+    public Claim claim(String email, Long studentId) {
+        String key = key(email);
+        if (!enabled || !ready || key == null) {
+            return Claim.NONE;
+        }
+        long token = -tokens.incrementAndGet();
+        Long owner = owners.putIfAbsent(key, token);
+        if (owner == null) {
+            return new Claim(key, token);
+        }
+        if (owner.equals(studentId)) {
+            return Claim.NONE; // the student keeps its own email
+        }
+        throw new DuplicateEmailException(email);
+    }
+
+    /** End a claim: a write that didn't commit leaves the email free again. */
+    public void release(Claim claim) {
+        if (claim.key != null) {
+            owners.remove(claim.key, claim.token);
+        }
+    }
+
+    // ─── KEEP IN SYNC ──────────────────────────────────────────────────────────
+
+    @Override
+    public void onStudentSaved(Student before, Student after) {
+        String key = key(after.getEmail());
+        if (key == null) {
+            return;
+        }
+        Email previous = emails.get(after.getId());
+        if (previous != null && previous.changeSeq() > seqOf(after)) {
+            return; // an older write whose callback came late
+        }
+        emails.put(after.getId(), new Email(key, seqOf(after)));
+        if (previous != null && !previous.key().equals(key)) {
+            owners.remove(previous.key(), after.getId());
+        }
+        owners.put(key, after.getId());
+    }
+
+    @Override
+    public void onStudentDeleted(Student removed) {
+        forget(removed.getId());
+    }
+
+    /** Another node changed this student — its email there is unknown here. */
+    private void onRemoteInvalidation(CacheInvalidation message) {
+        if (!studentCache.nodeId().equals(message.originNode())) {
+            forget(message.studentId());
+        }
+    }
+
+    private void forget(Long id) {
+        if (building) {
+            deletedDuringBuild.add(id);
+        }
+        Email email = emails.remove(id);
+        if (email != null) {
+            owners.remove(email.key(), id);
+        }
+    }
+
+    private record Email(String key, long changeSeq) {}
+
+    private static long seqOf(Student student) {
+        return student.getChangeSeq() == null ? -1L : student.getChangeSeq();
+    }
+
+    private static String key(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
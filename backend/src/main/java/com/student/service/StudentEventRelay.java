@@ -0,0 +1,342 @@
+package com.student.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * StudentEventRelay — reads new events from the outbox (StudentOutbox) in
+ * batches and hands them to every sink:
+ *  - Server-Sent Events subscribers of GET /api/students/events
+ *  - a local log file, when student.outbox.file-sink.path is set
+ *
+ * Each sink has its own offset — the change number of the last event it was given —
+ * and the relay reads from the lowest one, so a subscriber catching up
+ * after a reconnect gets the events it missed, batch by batch, while the
+ * others only see what's new to them. One read per batch serves all sinks.
+ *
+ * relay() runs on Spring's scheduler thread, which the other @Scheduled jobs
+ * share, so it never writes to a subscriber's connection itself: each SSE
+ * subscriber has a queue of at most student.outbox.sse-queue-batches
+ * messages, written out by a thread of the relay's own pool
+ * ("student-events-N"). A subscriber whose queue is full is not keeping up
+ * and is dropped; it reconnects and resumes from its Last-Event-ID.
+ *
+ * Delivery is at least once: SSE subscribers resume from Last-Event-ID and
+ * the file sink from its offset file, so an event can arrive twice after a
+ * failure but is never skipped. Consumers drop changes they have already seen.
+ */
+@Component
+public class StudentEventRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentEventRelay.class);
+
+    @Value("${student.outbox.batch-size:500}")
+    private int batchSize;
+
+    @Value("${student.outbox.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    @Value("${student.outbox.sse-queue-batches:16}")
+    private int sseQueueBatches;
+
+    @Value("${student.outbox.file-sink.path:}")
+    private String fileSinkPath;
+
+    @Autowired
+    private StudentOutbox outbox;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Sink> sinks = new CopyOnWriteArrayList<>();
+
+    // Writes queued SSE messages; a thread per subscriber that has some, so a stalled one holds up no other
+    private ExecutorService senders;
+
+    @PostConstruct
+    void init() throws IOException {
+        AtomicInteger threads = new AtomicInteger();
+        senders = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "student-events-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (outbox.isEnabled() && !fileSinkPath.isBlank()) {
+            FileSink sink = new FileSink(Path.of(fileSinkPath));
+            sinks.add(sink);
+            log.info("Relaying student events to {} from event {}", sink.file, sink.offset);
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        for (Sink sink : sinks) {
+            if (sink instanceof SseSink sse) {
+                sse.emitter.complete();
+            }
+        }
+        senders.shutdown();
+    }
+
+    // ─── SUBSCRIBE ─────────────────────────────────────────────────────────────
+
+    /**
+     * A new SSE subscriber.
+     *
+     * If events after its position have already been purged, it first gets a
+     * "resync" event: reload the students, then carry on from that event's id.
+     *
+     * @param after change number of the last event the subscriber has seen,
+     *              or null for only events from now on
+     */
+    public SseEmitter subscribe(Long after) throws IOException {
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        long offset = after != null ? after : outbox.watermark();
+        long purgedThrough = outbox.purgedThrough();
+        if (offset < purgedThrough) {
+            emitter.send(SseEmitter.event()
+                    .name("resync")
+                    .id(Long.toString(purgedThrough))
+                    .data(Map.of("purgedThrough", purgedThrough), MediaType.APPLICATION_JSON));
+            offset = purgedThrough;
+        }
+
+        SseSink sink = new SseSink(emitter, offset);
+        emitter.onCompletion(() -> sinks.remove(sink));
+        emitter.onError(e -> sinks.remove(sink));
+        emitter.onTimeout(emitter::complete); // EventSource reconnects with Last-Event-ID
+        sinks.add(sink);
+        return emitter;
+    }
+
+    // ─── RELAY ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Read batches from the lowest sink offset until every sink is caught up.
+     * SSE subscribers only get the batch queued; one whose queue is full or
+     * whose connection failed is dropped (it reconnects and resumes). A
+     * failing file sink is retried on the next run.
+     */
+    @Scheduled(fixedDelayString = "${student.outbox.relay-interval-ms:250}")
+    public void relay() {
+        if (!outbox.isEnabled()) {
+            return;
+        }
+        while (true) {
+            long from = sinks.stream().mapToLong(Sink::offset).min().orElse(Long.MAX_VALUE);
+            if (from == Long.MAX_VALUE) {
+                return;
+            }
+            Batch batch = new Batch(outbox.readAfter(from, batchSize));
+            if (batch.events.isEmpty()) {
+                return;
+            }
+            for (Sink sink : sinks) {
+                try {
+                    sink.deliver(batch);
+                } catch (IOException | RuntimeException e) {
+                    if (sink instanceof SseSink sse) {
+                        sse.drop(e);
+                    } else {
+                        log.warn("Student event sink failed, retrying from event {}", sink.offset(), e);
+                        return;
+                    }
+                }
+            }
+            if (batch.events.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    /** One read from the outbox, with its JSON made once for the sinks that want all of it. */
+    private final class Batch {
+        final List<StudentOutbox.Event> events;
+        private String json;
+
+        Batch(List<StudentOutbox.Event> events) {
+            this.events = events;
+        }
+
+        /** The events with a change number above offset. */
+        List<StudentOutbox.Event> after(long offset) {
+            int i = 0;
+            while (i < events.size() && events.get(i).changeSeq() <= offset) {
+                i++;
+            }
+            return events.subList(i, events.size());
+        }
+
+        /** after(offset) as a JSON array. */
+        String json(long offset) throws IOException {
+            List<StudentOutbox.Event> pending = after(offset);
+            if (pending.size() < events.size()) {
+                return objectMapper.writeValueAsString(pending);
+            }
+            if (json == null) {
+                json = objectMapper.writeValueAsString(events);
+            }
+            return json;
+        }
+    }
+
+    // ─── SINKS ─────────────────────────────────────────────────────────────────
+
+    private interface Sink {
+        /** Change number of the last event this sink has been given. */
+        long offset();
+
+        void deliver(Batch batch) throws IOException;
+    }
+
+    /**
+     * One "students" event per batch: data is the JSON array, id the last
+     * event's change number. deliver() only queues the event; a sender
+     * thread writes it. The offset moves on when the event is queued.
+     */
+    private final class SseSink implements Sink {
+        final SseEmitter emitter;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean sending = new AtomicBoolean();
+        volatile long offset;
+        volatile boolean dropped;
+
+        SseSink(SseEmitter emitter, long offset) {
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(sseQueueBatches);
+            this.offset = offset;
+        }
+
+        @Override
+        public long offset() {
+            return offset;
+        }
+
+        @Override
+        public void deliver(Batch batch) throws IOException {
+            List<StudentOutbox.Event> pending = batch.after(offset);
+            if (pending.isEmpty()) {
+                return;
+            }
+            long last = pending.get(pending.size() - 1).changeSeq();
+            SseEmitter.SseEventBuilder event = SseEmitter.event()
+                    .name("students")
+                    .id(Long.toString(last))
+                    .data(batch.json(offset), MediaType.APPLICATION_JSON);
+            if (!queue.offer(event)) {
+                throw new IllegalStateException("Subscriber is " + sseQueueBatches + " batches behind");
+            }
+            offset = last;
+            startSending();
+        }
+
+        /** Stop relaying to this subscriber; its connection is closed by a sender thread. */
+        void drop(Exception reason) {
+            sinks.remove(this);
+            dropped = true;
+            log.debug("Dropped a student events subscriber at {}: {}", offset, reason.getMessage());
+            startSending();
+        }
+
+        private void startSending() {
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::send);
+            }
+        }
+
+        /** Write queued events until none are left (runs on a sender thread). */
+        private void send() {
+            while (true) {
+                SseEmitter.SseEventBuilder event = dropped ? null : queue.poll();
+                if (event == null) {
+                    sending.set(false);
+                    if (dropped) {
+                        queue.clear();
+                        emitter.complete(); // EventSource reconnects with Last-Event-ID
+                        return;
+                    }
+                    // Queued between poll() and set(false)? Then go on, unless another thread took over
+                    if (queue.isEmpty() || !sending.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                try {
+                    emitter.send(event);
+                } catch (IOException | RuntimeException e) {
+                    drop(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Appends each event as one JSON line to a file. Its offset is kept in
+     * "<file>.offset", replaced atomically after every batch, so a restart
+     * carries on where it stopped. Readers of the file track their own
+     * position by change number.
+     */
+    private final class FileSink implements Sink {
+        final Path file;
+        final Path offsetFile;
+        long offset;
+
+        FileSink(Path file) throws IOException {
+            this.file = file.toAbsolutePath();
+            this.offsetFile = this.file.resolveSibling(this.file.getFileName() + ".offset");
+            Files.createDirectories(this.file.getParent());
+            this.offset = Files.exists(offsetFile) ? Long.parseLong(Files.readString(offsetFile).trim()) : 0L;
+        }
+
+        @Override
+        public long offset() {
+            return offset;
+        }
+
+        @Override
+        public void deliver(Batch batch) throws IOException {
+            List<StudentOutbox.Event> pending = batch.after(offset);
+            if (pending.isEmpty()) {
+                return;
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (StudentOutbox.Event event : pending) {
+                    out.write(objectMapper.writeValueAsString(event));
+                    out.newLine();
+                }
+            }
+            long last = pending.get(pending.size() - 1).changeSeq();
+            Path next = offsetFile.resolveSibling(offsetFile.getFileName() + ".tmp");
+            Files.writeString(next, Long.toString(last));
+            Files.move(next, offsetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            offset = last;
+        }
+    }
+}
@@ -0,0 +1,512 @@
+package com.student.service;
+
+import com.github.luben.zstd.ZstdOutputStream;
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * StudentExportService — writes the whole students table for reporting jobs
+ * (GET /api/students/export).
+ *
+ * Unlike GET /api/students/stream, no Student entities (and no JSON) are
+ * created: rows are read from a JDBC cursor (useCursorFetch, student.export.fetch-size
+ * rows at a time) and encoded straight into a few reused ByteBuffers, which
+ * are written to the response through a channel. Memory use is the same for
+ * ten rows or ten million; time grows linearly with the row count.
+ * (With sharding on, rows come merged from one cursor per shard as Student
+ * objects instead — still streamed, one row at a time.)
+ *
+ * Formats:
+ *  - BINARY (application/vnd.student-export, see "Binary format" below)
+ *  - CSV    (text/csv, header "id,name,email,course,department" —
+ *            POST /api/students/bulk accepts it back, ignoring the id column)
+ * Either can be compressed with gzip or zstd (sent as Content-Encoding).
+ *
+ * Binary format (all integers are unsigned LEB128 varints):
+ *   "STEX" 0x01                         magic and version
+ *   then row groups of up to student.export.group-rows rows:
+ *     rowCount                          0 marks the end of the stream
+ *     5 column blocks, each: byteLength, then the data, in this order:
+ *       id         : per row, the difference to the previous id (ids ascend)
+ *       name       : per row, a string
+ *       email      : per row, a string
+ *       course     : newEntryCount, that many strings (appended to this
+ *       department   column's dictionary), then per row a code:
+ *                    0 = null, 1 = a string follows, n >= 2 = dictionary entry n - 2
+ *   A string is (UTF-8 byte length + 1) followed by the bytes; 0 means null.
+ *   The dictionaries live for the whole stream and stop growing at
+ *   MAX_DICTIONARY entries (after that, new values are written with code 1).
+ */
+@Service
+public class StudentExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentExportService.class);
+
+    private static final String SELECT_SQL =
+            "SELECT id, name, email, course, department FROM students ORDER BY id";
+
+    private static final byte[] MAGIC = {'S', 'T', 'E', 'X', 1};
+    private static final int BUFFER_SIZE = 128 * 1024;
+    private static final int MAX_DICTIONARY = 4096;
+
+    public enum Format {
+        BINARY("application/vnd.student-export", "students.stex"),
+        CSV("text/csv;charset=UTF-8", "students.csv");
+
+        public final String contentType;
+        public final String fileName;
+
+        Format(String contentType, String fileName) {
+            this.contentType = contentType;
+            this.fileName = fileName;
+        }
+    }
+
+    public enum Compression {
+        NONE(null), GZIP("gzip"), ZSTD("zstd");
+
+        /** Value for the Content-Encoding header (null = none). */
+        public final String contentEncoding;
+
+        Compression(String contentEncoding) {
+            this.contentEncoding = contentEncoding;
+        }
+    }
+
+    @Value("${student.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${student.export.group-rows:8192}")
+    private int groupRows;
+
+    @Value("${student.export.zstd-level:3}")
+    private int zstdLevel;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    // ─── EXPORT ────────────────────────────────────────────────────────────────
+
+    /**
+     * Write every student, ordered by id, to out.
+     *
+     * @param out the response body; flushed but not closed
+     * @return the number of rows written
+     */
+    public long export(Format format, Compression compression, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        OutputStream body = compress(compression, out);
+        WritableByteChannel channel = Channels.newChannel(body);
+        RowWriter writer = format == Format.BINARY ? new BinaryWriter(channel) : new CsvWriter(channel);
+
+        long rows;
+        try {
+            rows = shards.isEnabled() ? exportShards(writer) : jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+                try (PreparedStatement ps = con.prepareStatement(SELECT_SQL,
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    ps.setFetchSize(fetchSize);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        long count = 0;
+                        while (rs.next()) {
+                            writer.row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5));
+                            count++;
+                        }
+                        return count;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // client went away — stop reading
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        if (body != out) {
+            body.close(); // writes the compression trailer; out itself is left open
+        }
+        out.flush();
+
+        log.info("Export: {} rows as {} ({}) in {} ms",
+                rows, format, compression, (System.nanoTime() - start) / 1_000_000);
+        return rows;
+    }
+
+    /** The same rows from all shards, merged into id order by ShardedStudentRepository. */
+    private long exportShards(RowWriter writer) {
+        long[] count = { 0 };
+        try (Stream<Student> students = shards.streamAllOrderById()) {
+            students.forEach(s -> {
+                try {
+                    writer.row(s.getId(), s.getName(), s.getEmail(), s.getCourse(), s.getDepartment());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        }
+        return count[0];
+    }
+
+    public static Format parseFormat(String value) {
+        try {
+            return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown export format: " + value + " (use binary or csv)");
+        }
+    }
+
+    public static Compression parseCompression(String value) {
+        try {
+            return Compression.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown compression: " + value + " (use none, gzip or zstd)");
+        }
+    }
+
+    private OutputStream compress(Compression compression, OutputStream out) throws IOException {
+        OutputStream unclosable = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush(); // the container closes the response itself
+            }
+        };
+        switch (compression) {
+            case GZIP:
+                return new GZIPOutputStream(unclosable, BUFFER_SIZE);
+            case ZSTD:
+                return new ZstdOutputStream(unclosable, zstdLevel);
+            default:
+                return out;
+        }
+    }
+
+    // ─── ENCODERS ──────────────────────────────────────────────────────────────
+
+    private interface RowWriter {
+        void row(long id, String name, String email, String course, String department) throws IOException;
+
+        void finish() throws IOException;
+    }
+
+    /** Column-oriented row groups, see the class comment. */
+    private final class BinaryWriter implements RowWriter {
+        private final WritableByteChannel channel;
+        private final ByteBuffer header = ByteBuffer.allocate(64);
+        private final ByteBuffer ids = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer names = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer emails = ByteBuffer.allocate(BUFFER_SIZE);
+        private final DictionaryColumn courses = new DictionaryColumn();
+        private final DictionaryColumn departments = new DictionaryColumn();
+        private long lastId;
+        private int rows;
+
+        BinaryWriter(WritableByteChannel channel) throws IOException {
+            this.channel = channel;
+            write(ByteBuffer.wrap(MAGIC));
+        }
+
+        @Override
+        public void row(long id, String name, String email, String course, String department) throws IOException {
+            int nameBytes = utf8Length(name);
+            int emailBytes = utf8Length(email);
+            if (rows == groupRows || !fits(nameBytes, emailBytes, course, department)) {
+                flushGroup();
+                if (!fits(nameBytes, emailBytes, course, department)) {
+                    throw new IOException("Student " + id + " is too large to export");
+                }
+            }
+            putVarint(ids, id - lastId);
+            lastId = id;
+            putString(names, name, nameBytes);
+            putString(emails, email, emailBytes);
+            courses.add(course);
+            departments.add(department);
+            rows++;
+        }
+
+        private boolean fits(int nameBytes, int emailBytes, String course, String department) {
+            return ids.remaining() >= 10
+                    && names.remaining() >= 5 + nameBytes
+                    && emails.remaining() >= 5 + emailBytes
+                    && courses.fits(course)
+                    && departments.fits(department);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            flushGroup();
+            header.clear();
+            putVarint(header, 0);
+            write(header.flip());
+        }
+
+        private void flushGroup() throws IOException {
+            if (rows == 0) {
+                return;
+            }
+            header.clear();
+            putVarint(header, rows);
+            write(header.flip());
+            writeColumn(ids);
+            writeColumn(names);
+            writeColumn(emails);
+            courses.writeTo(this);
+            departments.writeTo(this);
+            rows = 0;
+        }
+
+        void writeColumn(ByteBuffer column) throws IOException {
+            header.clear();
+            putVarint(header, column.position());
+            write(header.flip());
+            write(column.flip());
+            column.clear();
+        }
+
+        void write(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /** One dictionary-encoded column: new dictionary entries plus one code per row. */
+    private static final class DictionaryColumn {
+        private final Map<String, Integer> dictionary = new HashMap<>();
+        private final ByteBuffer newEntries = ByteBuffer.allocate(BUFFER_SIZE);
+        private final ByteBuffer codes = ByteBuffer.allocate(BUFFER_SIZE);
+        private int newEntryCount;
+
+        boolean fits(String value) {
+            if (codes.remaining() < 5) {
+                return false;
+            }
+            if (value == null || dictionary.containsKey(value)) {
+                return true;
+            }
+            int size = 5 + utf8Length(value);
+            return dictionary.size() < MAX_DICTIONARY ? newEntries.remaining() >= size : codes.remaining() >= 5 + size;
+        }
+
+        void add(String value) {
+            if (value == null) {
+                putVarint(codes, 0);
+                return;
+            }
+            Integer code = dictionary.get(value);
+            if (code == null && dictionary.size() < MAX_DICTIONARY) {
+                code = dictionary.size();
+                dictionary.put(value, code);
+                putString(newEntries, value, utf8Length(value));
+                newEntryCount++;
+            }
+            if (code == null) {
+                putVarint(codes, 1);
+                putString(codes, value, utf8Length(value));
+            } else {
+                putVarint(codes, code + 2L);
+            }
+        }
+
+        void writeTo(BinaryWriter writer) throws IOException {
+            writer.header.clear();
+            putVarint(writer.header, varintSize(newEntryCount) + newEntries.position() + codes.position());
+            putVarint(writer.header, newEntryCount);
+            writer.write(writer.header.flip());
+            writer.write(newEntries.flip());
+            writer.write(codes.flip());
+            newEntries.clear();
+            codes.clear();
+            newEntryCount = 0;
+        }
+    }
+
+    /** RFC 4180 CSV, one buffer flushed whenever the next row might not fit. */
+    private static final class CsvWriter implements RowWriter {
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        CsvWriter(WritableByteChannel channel) {
+            this.channel = channel;
+            buffer.put("id,name,email,course,department\n".getBytes(StandardCharsets.US_ASCII));
+        }
+
+        @Override
+        public void row(long id, String name, String email, String course, String department) throws IOException {
+            // Worst case: every char quoted/doubled and 3 bytes long
+            int worst = 24 + 6 * (length(name) + length(email) + length(course) + length(department)) + 12;
+            if (buffer.remaining() < worst) {
+                flush();
+                if (buffer.capacity() < worst) {
+                    throw new IOException("Student " + id + " is too large to export as CSV");
+                }
+            }
+            putAscii(buffer, Long.toString(id));
+            buffer.put((byte) ',');
+            field(name);
+            buffer.put((byte) ',');
+            field(email);
+            buffer.put((byte) ',');
+            field(course);
+            buffer.put((byte) ',');
+            field(department);
+            buffer.put((byte) '\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            flush();
+        }
+
+        private void field(String value) {
+            if (value == null) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                putUtf8(buffer, value);
+                return;
+            }
+            buffer.put((byte) '"');
+            putUtf8(buffer, value.replace("\"", "\"\""));
+            buffer.put((byte) '"');
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private static int length(String value) {
+            return value == null ? 0 : value.length();
+        }
+    }
+
+    // ─── BYTE HELPERS ──────────────────────────────────────────────────────────
+
+    /** Unsigned LEB128: 7 bits per byte, high bit set on all but the last. */
+    static void putVarint(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static int varintSize(long value) {
+        int n = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            n++;
+        }
+        return n;
+    }
+
+    /** A string: (UTF-8 length + 1) then the bytes, or just 0 for null. */
+    static void putString(ByteBuffer buffer, String value, int utf8Length) {
+        if (value == null) {
+            putVarint(buffer, 0);
+            return;
+        }
+        putVarint(buffer, utf8Length + 1L);
+        putUtf8(buffer, value);
+    }
+
+    /**
+     * Same byte count as value.getBytes(UTF_8) (lone surrogates become '?');
+     * 0 for null.
+     */
+    static int utf8Length(String value) {
+        if (value == null) {
+            return 0;
+        }
+        int n = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                n += 1;
+            } else if (c < 0x800) {
+                n += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                n += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                n += 1;
+            } else {
+                n += 3;
+            }
+        }
+        return n;
+    }
+
+    /** Encode value as UTF-8 directly into the buffer, without a temporary byte[]. */
+    static void putUtf8(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, value.charAt(++i));
+                buffer.put((byte) (0xF0 | (cp >> 18)));
+                buffer.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (cp & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                buffer.put((byte) '?');
+            } else {
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    private static void putAscii(ByteBuffer buffer, String value) {
+        for (int i = 0; i < value.length(); i++) {
+            buffer.put((byte) value.charAt(i));
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.student.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.dto.BulkImportResult;
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * StudentImportService — bulk-loads students from a streamed CSV or NDJSON upload.
+ *
+ * Why not just call StudentService.addStudent in a loop?
+ * Student.id uses GenerationType.IDENTITY, which makes Hibernate insert rows
+ * one at a time. Here we bypass JPA and use a plain JDBC batch instead; with
+ * rewriteBatchedStatements=true on the JDBC URL, MySQL Connector/J turns each
+ * batch into a single multi-row INSERT.
+ *
+ * Steps:
+ * 1. Read the upload line by line (never the whole body at once)
+ * 2. Validate each row; invalid rows go straight into the error report, and
+ *    so do emails StudentEmailIndex already knows (including earlier rows
+ *    of the same upload) — a known duplicate never fails a batch
+ * 3. Insert valid rows in batches of student.import.batch-size, one transaction per batch
+ * 4. If a batch fails (e.g. a duplicate email), retry its rows one by one
+ *    so only the offending rows are reported
+ */
+@Service
+public class StudentImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentImportService.class);
+
+    private static final String INSERT_SQL =
+            "INSERT INTO students (name, email, course, department, change_seq, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+    private static final int MAX_LENGTH = 255;
+
+    @Value("${student.import.batch-size:1000}")
+    private int batchSize;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private StudentChangePublisher changePublisher;
+
+    @Autowired
+    private StudentChangeLog changeLog;
+
+    @Autowired
+    private StudentEmailIndex emailIndex;
+
+    @Autowired
+    private StudentOutbox outbox;
+
+    // ─── CSV IMPORT ────────────────────────────────────────────────────────────
+
+    /**
+     * Import a CSV upload. The first record must be a header naming the
+     * columns name, email, course and department (any order, any case).
+     *
+     * @param in the request body
+     * @return the import report
+     * @throws IllegalArgumentException if the header is missing a column
+     */
+    public BulkImportResult importCsv(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        CsvReader csv = new CsvReader(reader(in));
+
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new IllegalArgumentException("CSV upload is empty.");
+        }
+        int nameCol = column(header, "name");
+        int emailCol = column(header, "email");
+        int courseCol = column(header, "course");
+        int deptCol = column(header, "department");
+
+        try (Importer importer = new Importer()) {
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue; // skip empty lines
+                }
+                Student student = new Student(
+                        field(record, nameCol), field(record, emailCol),
+                        field(record, courseCol), field(record, deptCol));
+                importer.accept(csv.recordLine, student);
+            }
+            return importer.finish(start);
+        }
+    }
+
+    // ─── NDJSON IMPORT ─────────────────────────────────────────────────────────
+
+    /**
+     * Import newline-delimited JSON: one student object per line,
+     * e.g. {"name":"Alice","email":"alice@college.edu","course":"B.Tech","department":"CS"}
+     *
+     * @param in the request body
+     * @return the import report
+     */
+    public BulkImportResult importNdjson(InputStream in) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = reader(in);
+        try (Importer importer = new Importer()) {
+            String line;
+            long row = 0;
+            while ((line = reader.readLine()) != null) {
+                row++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Student student;
+                try {
+                    student = objectMapper.readValue(line, Student.class);
+                } catch (JsonProcessingException e) {
+                    importer.result.addReceived();
+                    importer.result.addError(row, "Invalid JSON: " + e.getOriginalMessage());
+                    continue;
+                }
+                student.setId(null); // ids are always generated by the database
+                importer.accept(row, student);
+            }
+            return importer.finish(start);
+        }
+    }
+
+    // ─── BATCHING ──────────────────────────────────────────────────────────────
+
+    /**
+     * Collects valid rows and writes them out one batch at a time. Closing it
+     * releases the email claims of rows never written (the upload broke off).
+     */
+    private final class Importer implements AutoCloseable {
+        final BulkImportResult result = new BulkImportResult();
+        final List<Student> batch = new ArrayList<>(batchSize);
+        final List<Long> batchRows = new ArrayList<>(batchSize);
+        final List<StudentEmailIndex.Claim> claims = new ArrayList<>(batchSize);
+
+        void accept(long row, Student student) {
+            result.addReceived();
+            trim(student);
+            String problem = validate(student);
+            if (problem != null) {
+                result.addError(row, problem);
+                return;
+            }
+            try {
+                claims.add(emailIndex.claim(student.getEmail(), null));
+            } catch (StudentEmailIndex.DuplicateEmailException e) {
+                result.addError(row, e.getMessage());
+                return;
+            }
+            batch.add(student);
+            batchRows.add(row);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            try {
+                Set<Student> retry = Collections.newSetFromMap(new IdentityHashMap<>());
+                try {
+                    retry.addAll(changeLog.execute(batch.size(), status -> insert(batch)));
+                } catch (DataAccessException | TransactionException batchFailure) {
+                    retry.addAll(batch); // one bad row rolls back the whole batch
+                }
+                // Find the bad rows one by one
+                for (int i = 0; i < batch.size(); i++) {
+                    Student row = batch.get(i);
+                    if (!retry.contains(row)) {
+                        published(List.of(row));
+                        continue;
+                    }
+                    row.setId(null);
+                    try {
+                        changeLog.executeWithoutResult(1, status -> insertOne(row));
+                        published(List.of(row));
+                    } catch (DataAccessException | TransactionException e) {
+                        result.addError(batchRows.get(i), "Rejected by database: " + e.getMostSpecificCause().getMessage());
+                    }
+                }
+            } finally {
+                claims.forEach(emailIndex::release);
+                batch.clear();
+                batchRows.clear();
+                claims.clear();
+            }
+        }
+
+        private void published(List<Student> saved) {
+            result.addImported(saved.size());
+            for (Student student : saved) {
+                if (student.getId() != null) {
+                    changePublisher.publishSaved(null, student);
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            claims.forEach(emailIndex::release);
+            claims.clear();
+        }
+
+        BulkImportResult finish(long startNanos) {
+            flush();
+            result.setElapsedMs((System.nanoTime() - startNanos) / 1_000_000);
+            log.info("Bulk import: {} received, {} imported, {} failed in {} ms",
+                    result.getReceived(), result.getImported(), result.getFailed(), result.getElapsedMs());
+            return result;
+        }
+    }
+
+    /**
+     * Insert rows with one JDBC batch and copy the generated ids back onto them.
+     * Runs inside the caller's transaction; the batch takes a block of
+     * consecutive change numbers, which a rollback gives back. The rows'
+     * outbox events are written in the same transaction.
+     *
+     * With sharding on, each shard gets its share as a batch of its own, and
+     * a failed shard batch doesn't undo the others (see ShardedStudentRepository.insertAll).
+     *
+     * @return rows that were not inserted and should be retried one by one
+     *         (only with sharding; otherwise a failure throws)
+     */
+    private List<Student> insert(List<Student> rows) {
+        long changeSeq = changeLog.reserve(rows.size());
+        Instant now = Instant.now();
+        for (Student s : rows) {
+            s.setChangeSeq(changeSeq++);
+            s.setUpdatedAt(now);
+        }
+        if (shards.isEnabled()) {
+            List<Student> failed = shards.insertAll(rows);
+            if (outbox.isEnabled()) {
+                Set<Student> notInserted = Collections.newSetFromMap(new IdentityHashMap<>());
+                notInserted.addAll(failed);
+                outbox.appendAll(rows.stream().filter(s -> !notInserted.contains(s)).toList());
+            }
+            return failed;
+        }
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            try (PreparedStatement ps = con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Student s : rows) {
+                    ps.setString(1, s.getName());
+                    ps.setString(2, s.getEmail());
+                    ps.setString(3, s.getCourse());
+                    ps.setString(4, s.getDepartment());
+                    ps.setLong(5, s.getChangeSeq());
+                    ps.setTimestamp(6, Timestamp.from(s.getUpdatedAt()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < rows.size()) {
+                        rows.get(i++).setId(keys.getLong(1));
+                    }
+                }
+            }
+            return null;
+        });
+        if (outbox.isEnabled()) {
+            outbox.appendAll(rows);
+        }
+        return List.of();
+    }
+
+    /** Insert a single row; a rejected row throws (e.g. DuplicateKeyException). */
+    private void insertOne(Student row) {
+        if (!shards.isEnabled()) {
+            insert(List.of(row));
+            return;
+        }
+        row.setChangeSeq(changeLog.next());
+        row.setUpdatedAt(Instant.now());
+        shards.insert(row);
+        if (outbox.isEnabled()) {
+            outbox.appendAll(List.of(row));
+        }
+    }
+
+    // ─── VALIDATION ────────────────────────────────────────────────────────────
+
+    private static void trim(Student s) {
+        s.setName(s.getName() == null ? null : s.getName().trim());
+        s.setEmail(s.getEmail() == null ? null : s.getEmail().trim());
+        s.setCourse(s.getCourse() == null ? null : s.getCourse().trim());
+        s.setDepartment(s.getDepartment() == null ? null : s.getDepartment().trim());
+    }
+
+    /** @return a description of the first problem, or null if the row is valid */
+    private static String validate(Student s) {
+        String[][] fields = {
+                {"name", s.getName()},
+                {"email", s.getEmail()},
+                {"course", s.getCourse()},
+                {"department", s.getDepartment()}
+        };
+        for (String[] f : fields) {
+            String problem = required(f[0], f[1]);
+            if (problem != null) {
+                return problem;
+            }
+        }
+        if (!EMAIL.matcher(s.getEmail()).matches()) {
+            return "email is not valid: " + s.getEmail();
+        }
+        return null;
+    }
+
+    private static String required(String field, String value) {
+        if (value == null || value.isEmpty()) {
+            return field + " is required";
+        }
+        if (value.length() > MAX_LENGTH) {
+            return field + " is longer than " + MAX_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    // ─── CSV PARSING ───────────────────────────────────────────────────────────
+
+    private static BufferedReader reader(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+
+    private static int column(List<String> header, String name) {
+        for (int i = 0; i < header.size(); i++) {
+            String h = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            if (h.equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("CSV header must contain a '" + name + "' column.");
+    }
+
+    private static String field(List<String> record, int index) {
+        return index < record.size() ? record.get(index) : null;
+    }
+
+    /**
+     * Minimal RFC 4180 reader: comma separated, fields may be wrapped in
+     * double quotes, "" inside quotes is a literal quote, and a quoted field
+     * may continue over several lines. Holds at most one record in memory.
+     */
+    private static final class CsvReader {
+        private final BufferedReader in;
+        private long line;
+        long recordLine; // 1-based line number where the last record started
+
+        CsvReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        List<String> next() throws IOException {
+            String text = in.readLine();
+            if (text == null) {
+                return null;
+            }
+            recordLine = ++line;
+
+            List<String> fields = new ArrayList<>(4);
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == text.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    String more = in.readLine(); // quoted field continues on the next line
+                    if (more == null) {
+                        break;
+                    }
+                    line++;
+                    field.append('\n');
+                    text = more;
+                    i = 0;
+                    continue;
+                }
+                char c = text.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < text.length() && text.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.student.service;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.model.ChangeSequence;
+import com.student.model.Student;
+import com.student.model.StudentEvent;
+import com.student.repository.ChangeSequenceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StudentOutbox — every student change as a row in student_events, written
+ * in the same transaction as the change (opt-in: student.outbox.enabled).
+ *
+ * A committed change always has its event and a rolled-back one never does,
+ * so StudentEventRelay can hand the stream to downstream systems (library,
+ * hostel, LMS) instead of them polling GET /api/students. An event carries
+ * the change number of its write (a delete's own number for DELETED), and
+ * the stream is read in that order, never past the change log's watermark
+ * (StudentChangeLog.current()): writes on different nodes can commit out of
+ * number order, and a reader must not move past a number still in flight.
+ * The change number, not the row id, is the subscriber's position.
+ *
+ * Who writes:
+ *  - StudentChangePublisher, for every write made inside a transaction
+ *    (StudentService, write-behind batches)
+ *  - StudentImportService, one JDBC batch per import batch
+ *
+ * Events older than student.outbox.retention-hours are purged with the
+ * change log maintenance; a subscriber further behind than that is told to
+ * reload everything (purgedThrough(), like the tombstones of /changes).
+ */
+@Component
+public class StudentOutbox {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentOutbox.class);
+
+    static final String SEQUENCE = "student_events";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO student_events (type, student_id, change_seq, payload, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final RowMapper<Event> ROW_MAPPER = (rs, row) -> new Event(
+            rs.getLong(1), rs.getString(2), rs.getLong(3), rs.getLong(4),
+            rs.getTimestamp(5).toInstant(), rs.getString(6));
+
+    @Value("${student.outbox.enabled:false}")
+    private boolean enabled;
+
+    @Value("${student.outbox.retention-hours:168}")
+    private long retentionHours;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ChangeSequenceRepository sequenceRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private StudentChangeLog changeLog;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * One event as relayed to subscribers; student is the JSON stored with it.
+     * changeSeq is its position in the stream.
+     */
+    public record Event(long id, String type, long studentId, long changeSeq, Instant at,
+                        @JsonRawValue String student) {}
+
+    // ─── WRITERS ───────────────────────────────────────────────────────────────
+
+    /**
+     * Add the event for one write to the caller's transaction.
+     *
+     * @param student the student as saved, or as it was for DELETED (with
+     *                the delete's change number)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(StudentEvent.Type type, Student student) {
+        jdbcTemplate.update(INSERT_SQL, type.name(), student.getId(), student.getChangeSeq(),
+                json(student), Timestamp.from(Instant.now()));
+    }
+
+    /** SAVED events for rows inserted in the caller's transaction, as one JDBC batch. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(List<Student> inserted) {
+        if (inserted.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(inserted.size());
+        for (Student s : inserted) {
+            args.add(new Object[] { StudentEvent.Type.SAVED.name(), s.getId(), s.getChangeSeq(), json(s), now });
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, args);
+    }
+
+    private String json(Student student) {
+        try {
+            return objectMapper.writeValueAsString(student);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ─── READERS ───────────────────────────────────────────────────────────────
+
+    /**
+     * Up to limit events after the given change number and up to the
+     * watermark, in change order (idx_student_events_change_seq).
+     */
+    public List<Event> readAfter(long after, int limit) {
+        long through = watermark(); // read first: everything up to it has committed
+        return jdbcTemplate.query(
+                "SELECT id, type, student_id, change_seq, created_at, payload FROM student_events"
+                        + " WHERE change_seq > ? AND change_seq <= ? ORDER BY change_seq LIMIT ?",
+                ROW_MAPPER, after, through, limit);
+    }
+
+    /** The position up to which the stream is complete — where a new subscriber starts. */
+    public long watermark() {
+        return changeLog.current().getValue();
+    }
+
+    /** Events up to this change number have been purged; a subscriber behind it must reload everything. */
+    public long purgedThrough() {
+        return sequenceRepository.findById(SEQUENCE).map(ChangeSequence::getPurgedThrough).orElse(0L);
+    }
+
+    // ─── MAINTENANCE ───────────────────────────────────────────────────────────
+
+    @Scheduled(initialDelayString = "${student.sync.maintenance-interval-ms:300000}",
+               fixedDelayString = "${student.sync.maintenance-interval-ms:300000}")
+    public void purge() {
+        if (!enabled) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(retentionHours, ChronoUnit.HOURS);
+        Long purgeThrough = jdbcTemplate.queryForObject(
+                "SELECT MAX(change_seq) FROM student_events WHERE created_at < ?", Long.class, Timestamp.from(cutoff));
+        if (purgeThrough == null) {
+            return;
+        }
+        if (sequenceRepository.findById(SEQUENCE).isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status ->
+                        sequenceRepository.saveAndFlush(new ChangeSequence(SEQUENCE)));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+        Integer purged = transactionTemplate.execute(status -> {
+            ChangeSequence sequence = sequenceRepository.lockByName(SEQUENCE).orElseThrow();
+            sequence.setPurgedThrough(Math.max(sequence.getPurgedThrough(), purgeThrough));
+            return jdbcTemplate.update("DELETE FROM student_events WHERE change_seq <= ? OR change_seq IS NULL",
+                    purgeThrough);
+        });
+        log.info("Purged {} student events up to {}", purged, purgeThrough);
+    }
+}
@@ -0,0 +1,409 @@
+package com.student.service;
+
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * StudentSearchIndex — in-memory trigram index over student names.
+ *
+ * A database "LIKE '%ali%'" cannot use any index, so every search scans the
+ * whole table. Instead we keep, for every 3-character slice of a lower-cased
+ * name ("ali", "lic", "ice", ...), a sorted list of the student ids containing it.
+ *
+ * Searching "alic":
+ * 1. Split the query into trigrams: "ali", "lic"
+ * 2. Intersect their id lists (smallest first) to get the candidates
+ * 3. Check each candidate really contains "alic" and rank it
+ *
+ * Posting lists are plain long[] arrays (no boxed Long per entry).
+ * The index is filled once at startup and then kept current through
+ * StudentChangeListener callbacks from StudentService.
+ */
+@Component
+public class StudentSearchIndex implements StudentChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSearchIndex.class);
+
+    private static final int GRAM = 3;
+    private static final int BUILD_CHUNK = 1000;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // id → indexed copy of the student; guarded by lock
+    private final Map<Long, Entry> docs = new HashMap<>();
+
+    // packed trigram → sorted student ids; guarded by lock
+    private final Map<Long, Postings> postings = new HashMap<>();
+
+    // ids deleted while the startup build is running, so the build won't re-add them
+    private final Set<Long> deletedDuringBuild = new HashSet<>();
+    private boolean building;
+
+    private volatile boolean ready;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    // ─── BUILD AT STARTUP ──────────────────────────────────────────────────────
+
+    /**
+     * Load every student into the index once the application has started.
+     *
+     * Writes that happen during the build are applied straight away; the build
+     * only adds rows the index doesn't know yet and skips rows deleted meanwhile,
+     * so it never overwrites newer data. Until it finishes, isReady() is false
+     * and StudentService falls back to the database query.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        long start = System.nanoTime();
+        withWriteLock(() -> {
+            building = true;
+            deletedDuringBuild.clear();
+        });
+
+        int count = 0;
+        try (Stream<Student> stream = shards.isEnabled()
+                ? shards.streamAllOrderById() : studentRepository.streamAllOrderById()) {
+            Iterator<Student> rows = stream.iterator();
+            List<Student> chunk = new ArrayList<>(BUILD_CHUNK);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == BUILD_CHUNK || !rows.hasNext()) {
+                    withWriteLock(() -> {
+                        for (Student s : chunk) {
+                            if (!docs.containsKey(s.getId()) && !deletedDuringBuild.contains(s.getId())) {
+                                add(s);
+                            }
+                        }
+                    });
+                    count += chunk.size();
+                    chunk.clear();
+                }
+            }
+        } finally {
+            withWriteLock(() -> {
+                building = false;
+                deletedDuringBuild.clear();
+            });
+        }
+
+        ready = true;
+        log.info("Student search index built: {} students, {} trigrams in {} ms",
+                count, trigramCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * The indexed copy of one student, or null if the index doesn't have it
+     * (not built yet, or unknown id). May lag a write that is still committing —
+     * callers must check its changeSeq against the database.
+     */
+    public Student get(Long id) {
+        if (!ready) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            Entry entry = docs.get(id);
+            return entry == null ? null : new Student(entry.student());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ─── SEARCH ────────────────────────────────────────────────────────────────
+
+    /**
+     * Case-insensitive "name contains" search, same matches as the database query.
+     *
+     * Ranking: names starting with the query first, then names where a word
+     * starts with it, then everything else; ties broken by match position,
+     * shorter name, then id. Only the best {@code limit} hits are kept.
+     *
+     * @param query the text to look for
+     * @param limit maximum number of results
+     * @return ranked matching students (never null)
+     */
+    public List<Student> search(String query, int limit) {
+        String q = normalize(query);
+        if (q.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Worst hit on top, so we can drop it when a better one arrives
+        PriorityQueue<Hit> best = new PriorityQueue<>(Math.min(limit, 1024), Hit.ORDER.reversed());
+
+        lock.readLock().lock();
+        try {
+            if (q.length() < GRAM) {
+                // Too short for a trigram — scan the in-memory names instead
+                for (Entry entry : docs.values()) {
+                    offer(best, entry, q, limit);
+                }
+            } else {
+                long[] candidates = candidates(q);
+                for (long id : candidates) {
+                    offer(best, docs.get(id), q, limit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(Hit.ORDER);
+        List<Student> results = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            results.add(new Student(hit.entry.student)); // callers may change what they get
+        }
+        return results;
+    }
+
+    /** Ids of all students whose name contains every trigram of q (sorted). */
+    private long[] candidates(String q) {
+        long[] grams = trigrams(q);
+        Postings[] lists = new Postings[grams.length];
+        for (int i = 0; i < grams.length; i++) {
+            lists[i] = postings.get(grams[i]);
+            if (lists[i] == null) {
+                return new long[0]; // some trigram never occurs → no match possible
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+
+        long[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int size = result.length;
+        for (int i = 1; i < lists.length && size > 0; i++) {
+            size = intersect(result, size, lists[i]);
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /** Keep only ids also present in other; both sorted. Returns the new size. */
+    private static int intersect(long[] ids, int size, Postings other) {
+        int out = 0;
+        int j = 0;
+        for (int i = 0; i < size && j < other.size; i++) {
+            long id = ids[i];
+            while (j < other.size && other.ids[j] < id) {
+                j++;
+            }
+            if (j < other.size && other.ids[j] == id) {
+                ids[out++] = id;
+            }
+        }
+        return out;
+    }
+
+    private static void offer(PriorityQueue<Hit> best, Entry entry, String q, int limit) {
+        if (entry == null) {
+            return;
+        }
+        int pos = entry.key.indexOf(q);
+        if (pos < 0) {
+            return; // trigrams matched but not as one contiguous substring
+        }
+        int tier = 2;
+        if (pos == 0) {
+            tier = 0;
+        } else {
+            // Prefer an occurrence at the start of a word ("ali" in "Malik Ali")
+            for (int at = pos; at >= 0; at = entry.key.indexOf(q, at + 1)) {
+                if (!Character.isLetterOrDigit(entry.key.charAt(at - 1))) {
+                    tier = 1;
+                    pos = at;
+                    break;
+                }
+            }
+        }
+        Hit hit = new Hit(entry, tier, pos);
+        if (best.size() < limit) {
+            best.add(hit);
+        } else if (Hit.ORDER.compare(hit, best.peek()) < 0) {
+            best.poll();
+            best.add(hit);
+        }
+    }
+
+    // ─── KEEP IN SYNC WITH WRITES ──────────────────────────────────────────────
+
+    @Override
+    public void onStudentSaved(Student before, Student after) {
+        Student copy = new Student(after);
+        withWriteLock(() -> {
+            Entry current = docs.get(copy.getId());
+            if (current != null && seqOf(current.student()) > seqOf(copy)) {
+                return; // an older write whose callback came late
+            }
+            remove(copy.getId());
+            add(copy);
+        });
+    }
+
+    @Override
+    public void onStudentDeleted(Student removed) {
+        Long id = removed.getId();
+        withWriteLock(() -> {
+            remove(id);
+            if (building) {
+                deletedDuringBuild.add(id);
+            }
+        });
+    }
+
+    // ─── INTERNALS (callers hold the write lock) ───────────────────────────────
+
+    private void add(Student student) {
+        Entry entry = new Entry(student, normalize(student.getName()));
+        docs.put(student.getId(), entry);
+        for (long gram : trigrams(entry.key)) {
+            postings.computeIfAbsent(gram, g -> new Postings()).add(student.getId());
+        }
+    }
+
+    private void remove(Long id) {
+        Entry entry = docs.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (long gram : trigrams(entry.key)) {
+            Postings list = postings.get(gram);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int trigramCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    /** Distinct trigrams of text, each packed as three 16-bit chars in one long. */
+    private static long[] trigrams(String text) {
+        int n = text.length() - GRAM + 1;
+        if (n <= 0) {
+            return new long[0];
+        }
+        long[] grams = new long[n];
+        for (int i = 0; i < n; i++) {
+            grams[i] = ((long) text.charAt(i) << 32)
+                    | ((long) text.charAt(i + 1) << 16)
+                    | text.charAt(i + 2);
+        }
+        Arrays.sort(grams);
+        int distinct = 1;
+        for (int i = 1; i < n; i++) {
+            if (grams[i] != grams[distinct - 1]) {
+                grams[distinct++] = grams[i];
+            }
+        }
+        return distinct == n ? grams : Arrays.copyOf(grams, distinct);
+    }
+
+    // ─── HELPER TYPES ──────────────────────────────────────────────────────────
+
+    private record Entry(Student student, String key) {}
+
+    private static long seqOf(Student student) {
+        return student.getChangeSeq() == null ? -1L : student.getChangeSeq();
+    }
+
+    private record Hit(Entry entry, int tier, int pos) {
+        static final Comparator<Hit> ORDER = Comparator
+                .comparingInt(Hit::tier)
+                .thenComparingInt(Hit::pos)
+                .thenComparingInt(h -> h.entry.key.length())
+                .thenComparingLong(h -> h.entry.student.getId());
+    }
+
+    /** A sorted, growable list of primitive ids. */
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            // Ids mostly arrive in increasing order, so appending is the common case
+            if (size == 0 || ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i >= 0) {
+                return;
+            }
+            i = -i - 1;
+            grow();
+            System.arraycopy(ids, i, ids, i + 1, size - i);
+            ids[i] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            if (i < 0) {
+                return false;
+            }
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            size--;
+            if (ids.length > 16 && size < ids.length / 4) {
+                ids = Arrays.copyOf(ids, ids.length / 2);
+            }
+            return true;
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
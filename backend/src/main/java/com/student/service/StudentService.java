@@ -1,12 +1,32 @@
 package com.student.service;
 
+import com.student.cache.StudentCache;
+import com.student.datasource.ReplicaRead;
+import com.student.dto.StudentChanges;
+import com.student.dto.StudentPage;
+import com.student.model.ChangeSequence;
 import com.student.model.Student;
+import com.student.model.StudentTombstone;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentListQuery;
+import com.student.repository.StudentQueryRepository;
 import com.student.repository.StudentRepository;
+import com.student.repository.StudentTombstoneRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * StudentService — contains business logic for student CRUD operations.
@@ -17,28 +37,281 @@ import java.util.Optional;
 @Service
 public class StudentService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** The student changed since the version the client based its write on (HTTP 412). */
+    public static class VersionConflictException extends RuntimeException {
+        public VersionConflictException(String message) {
+            super(message);
+        }
+    }
+
     @Autowired
     private StudentRepository studentRepository;
 
-    // ─── GET ALL STUDENTS ──────────────────────────────────────────────────────
+    // Used instead of studentRepository when student.shards.urls is set
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    // Filtered / sorted lists (GET /api/students with filters)
+    @Autowired
+    private StudentQueryRepository queryRepository;
+
+    @Autowired
+    private StudentSearchIndex searchIndex;
+
+    // Refuses duplicate emails before they reach the database
+    @Autowired
+    private StudentEmailIndex emailIndex;
+
+    @Autowired
+    private StudentCache studentCache;
+
+    @Autowired
+    private StudentStatsService statsService;
+
+    // Keeps in-memory views (search index, ...) in sync with our writes
+    @Autowired
+    private StudentChangePublisher changePublisher;
+
+    // Numbers every write for ETags and delta sync, and opens the writes'
+    // transactions (explicitly: with write-behind on, the caller must not
+    // hold a connection while its write waits in the queue)
+    @Autowired
+    private StudentChangeLog changeLog;
+
+    @Autowired
+    private StudentTombstoneRepository tombstoneRepository;
+
+    // Group commit for writes when student.write-behind.enabled=true
+    @Autowired
+    private StudentWriteBehind writeBehind;
+
+    // ─── GET STUDENTS PAGE ─────────────────────────────────────────────────────
+
+    /**
+     * Retrieve one page of students using keyset (cursor) pagination.
+     *
+     * Steps:
+     * 1. Fetch limit + 1 rows with id > after (the extra row tells us if there is more)
+     * 2. Trim to limit and use the last id as the next cursor
+     *
+     * @param after the id to start after (null or 0 for the first page)
+     * @param limit requested page size, clamped to 1..MAX_PAGE_SIZE
+     * @return the page with its metadata
+     */
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public StudentPage getStudentsPage(Long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long start = after == null ? 0L : after;
+        long watermark = changeLog.current().getValue(); // read first: the rows are at least this new
+
+        List<Student> rows = shards.isEnabled()
+                ? shards.findPageAfter(start, pageSize + 1)
+                : studentRepository.findPageAfter(start, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? String.valueOf(rows.get(rows.size() - 1).getId()) : null;
+        return new StudentPage(rows, pageSize, nextCursor, hasMore, watermark);
+    }
+
+    /**
+     * One page of students matching filters, in any sort order (see
+     * StudentListQuery), optionally with facet counts.
+     *
+     * Steps:
+     * 1. Fetch limit + 1 rows after the cursor's sort key (keyset, like getStudentsPage)
+     * 2. Trim to limit; the last row's sort key becomes the next cursor
+     * 3. If asked, count matching students per course and per department —
+     *    each under the other filters only, so the counts show what picking
+     *    another value would give
+     *
+     * @param query  filters and sort order
+     * @param after  nextCursor of the previous page (null for the first page)
+     * @param limit  requested page size, clamped to 1..MAX_PAGE_SIZE
+     * @param facets whether to add the course / department counts
+     * @throws IllegalArgumentException if the cursor doesn't belong to this sort order
+     */
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public StudentPage findStudents(StudentListQuery query, String after, int limit, boolean facets) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        Object[] cursor = query.parseCursor(after);
+        long watermark = changeLog.current().getValue(); // read first: the rows are at least this new
+
+        List<Student> rows = shards.isEnabled()
+                ? shards.findPage(query, cursor, pageSize + 1)
+                : queryRepository.findPage(query, cursor, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? query.cursorOf(rows.get(rows.size() - 1)) : null;
+        StudentPage page = new StudentPage(rows, pageSize, nextCursor, hasMore, watermark);
+        if (facets) {
+            Map<String, Map<String, Long>> counts = new LinkedHashMap<>();
+            counts.put("course", facet(query, StudentListQuery.Field.COURSE));
+            counts.put("department", facet(query, StudentListQuery.Field.DEPARTMENT));
+            page.setFacets(counts);
+        }
+        return page;
+    }
+
+    /** Counts for one facet, largest first. */
+    private Map<String, Long> facet(StudentListQuery query, StudentListQuery.Field field) {
+        Map<String, Long> counts = shards.isEnabled() ? shards.countBy(query, field) : queryRepository.countBy(query, field);
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> sorted.put(e.getKey(), e.getValue()));
+        return sorted;
+    }
 
     /**
-     * Retrieve all students from the database.
-     * @return List of all students
+     * The latest committed change number — changes whenever any student is
+     * added, updated or deleted. One primary-key read; used for list ETags.
      */
-    public List<Student> getAllStudents() {
-        return studentRepository.findAll();
+    public long currentChangeSeq() {
+        return changeLog.current().getValue();
+    }
+
+    // ─── CHANGES SINCE (DELTA SYNC) ────────────────────────────────────────────
+
+    /**
+     * Everything that changed after a sync position, oldest change first.
+     *
+     * Steps:
+     * 1. Read the counter — if since is older than the purged tombstones, ask for a resync
+     * 2. Read up to limit + 1 changed students and tombstones after since (both indexed)
+     * 3. Merge them by change number and cut at limit
+     *
+     * All reads share one read-only transaction (one MySQL snapshot), so the
+     * returned watermark covers exactly what was returned.
+     *
+     * @param since the watermark from the previous call (or from the list page)
+     * @param limit maximum number of changes, clamped to 1..MAX_PAGE_SIZE
+     */
+    @Transactional(readOnly = true)
+    public StudentChanges getChangesSince(long since, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        ChangeSequence sequence = changeLog.current();
+        if (since < sequence.getPurgedThrough()) {
+            return new StudentChanges(List.of(), List.of(), sequence.getValue(), false, true);
+        }
+
+        PageRequest page = PageRequest.of(0, max + 1);
+        List<Student> changed = shards.isEnabled()
+                ? shards.findChangedSince(since, sequence.getValue(), max + 1)
+                : studentRepository.findChangedSince(since, sequence.getValue(), page);
+        List<StudentTombstone> deleted = tombstoneRepository.findChangedSince(since, sequence.getValue(), page);
+
+        List<Student> upserts = new ArrayList<>();
+        List<Long> deletes = new ArrayList<>();
+        long watermark = since;
+        int s = 0;
+        int d = 0;
+        while (upserts.size() + deletes.size() < max && (s < changed.size() || d < deleted.size())) {
+            boolean takeStudent = d >= deleted.size()
+                    || (s < changed.size() && changed.get(s).getChangeSeq() < deleted.get(d).getChangeSeq());
+            if (takeStudent) {
+                Student student = changed.get(s++);
+                upserts.add(student);
+                watermark = student.getChangeSeq();
+            } else {
+                StudentTombstone tombstone = deleted.get(d++);
+                deletes.add(tombstone.getStudentId());
+                watermark = tombstone.getChangeSeq();
+            }
+        }
+
+        boolean hasMore = s < changed.size() || d < deleted.size();
+        if (!hasMore) {
+            watermark = Math.max(watermark, sequence.getValue());
+        }
+        return new StudentChanges(upserts, deletes, watermark, hasMore, false);
+    }
+
+    // ─── STREAM ALL STUDENTS ───────────────────────────────────────────────────
+
+    /**
+     * Walk over every student in id order, one row at a time.
+     *
+     * Rows are fetched from MySQL in chunks (see StudentRepository.streamAllOrderById)
+     * as plain objects, not managed entities, so the persistence context never
+     * grows — memory stays flat however big the table is.
+     *
+     * @param sink called once per student, in id order
+     */
+    @Transactional(readOnly = true)
+    public void streamAllStudents(Consumer<Student> sink) {
+        try (Stream<Student> stream = shards.isEnabled()
+                ? shards.streamAllOrderById() : studentRepository.streamAllOrderById()) {
+            stream.forEach(sink);
+        }
+    }
+
+    /**
+     * Walk over every student in id order, chunkSize rows at a time, without
+     * holding a database connection in between.
+     *
+     * Each chunk is one keyset query (id > last id) in its own short read-only
+     * transaction; the connection goes back to the pool before the chunk is
+     * handed to the sink, and the next chunk is only read once the sink
+     * returns. A sink writing to a slow client therefore sets the pace, and
+     * at most one chunk is in memory.
+     *
+     * Unlike streamAllStudents this is not one consistent snapshot: a student
+     * changed while the walk is running shows up with its newer values if it
+     * hasn't been reached yet.
+     *
+     * @param chunkSize rows per query, clamped to 1..MAX_PAGE_SIZE
+     * @param sink      called once per chunk, in id order
+     */
+    public void streamAllStudentsInChunks(int chunkSize, Consumer<List<Student>> sink) {
+        int size = Math.max(1, Math.min(chunkSize, MAX_PAGE_SIZE));
+        long after = 0;
+        while (true) {
+            long start = after;
+            List<Student> chunk = shards.isEnabled()
+                    ? shards.findPageAfter(start, size)
+                    : studentRepository.findPageAfter(start, PageRequest.of(0, size)); // own read-only transaction
+            if (chunk.isEmpty()) {
+                return;
+            }
+            sink.accept(chunk);
+            if (chunk.size() < size) {
+                return;
+            }
+            after = chunk.get(chunk.size() - 1).getId();
+        }
     }
 
     // ─── GET STUDENT BY ID ─────────────────────────────────────────────────────
 
     /**
      * Retrieve a specific student by their ID.
+     * 
+     * Hot records are served from StudentCache; on a miss the database row is
+     * loaded and cached (read-through).
+     * 
      * @param id the student ID
      * @return Optional<Student> — present if found
      */
     public Optional<Student> getStudentById(Long id) {
-        return studentRepository.findById(id);
+        Student cached = studentCache.get(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long stamp = studentCache.stamp(id);
+        Optional<Student> loaded = shards.isEnabled() ? shards.findById(id) : studentRepository.readById(id);
+        loaded.ifPresent(student -> studentCache.putIfUnchanged(student, stamp));
+        return loaded;
     }
 
     // ─── SEARCH BY NAME ────────────────────────────────────────────────────────
@@ -47,11 +320,23 @@ public class StudentService {
      * Search students by name (case-insensitive, partial match).
      * Example: searching "ali" will find "Alice", "Malik", etc.
      * 
-     * @param name the search keyword
-     * @return List of matching students
+     * Served from the in-memory StudentSearchIndex; the database is only
+     * queried while the index is still being built at startup.
+     * 
+     * @param name  the search keyword
+     * @param limit maximum number of results, clamped to 1..MAX_PAGE_SIZE
+     * @return List of matching students, best matches first
      */
-    public List<Student> searchByName(String name) {
-        return studentRepository.findByNameContainingIgnoreCase(name);
+    @ReplicaRead
+    public List<Student> searchByName(String name, int limit) {
+        int max = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        if (searchIndex.isReady()) {
+            return searchIndex.search(name, max);
+        }
+        if (shards.isEnabled()) {
+            return shards.findByNameContaining(name, max);
+        }
+        return studentRepository.searchByName(name, PageRequest.of(0, max));
     }
 
     // ─── ADD STUDENT ───────────────────────────────────────────────────────────
@@ -60,62 +345,254 @@ public class StudentService {
      * Add a new student to the database.
      * @param student the student object to save
      * @return the saved student (with generated ID)
+     * @throws StudentEmailIndex.DuplicateEmailException if the email is taken
      */
     public Student addStudent(Student student) {
-        return studentRepository.save(student);
+        StudentEmailIndex.Claim claim = emailIndex.claim(student.getEmail(), null);
+        try {
+            if (writeBehind.isEnabled()) {
+                // Each attempt saves a fresh copy, so a rolled-back batch leaves no id behind
+                return writeBehind.submit(StudentWriteBehind.Kind.INSERT, null, false,
+                        () -> applyAdd(new Student(student)));
+            }
+            return changeLog.execute(1, status -> applyAdd(student));
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e, student.getEmail());
+        } finally {
+            emailIndex.release(claim);
+        }
+    }
+
+    private Student applyAdd(Student student) {
+        student.setChangeSeq(changeLog.next());
+        student.setUpdatedAt(Instant.now());
+        Student saved = shards.isEnabled() ? shards.insert(student) : studentRepository.save(student);
+        changePublisher.publishSaved(null, saved);
+        return saved;
     }
 
     // ─── UPDATE STUDENT ────────────────────────────────────────────────────────
 
+    /** Update without a version check — see updateStudent(Long, Student, Long). */
+    public Student updateStudent(Long id, Student updated) {
+        return updateStudent(id, updated, null);
+    }
+
     /**
      * Update an existing student's information.
-     * 
+     *
      * Steps:
-     * 1. Find the student by ID
-     * 2. Update each field with new values
-     * 3. Save back to database
-     * 
-     * @param id      the student ID to update
-     * @param updated the new student data
+     * 1. Take the current row from the search index (memory) as "before"
+     * 2. Run one UPDATE ... WHERE id = ? AND change_seq = <before's version>
+     * 3. If that matched no row (index not built, stale, or the row is gone),
+     *    lock the row with SELECT ... FOR UPDATE and update it from there
+     *
+     * So the usual update is a single statement on the students table, and
+     * two admins can never silently overwrite each other's changes when they
+     * send the version they edited (If-Match).
+     *
+     * @param id              the student ID to update
+     * @param updated         the new values; null fields are left unchanged (PATCH)
+     * @param expectedVersion the changeSeq the client last saw, or null to skip the check
      * @return updated Student, or null if not found
+     * @throws VersionConflictException if expectedVersion is no longer current
+     * @throws StudentEmailIndex.DuplicateEmailException if the new email is taken
      */
-    public Student updateStudent(Long id, Student updated) {
-        Optional<Student> optional = studentRepository.findById(id);
+    public Student updateStudent(Long id, Student updated, Long expectedVersion) {
+        StudentEmailIndex.Claim claim = emailIndex.claim(updated.getEmail(), id);
+        try {
+            if (writeBehind.isEnabled()) {
+                return writeBehind.submit(StudentWriteBehind.Kind.UPDATE, id, expectedVersion != null,
+                        () -> applyUpdate(id, updated, expectedVersion));
+            }
+            return changeLog.execute(1, status -> applyUpdate(id, updated, expectedVersion));
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateEmailOr(e, updated.getEmail());
+        } finally {
+            emailIndex.release(claim);
+        }
+    }
+
+    private Student applyUpdate(Long id, Student updated, Long expectedVersion) {
+        long changeSeq = changeLog.next();
+        Instant now = Instant.now();
+
+        Student before = searchIndex.get(id);
+        if (before != null && before.getChangeSeq() != null
+                && (expectedVersion == null || expectedVersion.equals(before.getChangeSeq()))
+                && updateIfVersion(before, updated, changeSeq, now) == 1) {
+            Student saved = new Student(before);
+            copyChanges(updated, saved);
+            saved.setChangeSeq(changeSeq);
+            saved.setUpdatedAt(now);
+            changePublisher.publishSaved(before, saved);
+            return saved;
+        }
 
+        if (shards.isEnabled()) {
+            return shardedUpdate(id, updated, expectedVersion, changeSeq, now);
+        }
+        Optional<Student> optional = studentRepository.lockById(id);
         if (optional.isPresent()) {
             Student existing = optional.get();
-            existing.setName(updated.getName());
-            existing.setEmail(updated.getEmail());
-            existing.setCourse(updated.getCourse());
-            existing.setDepartment(updated.getDepartment());
-            return studentRepository.save(existing); // ✅ Save updated record
+            checkVersion(existing, expectedVersion);
+            before = new Student(existing);
+            copyChanges(updated, existing);
+            existing.setChangeSeq(changeSeq);
+            existing.setUpdatedAt(now);
+            changePublisher.publishSaved(before, existing); // ✅ Written at commit
+            return existing;
         }
 
         return null; // ❌ Student not found
     }
 
+    private int updateIfVersion(Student before, Student updated, long changeSeq, Instant now) {
+        if (shards.isEnabled()) {
+            return shards.updateIfVersion(before, updated.getName(), updated.getEmail(),
+                    updated.getCourse(), updated.getDepartment(), changeSeq, now);
+        }
+        return studentRepository.updateIfVersion(before.getId(), before.getChangeSeq(), updated.getName(),
+                updated.getEmail(), updated.getCourse(), updated.getDepartment(), changeSeq, now);
+    }
+
+    /**
+     * The fallback of applyUpdate on shards, where rows can't be locked from
+     * this transaction: read the row and update it at the version it had; if
+     * another write got in between, that misses and we read again.
+     */
+    private Student shardedUpdate(Long id, Student updated, Long expectedVersion, long changeSeq, Instant now) {
+        while (true) {
+            Optional<Student> optional = shards.findById(id);
+            if (optional.isEmpty()) {
+                return null;
+            }
+            Student before = optional.get();
+            checkVersion(before, expectedVersion);
+            if (shards.updateIfVersion(before, updated.getName(), updated.getEmail(),
+                    updated.getCourse(), updated.getDepartment(), changeSeq, now) == 1) {
+                Student saved = new Student(before);
+                copyChanges(updated, saved);
+                saved.setChangeSeq(changeSeq);
+                saved.setUpdatedAt(now);
+                changePublisher.publishSaved(before, saved);
+                return saved;
+            }
+        }
+    }
+
+    /**
+     * The unique key on email rejected a write the email index let through
+     * (an email written on another node, or the index still building) —
+     * report it like a duplicate found up front. Other violations pass.
+     */
+    private static RuntimeException duplicateEmailOr(DataIntegrityViolationException e, String email) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            // MySQL error 1062, or SQLSTATE 23505 (H2 in the benchmarks)
+            if (cause instanceof SQLException sql && (sql.getErrorCode() == 1062 || "23505".equals(sql.getSQLState()))) {
+                return new StudentEmailIndex.DuplicateEmailException(email);
+            }
+        }
+        return e;
+    }
+
+    private static void copyChanges(Student from, Student to) {
+        if (from.getName() != null) to.setName(from.getName());
+        if (from.getEmail() != null) to.setEmail(from.getEmail());
+        if (from.getCourse() != null) to.setCourse(from.getCourse());
+        if (from.getDepartment() != null) to.setDepartment(from.getDepartment());
+    }
+
+    private static void checkVersion(Student current, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(current.getChangeSeq())) {
+            throw new VersionConflictException("Student " + current.getId()
+                    + " was changed by someone else — reload it and try again.");
+        }
+    }
+
     // ─── DELETE STUDENT ────────────────────────────────────────────────────────
 
+    /** Delete without a version check — see deleteStudent(Long, Long). */
+    public boolean deleteStudent(Long id) {
+        return deleteStudent(id, null);
+    }
+
     /**
-     * Delete a student by their ID.
-     * @param id the student ID to delete
+     * Delete a student by their ID — one DELETE ... WHERE id = ? AND
+     * change_seq = ? when the search index knows the row, otherwise after
+     * locking it (same steps as updateStudent).
+     *
+     * @param id              the student ID to delete
+     * @param expectedVersion the changeSeq the client last saw, or null to skip the check
      * @return true if deleted, false if not found
+     * @throws VersionConflictException if expectedVersion is no longer current
      */
-    public boolean deleteStudent(Long id) {
-        if (studentRepository.existsById(id)) {
-            studentRepository.deleteById(id);
+    public boolean deleteStudent(Long id, Long expectedVersion) {
+        if (writeBehind.isEnabled()) {
+            return writeBehind.submit(StudentWriteBehind.Kind.DELETE, id, expectedVersion != null,
+                    () -> applyDelete(id, expectedVersion));
+        }
+        return Boolean.TRUE.equals(changeLog.execute(1, status -> applyDelete(id, expectedVersion)));
+    }
+
+    private boolean applyDelete(Long id, Long expectedVersion) {
+        long changeSeq = changeLog.next();
+
+        Student before = searchIndex.get(id);
+        if (before != null && before.getChangeSeq() != null
+                && (expectedVersion == null || expectedVersion.equals(before.getChangeSeq()))
+                && (shards.isEnabled() ? shards.deleteIfVersion(before)
+                        : studentRepository.deleteIfVersion(id, before.getChangeSeq())) == 1) {
+            changeLog.recordDeleted(id, changeSeq);
+            changePublisher.publishDeleted(before, changeSeq);
+            return true;
+        }
+
+        if (shards.isEnabled()) {
+            return shardedDelete(id, expectedVersion, changeSeq);
+        }
+        Optional<Student> optional = studentRepository.lockById(id);
+        if (optional.isPresent()) {
+            checkVersion(optional.get(), expectedVersion);
+            changeLog.recordDeleted(id, changeSeq);
+            studentRepository.delete(optional.get());
+            changePublisher.publishDeleted(optional.get(), changeSeq);
             return true; // ✅ Deleted successfully
         }
         return false; // ❌ Student not found
     }
 
+    /** The fallback of applyDelete on shards — same idea as shardedUpdate. */
+    private boolean shardedDelete(Long id, Long expectedVersion, long changeSeq) {
+        while (true) {
+            Optional<Student> optional = shards.findById(id);
+            if (optional.isEmpty()) {
+                return false;
+            }
+            checkVersion(optional.get(), expectedVersion);
+            if (shards.deleteIfVersion(optional.get()) == 1) {
+                changeLog.recordDeleted(id, changeSeq);
+                changePublisher.publishDeleted(optional.get(), changeSeq);
+                return true;
+            }
+        }
+    }
+
     // ─── COUNT STUDENTS ────────────────────────────────────────────────────────
 
     /**
      * Get the total number of students in the database.
+     * 
+     * Answered from the in-memory StudentStatsService counters; only runs
+     * SELECT COUNT(*) before those have been loaded at startup.
+     * 
      * @return total student count
      */
+    @ReplicaRead
     public long countStudents() {
-        return studentRepository.count();
+        if (statsService.isReady()) {
+            return statsService.total();
+        }
+        return shards.isEnabled() ? shards.count() : studentRepository.count();
     }
 }
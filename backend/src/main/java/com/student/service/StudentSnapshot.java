@@ -0,0 +1,799 @@
+package com.student.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.type.WritableTypeId;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.student.dto.StudentChanges;
+import com.student.model.Student;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * StudentSnapshot — in-memory, column-oriented copy of the students table
+ * that GET /api/students and /api/students/stream are served from (opt-in,
+ * student.snapshot.enabled=true).
+ *
+ * Instead of one Student entity per row (object header, boxed Longs, four
+ * Strings each with its own array) every column is one primitive array,
+ * row i being index i everywhere:
+ *  - id, changeSeq, updatedAt (epoch nanos) : long[]
+ *  - course, department : short[] codes into a dictionary — there are only
+ *    a handful of distinct values, shared by thousands of rows
+ *  - name, email : all values packed into one UTF-8 byte array plus an int[]
+ *    of offsets; written to the response as they are, never decoded. With
+ *    student.snapshot.off-heap=true these bytes live outside the Java heap.
+ * See StudentSnapshotBenchmark for heap per million students against entities.
+ *
+ * Keeping it current:
+ * 1. Built once at startup from a database cursor.
+ * 2. This node's writes arrive as StudentChangeListener callbacks and go into
+ *    a small sorted overlay of changed and deleted rows, so they show up at once.
+ * 3. Every refresh-interval-ms it pulls the delta-sync changes since its
+ *    watermark (StudentService.getChangesSince), which brings in writes made
+ *    on other nodes too. A row is only replaced by a newer changeSeq.
+ * 4. When the overlay reaches compact-threshold rows, the columns are
+ *    rewritten with it merged in, on the scheduler thread.
+ * Columns and overlay are never modified once published; every change swaps
+ * in a new State with one volatile write, so a page is always cut from one
+ * consistent version.
+ *
+ * The watermark of a page is the snapshot's delta-sync position: everything
+ * up to it is included, so GET /changes?since= from there misses nothing.
+ */
+@Component
+public class StudentSnapshot implements StudentChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentSnapshot.class);
+
+    private static final long NO_SEQ = -1;               // changeSeq column value for NULL
+    private static final long NO_TIME = Long.MIN_VALUE;  // updatedAt column value for NULL
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final SerializableString ITEMS = new SerializedString("items");
+    private static final SerializableString LIMIT = new SerializedString("limit");
+    private static final SerializableString NEXT_CURSOR = new SerializedString("nextCursor");
+    private static final SerializableString HAS_MORE = new SerializedString("hasMore");
+    private static final SerializableString WATERMARK = new SerializedString("watermark");
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString COURSE = new SerializedString("course");
+    private static final SerializableString DEPARTMENT = new SerializedString("department");
+    private static final SerializableString CHANGE_SEQ = new SerializedString("changeSeq");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+
+    @Value("${student.snapshot.enabled:false}")
+    private boolean enabled;
+
+    @Value("${student.snapshot.off-heap:false}")
+    private boolean offHeap;
+
+    @Value("${student.snapshot.compact-threshold:1024}")
+    private int compactThreshold;
+
+    // StudentService → StudentChangePublisher → listeners → us: resolved on first use
+    @Lazy
+    @Autowired
+    private StudentService studentService;
+
+    // Part of every ETag, so versions from before a restart never match
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong() >>> 16);
+
+    // Serializes everything that publishes a new state
+    private final Object writeLock = new Object();
+
+    private volatile State state = new State(new Columns.Builder(null).build(false), new TreeMap<>(), 0, 0);
+    private volatile boolean ready;
+
+    // Number of refreshes started; only the scheduler thread increments it
+    private volatile long refreshes;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    // ─── BUILD ─────────────────────────────────────────────────────────────────
+
+    /**
+     * Load every student into a fresh set of columns and swap them in.
+     *
+     * Runs at startup and again when the snapshot fell so far behind that
+     * its deletes were purged. Writes arriving meanwhile stay in the overlay
+     * and are kept on top of the new columns if they are newer.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long watermark = studentService.currentChangeSeq(); // read first: the rows are at least this new
+        Columns.Builder builder = new Columns.Builder(null);
+        try {
+            studentService.streamAllStudents(builder::add);
+        } catch (IllegalStateException e) {
+            log.error("Student snapshot disabled: {}", e.getMessage());
+            enabled = false;
+            return;
+        }
+        Columns columns = builder.build(offHeap);
+        install(columns, watermark);
+        log.info("Student snapshot built: {} students, {} KB heap + {} KB off-heap in {} ms",
+                columns.size, columns.heapBytes() / 1024, columns.offHeapBytes() / 1024,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Replace the contents with these rows (in id order) as of the given
+     * watermark — what build() does with a database cursor.
+     */
+    public void load(Iterable<Student> rows, long watermark) {
+        Columns.Builder builder = new Columns.Builder(null);
+        rows.forEach(builder::add);
+        install(builder.build(offHeap), watermark);
+    }
+
+    private void install(Columns columns, long watermark) {
+        synchronized (writeLock) {
+            State current = state;
+            TreeMap<Long, Row> overlay = new TreeMap<>();
+            for (Map.Entry<Long, Row> entry : current.overlay.entrySet()) {
+                Row row = entry.getValue();
+                if (row.student == null || seqOf(row.student) > columns.seqOf(entry.getKey())) {
+                    overlay.put(entry.getKey(), row);
+                }
+            }
+            state = new State(columns, overlay, watermark, current.version + 1);
+            ready = true;
+        }
+    }
+
+    /** Heap used by the current columns (not counting the overlay). */
+    public long heapBytes() {
+        return state.columns.heapBytes();
+    }
+
+    /** Bytes kept outside the heap (names and emails with off-heap=true). */
+    public long offHeapBytes() {
+        return state.columns.offHeapBytes();
+    }
+
+    // ─── KEEP IN SYNC ──────────────────────────────────────────────────────────
+
+    @Override
+    public void onStudentSaved(Student before, Student after) {
+        if (enabled) {
+            apply(List.of(after), List.of(), null);
+        }
+    }
+
+    @Override
+    public void onStudentDeleted(Student removed) {
+        if (enabled) {
+            apply(List.of(), List.of(removed.getId()), null);
+        }
+    }
+
+    /**
+     * Pull everything that changed since the watermark, then merge the
+     * overlay into the columns if it has grown large enough.
+     */
+    @Scheduled(fixedDelayString = "${student.snapshot.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!isReady()) {
+            return;
+        }
+        long generation = ++refreshes;
+        StudentChanges changes;
+        do {
+            changes = studentService.getChangesSince(state.watermark, StudentService.MAX_PAGE_SIZE);
+            if (changes.isResync()) {
+                log.warn("Student snapshot is older than the kept tombstones, rebuilding");
+                build();
+                return;
+            }
+            apply(changes.getUpserts(), changes.getDeletes(), changes.getWatermark());
+        } while (changes.isHasMore());
+
+        if (state.overlay.size() >= compactThreshold) {
+            compact(generation);
+        }
+    }
+
+    /**
+     * Put rows into the overlay — upserts only if newer than what we have,
+     * deletes always (ids are never reused, so a delete is final).
+     *
+     * @param watermark the new delta-sync position, or null for a local write
+     */
+    private void apply(List<Student> upserts, List<Long> deletes, Long watermark) {
+        synchronized (writeLock) {
+            State current = state;
+            TreeMap<Long, Row> overlay = new TreeMap<>(current.overlay);
+            long generation = refreshes;
+            for (Student student : upserts) {
+                if (seqOf(student) > current.seqOf(overlay, student.getId())) {
+                    overlay.put(student.getId(), new Row(new Student(student), generation));
+                }
+            }
+            for (Long id : deletes) {
+                overlay.put(id, new Row(null, generation));
+            }
+            long newWatermark = watermark == null ? current.watermark : Math.max(current.watermark, watermark);
+            state = new State(current.columns, overlay, newWatermark, current.version + 1);
+        }
+    }
+
+    /**
+     * Rewrite the columns with the overlay merged in. The copy is made
+     * outside the lock; rows that changed while it ran stay in the overlay.
+     *
+     * Deleted ids are remembered until a refresh that started after the
+     * delete: until then a delta page read before the delete committed could
+     * still bring the row back.
+     */
+    private void compact(long generation) {
+        long start = System.nanoTime();
+        State from = state;
+        Columns columns;
+        try {
+            columns = from.columns.merge(from.overlay, offHeap);
+        } catch (IllegalStateException e) {
+            log.error("Student snapshot disabled: {}", e.getMessage());
+            enabled = false;
+            return;
+        }
+        synchronized (writeLock) {
+            State current = state;
+            TreeMap<Long, Row> rest = new TreeMap<>();
+            for (Map.Entry<Long, Row> entry : current.overlay.entrySet()) {
+                Row row = entry.getValue();
+                boolean merged = from.overlay.get(entry.getKey()) == row;
+                if (!merged || (row.student == null && row.generation >= generation)) {
+                    rest.put(entry.getKey(), row);
+                }
+            }
+            state = new State(columns, rest, current.watermark, current.version + 1);
+        }
+        log.debug("Student snapshot compacted: {} changed rows merged in {} ms",
+                from.overlay.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static long seqOf(Student student) {
+        return student.getChangeSeq() == null ? NO_SEQ : student.getChangeSeq();
+    }
+
+    // ─── READ ──────────────────────────────────────────────────────────────────
+
+    /**
+     * One page of students with id > after, same content and JSON as
+     * StudentService.getStudentsPage.
+     *
+     * @param after the id to start after (null or 0 for the first page)
+     * @param limit requested page size, clamped to 1..MAX_PAGE_SIZE
+     */
+    public Page page(Long after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, StudentService.MAX_PAGE_SIZE));
+        State current = state;
+        Cursor cursor = new Cursor(current, after == null ? 0L : after);
+        int[] rows = new int[pageSize];
+        List<Student> changed = new ArrayList<>();
+        int count = 0;
+        long lastId = 0;
+        boolean hasMore = false;
+        while (cursor.next()) {
+            if (count == pageSize) {
+                hasMore = true;
+                break;
+            }
+            if (cursor.changed != null) {
+                changed.add(cursor.changed);
+                rows[count++] = -changed.size(); // -1 - index
+                lastId = cursor.changed.getId();
+            } else {
+                rows[count++] = cursor.row;
+                lastId = current.columns.ids[cursor.row];
+            }
+        }
+        String nextCursor = hasMore ? String.valueOf(lastId) : null;
+        return new Page(current, Arrays.copyOf(rows, count), changed, pageSize, nextCursor, hasMore, epoch);
+    }
+
+    /**
+     * Write every student in id order as newline-delimited JSON, the same
+     * objects StudentService.streamAllStudents would produce.
+     */
+    public void writeAll(JsonGenerator generator) throws IOException {
+        State current = state;
+        Cursor cursor = new Cursor(current, 0L);
+        boolean utf8 = generator instanceof UTF8JsonGenerator;
+        while (cursor.next()) {
+            if (cursor.changed != null) {
+                writeStudent(generator, cursor.changed);
+            } else {
+                current.columns.write(generator, cursor.row, utf8);
+            }
+            generator.writeRaw('\n');
+        }
+    }
+
+    /** Same fields and order as Jackson writes a Student entity. */
+    private static void writeStudent(JsonGenerator generator, Student student) throws IOException {
+        generator.writeStartObject();
+        generator.writeFieldName(ID);
+        generator.writeNumber(student.getId());
+        generator.writeFieldName(NAME);
+        generator.writeString(student.getName());
+        generator.writeFieldName(EMAIL);
+        generator.writeString(student.getEmail());
+        generator.writeFieldName(COURSE);
+        generator.writeString(student.getCourse());
+        generator.writeFieldName(DEPARTMENT);
+        generator.writeString(student.getDepartment());
+        generator.writeFieldName(CHANGE_SEQ);
+        if (student.getChangeSeq() == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(student.getChangeSeq());
+        }
+        generator.writeFieldName(UPDATED_AT);
+        generator.writeString(student.getUpdatedAt() == null ? null : student.getUpdatedAt().toString());
+        generator.writeEndObject();
+    }
+
+    /**
+     * A page ready to be written as JSON — implements JsonSerializable, so
+     * Jackson hands it the generator instead of looking for getters.
+     */
+    public static final class Page implements JsonSerializable {
+
+        private final State state;
+        private final int[] rows; // column row, or -1 - index into changed
+        private final List<Student> changed;
+        private final int limit;
+        private final String nextCursor;
+        private final boolean hasMore;
+        private final String version;
+
+        private Page(State state, int[] rows, List<Student> changed, int limit,
+                     String nextCursor, boolean hasMore, String epoch) {
+            this.state = state;
+            this.rows = rows;
+            this.changed = changed;
+            this.limit = limit;
+            this.nextCursor = nextCursor;
+            this.hasMore = hasMore;
+            this.version = epoch + "." + state.version;
+        }
+
+        /** Changes whenever anything in the snapshot changes — for ETags. */
+        public String getVersion() {
+            return version;
+        }
+
+        @Override
+        public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+            boolean utf8 = generator instanceof UTF8JsonGenerator;
+            generator.writeStartObject();
+            generator.writeFieldName(ITEMS);
+            generator.writeStartArray();
+            for (int row : rows) {
+                if (row < 0) {
+                    writeStudent(generator, changed.get(-1 - row));
+                } else {
+                    state.columns.write(generator, row, utf8);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeFieldName(LIMIT);
+            generator.writeNumber(limit);
+            generator.writeFieldName(NEXT_CURSOR);
+            generator.writeString(nextCursor);
+            generator.writeFieldName(HAS_MORE);
+            generator.writeBoolean(hasMore);
+            generator.writeFieldName(WATERMARK);
+            generator.writeNumber(state.watermark);
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator generator, SerializerProvider provider,
+                                      TypeSerializer typeSerializer) throws IOException {
+            WritableTypeId typeId = typeSerializer.writeTypePrefix(generator,
+                    typeSerializer.typeId(this, JsonToken.START_OBJECT));
+            serialize(generator, provider);
+            typeSerializer.writeTypeSuffix(generator, typeId);
+        }
+    }
+
+    // ─── HELPER TYPES ──────────────────────────────────────────────────────────
+
+    /**
+     * One published version: columns plus the rows changed since they were
+     * written. Neither is modified after the State is created.
+     */
+    private static final class State {
+        final Columns columns;
+        final TreeMap<Long, Row> overlay;
+        final long watermark;
+        final long version;
+
+        State(Columns columns, TreeMap<Long, Row> overlay, long watermark, long version) {
+            this.columns = columns;
+            this.overlay = overlay;
+            this.watermark = watermark;
+            this.version = version;
+        }
+
+        /** changeSeq we have for id: MAX_VALUE if deleted, MIN_VALUE if unknown. */
+        long seqOf(TreeMap<Long, Row> overlay, Long id) {
+            Row row = overlay.get(id);
+            if (row != null) {
+                return row.student == null ? Long.MAX_VALUE : StudentSnapshot.seqOf(row.student);
+            }
+            return columns.seqOf(id);
+        }
+    }
+
+    /** An overlay entry: the student as now, or null if deleted. */
+    private record Row(Student student, long generation) {}
+
+    /** Walks columns and overlay together in id order; overlay rows win. */
+    private static final class Cursor {
+        private final Columns columns;
+        private final Iterator<Map.Entry<Long, Row>> overlay;
+        private Map.Entry<Long, Row> pending;
+        private int next;
+
+        // The current row: a column index, or (when changed != null) an overlay student
+        int row;
+        Student changed;
+
+        Cursor(State state, long after) {
+            this.columns = state.columns;
+            this.overlay = state.overlay.tailMap(after, false).entrySet().iterator();
+            this.pending = overlay.hasNext() ? overlay.next() : null;
+            int i = Arrays.binarySearch(columns.ids, 0, columns.size, after);
+            this.next = i >= 0 ? i + 1 : -i - 1;
+        }
+
+        boolean next() {
+            while (true) {
+                boolean columnLeft = next < columns.size;
+                if (pending == null && !columnLeft) {
+                    return false;
+                }
+                long columnId = columnLeft ? columns.ids[next] : Long.MAX_VALUE;
+                if (pending != null && pending.getKey() <= columnId) {
+                    Row entry = pending.getValue();
+                    if (columnLeft && pending.getKey() == columnId) {
+                        next++; // replaced or deleted
+                    }
+                    pending = overlay.hasNext() ? overlay.next() : null;
+                    if (entry.student == null) {
+                        continue;
+                    }
+                    changed = entry.student;
+                    row = -1;
+                    return true;
+                }
+                changed = null;
+                row = next++;
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The students as parallel primitive arrays, sorted by id. Immutable;
+     * built with Columns.Builder.
+     */
+    static final class Columns {
+        final int size;
+        final long[] ids;
+        final long[] changeSeqs;
+        final long[] updatedAt;
+        final short[] courses;
+        final short[] departments;
+        final String[] courseNames;
+        final String[] departmentNames;
+        final Text names;
+        final Text emails;
+
+        private Columns(Builder b, boolean offHeap) {
+            this.size = b.size;
+            this.ids = Arrays.copyOf(b.ids, b.size);
+            this.changeSeqs = Arrays.copyOf(b.changeSeqs, b.size);
+            this.updatedAt = Arrays.copyOf(b.updatedAt, b.size);
+            this.courses = Arrays.copyOf(b.courses, b.size);
+            this.departments = Arrays.copyOf(b.departments, b.size);
+            this.courseNames = b.courseNames.values();
+            this.departmentNames = b.departmentNames.values();
+            this.names = b.names.build(offHeap);
+            this.emails = b.emails.build(offHeap);
+        }
+
+        /** changeSeq of the row with this id (NO_SEQ if NULL), or MIN_VALUE if absent. */
+        long seqOf(long id) {
+            int i = Arrays.binarySearch(ids, 0, size, id);
+            return i >= 0 ? changeSeqs[i] : Long.MIN_VALUE;
+        }
+
+        /** New columns with the overlay applied (changed rows replaced, deleted ones dropped). */
+        Columns merge(TreeMap<Long, Row> overlay, boolean offHeap) {
+            Builder builder = new Builder(this);
+            Iterator<Map.Entry<Long, Row>> changes = overlay.entrySet().iterator();
+            Map.Entry<Long, Row> pending = changes.hasNext() ? changes.next() : null;
+            int i = 0;
+            while (i < size || pending != null) {
+                if (pending != null && (i >= size || pending.getKey() <= ids[i])) {
+                    if (i < size && pending.getKey() == ids[i]) {
+                        i++;
+                    }
+                    if (pending.getValue().student != null) {
+                        builder.add(pending.getValue().student);
+                    }
+                    pending = changes.hasNext() ? changes.next() : null;
+                } else {
+                    builder.copy(this, i++);
+                }
+            }
+            return builder.build(offHeap);
+        }
+
+        void write(JsonGenerator generator, int row, boolean utf8) throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            generator.writeNumber(ids[row]);
+            generator.writeFieldName(NAME);
+            names.write(generator, row, utf8);
+            generator.writeFieldName(EMAIL);
+            emails.write(generator, row, utf8);
+            generator.writeFieldName(COURSE);
+            generator.writeString(decode(courseNames, courses[row]));
+            generator.writeFieldName(DEPARTMENT);
+            generator.writeString(decode(departmentNames, departments[row]));
+            generator.writeFieldName(CHANGE_SEQ);
+            if (changeSeqs[row] == NO_SEQ) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(changeSeqs[row]);
+            }
+            generator.writeFieldName(UPDATED_AT);
+            long nanos = updatedAt[row];
+            generator.writeString(nanos == NO_TIME ? null
+                    : Instant.ofEpochSecond(Math.floorDiv(nanos, NANOS_PER_SECOND),
+                                            Math.floorMod(nanos, NANOS_PER_SECOND)).toString());
+            generator.writeEndObject();
+        }
+
+        long heapBytes() {
+            long bytes = (long) size * (3 * Long.BYTES + 2 * Short.BYTES);
+            bytes += names.heapBytes() + emails.heapBytes();
+            for (String value : courseNames) {
+                bytes += value == null ? 0 : 40L + value.length();
+            }
+            for (String value : departmentNames) {
+                bytes += value == null ? 0 : 40L + value.length();
+            }
+            return bytes;
+        }
+
+        long offHeapBytes() {
+            return names.offHeapBytes() + emails.offHeapBytes();
+        }
+
+        private static String decode(String[] dictionary, short code) {
+            return code == Dictionary.NULL ? null : dictionary[Short.toUnsignedInt(code)];
+        }
+
+        /** Accumulates rows in id order. */
+        static final class Builder {
+            private int size;
+            private long[] ids = new long[1024];
+            private long[] changeSeqs = new long[1024];
+            private long[] updatedAt = new long[1024];
+            private short[] courses = new short[1024];
+            private short[] departments = new short[1024];
+            private final Dictionary courseNames;
+            private final Dictionary departmentNames;
+            private final Text.Builder names = new Text.Builder();
+            private final Text.Builder emails = new Text.Builder();
+
+            /** @param previous columns whose dictionary codes copy() may reuse, or null */
+            Builder(Columns previous) {
+                this.courseNames = new Dictionary(previous == null ? null : previous.courseNames);
+                this.departmentNames = new Dictionary(previous == null ? null : previous.departmentNames);
+            }
+
+            void add(Student student) {
+                grow();
+                ids[size] = student.getId();
+                changeSeqs[size] = StudentSnapshot.seqOf(student);
+                Instant at = student.getUpdatedAt();
+                updatedAt[size] = at == null ? NO_TIME : at.getEpochSecond() * NANOS_PER_SECOND + at.getNano();
+                courses[size] = courseNames.code(student.getCourse());
+                departments[size] = departmentNames.code(student.getDepartment());
+                names.add(student.getName());
+                emails.add(student.getEmail());
+                size++;
+            }
+
+            /** Append row i of the columns this builder was created from, without decoding it. */
+            void copy(Columns from, int i) {
+                grow();
+                ids[size] = from.ids[i];
+                changeSeqs[size] = from.changeSeqs[i];
+                updatedAt[size] = from.updatedAt[i];
+                courses[size] = from.courses[i];
+                departments[size] = from.departments[i];
+                names.copy(from.names, i);
+                emails.copy(from.emails, i);
+                size++;
+            }
+
+            Columns build(boolean offHeap) {
+                return new Columns(this, offHeap);
+            }
+
+            private void grow() {
+                if (size == ids.length) {
+                    int capacity = ids.length * 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    changeSeqs = Arrays.copyOf(changeSeqs, capacity);
+                    updatedAt = Arrays.copyOf(updatedAt, capacity);
+                    courses = Arrays.copyOf(courses, capacity);
+                    departments = Arrays.copyOf(departments, capacity);
+                }
+            }
+        }
+    }
+
+    /**
+     * Distinct values of one low-cardinality column, numbered in order of
+     * first appearance (so codes stay valid when columns are rebuilt).
+     * Codes are unsigned shorts; 0xFFFF stands for NULL.
+     */
+    private static final class Dictionary {
+        static final short NULL = (short) 0xFFFF;
+
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Short> codes = new HashMap<>();
+
+        Dictionary(String[] initial) {
+            if (initial != null) {
+                for (String value : initial) {
+                    code(value);
+                }
+            }
+        }
+
+        short code(String value) {
+            if (value == null) {
+                return NULL;
+            }
+            Short code = codes.get(value);
+            if (code == null) {
+                if (values.size() == 0xFFFF) {
+                    throw new IllegalStateException("more than " + 0xFFFF + " distinct values in a dictionary column");
+                }
+                code = (short) values.size();
+                values.add(value);
+                codes.put(value, code);
+            }
+            return code;
+        }
+
+        String[] values() {
+            return values.toArray(new String[0]);
+        }
+    }
+
+    /** Many strings as UTF-8 bytes in one buffer: value i is bytes[offsets[i], offsets[i + 1]). */
+    private static final class Text {
+        private final ByteBuffer bytes;
+        private final int[] offsets;
+
+        private Text(ByteBuffer bytes, int[] offsets) {
+            this.bytes = bytes;
+            this.offsets = offsets;
+        }
+
+        void write(JsonGenerator generator, int i, boolean utf8) throws IOException {
+            int from = offsets[i];
+            int length = offsets[i + 1] - from;
+            if (bytes.hasArray() && utf8) {
+                generator.writeUTF8String(bytes.array(), bytes.arrayOffset() + from, length);
+                return;
+            }
+            byte[] value = new byte[length];
+            bytes.get(from, value);
+            if (utf8) {
+                generator.writeUTF8String(value, 0, length);
+            } else {
+                generator.writeString(new String(value, StandardCharsets.UTF_8));
+            }
+        }
+
+        long heapBytes() {
+            return (long) offsets.length * Integer.BYTES + (bytes.isDirect() ? 0 : bytes.capacity());
+        }
+
+        long offHeapBytes() {
+            return bytes.isDirect() ? bytes.capacity() : 0;
+        }
+
+        static final class Builder {
+            private byte[] bytes = new byte[16 * 1024];
+            private int[] offsets = new int[1025];
+            private int count;
+
+            void add(String value) {
+                byte[] encoded = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+                append(encoded.length);
+                System.arraycopy(encoded, 0, bytes, offsets[count - 1], encoded.length);
+            }
+
+            void copy(Text from, int i) {
+                int start = from.offsets[i];
+                int length = from.offsets[i + 1] - start;
+                append(length);
+                from.bytes.get(start, bytes, offsets[count - 1], length);
+            }
+
+            /** Reserve room for one more value of this many bytes. */
+            private void append(int length) {
+                int end = offsets[count] + length;
+                if (end < 0) {
+                    throw new IllegalStateException("more than 2 GB of text in one column");
+                }
+                if (end > bytes.length) {
+                    bytes = Arrays.copyOf(bytes, Math.max(end, (int) Math.min(Integer.MAX_VALUE - 8, bytes.length * 2L)));
+                }
+                if (count + 2 > offsets.length) {
+                    offsets = Arrays.copyOf(offsets, offsets.length * 2);
+                }
+                count++;
+                offsets[count] = end;
+            }
+
+            Text build(boolean offHeap) {
+                int length = offsets[count];
+                ByteBuffer buffer;
+                if (offHeap) {
+                    buffer = ByteBuffer.allocateDirect(length);
+                    buffer.put(bytes, 0, length).flip();
+                } else {
+                    buffer = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+                }
+                return new Text(buffer, Arrays.copyOf(offsets, count + 1));
+            }
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.student.service;
+
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * StudentStatsService — student counts kept in memory for the dashboard.
+ *
+ * Instead of running SELECT COUNT(*) on every dashboard poll, we keep:
+ *  - the total number of students
+ *  - the number of students per department
+ *  - the number of students per course
+ *
+ * Counters are LongAdders (internally striped, so concurrent writers don't
+ * contend) updated by the StudentService write paths via StudentChangeListener.
+ * Every student.stats.reconcile-interval-ms the counters are compared with
+ * GROUP BY queries and corrected, which repairs any drift (e.g. rows changed
+ * directly in MySQL).
+ */
+@Service
+public class StudentStatsService implements StudentChangeListener {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentStatsService.class);
+
+    private final LongAdder total = new LongAdder();
+    private final ConcurrentHashMap<String, LongAdder> byDepartment = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, LongAdder> byCourse = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+    private volatile Instant reconciledAt;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    // ─── READ ──────────────────────────────────────────────────────────────────
+
+    /** True once the counters have been loaded from the database. */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public long total() {
+        return total.sum();
+    }
+
+    /**
+     * Snapshot of all counters, e.g.
+     * { total: 5, byDepartment: { "Computer Science": 2, ... }, byCourse: { ... }, reconciledAt: ... }
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("total", total.sum());
+        stats.put("byDepartment", counts(byDepartment));
+        stats.put("byCourse", counts(byCourse));
+        stats.put("reconciledAt", reconciledAt);
+        return stats;
+    }
+
+    private static Map<String, Long> counts(Map<String, LongAdder> counters) {
+        Map<String, Long> result = new TreeMap<>();
+        counters.forEach((key, adder) -> {
+            long count = adder.sum();
+            if (count > 0) {
+                result.put(key, count);
+            }
+        });
+        return result;
+    }
+
+    // ─── KEEP IN SYNC WITH WRITES ──────────────────────────────────────────────
+
+    @Override
+    public void onStudentSaved(Student before, Student after) {
+        if (before == null) {
+            total.increment();
+            adjust(byDepartment, after.getDepartment(), 1);
+            adjust(byCourse, after.getCourse(), 1);
+            return;
+        }
+        if (!same(before.getDepartment(), after.getDepartment())) {
+            adjust(byDepartment, before.getDepartment(), -1);
+            adjust(byDepartment, after.getDepartment(), 1);
+        }
+        if (!same(before.getCourse(), after.getCourse())) {
+            adjust(byCourse, before.getCourse(), -1);
+            adjust(byCourse, after.getCourse(), 1);
+        }
+    }
+
+    @Override
+    public void onStudentDeleted(Student removed) {
+        total.decrement();
+        adjust(byDepartment, removed.getDepartment(), -1);
+        adjust(byCourse, removed.getCourse(), -1);
+    }
+
+    @Override
+    public void onStudentSavedAfterDelete(Student before, Student after) {
+        onStudentSaved(before, after); // the counters don't depend on the order
+    }
+
+    private static void adjust(ConcurrentHashMap<String, LongAdder> counters, String key, long delta) {
+        if (key != null) {
+            counters.computeIfAbsent(key, k -> new LongAdder()).add(delta);
+        }
+    }
+
+    private static boolean same(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    // ─── RECONCILE WITH THE DATABASE ───────────────────────────────────────────
+
+    /**
+     * Load the real counts with two GROUP BY queries and nudge every counter
+     * to match. Writes racing with this run may be off by a few until the
+     * next run, which is fine for dashboard numbers.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${student.stats.reconcile-interval-ms:300000}",
+               fixedDelayString = "${student.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        Map<String, Long> departments = toMap(shards.isEnabled()
+                ? shards.countByDepartment() : studentRepository.countByDepartment());
+        Map<String, Long> courses = toMap(shards.isEnabled()
+                ? shards.countByCourse() : studentRepository.countByCourse());
+
+        long dbTotal = 0;
+        for (long count : departments.values()) {
+            dbTotal += count;
+        }
+
+        long drift = dbTotal - total.sum();
+        total.add(drift);
+        correct(byDepartment, departments);
+        correct(byCourse, courses);
+
+        reconciledAt = Instant.now();
+        if (ready && drift != 0) {
+            log.info("Student stats reconciled: total corrected by {}", drift);
+        }
+        ready = true;
+    }
+
+    private static void correct(ConcurrentHashMap<String, LongAdder> counters, Map<String, Long> actual) {
+        actual.forEach((key, count) -> {
+            LongAdder adder = counters.computeIfAbsent(key, k -> new LongAdder());
+            adder.add(count - adder.sum());
+        });
+        counters.forEach((key, adder) -> {
+            if (!actual.containsKey(key)) {
+                adder.add(-adder.sum());
+            }
+        });
+    }
+
+    private static Map<String, Long> toMap(List<Object[]> rows) {
+        Map<String, Long> map = new HashMap<>();
+        for (Object[] row : rows) {
+            map.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return map;
+    }
+}
@@ -0,0 +1,283 @@
+package com.student.service;
+
+import com.student.repository.ShardedStudentRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * StudentWriteBehind — group commit for student writes (opt-in,
+ * student.write-behind.enabled=true).
+ *
+ * Normally every add/update/delete is its own transaction, and during a
+ * registration rush most of the time goes into the commit (the fsync of
+ * MySQL's redo log). With write-behind on, StudentService hands each write
+ * to this queue instead, and one flusher thread applies everything that
+ * arrived in the meantime in a single transaction:
+ *
+ * 1. Writes wait in a bounded queue (student.write-behind.queue-capacity).
+ *    If it stays full for enqueue-timeout-ms the write is refused with
+ *    BusyException (HTTP 503) — callers slow down instead of piling up.
+ * 2. The flusher takes up to batch-size writes, waiting at most max-delay-ms
+ *    for more to arrive after the first one.
+ * 3. An update followed by a delete of the same student is skipped and
+ *    reports "not found" — the student is gone once the batch commits —
+ *    unless the delete carries a version check (If-Match), which must see
+ *    the update first. Two updates are both applied: a PATCH only sets some
+ *    fields, so the later one doesn't make the earlier one redundant.
+ * 4. The batch commits once. If it fails (e.g. a duplicate email), each
+ *    write is retried in its own transaction so only the bad one fails.
+ *
+ * Acknowledgement is durable: a caller is only answered after the commit
+ * that contains its write, so a 200/201 means the same as without
+ * write-behind. Throughput comes from many concurrent callers sharing one
+ * commit, not from answering early. Because ids are generated by the
+ * database, a client can't delete a student whose insert is still queued.
+ *
+ * Not available with sharding (student.shards.urls): shard writes don't
+ * take part in the batch transaction.
+ */
+@Component
+public class StudentWriteBehind {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentWriteBehind.class);
+
+    /** Refused or unconfirmed write — the caller should retry later. */
+    public static class BusyException extends RuntimeException {
+        public BusyException(String message) {
+            super(message);
+        }
+    }
+
+    enum Kind { INSERT, UPDATE, DELETE }
+
+    @Value("${student.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${student.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${student.write-behind.batch-size:500}")
+    private int batchSize;
+
+    @Value("${student.write-behind.max-delay-ms:5}")
+    private long maxDelayMs;
+
+    @Value("${student.write-behind.enqueue-timeout-ms:100}")
+    private long enqueueTimeoutMs;
+
+    @Value("${student.write-behind.ack-timeout-ms:10000}")
+    private long ackTimeoutMs;
+
+    // Opens each batch's transaction with its change numbers taken up front
+    @Autowired
+    private StudentChangeLog changeLog;
+
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    private BlockingQueue<PendingWrite> queue;
+    private Thread flusher;
+    private volatile boolean running;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (shards.isEnabled()) {
+            // Shard writes commit on their own, so a failed batch couldn't be rolled back and retried
+            log.warn("student.write-behind.enabled is ignored with student.shards.urls set");
+            enabled = false;
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        flusher = new Thread(this::run, "student-write-behind");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Student write-behind on: batches of up to {} writes, {} ms max delay, queue of {}",
+                batchSize, maxDelayMs, queueCapacity);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (flusher == null) {
+            return;
+        }
+        running = false; // the flusher drains what is queued, then exits
+        flusher.join(ackTimeoutMs);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ─── SUBMIT ────────────────────────────────────────────────────────────────
+
+    /**
+     * Queue one write and wait until the batch containing it has committed.
+     *
+     * @param kind      what the write does (used for coalescing)
+     * @param id        the student it targets, null for an insert
+     * @param versioned true if the write checks the student's version
+     * @param action    applies the write; runs inside the batch transaction
+     * @return what action returned, or null for an update that a later
+     *         delete made redundant (the student is gone)
+     */
+    @SuppressWarnings("unchecked")
+    <T> T submit(Kind kind, Long id, boolean versioned, Supplier<T> action) {
+        PendingWrite write = new PendingWrite(kind, id, versioned, (Supplier<Object>) action);
+        try {
+            if (!running || !queue.offer(write, enqueueTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new BusyException("Too many pending writes — please retry shortly.");
+            }
+            return (T) write.result.get(ackTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusyException("Interrupted while waiting for the write to commit.");
+        } catch (TimeoutException e) {
+            throw new BusyException("Write not confirmed within " + ackTimeoutMs + " ms; it may still be applied.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // ─── FLUSHER ───────────────────────────────────────────────────────────────
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMs);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || wait <= 0) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(wait, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Write-behind flush failed", e);
+                batch.forEach(write -> write.result.completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        List<PendingWrite> applied = coalesce(batch);
+        try {
+            changeLog.executeWithoutResult(applied.size(), status -> {
+                for (PendingWrite write : applied) {
+                    write.value = write.action.get();
+                }
+            });
+        } catch (RuntimeException batchFailure) {
+            // One bad write rolls back the whole batch — find it write by write
+            for (PendingWrite write : applied) {
+                try {
+                    write.value = changeLog.execute(1, status -> write.action.get());
+                } catch (RuntimeException e) {
+                    write.failure = e;
+                }
+            }
+        }
+
+        for (PendingWrite write : batch) {
+            PendingWrite winner = write;
+            while (winner.replacedBy != null) {
+                winner = winner.replacedBy;
+            }
+            if (winner.failure != null) {
+                write.result.completeExceptionally(winner.failure);
+            } else if (winner == write) {
+                write.result.complete(write.value);
+            } else {
+                write.result.complete(null); // deleted by a later write of this batch
+            }
+        }
+        if (applied.size() < batch.size()) {
+            log.debug("Write-behind: {} writes coalesced into {}", batch.size(), applied.size());
+        }
+    }
+
+    /**
+     * Link every update that is followed by an unversioned delete of the same
+     * student to that delete, and return the writes that still need applying.
+     */
+    private static List<PendingWrite> coalesce(List<PendingWrite> batch) {
+        Map<Long, PendingWrite> laterWrite = new HashMap<>();
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            PendingWrite write = batch.get(i);
+            if (write.id == null) {
+                continue;
+            }
+            PendingWrite later = laterWrite.get(write.id);
+            if (write.kind == Kind.UPDATE && later != null && later.kind == Kind.DELETE && !later.versioned) {
+                write.replacedBy = later; // stays the later write for earlier updates too
+            } else {
+                laterWrite.put(write.id, write);
+            }
+        }
+        List<PendingWrite> applied = new ArrayList<>(batch.size());
+        for (PendingWrite write : batch) {
+            if (write.replacedBy == null) {
+                applied.add(write);
+            }
+        }
+        return applied;
+    }
+
+    private static final class PendingWrite {
+        final Kind kind;
+        final Long id;
+        final boolean versioned;
+        final Supplier<Object> action;
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+        PendingWrite replacedBy;
+        Object value;
+        RuntimeException failure;
+
+        PendingWrite(Kind kind, Long id, boolean versioned, Supplier<Object> action) {
+            this.kind = kind;
+            this.id = id;
+            this.versioned = versioned;
+            this.action = action;
+        }
+    }
+}
@@ -1,17 +1,22 @@
 package com.student.service;
 
+import com.student.datasource.ReplicaRead;
 import com.student.model.User;
 import com.student.repository.UserRepository;
+import com.student.security.PasswordHasher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
  * UserService — contains business logic for user operations.
  * 
- * This service handles authentication (login check) without JWT.
- * It simply checks if the username and password match in the database.
+ * This service handles authentication (login check) and user management.
+ * Passwords are stored as PBKDF2 hashes (see PasswordHasher), and logins are
+ * checked against CredentialCache so a login normally needs no database query.
  */
 @Service
 public class UserService {
@@ -20,30 +25,104 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private CredentialCache credentialCache;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
     /**
      * Authenticate a user by username and password.
      * 
      * Steps:
-     * 1. Look up the user by username in the database
-     * 2. If found, check if the password matches
-     * 3. Return the User object if valid, or null if invalid
+     * 1. Look up the user's credential (memory first, database only on a miss)
+     * 2. If found, check the password against the stored hash
+     * 3. Upgrade legacy plain-text or weaker hashes after a good login
+     * 4. Return the User object (without password) if valid, or null if invalid
      * 
      * @param username the entered username
      * @param password the entered password
      * @return User object if login succeeds, null otherwise
      */
     public User login(String username, String password) {
+        if (username == null || password == null) {
+            return null;
+        }
+
         // Try to find the user by username
-        Optional<User> optionalUser = userRepository.findByUsername(username);
+        CredentialCache.Credential credential = credentialCache.lookup(username);
 
-        // Check if user exists and password matches
-        if (optionalUser.isPresent()) {
-            User user = optionalUser.get();
-            if (user.getPassword().equals(password)) {
-                return user; // ✅ Login successful
+        // Unknown user: still do the hashing work, so timing doesn't reveal it
+        if (credential == null) {
+            passwordHasher.matchDecoy(password);
+            return null; // ❌ Login failed
+        }
+
+        // Check the password
+        if (passwordHasher.matches(password, credential.passwordHash())) {
+            if (credential.storedInPlainText() || passwordHasher.needsUpgrade(credential.passwordHash())) {
+                upgradePassword(credential, password);
             }
+            return credential.toUser(); // ✅ Login successful
         }
 
         return null; // ❌ Login failed
     }
+
+    /**
+     * Replace a plain-text (or weaker) stored password with a fresh hash.
+     */
+    private void upgradePassword(CredentialCache.Credential credential, String password) {
+        String hash = passwordHasher.hash(password);
+        Optional<User> optionalUser = userRepository.findById(credential.id());
+        if (optionalUser.isPresent()) {
+            User user = optionalUser.get();
+            user.setPassword(hash);
+            userRepository.save(user);
+            credentialCache.put(new CredentialCache.Credential(
+                    credential.id(), credential.username(), credential.role(), hash, false));
+        }
+    }
+
+    // ─── USER MANAGEMENT ───────────────────────────────────────────────────────
+
+    /**
+     * List all users (may be read from a replica).
+     */
+    @ReplicaRead
+    @Transactional(readOnly = true)
+    public List<User> getAllUsers() {
+        return userRepository.findAll();
+    }
+
+    /**
+     * Check whether a username is already taken.
+     */
+    public boolean usernameExists(String username) {
+        return userRepository.findByUsername(username).isPresent();
+    }
+
+    /**
+     * Create a new user. The password is hashed before it is stored.
+     * @return the saved user
+     */
+    public User createUser(String username, String password, String role) {
+        User saved = userRepository.save(new User(username, passwordHasher.hash(password), role));
+        credentialCache.invalidate(username); // drop any cached "no such user"
+        return saved;
+    }
+
+    /**
+     * Delete a user by their ID.
+     * @return true if deleted, false if not found
+     */
+    public boolean deleteUser(Long id) {
+        Optional<User> optional = userRepository.findById(id);
+        if (optional.isPresent()) {
+            userRepository.delete(optional.get());
+            credentialCache.invalidate(optional.get().getUsername());
+            return true;
+        }
+        return false;
+    }
 }
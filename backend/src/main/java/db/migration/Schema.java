@@ -0,0 +1,86 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Schema — the DDL of the migrations, each statement skipped when what it
+ * creates is already there.
+ *
+ * The prod profile can be switched on for a database that ddl-auto=update
+ * built: from before the change numbers (no change_seq, no
+ * student_tombstones) or after them, with every table the entities have.
+ * Flyway takes such a database as version 0 and runs all migrations on it,
+ * so they must create only what is missing. Names are compared ignoring
+ * case (H2 and MySQL store them differently).
+ */
+final class Schema {
+
+    private final Connection connection;
+    private final DatabaseMetaData metaData;
+
+    Schema(Context context) throws SQLException {
+        this.connection = context.getConnection();
+        this.metaData = connection.getMetaData();
+    }
+
+    boolean isMySql() throws SQLException {
+        return metaData.getDatabaseProductName().startsWith("MySQL");
+    }
+
+    /** CREATE TABLE table (columns), unless it exists. */
+    void createTable(String table, String columns) throws SQLException {
+        if (find(table) == null) {
+            execute("CREATE TABLE " + table + " (\n" + columns + "\n) ENGINE = InnoDB");
+        }
+    }
+
+    /** ALTER TABLE table ADD COLUMN, unless it has the column. */
+    void addColumn(String table, String column, String definition) throws SQLException {
+        String name = find(table);
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), name, null)) {
+            while (columns.next()) {
+                if (columns.getString("COLUMN_NAME").equalsIgnoreCase(column)) {
+                    return;
+                }
+            }
+        }
+        execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+    }
+
+    /** CREATE INDEX index ON table (columns), unless the table has an index of that name. */
+    void createIndex(String table, String index, String columns) throws SQLException {
+        String name = find(table);
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), name, false, true)) {
+            while (indexes.next()) {
+                if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                    return;
+                }
+            }
+        }
+        execute("CREATE INDEX " + index + " ON " + table + " (" + columns + ")");
+    }
+
+    /** The table's name as the database stores it, or null. */
+    private String find(String table) throws SQLException {
+        try (ResultSet tables = metaData.getTables(connection.getCatalog(), connection.getSchema(), null, new String[] { "TABLE" })) {
+            while (tables.next()) {
+                if (tables.getString("TABLE_NAME").equalsIgnoreCase(table)) {
+                    return tables.getString("TABLE_NAME");
+                }
+            }
+        }
+        return null;
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * V1: the schema as JPA (ddl-auto=update) and database/setup.sql build it.
+ *
+ * On a database that already has some of it, only the missing tables,
+ * columns and indexes are added (see Schema).
+ */
+public class V1__Baseline extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Schema schema = new Schema(context);
+
+        schema.createTable("users", """
+                    id BIGINT NOT NULL AUTO_INCREMENT,
+                    username VARCHAR(255) NOT NULL,
+                    password VARCHAR(255) NOT NULL,
+                    role VARCHAR(255) NOT NULL,
+                    PRIMARY KEY (id),
+                    CONSTRAINT uk_users_username UNIQUE (username)""");
+
+        schema.createTable("students", """
+                    id BIGINT NOT NULL AUTO_INCREMENT,
+                    name VARCHAR(255) NOT NULL,
+                    email VARCHAR(255) NOT NULL,
+                    course VARCHAR(255) NOT NULL,
+                    department VARCHAR(255) NOT NULL,
+                    PRIMARY KEY (id),
+                    CONSTRAINT uk_students_email UNIQUE (email)""");
+        schema.addColumn("students", "change_seq", "BIGINT");
+        schema.addColumn("students", "updated_at", "DATETIME(6)");
+        schema.createIndex("students", "idx_students_change_seq", "change_seq");
+        schema.createIndex("students", "idx_students_course_department", "course, department");
+        schema.createIndex("students", "idx_students_department_course", "department, course");
+        schema.createIndex("students", "idx_students_name", "name");
+        if (schema.isMySql()) {
+            // Step 4 of setup.sql (MySQL 8.0.13+)
+            schema.createIndex("students", "idx_students_email_domain", "(SUBSTRING_INDEX(email, '@', -1))");
+        }
+
+        schema.createTable("student_tombstones", """
+                    student_id BIGINT NOT NULL,
+                    change_seq BIGINT NOT NULL,
+                    deleted_at DATETIME(6) NOT NULL,
+                    PRIMARY KEY (student_id)""");
+        schema.createIndex("student_tombstones", "idx_tombstones_change_seq", "change_seq");
+
+        schema.createTable("change_sequences", """
+                    name VARCHAR(255) NOT NULL,
+                    current_value BIGINT NOT NULL,
+                    purged_through BIGINT NOT NULL,
+                    PRIMARY KEY (name)""");
+
+        schema.createTable("change_reservations", """
+                    first_seq BIGINT NOT NULL,
+                    reserved_at DATETIME(6) NOT NULL,
+                    PRIMARY KEY (first_seq)""");
+    }
+}
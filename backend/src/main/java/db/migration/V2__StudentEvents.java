@@ -0,0 +1,28 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+/**
+ * V2: outbox of student changes (StudentOutbox, StudentEventRelay), written
+ * when student.outbox.enabled=true. Already there on a database that ran
+ * with the outbox under ddl-auto=update (see Schema).
+ */
+public class V2__StudentEvents extends BaseJavaMigration {
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Schema schema = new Schema(context);
+
+        schema.createTable("student_events", """
+                    id BIGINT NOT NULL AUTO_INCREMENT,
+                    type VARCHAR(16) NOT NULL,
+                    student_id BIGINT NOT NULL,
+                    change_seq BIGINT,
+                    payload LONGTEXT NOT NULL,
+                    created_at DATETIME(6) NOT NULL,
+                    PRIMARY KEY (id)""");
+        schema.createIndex("student_events", "idx_student_events_created_at", "created_at");
+        schema.createIndex("student_events", "idx_student_events_change_seq", "change_seq");
+    }
+}
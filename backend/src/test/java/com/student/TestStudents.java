@@ -0,0 +1,33 @@
+package com.student;
+
+import com.student.model.Student;
+
+import java.time.Instant;
+
+/**
+ * TestStudents — students for tests that only care about some of the
+ * fields. Student N has email sN@example.edu, course MCA and department
+ * Civil; tests change what they need with the setters.
+ */
+public final class TestStudents {
+
+    /** updatedAt of every numbered student, fixed so JSON compares equal */
+    public static final Instant UPDATED_AT = Instant.parse("2026-01-02T03:04:05.123456Z");
+
+    private TestStudents() {}
+
+    /** A saved student without a change number. */
+    public static Student student(long id, String name) {
+        Student student = new Student(name, "s" + id + "@example.edu", "MCA", "Civil");
+        student.setId(id);
+        return student;
+    }
+
+    /** A saved student as of change changeSeq. */
+    public static Student student(long id, String name, long changeSeq) {
+        Student student = student(id, name);
+        student.setChangeSeq(changeSeq);
+        student.setUpdatedAt(UPDATED_AT);
+        return student;
+    }
+}
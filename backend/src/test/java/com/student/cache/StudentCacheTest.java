@@ -0,0 +1,163 @@
+package com.student.cache;
+
+import com.student.model.Student;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.student.TestStudents.student;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentCacheTest {
+
+    private final LocalCacheInvalidationBus bus = new LocalCacheInvalidationBus();
+    private final List<StudentCache> caches = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        caches.forEach(StudentCache::close);
+    }
+
+    private StudentCache cache(int maxSize, long ttlSeconds) {
+        StudentCache cache = new StudentCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(cache, "nodeId", "");
+        ReflectionTestUtils.setField(cache, "invalidationBus", bus);
+        cache.init();
+        caches.add(cache);
+        return cache;
+    }
+
+    /** A read-through load as StudentService does it. */
+    private static void load(StudentCache cache, Student fromDatabase) {
+        cache.putIfUnchanged(fromDatabase, cache.stamp(fromDatabase.getId()));
+    }
+
+    /** count ids that land in the same stripe as id 1 (same spreading as StudentCache). */
+    private static List<Long> sameStripeIds(int count) {
+        List<Long> ids = new ArrayList<>();
+        long wanted = stripe(1L);
+        for (long id = 1; ids.size() < count; id++) {
+            if (stripe(id) == wanted) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    private static int stripe(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> 60) & 15;
+    }
+
+    // ─── READ-THROUGH ──────────────────────────────────────────────────────────
+
+    @Test
+    void missThenLoadThenHit() {
+        StudentCache cache = cache(100, 300);
+
+        assertThat(cache.get(1L)).isNull();
+        load(cache, student(1, "Ali Khan", 1));
+
+        assertThat(cache.get(1L).getName()).isEqualTo("Ali Khan");
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void aLoadThatRacedAWriteIsNotCached() {
+        StudentCache cache = cache(100, 300);
+
+        long stamp = cache.stamp(1L);
+        cache.onStudentSaved(null, student(1, "Written Meanwhile", 2));
+        cache.putIfUnchanged(student(1, "Read Before The Write", 1), stamp);
+
+        assertThat(cache.get(1L).getName()).isEqualTo("Written Meanwhile");
+    }
+
+    @Test
+    void entriesExpireAfterTheTtl() {
+        StudentCache cache = cache(100, 0);
+
+        load(cache, student(1, "Ali Khan", 1));
+
+        assertThat(cache.get(1L)).isNull();
+        assertThat(cache.stats()).containsEntry("expirations", 1L);
+    }
+
+    // ─── EVICTION (SLRU) ───────────────────────────────────────────────────────
+
+    @Test
+    void oneOffLookupsDoNotPushOutEntriesReadTwice() {
+        StudentCache cache = cache(16 * 5, 300); // 5 per stripe, 4 of them protected
+        List<Long> ids = sameStripeIds(14);
+        List<Long> hot = ids.subList(0, 4);
+        for (long id : hot) {
+            load(cache, student(id, "Hot " + id, 1));
+            cache.get(id); // second use → protected
+        }
+
+        for (long id : ids.subList(4, 14)) {
+            load(cache, student(id, "Scan " + id, 1));
+        }
+
+        for (long id : hot) {
+            assertThat(cache.get(id)).as("hot id %d", id).isNotNull();
+        }
+        assertThat(cache.evictionCount()).isEqualTo(9);
+        assertThat(cache.size()).isEqualTo(5);
+    }
+
+    // ─── WRITES AND OTHER NODES ────────────────────────────────────────────────
+
+    @Test
+    void savesAreWrittenThroughAndDeletesRemove() {
+        StudentCache cache = cache(100, 300);
+        load(cache, student(1, "Ali Khan", 1));
+
+        cache.onStudentSaved(student(1, "Ali Khan", 1), student(1, "Ali Rao", 2));
+        assertThat(cache.get(1L).getName()).isEqualTo("Ali Rao");
+
+        cache.onStudentDeleted(student(1, "Ali Rao", 2));
+        assertThat(cache.get(1L)).isNull();
+    }
+
+    @Test
+    void anOlderWriteArrivingLateDoesNotReplaceANewerOne() {
+        StudentCache cache = cache(100, 300);
+
+        cache.onStudentSaved(null, student(1, "Ali Menon", 3));
+        cache.onStudentSaved(null, student(1, "Ali Rao", 2));
+
+        assertThat(cache.get(1L).getName()).isEqualTo("Ali Menon");
+    }
+
+    @Test
+    void aWriteOnOneNodeDropsTheCopyOnTheOthers() {
+        StudentCache node1 = cache(100, 300);
+        StudentCache node2 = cache(100, 300);
+        load(node1, student(1, "Ali Khan", 1));
+        load(node2, student(1, "Ali Khan", 1));
+
+        node1.onStudentSaved(student(1, "Ali Khan", 1), student(1, "Ali Rao", 2));
+
+        assertThat(node1.get(1L).getName()).isEqualTo("Ali Rao");
+        assertThat(node2.get(1L)).isNull();
+        assertThat(node2.stats()).containsEntry("remoteInvalidations", 1L);
+        assertThat(node1.stats()).containsEntry("remoteInvalidations", 0L);
+    }
+
+    @Test
+    void aDisabledCacheNeverAnswers() {
+        StudentCache cache = cache(100, 300);
+        ReflectionTestUtils.setField(cache, "enabled", false);
+
+        load(cache, student(1, "Ali Khan", 1));
+
+        assertThat(cache.get(1L)).isNull();
+    }
+}
@@ -0,0 +1,85 @@
+package com.student.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.config.JsonConfig;
+import com.student.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static com.student.TestStudents.student;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentJsonCacheTest {
+
+    private static final ObjectMapper PLAIN = Jackson2ObjectMapperBuilder.json().build();
+
+    private final StudentJsonCache cache = new StudentJsonCache();
+
+    /** Spring Boot's ObjectMapper with JsonConfig's module, writing through the cache. */
+    private ObjectMapper mapper(boolean enabled, int maxSize) {
+        ReflectionTestUtils.setField(cache, "enabled", enabled);
+        ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+        return Jackson2ObjectMapperBuilder.json()
+                .modulesToInstall(new JsonConfig().studentJsonModule(cache))
+                .build();
+    }
+
+    private static final List<Student> ROWS = List.of(student(1, "Ali Khan", 10), student(2, "Zoë \"Z\" Émile", 11));
+
+    @Test
+    void cachedJsonIsTheSameAsJacksonsOwn() throws Exception {
+        ObjectMapper mapper = mapper(true, 100);
+
+        String first = new String(mapper.writeValueAsBytes(ROWS), StandardCharsets.UTF_8);
+        String again = new String(mapper.writeValueAsBytes(ROWS), StandardCharsets.UTF_8);
+        String asChars = mapper.writeValueAsString(Map.of("items", ROWS));
+
+        assertThat(first).isEqualTo(PLAIN.writeValueAsString(ROWS));
+        assertThat(again).isEqualTo(first);
+        assertThat(asChars).isEqualTo(PLAIN.writeValueAsString(Map.of("items", ROWS)));
+        assertThat(cache.stats()).containsEntry("misses", 2L).containsEntry("hits", 4L).containsEntry("size", 2);
+    }
+
+    @Test
+    void onlyTheSameVersionOfARowIsServedFromTheCache() throws Exception {
+        ObjectMapper mapper = mapper(true, 100);
+        mapper.writeValueAsString(student(1, "Ali Khan", 10));
+
+        String renamed = mapper.writeValueAsString(student(1, "Ali Rao", 12));
+        String stale = mapper.writeValueAsString(student(1, "Ali Khan", 10)); // an older read, finishing late
+        String current = mapper.writeValueAsString(student(1, "Ali Rao", 12));
+
+        assertThat(renamed).contains("\"Ali Rao\"");
+        assertThat(stale).contains("\"Ali Khan\"");
+        assertThat(current).isEqualTo(renamed);
+        assertThat(cache.stats()).containsEntry("misses", 3L).containsEntry("hits", 1L);
+    }
+
+    @Test
+    void writesDropTheEntryAndAFullCacheStopsKeeping() throws Exception {
+        ObjectMapper mapper = mapper(true, 1);
+        mapper.writeValueAsString(ROWS);
+
+        assertThat(cache.stats()).containsEntry("size", 1);
+        assertThat((Long) cache.stats().get("bytes")).isPositive();
+
+        cache.onStudentSaved(null, ROWS.get(0));
+        cache.onStudentDeleted(ROWS.get(1));
+
+        assertThat(cache.stats()).containsEntry("size", 0).containsEntry("bytes", 0L);
+    }
+
+    @Test
+    void whenDisabledOrUnsavedJacksonWritesEveryRow() throws Exception {
+        Student unsaved = new Student("New Row", "new@example.edu", "MCA", "Civil");
+
+        assertThat(mapper(false, 100).writeValueAsString(ROWS)).isEqualTo(PLAIN.writeValueAsString(ROWS));
+        assertThat(mapper(true, 100).writeValueAsString(unsaved)).isEqualTo(PLAIN.writeValueAsString(unsaved));
+        assertThat(cache.stats()).containsEntry("misses", 0L).containsEntry("size", 0);
+    }
+}
@@ -0,0 +1,147 @@
+package com.student.config;
+
+import com.student.model.Student;
+import com.student.repository.StudentRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The JPA settings of application-prod.properties on the test database, and its
+// Flyway settings on H2 databases in MySQL mode (the email-domain index is MySQL only)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.data.jpa.repositories.bootstrap-mode=deferred",
+        "spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false" })
+@ActiveProfiles("test")
+class ProdProfileTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    // ─── JPA BOOTSTRAP ─────────────────────────────────────────────────────────
+
+    @Test
+    void jpaIsBuiltOnTheApplicationTaskExecutorAndRepositoriesWaitForIt() {
+        LocalContainerEntityManagerFactoryBean factory =
+                context.getBean("&entityManagerFactory", LocalContainerEntityManagerFactoryBean.class);
+
+        assertThat(factory.getBootstrapExecutor()).isSameAs(context.getBean("applicationTaskExecutor"));
+
+        Student saved = studentRepository.save(new Student("Prod Profile", "prod-profile@example.edu", "MCA", "Civil"));
+        assertThat(studentRepository.findById(saved.getId())).isPresent();
+    }
+
+    // ─── MIGRATIONS ────────────────────────────────────────────────────────────
+
+    @Test
+    void onAnEmptyDatabaseTheMigrationsCreateEveryMappedTableAndColumn() throws Exception {
+        DataSource empty = database();
+
+        assertThat(migrate(empty)).containsExactly("1", "2");
+        assertHasEveryMappedColumn(empty);
+    }
+
+    @Test
+    void aDatabaseFromBeforeTheChangeNumbersGetsWhatItLacks() throws Exception {
+        DataSource old = database();
+        // As ddl-auto=update built it before student_tombstones and change_seq existed
+        JdbcTemplate jdbc = new JdbcTemplate(old);
+        jdbc.execute("CREATE TABLE users (id BIGINT NOT NULL AUTO_INCREMENT, password VARCHAR(255) NOT NULL, "
+                + "role VARCHAR(255) NOT NULL, username VARCHAR(255) NOT NULL UNIQUE, PRIMARY KEY (id))");
+        jdbc.execute("CREATE TABLE students (id BIGINT NOT NULL AUTO_INCREMENT, course VARCHAR(255) NOT NULL, "
+                + "department VARCHAR(255) NOT NULL, email VARCHAR(255) NOT NULL UNIQUE, name VARCHAR(255) NOT NULL, "
+                + "PRIMARY KEY (id))");
+        jdbc.update("INSERT INTO students (name, email, course, department) VALUES ('Old Row', 'old@example.edu', 'MCA', 'Civil')");
+
+        assertThat(migrate(old)).containsExactly("0", "1", "2");
+        assertHasEveryMappedColumn(old);
+        assertThat(jdbc.queryForObject("SELECT email FROM students WHERE name = 'Old Row'", String.class))
+                .isEqualTo("old@example.edu");
+    }
+
+    @Test
+    void aDatabaseBuiltByDdlAutoUpdateIsTakenAsItIs() throws Exception {
+        // The test database: ddl-auto built every table, index included, from the entities
+        assertThat(migrate(dataSource)).containsExactly("0", "1", "2");
+        assertHasEveryMappedColumn(dataSource);
+    }
+
+    private static DataSource database() {
+        return new DriverManagerDataSource("jdbc:h2:mem:migrations-" + UUID.randomUUID()
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    /** Runs Flyway as the prod profile configures it; the versions applied. */
+    private static List<String> migrate(DataSource database) throws IOException {
+        Properties prod = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application-prod.properties"));
+        Flyway flyway = Flyway.configure()
+                .dataSource(database)
+                .locations(prod.getProperty("spring.flyway.locations"))
+                .baselineOnMigrate(Boolean.parseBoolean(prod.getProperty("spring.flyway.baseline-on-migrate")))
+                .baselineVersion(prod.getProperty("spring.flyway.baseline-version"))
+                .load();
+        flyway.migrate();
+        return Arrays.stream(flyway.info().applied())
+                .map(migration -> migration.getVersion().getVersion())
+                .toList();
+    }
+
+    private void assertHasEveryMappedColumn(DataSource database) throws SQLException {
+        Map<String, Set<String>> migrated = new HashMap<>();
+        try (Connection connection = database.getConnection();
+             ResultSet columns = connection.getMetaData().getColumns(connection.getCatalog(), connection.getSchema(), null, null)) {
+            while (columns.next()) {
+                migrated.computeIfAbsent(columns.getString("TABLE_NAME").toLowerCase(), name -> new HashSet<>())
+                        .add(columns.getString("COLUMN_NAME").toLowerCase());
+            }
+        }
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+
+        sessionFactory.getMappingMetamodel().forEachEntityDescriptor(descriptor -> {
+            AbstractEntityPersister persister = (AbstractEntityPersister) descriptor;
+            String table = persister.getTableName();
+            Set<String> columns = new HashSet<>(Set.of(persister.getIdentifierColumnNames()));
+            for (String property : persister.getPropertyNames()) {
+                columns.addAll(Set.of(persister.getPropertyColumnNames(property)));
+            }
+
+            assertThat(migrated).as("migrated tables").containsKey(table);
+            assertThat(migrated.get(table)).as("columns of " + table).containsAll(columns);
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.student.controller;
+
+import com.student.security.LoginRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Through a real Tomcat, so the forwarded-header handling configured in
+ * application.properties is part of the test.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class AuthControllerTest {
+
+    @Autowired
+    private TestRestTemplate rest;
+
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
+
+    private ResponseEntity<Map> login(HttpHeaders headers) {
+        when(loginRateLimiter.tryAcquire(anyString(), anyString())).thenReturn(false);
+        return rest.postForEntity("/api/auth/login",
+                new HttpEntity<>(Map.of("username", "admin", "password", "wrong"), headers), Map.class);
+    }
+
+    @Test
+    void behindALoadBalancerTheClientIpIsRateLimitedNotTheProxys() {
+        HttpHeaders headers = new HttpHeaders();
+        // The test client connects from localhost, a trusted proxy address
+        headers.add("X-Forwarded-For", "203.0.113.7");
+
+        ResponseEntity<Map> response = login(headers);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(429);
+        verify(loginRateLimiter).tryAcquire(eq("admin"), eq("203.0.113.7"));
+    }
+
+    @Test
+    void withoutAProxyTheConnectionsAddressIsUsed() {
+        login(new HttpHeaders());
+
+        verify(loginRateLimiter).tryAcquire(eq("admin"), eq("127.0.0.1"));
+    }
+}
@@ -0,0 +1,334 @@
+package com.student.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.dto.StudentPage;
+import com.student.model.Student;
+import com.student.service.StudentEmailIndex;
+import com.student.service.StudentExportService;
+import com.student.service.StudentService;
+import com.student.service.StudentSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class StudentControllerTest {
+
+    @Mock
+    private StudentService studentService;
+
+    @Mock
+    private StudentSnapshot snapshot;
+
+    @Mock
+    private StudentExportService exportService;
+
+    @Spy
+    private ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @InjectMocks
+    private StudentController controller;
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+    }
+
+    private static Student student(long id, String name) {
+        return new Student(id, name, name.toLowerCase().replace(' ', '.') + "@example.edu", "MCA",
+                "Computer Science", id, Instant.parse("2024-01-01T00:00:00Z"));
+    }
+
+    // ─── LIST ──────────────────────────────────────────────────────────────────
+
+    @Test
+    void listReturnsOnePageWithItsCursorAndETag() throws Exception {
+        when(studentService.currentChangeSeq()).thenReturn(7L);
+        when(studentService.getStudentsPage(10L, 2)).thenReturn(
+                new StudentPage(List.of(student(11, "Ali Khan"), student(12, "Diya Rao")), 2, "12", true, 7L));
+
+        mvc.perform(get("/api/students").param("after", "10").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"p10-2-7\""))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("12"))
+                .andExpect(jsonPath("$.hasMore").value(true));
+    }
+
+    @Test
+    void listAnswers304WhenNothingChanged() throws Exception {
+        when(studentService.currentChangeSeq()).thenReturn(7L);
+
+        mvc.perform(get("/api/students").param("after", "10").param("limit", "2")
+                        .header("If-None-Match", "\"p10-2-7\""))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void listRejectsANonNumericCursor() throws Exception {
+        mvc.perform(get("/api/students").param("after", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid cursor: abc"));
+    }
+
+    @Test
+    void filteredListRejectsAnUnknownSortField() throws Exception {
+        mvc.perform(get("/api/students").param("sort", "-password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value(
+                        "Cannot sort by password (use id, name, email, course or department)"));
+        verifyNoInteractions(studentService);
+    }
+
+    @Test
+    void filtersAndSortGoToTheDatabaseQuery() throws Exception {
+        when(studentService.currentChangeSeq()).thenReturn(7L);
+        when(studentService.findStudents(any(), eq("c1"), eq(5), eq(true))).thenReturn(
+                new StudentPage(List.of(student(3, "Neha Das")), 5, null, false, 7L));
+
+        mvc.perform(get("/api/students").param("course", "MCA", "MBA").param("namePrefix", "Ne")
+                        .param("sort", "-name").param("after", "c1").param("limit", "5").param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("\"f")))
+                .andExpect(jsonPath("$.items[0].name").value("Neha Das"));
+
+        verify(studentService).findStudents(argThat(query ->
+                query.key().equals("[MCA, MBA]|[]|null|Ne|-name,id,")), eq("c1"), eq(5), eq(true));
+        verifyNoInteractions(snapshot);
+    }
+
+    // ─── STREAM ────────────────────────────────────────────────────────────────
+
+    @Test
+    void streamWritesOneStudentPerLineWithoutSeparators() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Student> sink = invocation.getArgument(0);
+            sink.accept(student(1, "Ali Khan"));
+            sink.accept(student(2, "Diya Rao"));
+            sink.accept(student(3, "Neha Das"));
+            return null;
+        }).when(studentService).streamAllStudents(any());
+
+        String body = mvc.perform(get("/api/students/stream"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertNdjson(body, 1, 2, 3);
+    }
+
+    @Test
+    void asyncStreamWritesOneStudentPerLineAcrossChunks() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<List<Student>> sink = invocation.getArgument(1);
+            sink.accept(List.of(student(1, "Ali Khan"), student(2, "Diya Rao")));
+            sink.accept(List.of(student(3, "Neha Das")));
+            return null;
+        }).when(studentService).streamAllStudentsInChunks(anyInt(), any());
+
+        MvcResult started = mvc.perform(get("/api/students/async/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult();
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertNdjson(body, 1, 2, 3);
+    }
+
+    @Test
+    void asyncPageIsReadOnTheAsyncPool() throws Exception {
+        ThreadPoolTaskExecutor executor = executor(1, 1);
+        when(studentService.getStudentsPage(10L, 2)).thenAnswer(invocation -> {
+            assertThat(Thread.currentThread().getName()).startsWith("test-async-");
+            return new StudentPage(List.of(student(11, "Ali Khan")), 2, null, false, 7L);
+        });
+
+        MvcResult started = mvc.perform(get("/api/students/async").param("after", "10").param("limit", "2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(11));
+        executor.shutdown();
+    }
+
+    @Test
+    void aFullAsyncPoolAnswers503() throws Exception {
+        ThreadPoolTaskExecutor executor = executor(1, 0);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        mvc.perform(get("/api/students/async"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.message").value("Server busy, try again shortly"));
+        verifyNoInteractions(studentService);
+        release.countDown();
+        executor.shutdown();
+    }
+
+    /** A bounded async pool like AsyncConfig's, handed to the controller. */
+    private ThreadPoolTaskExecutor executor(int threads, int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("test-async-");
+        executor.initialize();
+        ReflectionTestUtils.setField(controller, "studentAsyncExecutor", executor);
+        return executor;
+    }
+
+    /** Every line a JSON object as written, nothing before it, in the given id order. */
+    private void assertNdjson(String body, long... ids) throws Exception {
+        assertThat(body).endsWith("\n");
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(ids.length);
+        for (int i = 0; i < ids.length; i++) {
+            assertThat(lines[i]).startsWith("{");
+            JsonNode student = objectMapper.readTree(lines[i]);
+            assertThat(student.path("id").asLong()).isEqualTo(ids[i]);
+        }
+    }
+
+    // ─── WRITES ────────────────────────────────────────────────────────────────
+
+    private static final String NEW_STUDENT =
+            "{\"name\":\"Ali Khan\",\"email\":\"ali@example.edu\",\"course\":\"MCA\",\"department\":\"Civil\"}";
+
+    @Test
+    void anUpdateAnswersItsNewVersionAsETag() throws Exception {
+        when(studentService.updateStudent(eq(4L), any(), eq(6L))).thenReturn(student(4, "Ali Khan"));
+
+        mvc.perform(put("/api/students/4").header("If-Match", "\"4-6\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(NEW_STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4-4\""));
+    }
+
+    @Test
+    void anUpdateWithoutAVersionSendsNoETag() throws Exception {
+        Student unnumbered = student(4, "Ali Khan");
+        unnumbered.setChangeSeq(null);
+        when(studentService.updateStudent(eq(4L), any(), any())).thenReturn(unnumbered);
+
+        mvc.perform(put("/api/students/4").contentType(MediaType.APPLICATION_JSON).content(NEW_STUDENT))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void anUpdateOfAStudentThatIsGoneAnswers404() throws Exception {
+        // e.g. a write-behind batch in which a later request deleted the student
+        when(studentService.updateStudent(eq(4L), any(), any())).thenReturn(null);
+
+        mvc.perform(put("/api/students/4").contentType(MediaType.APPLICATION_JSON).content(NEW_STUDENT))
+                .andExpect(status().isNotFound())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void addingATakenEmailAnswers409() throws Exception {
+        when(studentService.addStudent(any()))
+                .thenThrow(new StudentEmailIndex.DuplicateEmailException("ali@example.edu"));
+
+        mvc.perform(post("/api/students").contentType(MediaType.APPLICATION_JSON).content(NEW_STUDENT))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("A student with email ali@example.edu already exists."));
+    }
+
+    @Test
+    void changingToATakenEmailAnswers409() throws Exception {
+        when(studentService.updateStudent(eq(4L), any(), any()))
+                .thenThrow(new StudentEmailIndex.DuplicateEmailException("ali@example.edu"));
+
+        mvc.perform(put("/api/students/4").contentType(MediaType.APPLICATION_JSON).content(NEW_STUDENT))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("A student with email ali@example.edu already exists."));
+    }
+
+    // ─── EXPORT ────────────────────────────────────────────────────────────────
+
+    @Test
+    void exportDefaultsFollowTheAcceptHeaders() throws Exception {
+        mvc.perform(get("/api/students/export")
+                        .header("Accept", "text/csv")
+                        .header("Accept-Encoding", "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"students.csv\""));
+
+        verify(exportService).export(eq(StudentExportService.Format.CSV), eq(StudentExportService.Compression.GZIP), any());
+    }
+
+    @Test
+    void exportParametersWinOverTheHeaders() throws Exception {
+        mvc.perform(get("/api/students/export").param("format", "binary").param("compression", "none")
+                        .header("Accept", "text/csv")
+                        .header("Accept-Encoding", "zstd"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/vnd.student-export"))
+                .andExpect(header().doesNotExist("Content-Encoding"));
+
+        verify(exportService).export(eq(StudentExportService.Format.BINARY), eq(StudentExportService.Compression.NONE), any());
+    }
+
+    @Test
+    void exportRejectsAnUnknownFormat() throws Exception {
+        mvc.perform(get("/api/students/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Unknown export format: xml (use binary or csv)"));
+
+        verifyNoInteractions(exportService);
+    }
+}
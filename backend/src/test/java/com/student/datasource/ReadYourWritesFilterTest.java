@@ -0,0 +1,112 @@
+package com.student.datasource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesFilterTest {
+
+    private final DriverManagerDataSource primary =
+            new DriverManagerDataSource("jdbc:h2:mem:read-your-writes;DB_CLOSE_DELAY=-1");
+    private final ReadYourWritesFilter filter = new ReadYourWritesFilter(primary);
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbc = new JdbcTemplate(primary);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS change_sequences (name VARCHAR(50) PRIMARY KEY, current_value BIGINT)");
+        jdbc.update("DELETE FROM change_sequences");
+        jdbc.update("INSERT INTO change_sequences VALUES ('students', 42)");
+    }
+
+    /** A controller that answers with status and, if given, a body it flushes right away. */
+    private static HttpServlet controller(int status, String body) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                response.setStatus(status);
+                if (body != null) {
+                    response.getWriter().write(body);
+                    response.flushBuffer();
+                }
+            }
+        };
+    }
+
+    private MockHttpServletResponse run(String method, int status, String body) throws Exception {
+        return run(method, "/api/students", status, body);
+    }
+
+    private MockHttpServletResponse run(String method, String uri, int status, String body) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response,
+                new MockFilterChain(controller(status, body)));
+        return response;
+    }
+
+    @Test
+    void aWriteTellsTheClientTheChangeItsReadsNeed() throws Exception {
+        long before = System.currentTimeMillis();
+        MockHttpServletResponse response = run("POST", 201, "{\"id\":1}");
+
+        ReadYourWritesFilter.ReadAfter readAfter =
+                ReadYourWritesFilter.ReadAfter.parse(response.getHeader(ReadYourWritesFilter.HEADER), before);
+        assertThat(readAfter).isNotNull();
+        assertThat(readAfter.changeSeq()).isEqualTo(42);
+        assertThat(readAfter.writtenAtMillis()).isGreaterThanOrEqualTo(before);
+        assertThat(response.getContentAsString()).isEqualTo("{\"id\":1}");
+    }
+
+    @Test
+    void aWriteWithoutABodyGetsTheHeaderToo() throws Exception {
+        MockHttpServletResponse response = run("DELETE", 204, null);
+
+        assertThat(response.getHeader(ReadYourWritesFilter.HEADER)).startsWith("42:");
+    }
+
+    @Test
+    void readsAndFailedWritesGetNoHeader() throws Exception {
+        assertThat(run("GET", 200, "[]").getHeader(ReadYourWritesFilter.HEADER)).isNull();
+        assertThat(run("PUT", 409, "{}").getHeader(ReadYourWritesFilter.HEADER)).isNull();
+    }
+
+    @Test
+    void onlyStudentAndUserMutationsAreStamped() throws Exception {
+        assertThat(run("POST", "/api/users", 201, "{}").getHeader(ReadYourWritesFilter.HEADER)).startsWith("42:");
+
+        // A login writes nothing replicas serve: no extra query on the primary
+        ReadYourWritesFilter untouched = new ReadYourWritesFilter(new DelegatingDataSource(primary) {
+            @Override
+            public Connection getConnection() {
+                throw new AssertionError("the primary was queried");
+            }
+        });
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        untouched.doFilter(new MockHttpServletRequest("POST", "/api/auth/login"), response,
+                new MockFilterChain(controller(200, "{}")));
+        assertThat(response.getHeader(ReadYourWritesFilter.HEADER)).isNull();
+    }
+
+    @Test
+    void headerValuesRoundTrip() {
+        long now = System.currentTimeMillis();
+        ReadYourWritesFilter.ReadAfter readAfter = new ReadYourWritesFilter.ReadAfter(7, now);
+
+        assertThat(ReadYourWritesFilter.ReadAfter.parse(readAfter.toString(), now)).isEqualTo(readAfter);
+        assertThat(ReadYourWritesFilter.ReadAfter.parse("7", now)).isNull();
+        assertThat(ReadYourWritesFilter.ReadAfter.parse(null, now)).isNull();
+    }
+}
@@ -0,0 +1,106 @@
+package com.student.datasource;
+
+import com.student.metrics.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaMonitorTest {
+
+    private HikariDataSource primaryPool;
+    private HikariDataSource replicaPool;
+    private JdbcTemplate primary;
+    private JdbcTemplate replicaDb;
+    private Replica replica;
+    private ReplicaMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        primaryPool = pool("monitor-primary");
+        replicaPool = pool("monitor-replica");
+        primary = schema(primaryPool);
+        replicaDb = schema(replicaPool);
+        replica = new Replica("replica-1", replicaPool);
+        monitor = new ReplicaMonitor(primaryPool, List.of(replica), new MetricsRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        primaryPool.close();
+        replicaPool.close();
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        pool.setMaximumPoolSize(2);
+        return pool;
+    }
+
+    private static JdbcTemplate schema(HikariDataSource pool) {
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("DROP TABLE IF EXISTS change_sequences");
+        jdbc.execute("DROP TABLE IF EXISTS change_reservations");
+        jdbc.execute("CREATE TABLE change_sequences (name VARCHAR(50) PRIMARY KEY, current_value BIGINT)");
+        jdbc.execute("CREATE TABLE change_reservations (first_seq BIGINT PRIMARY KEY, reserved_at TIMESTAMP)");
+        return jdbc;
+    }
+
+    private static void counter(JdbcTemplate jdbc, long value) {
+        jdbc.update("MERGE INTO change_sequences KEY (name) VALUES ('students', ?)", value);
+    }
+
+    @Test
+    void aCaughtUpReplicaHasNoLagAndTheCountersWatermark() {
+        counter(primary, 10);
+        counter(replicaDb, 10);
+
+        monitor.check();
+
+        assertThat(replica.isHealthy()).isTrue();
+        assertThat(replica.getLagMs()).isZero();
+        assertThat(replica.getWatermark()).isEqualTo(10);
+    }
+
+    @Test
+    void writesStillOpenOnTheReplicaHoldItsWatermarkBack() {
+        counter(primary, 10);
+        counter(replicaDb, 10);
+        // Change 8 was numbered, but its write hadn't committed when the replica got here
+        replicaDb.update("INSERT INTO change_reservations VALUES (8, CURRENT_TIMESTAMP)");
+
+        monitor.check();
+
+        assertThat(replica.getChangeSeq()).isEqualTo(10);
+        assertThat(replica.getWatermark()).isEqualTo(7);
+    }
+
+    @Test
+    void aReplicaBehindAtStartupCountsAsTheWholeWindowBehind() {
+        counter(primary, 10);
+        counter(replicaDb, 4);
+
+        monitor.check();
+
+        assertThat(replica.getLagMs()).isGreaterThanOrEqualTo(60_000);
+        assertThat(replica.getWatermark()).isEqualTo(4);
+    }
+
+    @Test
+    void aReplicaWhoseQueryFailsIsMarkedDown() {
+        counter(primary, 10);
+        counter(replicaDb, 10);
+        monitor.check();
+        replicaDb.execute("DROP TABLE change_sequences");
+
+        monitor.check();
+
+        assertThat(replica.isHealthy()).isFalse();
+    }
+}
@@ -0,0 +1,145 @@
+package com.student.datasource;
+
+import com.student.metrics.MetricsRegistry;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReplicaRoutingDataSourceTest {
+
+    private static final long MAX_LAG_MS = 5000;
+    private static final long MARGIN_MS = 1000;
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private HikariDataSource replicaPool;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection replicaConnection;
+
+    @Mock
+    private MetricsRegistry metrics;
+
+    private Replica replica;
+    private ReplicaRoutingDataSource router;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replicaPool.getConnection()).thenReturn(replicaConnection);
+        replica = new Replica("replica-1", replicaPool);
+        router = new ReplicaRoutingDataSource(primary, List.of(replica), metrics, MAX_LAG_MS, MARGIN_MS);
+        ReplicaRoutingDataSource.setReplicaAllowed(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingDataSource.setReplicaAllowed(false);
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /** A web request, carrying the header its client got back from a write. */
+    private static void request(String readAfter) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students");
+        if (readAfter != null) {
+            request.addHeader(ReadYourWritesFilter.HEADER, readAfter);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    // ─── REPLICA CHOICE ────────────────────────────────────────────────────────
+
+    @Test
+    void aHealthyReplicaServesReadsThatMayUseIt() throws SQLException {
+        replica.checked(100, 100, 0);
+        request(null);
+
+        assertThat(router.getConnection()).isSameAs(replicaConnection);
+        verify(metrics).recordRead("replica-1");
+    }
+
+    @Test
+    void readsOutsideReplicaReadStayOnThePrimary() throws SQLException {
+        replica.checked(100, 100, 0);
+        ReplicaRoutingDataSource.setReplicaAllowed(false);
+
+        assertThat(router.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void aReplicaTooFarBehindIsSkipped() throws SQLException {
+        replica.checked(90, 90, MAX_LAG_MS + 1);
+
+        assertThat(router.getConnection()).isSameAs(primaryConnection);
+        verify(metrics).recordReadFallback("lag");
+    }
+
+    @Test
+    void aReplicaThatFailsToConnectIsMarkedDown() throws SQLException {
+        replica.checked(100, 100, 0);
+        when(replicaPool.getConnection()).thenThrow(new SQLException("refused"));
+
+        assertThat(router.getConnection()).isSameAs(primaryConnection);
+        assertThat(replica.isHealthy()).isFalse();
+    }
+
+    // ─── READ YOUR WRITES ──────────────────────────────────────────────────────
+
+    @Test
+    void aClientWaitsForTheReplicaToHaveItsWrite() throws SQLException {
+        long longAgo = System.currentTimeMillis() - 60_000;
+        replica.checked(120, 119, 0); // counter past the write, but change 120 not committed there yet
+        request("120:" + longAgo);
+
+        assertThat(router.getConnection()).isSameAs(primaryConnection);
+        verify(metrics).recordReadFallback("read_your_writes");
+
+        replica.checked(120, 120, 0);
+        assertThat(router.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void aWriteNewerThanTheReplicasLagKeepsReadsOnThePrimary() throws SQLException {
+        // Covers writes without a change number, such as users
+        replica.checked(120, 120, 2000);
+        request("120:" + System.currentTimeMillis());
+
+        assertThat(router.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void aMalformedOrStaleHeaderIsIgnored() throws SQLException {
+        replica.checked(100, 100, 0);
+
+        request("not-a-token");
+        assertThat(router.getConnection()).isSameAs(replicaConnection);
+
+        request("500:" + (System.currentTimeMillis() - 10 * 60_000)); // older than any replica could lag
+        assertThat(router.getConnection()).isSameAs(replicaConnection);
+    }
+}
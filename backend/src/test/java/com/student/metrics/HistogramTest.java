@@ -0,0 +1,55 @@
+package com.student.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HistogramTest {
+
+    @Test
+    void smallValuesAreExact() {
+        Histogram histogram = new Histogram();
+        for (int v = 1; v <= 20; v++) {
+            histogram.record(v);
+        }
+
+        assertThat(histogram.percentiles(0.5, 1.0)).containsExactly(10, 20);
+        assertThat(histogram.count()).isEqualTo(20);
+        assertThat(histogram.sum()).isEqualTo(210);
+        assertThat(histogram.max()).isEqualTo(20);
+    }
+
+    @Test
+    void percentilesStayWithinTheBucketResolution() {
+        Random random = new Random(3);
+        long[] values = new long[100_000];
+        Histogram histogram = new Histogram();
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 16); // 1 .. ~9M, log-spread like latencies
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        long[] found = histogram.percentiles(0.5, 0.99, 0.999);
+        double[] quantiles = { 0.5, 0.99, 0.999 };
+        for (int q = 0; q < quantiles.length; q++) {
+            long exact = values[(int) Math.ceil(quantiles[q] * values.length) - 1];
+            assertThat((double) found[q]).as("p%s", quantiles[q]).isGreaterThanOrEqualTo(exact)
+                    .isCloseTo(exact, within(exact * 0.07));
+        }
+    }
+
+    @Test
+    void bucketsCoverTheWholeLongRange() {
+        Histogram histogram = new Histogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        assertThat(histogram.percentiles(0.0, 1.0)).containsExactly(0, Long.MAX_VALUE);
+        assertThat(Histogram.indexOf(Long.MAX_VALUE)).isGreaterThan(Histogram.indexOf(1L << 40));
+    }
+}
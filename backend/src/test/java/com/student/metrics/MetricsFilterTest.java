@@ -0,0 +1,90 @@
+package com.student.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsFilterTest {
+
+    private static final String STUDENTS_IN_FLIGHT = "student_http_requests_in_flight{area=\"/api/students\"} ";
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final MetricsFilter filter = new MetricsFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(registry, "statementWarnThreshold", 25);
+        ReflectionTestUtils.setField(filter, "metricsRegistry", registry);
+    }
+
+    /** A servlet standing in for a controller mapped to /api/students/{id}. */
+    private static HttpServlet controller(boolean async, int status) {
+        return new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest request, HttpServletResponse response) {
+                request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/students/{id}");
+                response.setStatus(status);
+                if (async) {
+                    request.startAsync();
+                }
+            }
+        };
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/students/42");
+        request.setAsyncSupported(true);
+        return request;
+    }
+
+    private String scrape() {
+        return registry.scrape();
+    }
+
+    @Test
+    void aRequestIsRecordedUnderItsRoutePattern() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), new MockFilterChain(controller(false, 200)));
+
+        assertThat(scrape())
+                .contains("student_http_request_seconds_count{method=\"GET\",route=\"/api/students/{id}\"} 1")
+                .contains("student_http_responses_total{method=\"GET\",route=\"/api/students/{id}\",status=\"2xx\"} 1")
+                .contains(STUDENTS_IN_FLIGHT + "0");
+    }
+
+    @Test
+    void anAsyncRequestStaysInFlightUntilItCompletes() throws Exception {
+        MockHttpServletRequest request = request();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain(controller(true, 200)));
+
+        assertThat(scrape()).contains(STUDENTS_IN_FLIGHT + "1").doesNotContain("student_http_request_seconds_count");
+
+        response.setStatus(503); // decided while the async work ran
+        request.getAsyncContext().complete();
+
+        assertThat(scrape())
+                .contains(STUDENTS_IN_FLIGHT + "0")
+                .contains("student_http_request_seconds_count{method=\"GET\",route=\"/api/students/{id}\"} 1")
+                .contains("status=\"5xx\"} 1")
+                .doesNotContain("status=\"2xx\"");
+    }
+
+    @Test
+    void rejectedRequestsCountAsUnmatched() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, (req, res) -> ((HttpServletResponse) res).setStatus(401));
+
+        assertThat(scrape()).contains("student_http_responses_total{method=\"GET\",route=\"unmatched\",status=\"4xx\"} 1");
+    }
+}
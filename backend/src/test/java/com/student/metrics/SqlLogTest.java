@@ -0,0 +1,100 @@
+package com.student.metrics;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlLogTest {
+
+    private final SqlLog sqlLog = new SqlLog();
+    private final HibernateMetricsListener listener = new HibernateMetricsListener();
+    private final Logger logger = (Logger) LoggerFactory.getLogger("com.student.sql");
+    private final ListAppender<ILoggingEvent> lines = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        configure(true, 0.0, 1000);
+        lines.start();
+        logger.addAppender(lines);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(lines);
+        RequestMetrics.close();
+    }
+
+    private void configure(boolean enabled, double sampleRate, long slowMs) {
+        ReflectionTestUtils.setField(sqlLog, "enabled", enabled);
+        ReflectionTestUtils.setField(sqlLog, "sampleRate", sampleRate);
+        ReflectionTestUtils.setField(sqlLog, "slowMs", slowMs);
+    }
+
+    /** Hibernate's calls for one statement: inspect, then the timed execution. */
+    private void run(String sql) {
+        assertThat(sqlLog.inspect(sql)).isEqualTo(sql);
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+    }
+
+    @Test
+    void aSlowStatementIsLoggedOnOneKeyValueLine() {
+        configure(true, 0.0, 0);
+        RequestMetrics metrics = RequestMetrics.open();
+
+        run("select s1_0.id\n  from students s1_0\n where s1_0.name = \"x\"");
+
+        assertThat(lines.list).hasSize(1);
+        assertThat(lines.list.get(0).getFormattedMessage())
+                .matches("ms=\\d+\\.\\d\\d slow=true sql=\".*\"")
+                .endsWith("sql=\"select s1_0.id from students s1_0 where s1_0.name = \\\"x\\\"\"");
+        assertThat(metrics.statements).isEqualTo(1);
+        assertThat(metrics.sql).isNull();
+    }
+
+    @Test
+    void fastStatementsAreLoggedAtTheSampleRate() {
+        RequestMetrics.open();
+
+        run("select 1");
+        configure(true, 1.0, 1000);
+        run("select 2");
+
+        assertThat(lines.list).singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage).asString()
+                .endsWith("slow=false sql=\"select 2\"");
+    }
+
+    @Test
+    void nothingIsLoggedWhenDisabledOrOutsideARequest() {
+        configure(false, 1.0, 0);
+        RequestMetrics.open();
+        run("select 1");
+        RequestMetrics.close();
+
+        configure(true, 1.0, 0);
+        run("select 2");
+
+        assertThat(lines.list).isEmpty();
+    }
+
+    @Test
+    void connectionUsageIsReportedPerPoolInSeconds() {
+        MetricsRegistry registry = new MetricsRegistry();
+        var tracker = registry.hikariTrackerFactory().create("primary", null);
+
+        tracker.recordConnectionUsageMillis(20);
+        tracker.recordConnectionUsageMillis(30);
+
+        assertThat(registry.scrape())
+                .contains("student_db_pool_usage_seconds_sum{pool=\"primary\"} 0.05\n")
+                .contains("student_db_pool_usage_seconds_count{pool=\"primary\"} 2\n");
+    }
+}
@@ -0,0 +1,126 @@
+package com.student.repository;
+
+import com.student.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// IGNORECASE matches the case-insensitive collation the shard tables get on MySQL
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "student.shards.urls="
+        + "jdbc:h2:mem:shard-1-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1,"
+        + "jdbc:h2:mem:shard-2-${random.uuid};MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+class ShardedStudentRepositoryTest {
+
+    @Autowired
+    private ShardedStudentRepository shards;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private static Student student(String email, long changeSeq) {
+        Student student = new Student("Shard Test", email, "MCA", "Civil");
+        student.setChangeSeq(changeSeq);
+        student.setUpdatedAt(Instant.now().truncatedTo(ChronoUnit.MICROS));
+        return student;
+    }
+
+    private int update(Student before, String name, String email, long changeSeq) {
+        return shards.updateIfVersion(before, name, email, null, null, changeSeq, Instant.now());
+    }
+
+    // ─── ROUTING ───────────────────────────────────────────────────────────────
+
+    @Test
+    void studentsAreFoundAgainAndCountedAcrossShards() {
+        long before = shards.count();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(shards.insert(student("spread-" + i + "@example.edu", 100 + i)).getId());
+        }
+
+        assertThat(shards.count()).isEqualTo(before + 20);
+        for (int i = 0; i < 20; i++) {
+            assertThat(shards.findById(ids.get(i))).get()
+                    .extracting(Student::getEmail).isEqualTo("spread-" + i + "@example.edu");
+        }
+    }
+
+    // ─── EMAILS ────────────────────────────────────────────────────────────────
+
+    @Test
+    void anEmailTakenOnAnyShardIsRejectedWhateverItsCase() {
+        shards.insert(student("case@example.edu", 200));
+        Student other = shards.insert(student("other-case@example.edu", 201));
+
+        assertThatThrownBy(() -> shards.insert(student(" CASE@example.edu", 202)))
+                .isInstanceOf(DuplicateKeyException.class);
+        assertThatThrownBy(() -> update(other, null, "Case@Example.edu", 203))
+                .isInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void anImportSkipsTakenEmailsAndRepeatsWhateverTheirCase() {
+        shards.insert(student("import-taken@example.edu", 300));
+        Student taken = student("IMPORT-TAKEN@example.edu", 301);
+        Student fresh = student("import-new@example.edu", 302);
+        Student repeat = student("Import-New@example.edu", 303);
+
+        List<Student> rejected = shards.insertAll(List.of(taken, fresh, repeat));
+
+        assertThat(rejected).containsExactly(taken, repeat);
+        assertThat(shards.findById(fresh.getId())).isPresent();
+    }
+
+    // ─── ROLLBACK ──────────────────────────────────────────────────────────────
+
+    @Test
+    void aRolledBackTransactionUndoesItsShardWrites() {
+        Student changed = shards.insert(student("undo-changed@example.edu", 400));
+        Student removed = shards.insert(student("undo-removed@example.edu", 401));
+        Student added = student("undo-added@example.edu", 410);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            shards.insert(added);
+            assertThat(update(changed, "First", null, 411)).isEqualTo(1);
+            // A second update of the same row: undone first, so the original comes back
+            assertThat(update(shards.findById(changed.getId()).orElseThrow(), "Second",
+                    "undo-changed-2@example.edu", 412)).isEqualTo(1);
+            assertThat(shards.deleteIfVersion(removed)).isEqualTo(1);
+            status.setRollbackOnly();
+        });
+
+        assertThat(shards.findById(added.getId())).isEmpty();
+        Student restored = shards.findById(changed.getId()).orElseThrow();
+        assertThat(restored.getName()).isEqualTo("Shard Test");
+        assertThat(restored.getEmail()).isEqualTo("undo-changed@example.edu");
+        assertThat(restored.getChangeSeq()).isEqualTo(400);
+        assertThat(shards.findById(removed.getId())).get().extracting(Student::getChangeSeq).isEqualTo(401L);
+    }
+
+    @Test
+    void aRolledBackImportIsRemovedAgainButACommittedOneStays() {
+        Student undone = student("import-undone@example.edu", 500);
+        Student kept = student("import-kept@example.edu", 501);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            shards.insertAll(List.of(undone));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> shards.insertAll(List.of(kept)));
+
+        assertThat(shards.findById(undone.getId())).isEmpty();
+        assertThat(shards.findById(kept.getId())).isPresent();
+    }
+}
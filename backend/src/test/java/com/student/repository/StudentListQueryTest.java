@@ -0,0 +1,115 @@
+package com.student.repository;
+
+import com.student.TestStudents;
+import com.student.model.Student;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentListQueryTest {
+
+    private static StudentListQuery sortedBy(String sort) {
+        return new StudentListQuery(null, null, null, null, sort);
+    }
+
+    private static Student student(long id, String name, String department) {
+        Student student = TestStudents.student(id, name);
+        student.setDepartment(department);
+        return student;
+    }
+
+    // ─── PARSING ───────────────────────────────────────────────────────────────
+
+    @Test
+    void idIsAddedLastAndRepeatsAreDropped() {
+        assertThat(sortedBy("department,-name,department").key()).endsWith("department,-name,id,");
+        assertThat(sortedBy("-id,name").key()).endsWith("-id,"); // nothing can follow a unique key
+        assertThat(sortedBy(null).isDefault()).isTrue();
+        assertThat(sortedBy("-id").isDefault()).isFalse();
+    }
+
+    @Test
+    void anUnknownSortFieldIsRejected() {
+        assertThatThrownBy(() -> sortedBy("password"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("password");
+    }
+
+    @Test
+    void blankFiltersAreIgnored() {
+        StudentListQuery query = new StudentListQuery(List.of(" ", ""), null, " ", "", null);
+
+        assertThat(query.isDefault()).isTrue();
+    }
+
+    // ─── SQL ───────────────────────────────────────────────────────────────────
+
+    @Test
+    void inListsArePaddedToAPowerOfTwo() {
+        List<Object> args = new ArrayList<>();
+        String sql = new StudentListQuery(List.of("MCA", "MBA", "B.Tech"), null, null, null, null)
+                .pageSql("id", null, 10, args);
+
+        assertThat(sql).isEqualTo("SELECT id FROM students WHERE course IN (?, ?, ?, ?) ORDER BY id ASC LIMIT ?");
+        assertThat(args).containsExactly("MCA", "MBA", "B.Tech", "B.Tech", 10);
+    }
+
+    @Test
+    void theKeysetConditionHandlesMixedDirections() {
+        List<Object> args = new ArrayList<>();
+        String sql = sortedBy("department,-name").pageSql("id", new Object[] { "Civil", "Neha", 7L }, 5, args);
+
+        assertThat(sql).isEqualTo("SELECT id FROM students WHERE department >= ? AND ((department > ?)"
+                + " OR (department = ? AND name < ?) OR (department = ? AND name = ? AND id > ?))"
+                + " ORDER BY department ASC, name DESC, id ASC LIMIT ?");
+        assertThat(args).containsExactly("Civil", "Civil", "Civil", "Neha", "Civil", "Neha", 7L, 5);
+    }
+
+    @Test
+    void aFacetLeavesOutTheFilterOnItsOwnColumn() {
+        StudentListQuery query = new StudentListQuery(List.of("MCA"), List.of("Civil"), "example.edu", "a_b", null);
+        List<Object> args = new ArrayList<>();
+
+        String sql = query.facetSql(StudentListQuery.Field.COURSE, args);
+
+        assertThat(sql).isEqualTo("SELECT course, COUNT(*) FROM students WHERE department IN (?)"
+                + " AND SUBSTRING_INDEX(email, '@', -1) = ? AND name LIKE ? ESCAPE '!' GROUP BY course");
+        assertThat(args).containsExactly("Civil", "example.edu", "a!_b%");
+    }
+
+    // ─── ORDER AND CURSOR ──────────────────────────────────────────────────────
+
+    @Test
+    void cursorsRoundTripAnySortKey() {
+        StudentListQuery query = sortedBy("-name,department");
+        Student last = student(42, "Zoë: \"Z\" Émile", "Civil:Eng");
+
+        assertThat(query.parseCursor(query.cursorOf(last))).containsExactly("Zoë: \"Z\" Émile", "Civil:Eng", 42L);
+        assertThat(sortedBy(null).parseCursor(sortedBy(null).cursorOf(last))).containsExactly(42L);
+        assertThat(query.parseCursor(null)).isNull();
+    }
+
+    @Test
+    void aCursorForAnotherOrderIsRejected() {
+        String byName = sortedBy("name").cursorOf(student(1, "Ali", "Civil"));
+
+        assertThatThrownBy(() -> sortedBy("name,department").parseCursor(byName))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sortedBy(null).parseCursor("not-a-number"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void javaOrderIgnoresCaseAndAccentsLikeMySql() {
+        List<Student> rows = new ArrayList<>(List.of(
+                student(3, "émile", "Civil"), student(1, "Zoe", "Civil"), student(2, "Ali", "Civil")));
+
+        rows.sort(sortedBy("name").order());
+
+        assertThat(rows).extracting(Student::getId).containsExactly(2L, 3L, 1L);
+    }
+}
@@ -0,0 +1,89 @@
+package com.student.repository;
+
+import com.student.model.Student;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+@Import(StudentQueryRepository.class)
+class StudentQueryRepositoryTest {
+
+    @Autowired
+    private StudentQueryRepository queryRepository;
+
+    @Autowired
+    private StudentRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Student> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String[][] rows = {
+                { "Ali Khan", "MCA", "Civil" }, { "Diya Rao", "MBA", "Management" },
+                { "Neha Das", "MCA", "Civil" }, { "Malik Iyer", "MCA", "Management" },
+                { "Rahul Nair", "B.Tech", "Civil" }, { "Neha Das", "MBA", "Civil" },
+                { "Arjun Sen", "MCA", "Civil" } };
+        for (int i = 0; i < rows.length; i++) {
+            saved.add(repository.save(new Student(rows[i][0], "q" + i + "@example.edu", rows[i][1], rows[i][2])));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    /** Every row of a query, fetched page by page through its cursors. */
+    private List<Long> allPages(StudentListQuery query, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        Object[] after = null;
+        while (true) {
+            List<Student> page = queryRepository.findPage(query, after, pageSize);
+            page.forEach(s -> ids.add(s.getId()));
+            if (page.size() < pageSize) {
+                return ids;
+            }
+            after = query.parseCursor(query.cursorOf(page.get(page.size() - 1)));
+        }
+    }
+
+    @Test
+    void pagesInAMixedOrderFollowEachOtherWithoutGapsOrRepeats() {
+        StudentListQuery query = new StudentListQuery(null, null, null, null, "department,-name");
+        List<Student> expected = new ArrayList<>(saved);
+        expected.sort(query.order());
+
+        assertThat(allPages(query, 2)).isEqualTo(expected.stream().map(Student::getId).toList());
+    }
+
+    @Test
+    void filtersCombineWithAnd() {
+        StudentListQuery query = new StudentListQuery(List.of("MCA", "MBA"), List.of("Civil"), null, "Neha", null);
+
+        List<Student> page = queryRepository.findPage(query, null, 10);
+
+        assertThat(page).extracting(Student::getName).containsOnly("Neha Das");
+        assertThat(page).extracting(Student::getCourse).containsExactly("MCA", "MBA");
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnFilter() {
+        StudentListQuery query = new StudentListQuery(List.of("MCA"), List.of("Civil"), null, null, null);
+
+        Map<String, Long> courses = queryRepository.countBy(query, StudentListQuery.Field.COURSE);
+        Map<String, Long> departments = queryRepository.countBy(query, StudentListQuery.Field.DEPARTMENT);
+
+        assertThat(courses).containsOnly(Map.entry("MCA", 3L), Map.entry("MBA", 1L), Map.entry("B.Tech", 1L));
+        assertThat(departments).containsOnly(Map.entry("Civil", 3L), Map.entry("Management", 1L));
+    }
+}
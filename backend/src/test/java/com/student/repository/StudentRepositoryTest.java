@@ -0,0 +1,129 @@
+package com.student.repository;
+
+import com.student.model.Student;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect")
+class StudentRepositoryTest {
+
+    @Autowired
+    private StudentRepository repository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        String[] names = { "Ali Khan", "Diya Rao", "Neha Das", "Malik Iyer", "Rahul Nair" };
+        for (int i = 0; i < names.length; i++) {
+            Student student = new Student(names[i], "student" + i + "@example.edu", "MCA", "Computer Science");
+            student.setChangeSeq((long) (i + 1));
+            student.setUpdatedAt(Instant.now());
+            ids.add(repository.save(student).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // ─── KEYSET PAGES ──────────────────────────────────────────────────────────
+
+    @Test
+    void pagesFollowEachOtherByIdWithoutGapsOrRepeats() {
+        List<Long> seen = new ArrayList<>();
+        long after = 0;
+        while (true) {
+            List<Student> page = repository.findPageAfter(after, PageRequest.of(0, 2));
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(s -> seen.add(s.getId()));
+            after = page.get(page.size() - 1).getId();
+        }
+        assertThat(seen).isEqualTo(ids);
+    }
+
+    @Test
+    void pageRowsArePlainObjectsNotManagedEntities() {
+        List<Student> page = repository.findPageAfter(0L, PageRequest.of(0, 5));
+
+        assertThat(page).hasSize(5);
+        assertThat(page).noneMatch(entityManager::contains);
+    }
+
+    @Test
+    void streamReturnsEveryStudentInIdOrder() {
+        try (Stream<Student> stream = repository.streamAllOrderById()) {
+            assertThat(stream.map(Student::getId)).containsExactlyElementsOf(ids);
+        }
+    }
+
+    @Test
+    void searchMatchesAnywhereInTheNameIgnoringCase() {
+        List<Student> found = repository.searchByName("ALI", PageRequest.of(0, 10));
+
+        assertThat(found).extracting(Student::getName).containsExactly("Ali Khan", "Malik Iyer");
+        assertThat(repository.searchByName("a", PageRequest.of(0, 2))).hasSize(2);
+    }
+
+    @Test
+    void readByIdReturnsAPlainCopyOfTheRow() {
+        Student read = repository.readById(ids.get(2)).orElseThrow();
+
+        assertThat(read.getName()).isEqualTo("Neha Das");
+        assertThat(read.getChangeSeq()).isEqualTo(3L);
+        assertThat(entityManager.contains(read)).isFalse();
+        assertThat(repository.readById(-1L)).isEmpty();
+    }
+
+    // ─── CONDITIONAL WRITES ────────────────────────────────────────────────────
+
+    @Test
+    void updateAtTheCurrentVersionChangesOnlyTheGivenFields() {
+        Long id = ids.get(0);
+
+        int updated = repository.updateIfVersion(id, 1L, "Ali Rao", null, "MBA", null, 10L, Instant.now());
+        entityManager.clear();
+
+        assertThat(updated).isEqualTo(1);
+        Student student = repository.findById(id).orElseThrow();
+        assertThat(student.getName()).isEqualTo("Ali Rao");
+        assertThat(student.getEmail()).isEqualTo("student0@example.edu");
+        assertThat(student.getCourse()).isEqualTo("MBA");
+        assertThat(student.getDepartment()).isEqualTo("Computer Science");
+        assertThat(student.getChangeSeq()).isEqualTo(10L);
+    }
+
+    @Test
+    void updateAtAnOldVersionChangesNothing() {
+        Long id = ids.get(0);
+
+        int updated = repository.updateIfVersion(id, 99L, "Ali Rao", null, null, null, 10L, Instant.now());
+        entityManager.clear();
+
+        assertThat(updated).isZero();
+        assertThat(repository.findById(id).orElseThrow().getName()).isEqualTo("Ali Khan");
+    }
+
+    @Test
+    void deleteOnlyHappensAtTheCurrentVersion() {
+        Long id = ids.get(1);
+
+        assertThat(repository.deleteIfVersion(id, 1L)).isZero();
+        assertThat(repository.deleteIfVersion(id, 2L)).isEqualTo(1);
+        assertThat(repository.existsById(id)).isFalse();
+    }
+}
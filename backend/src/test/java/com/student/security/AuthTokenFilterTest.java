@@ -0,0 +1,87 @@
+package com.student.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuthTokenFilterTest {
+
+    private final TokenService tokenService = new TokenService();
+    private final AuthTokenFilter filter = new AuthTokenFilter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenService, "secret", "test-secret");
+        ReflectionTestUtils.setField(tokenService, "ttlMinutes", 60L);
+        tokenService.init();
+        ReflectionTestUtils.setField(filter, "tokenService", tokenService);
+    }
+
+    /** Run a request through the filter; returns the response status (200 if passed on). */
+    private int send(String method, String uri, String role) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (role != null) {
+            request.addHeader("Authorization", "Bearer " + tokenService.issue("someone", role));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        return chain.getRequest() != null ? 200 : response.getStatus();
+    }
+
+    // ─── RULES ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void readsAndLoginAreOpen() throws Exception {
+        assertThat(send("GET", "/api/students", null)).isEqualTo(200);
+        assertThat(send("POST", "/api/auth/login", null)).isEqualTo(200);
+        assertThat(send("OPTIONS", "/api/users", null)).isEqualTo(200);
+    }
+
+    @Test
+    void writesAndUserManagementNeedAnAdminToken() throws Exception {
+        assertThat(send("POST", "/api/students", null)).isEqualTo(401);
+        assertThat(send("DELETE", "/api/students/1", "USER")).isEqualTo(403);
+        assertThat(send("GET", "/api/users", "USER")).isEqualTo(403);
+        assertThat(send("PATCH", "/api/students/1", "ADMIN")).isEqualTo(200);
+        assertThat(send("GET", "/api/users", "ADMIN")).isEqualTo(200);
+    }
+
+    @Test
+    void aForgedTokenCountsAsNone() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users");
+        request.addHeader("Authorization", "Bearer " + tokenService.issue("someone", "USER") + "x");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+    }
+
+    // ─── ENCODED PATHS ─────────────────────────────────────────────────────────
+
+    @Test
+    void encodedOrDecoratedPathsCannotSkipTheAdminCheck() throws Exception {
+        assertThat(send("GET", "/api/%75sers", null)).isEqualTo(401);
+        assertThat(send("GET", "/api/%75%73%65%72%73/1", "USER")).isEqualTo(403);
+        assertThat(send("DELETE", "/api/%73tudents/1", null)).isEqualTo(401);
+        assertThat(send("POST", "/api//students", "USER")).isEqualTo(403);
+        assertThat(send("PUT", "/api/students;x=1/1", null)).isEqualTo(401);
+    }
+
+    @Test
+    void theContextPathIsNotPartOfTheRule() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/api/%75sers");
+        request.setContextPath("/app");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+    }
+}
@@ -0,0 +1,83 @@
+package com.student.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenServiceTest {
+
+    private static TokenService tokenService(String secret, long ttlMinutes) {
+        TokenService tokenService = new TokenService();
+        ReflectionTestUtils.setField(tokenService, "secret", secret);
+        ReflectionTestUtils.setField(tokenService, "ttlMinutes", ttlMinutes);
+        tokenService.init();
+        return tokenService;
+    }
+
+    @Test
+    void anIssuedTokenVerifiesToItsClaims() {
+        TokenService tokens = tokenService("secret", 60);
+
+        TokenService.Claims claims = tokens.verify(tokens.issue("admin", "ADMIN"));
+
+        assertThat(claims.username()).isEqualTo("admin");
+        assertThat(claims.isAdmin()).isTrue();
+        assertThat(claims.expiresAtEpochSecond()).isGreaterThan(System.currentTimeMillis() / 1000);
+    }
+
+    @Test
+    void forgedExpiredAndMalformedTokensAreRejected() {
+        TokenService tokens = tokenService("secret", 60);
+        String token = tokens.issue("user", "USER");
+        String otherPayload = tokens.issue("admin", "ADMIN").split("\\.")[0];
+
+        assertThat(tokens.verify(otherPayload + token.substring(token.indexOf('.')))).isNull();
+        assertThat(tokenService("other secret", 60).verify(token)).isNull();
+        assertThat(tokenService("secret", -1).verify(tokenService("secret", -1).issue("user", "USER"))).isNull();
+        assertThat(tokens.verify("")).isNull();
+        assertThat(tokens.verify("no-dot")).isNull();
+        assertThat(tokens.verify(token + ".")).isNull();
+        assertThat(tokens.verify("x".repeat(2000))).isNull();
+    }
+
+    @Test
+    void tokensFromASharedSecretWorkOnEveryNode() {
+        String token = tokenService("shared", 60).issue("admin", "ADMIN");
+
+        assertThat(tokenService("shared", 60).verify(token)).isNotNull();
+    }
+
+    @Test
+    void manyThreadsCanVerifyAtOnce() throws Exception {
+        // More threads than pooled Macs, so some borrow a fresh one and drop it
+        TokenService tokens = tokenService("secret", 60);
+        ExecutorService pool = Executors.newFixedThreadPool(100);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 100; t++) {
+                String username = "user" + t;
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 200; i++) {
+                        TokenService.Claims claims = tokens.verify(tokens.issue(username, "USER"));
+                        if (claims == null || !claims.username().equals(username)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
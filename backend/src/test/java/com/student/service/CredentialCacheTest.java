@@ -0,0 +1,193 @@
+package com.student.service;
+
+import com.student.model.User;
+import com.student.repository.UserRepository;
+import com.student.security.PasswordHasher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CredentialCacheTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Spy
+    private PasswordHasher passwordHasher = new PasswordHasher();
+
+    @InjectMocks
+    private CredentialCache cache;
+
+    @InjectMocks
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(passwordHasher, "iterations", 1000);
+        ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+        ReflectionTestUtils.setField(cache, "negativeTtlSeconds", 60L);
+        ReflectionTestUtils.setField(cache, "maxSize", 3);
+        ReflectionTestUtils.setField(cache, "negativeMaxSize", 2);
+        ReflectionTestUtils.setField(userService, "credentialCache", cache);
+        when(userRepository.findByUsername(anyString())).thenReturn(Optional.empty());
+    }
+
+    private void userExists(long id, String username, String password) {
+        User user = new User(username, password, "ADMIN");
+        user.setId(id);
+        when(userRepository.findByUsername(username)).thenReturn(Optional.of(user));
+    }
+
+    // ─── LOOKUPS ───────────────────────────────────────────────────────────────
+
+    @Test
+    void aSecondLookupIsServedFromMemoryIgnoringCase() {
+        userExists(1, "admin", "admin123");
+
+        CredentialCache.Credential first = cache.lookup("admin");
+        CredentialCache.Credential second = cache.lookup("ADMIN");
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.storedInPlainText()).isTrue();
+        assertThat(passwordHasher.isHash(first.passwordHash())).isTrue();
+        verify(userRepository, times(1)).findByUsername(anyString());
+    }
+
+    @Test
+    void unknownUsernamesAreRememberedToo() {
+        assertThat(cache.lookup("nobody")).isNull();
+        assertThat(cache.lookup("nobody")).isNull();
+
+        verify(userRepository, times(1)).findByUsername("nobody");
+    }
+
+    // ─── BOUNDS ────────────────────────────────────────────────────────────────
+
+    @Test
+    void aFullCacheDropsOnlyTheLeastRecentlyUsedAccount() {
+        userExists(1, "a", "pw");
+        userExists(2, "b", "pw");
+        userExists(3, "c", "pw");
+        userExists(4, "d", "pw");
+        cache.lookup("a");
+        cache.lookup("b");
+        cache.lookup("c");
+        cache.lookup("a"); // "b" is now the oldest
+
+        cache.lookup("d");
+
+        cache.lookup("a");
+        cache.lookup("c");
+        cache.lookup("d");
+        verify(userRepository, times(1)).findByUsername("a");
+        verify(userRepository, times(1)).findByUsername("c");
+        cache.lookup("b");
+        verify(userRepository, times(2)).findByUsername("b");
+    }
+
+    @Test
+    void sprayingUnknownUsernamesKeepsRealAccountsCached() {
+        userExists(1, "admin", "pw");
+        cache.lookup("admin");
+
+        for (int i = 0; i < 1000; i++) {
+            cache.lookup("guess" + i);
+        }
+
+        assertThat(cache.size()).isEqualTo(1 + 2);
+        assertThat(cache.lookup("admin")).isNotNull();
+        verify(userRepository, times(1)).findByUsername("admin");
+    }
+
+    @Test
+    void invalidateForgetsACachedNegative() {
+        cache.lookup("newbie");
+        userExists(5, "newbie", "pw");
+
+        cache.invalidate("newbie");
+
+        assertThat(cache.lookup("newbie")).isNotNull();
+    }
+
+    @Test
+    void aLoadRacingADeleteIsNotCached() {
+        User ghost = new User("ghost", "pw", "USER");
+        ghost.setId(9L);
+        when(userRepository.findByUsername("ghost")).thenAnswer(inv -> {
+            // The row was read, then the user was deleted before the load finished
+            cache.invalidate("ghost");
+            return Optional.of(ghost);
+        }).thenReturn(Optional.empty());
+
+        assertThat(cache.lookup("ghost")).isNotNull();
+
+        assertThat(cache.lookup("ghost")).isNull();
+        verify(userRepository, times(2)).findByUsername("ghost");
+    }
+
+    @Test
+    void aLoadRacingACreateDoesNotRememberTheUserAsUnknown() {
+        User newbie = new User("newbie", "pw", "USER");
+        newbie.setId(5L);
+        when(userRepository.findByUsername("newbie")).thenAnswer(inv -> {
+            // Nothing found, then the user was created before the load finished
+            cache.invalidate("newbie");
+            return Optional.empty();
+        }).thenReturn(Optional.of(newbie));
+
+        assertThat(cache.lookup("newbie")).isNull();
+
+        assertThat(cache.lookup("newbie")).isNotNull();
+    }
+
+    @Test
+    void aRehashAfterADeleteDoesNotBringTheUserBack() {
+        userExists(1, "admin", "pw");
+        CredentialCache.Credential credential = cache.lookup("admin");
+        cache.invalidate("admin");
+
+        cache.put(new CredentialCache.Credential(credential.id(), "admin", "ADMIN", credential.passwordHash(), false));
+
+        assertThat(cache.size()).isZero();
+    }
+
+    // ─── LOGIN ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void loginChecksTheHashAndUpgradesPlainText() {
+        userExists(1, "admin", "admin123");
+        when(userRepository.findById(1L)).thenAnswer(inv -> userRepository.findByUsername("admin"));
+
+        assertThat(userService.login("admin", "wrong")).isNull();
+        assertThat(userService.login("admin", "admin123").getUsername()).isEqualTo("admin");
+
+        assertThat(cache.lookup("admin").storedInPlainText()).isFalse();
+        verify(passwordHasher, never()).matchDecoy(anyString());
+    }
+
+    @Test
+    void anUnknownUsernameStillCostsAHashCheck() {
+        assertThat(userService.login("nobody", "secret")).isNull();
+
+        verify(passwordHasher).matchDecoy("secret");
+        verify(passwordHasher).matches(anyString(), anyString());
+    }
+}
@@ -0,0 +1,139 @@
+package com.student.service;
+
+import com.student.dto.StudentChanges;
+import com.student.model.ChangeReservation;
+import com.student.model.Student;
+import com.student.repository.ChangeReservationRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class StudentChangeLogTest {
+
+    @Autowired
+    private StudentChangeLog changeLog;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private ChangeReservationRepository reservationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Student student(String email) {
+        return new Student("Log Test", email, "MCA", "Civil");
+    }
+
+    @Test
+    void aWriteStillInFlightHoldsTheWatermarkBackButNotOtherWriters() throws Exception {
+        long before = changeLog.current().getValue();
+        CountDownLatch numbered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Long> slow = CompletableFuture.supplyAsync(() -> changeLog.execute(1, status -> {
+            long seq = changeLog.next();
+            numbered.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return seq;
+        }));
+        assertThat(numbered.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Not blocked by the open transaction, but not visible to sync yet either
+        Student fast = studentService.addStudent(student("inflight-fast@example.edu"));
+        StudentChanges meanwhile = studentService.getChangesSince(before, 10);
+        assertThat(fast.getChangeSeq()).isGreaterThan(before + 1);
+        assertThat(meanwhile.getWatermark()).isEqualTo(before);
+        assertThat(meanwhile.getUpserts()).isEmpty();
+
+        release.countDown();
+        long slowSeq = slow.get(10, TimeUnit.SECONDS);
+
+        StudentChanges after = studentService.getChangesSince(before, 10);
+        assertThat(slowSeq).isEqualTo(before + 1);
+        assertThat(after.getWatermark()).isEqualTo(fast.getChangeSeq());
+        assertThat(after.getUpserts()).extracting(Student::getEmail).contains("inflight-fast@example.edu");
+    }
+
+    @Test
+    void changesListSavesAndDeletesInChangeOrder() {
+        long before = changeLog.current().getValue();
+        Student kept = studentService.addStudent(student("sync-kept@example.edu"));
+        Student gone = studentService.addStudent(student("sync-gone@example.edu"));
+        studentService.deleteStudent(gone.getId());
+
+        StudentChanges firstPage = studentService.getChangesSince(before, 1);
+        StudentChanges rest = studentService.getChangesSince(firstPage.getWatermark(), 10);
+
+        assertThat(firstPage.getUpserts()).extracting(Student::getId).containsExactly(kept.getId());
+        assertThat(firstPage.isHasMore()).isTrue();
+        assertThat(rest.getUpserts()).isEmpty(); // deleted since: only its tombstone is left
+        assertThat(rest.getDeletes()).containsExactly(gone.getId());
+        assertThat(rest.isHasMore()).isFalse();
+        assertThat(rest.getWatermark()).isEqualTo(changeLog.current().getValue());
+    }
+
+    @Test
+    void aRolledBackWriteGivesItsReservationBack() {
+        assertThatThrownBy(() -> changeLog.execute(3, status -> {
+            changeLog.reserve(3);
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(reservationRepository.lowestOpen()).isNull();
+        Student next = studentService.addStudent(student("after-rollback@example.edu"));
+        assertThat(changeLog.current().getValue()).isEqualTo(next.getChangeSeq());
+    }
+
+    @Test
+    void numbersBeyondTheReservedBlockAreTakenAsWell() {
+        long[] seqs = changeLog.execute(1, status -> new long[] { changeLog.next(), changeLog.next() });
+
+        assertThat(seqs[1]).isGreaterThan(seqs[0]);
+        assertThat(reservationRepository.lowestOpen()).isNull();
+        assertThat(changeLog.current().getValue()).isGreaterThanOrEqualTo(seqs[1]);
+    }
+
+    @Test
+    void maintenanceDropsReservationsOfWritersThatDied() {
+        long seq = studentService.addStudent(student("before-crash@example.edu")).getChangeSeq();
+        // As left behind by a node that died between taking a number and committing
+        reservationRepository.save(new ChangeReservation(seq, Instant.now().minusSeconds(3600)));
+        assertThat(changeLog.current().getValue()).isEqualTo(seq - 1);
+
+        changeLog.maintain();
+
+        assertThat(changeLog.current().getValue()).isEqualTo(seq);
+    }
+
+    @Test
+    void maintenanceNumbersStudentsInsertedOutsideTheApplication() {
+        // As inserted by setup.sql or by hand: no change number
+        jdbcTemplate.update("INSERT INTO students (name, email, course, department) VALUES (?, ?, ?, ?)",
+                "Outside", "outside@example.edu", "MCA", "Civil");
+        long before = changeLog.current().getValue();
+
+        changeLog.maintain();
+
+        StudentChanges changes = studentService.getChangesSince(before, 10);
+        assertThat(changes.getUpserts()).extracting(Student::getEmail).containsExactly("outside@example.edu");
+        assertThat(changes.getWatermark()).isGreaterThan(before);
+    }
+}
@@ -0,0 +1,69 @@
+package com.student.service;
+
+import com.student.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static com.student.TestStudents.student;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StudentChangePublisherTest {
+
+    @Mock
+    private StudentChangeListener listener;
+
+    @Mock
+    private StudentOutbox outbox;
+
+    private final StudentChangePublisher publisher = new StudentChangePublisher();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(publisher, "listeners", List.of(listener));
+        ReflectionTestUtils.setField(publisher, "outbox", outbox);
+    }
+
+    @Test
+    void savesAndDeletesReachEveryListener() {
+        Student saved = student(1, "Ali Khan", 1);
+
+        publisher.publishSaved(null, saved);
+        publisher.publishDeleted(saved, 2);
+
+        InOrder order = inOrder(listener);
+        order.verify(listener).onStudentSaved(null, saved);
+        order.verify(listener).onStudentDeleted(saved);
+    }
+
+    @Test
+    void aSaveArrivingAfterItsDeleteIsFlaggedAsSuch() {
+        Student saved = student(1, "Ali Khan", 1);
+
+        publisher.publishDeleted(saved, 2);
+        publisher.publishSaved(null, saved);
+
+        verify(listener).onStudentSavedAfterDelete(null, saved);
+        verify(listener, never()).onStudentSaved(any(), any());
+    }
+
+    @Test
+    void otherStudentsAreNotAffectedByADelete() {
+        publisher.publishDeleted(student(1, "Ali Khan", 1), 2);
+        Student other = student(2, "Ali Khan", 3);
+
+        publisher.publishSaved(null, other);
+
+        verify(listener).onStudentSaved(null, other);
+    }
+}
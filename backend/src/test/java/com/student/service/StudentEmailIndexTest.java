@@ -0,0 +1,87 @@
+package com.student.service;
+
+import com.student.TestStudents;
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentEmailIndexTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private ShardedStudentRepository shards;
+
+    @InjectMocks
+    private StudentEmailIndex index;
+
+    private static Student withEmail(long id, String email, long changeSeq) {
+        Student student = TestStudents.student(id, "Student " + id, changeSeq);
+        student.setEmail(email);
+        return student;
+    }
+
+    private void build(Student... students) {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        when(studentRepository.streamAllOrderById()).thenReturn(List.of(students).stream());
+        index.build();
+    }
+
+    @Test
+    void aTakenEmailIsRefusedIgnoringCase() {
+        build(withEmail(1, "ali@example.edu", 1));
+
+        assertThatThrownBy(() -> index.claim(" ALI@example.edu", null))
+                .isInstanceOf(StudentEmailIndex.DuplicateEmailException.class);
+        index.release(index.claim("ali@example.edu", 1L)); // its own email
+    }
+
+    @Test
+    void twoWritesInFlightCannotClaimTheSameEmail() {
+        build();
+
+        StudentEmailIndex.Claim first = index.claim("new@example.edu", null);
+        assertThatThrownBy(() -> index.claim("NEW@example.edu", null))
+                .isInstanceOf(StudentEmailIndex.DuplicateEmailException.class);
+
+        index.release(first);
+        index.release(index.claim("new@example.edu", null));
+    }
+
+    @Test
+    void anOlderSaveArrivingLateDoesNotTakeTheEmailBack() {
+        build(withEmail(1, "old@example.edu", 1));
+
+        index.onStudentSaved(null, withEmail(1, "newest@example.edu", 3));
+        index.onStudentSaved(null, withEmail(1, "middle@example.edu", 2));
+
+        index.release(index.claim("old@example.edu", 2L));
+        index.release(index.claim("middle@example.edu", 2L));
+        assertThatThrownBy(() -> index.claim("newest@example.edu", 2L))
+                .isInstanceOf(StudentEmailIndex.DuplicateEmailException.class);
+    }
+
+    @Test
+    void aDeletedStudentsEmailIsFreeAgain() {
+        build(withEmail(1, "gone@example.edu", 1));
+
+        index.onStudentDeleted(withEmail(1, "gone@example.edu", 1));
+
+        assertThat(index.isReady()).isTrue();
+        index.release(index.claim("gone@example.edu", null));
+    }
+}
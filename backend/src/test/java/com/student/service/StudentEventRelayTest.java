@@ -0,0 +1,239 @@
+package com.student.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.controller.StudentController;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StudentEventRelayTest {
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    @Mock
+    private StudentOutbox outbox;
+
+    @TempDir
+    private Path dir;
+
+    private final List<StudentOutbox.Event> events = new ArrayList<>();
+    private final List<StudentEventRelay> relays = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(outbox.isEnabled()).thenReturn(true);
+        // The outbox table: events after a change number, in change order
+        when(outbox.readAfter(anyLong(), anyInt())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            int limit = invocation.getArgument(1);
+            return events.stream().filter(e -> e.changeSeq() > after).limit(limit).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        relays.forEach(StudentEventRelay::close);
+    }
+
+    private StudentEventRelay relay(String fileSinkPath) throws Exception {
+        StudentEventRelay relay = new StudentEventRelay();
+        ReflectionTestUtils.setField(relay, "batchSize", 2);
+        ReflectionTestUtils.setField(relay, "sseTimeoutMs", 60_000L);
+        ReflectionTestUtils.setField(relay, "sseQueueBatches", 2);
+        ReflectionTestUtils.setField(relay, "fileSinkPath", fileSinkPath);
+        ReflectionTestUtils.setField(relay, "outbox", outbox);
+        ReflectionTestUtils.setField(relay, "objectMapper", MAPPER);
+        relay.init();
+        relays.add(relay);
+        return relay;
+    }
+
+    private void append(long changeSeq) {
+        events.add(new StudentOutbox.Event(events.size() + 1, "SAVED", changeSeq, changeSeq,
+                Instant.parse("2026-01-01T00:00:00Z"), "{\"id\":" + changeSeq + "}"));
+    }
+
+    /** GET /api/students/events through StudentController, left open. */
+    private MvcResult subscribe(StudentEventRelay relay, String lastEventId, Filter... filters) throws Exception {
+        StudentController controller = new StudentController();
+        ReflectionTestUtils.setField(controller, "studentOutbox", outbox);
+        ReflectionTestUtils.setField(controller, "eventRelay", relay);
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).addFilters(filters).build();
+        return mvc.perform(lastEventId == null ? get("/api/students/events")
+                        : get("/api/students/events").header("Last-Event-ID", lastEventId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    /** The stream so far, once it holds at least the expected text (sender threads write it). */
+    private static String received(MvcResult subscriber, String expected) throws Exception {
+        String content = subscriber.getResponse().getContentAsString();
+        for (int i = 0; i < 500 && content.length() < expected.length(); i++) {
+            Thread.sleep(10);
+            content = subscriber.getResponse().getContentAsString();
+        }
+        return content;
+    }
+
+    /** A client that stopped reading: writes to its connection hang until released. */
+    private static Filter stalledUntil(CountDownLatch release) {
+        return (request, response, chain) -> chain.doFilter(request,
+                new HttpServletResponseWrapper((HttpServletResponse) response) {
+                    @Override
+                    public ServletOutputStream getOutputStream() throws IOException {
+                        ServletOutputStream out = super.getOutputStream();
+                        return new ServletOutputStream() {
+                            @Override
+                            public void write(int b) throws IOException {
+                                write(new byte[] { (byte) b }, 0, 1);
+                            }
+
+                            @Override
+                            public void write(byte[] b, int off, int len) throws IOException {
+                                try {
+                                    release.await(10, TimeUnit.SECONDS);
+                                } catch (InterruptedException e) {
+                                    throw new InterruptedIOException();
+                                }
+                                out.write(b, off, len);
+                            }
+
+                            @Override
+                            public boolean isReady() {
+                                return true;
+                            }
+
+                            @Override
+                            public void setWriteListener(WriteListener listener) {
+                            }
+                        };
+                    }
+                });
+    }
+
+    // ─── FILE SINK ─────────────────────────────────────────────────────────────
+
+    @Test
+    void theFileSinkGetsEveryEventOnceAndResumesFromItsOffset() throws Exception {
+        Path file = dir.resolve("events/students.jsonl");
+        append(3);
+        append(5);
+        append(6);
+
+        relay(file.toString()).relay(); // two batches: a full one and the rest
+        append(9);
+        relay(file.toString()).relay(); // after a restart
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(4);
+        assertThat(lines).extracting(line -> MAPPER.readTree(line).get("changeSeq").asLong())
+                .containsExactly(3L, 5L, 6L, 9L);
+        assertThat(MAPPER.readTree(lines.get(0)).get("student").get("id").asLong()).isEqualTo(3);
+        assertThat(Files.readString(dir.resolve("events/students.jsonl.offset"))).isEqualTo("9");
+    }
+
+    // ─── SSE ───────────────────────────────────────────────────────────────────
+
+    @Test
+    void subscribersGetOnlyWhatTheyHaveNotSeenOneMessagePerBatch() throws Exception {
+        StudentEventRelay relay = relay("");
+        when(outbox.watermark()).thenReturn(4L);
+        append(3);
+        append(5);
+        append(6);
+
+        MvcResult fromNow = subscribe(relay, null);
+        MvcResult resumed = subscribe(relay, "2");
+        relay.relay();
+
+        // Batches are read from the lowest offset: [3, 5] then [6]
+        String resumedExpected = message(5, events.subList(0, 2)) + message(6, events.subList(2, 3));
+        String fromNowExpected = message(5, events.subList(1, 2)) + message(6, events.subList(2, 3));
+        assertThat(received(resumed, resumedExpected)).isEqualTo(resumedExpected);
+        assertThat(received(fromNow, fromNowExpected)).isEqualTo(fromNowExpected);
+    }
+
+    private static String message(long id, List<StudentOutbox.Event> batch) throws Exception {
+        return "event:students\nid:" + id + "\ndata:" + MAPPER.writeValueAsString(batch) + "\n\n";
+    }
+
+    @Test
+    void aSubscriberBehindThePurgeIsToldToResync() throws Exception {
+        StudentEventRelay relay = relay("");
+        when(outbox.purgedThrough()).thenReturn(5L);
+        append(6);
+
+        MvcResult subscriber = subscribe(relay, "2");
+        relay.relay();
+
+        String resync = "event:resync\nid:5\ndata:{\"purgedThrough\":5}\n\n";
+        assertThat(received(subscriber, resync + message(6, events)))
+                .startsWith(resync)
+                .contains("event:students\nid:6\n");
+    }
+
+    @Test
+    void aStalledSubscriberHoldsUpNeitherTheRelayNorOthersAndIsDropped() throws Exception {
+        StudentEventRelay relay = relay("");
+        CountDownLatch release = new CountDownLatch(1);
+        MvcResult stalled = subscribe(relay, "0", stalledUntil(release));
+        MvcResult healthy = subscribe(relay, "0");
+
+        // One event per run, each read by the healthy one before the next; the stalled
+        // one has 1 being written and 2 and 3 queued, so at 4 it is behind
+        StringBuilder expected = new StringBuilder();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (long seq = 1; seq <= 6; seq++) {
+                append(seq);
+                relay.relay();
+                expected.append(message(seq, events.subList(events.size() - 1, events.size())));
+                assertThat(received(healthy, expected.toString())).isEqualTo(expected.toString());
+            }
+        });
+        assertThat((List<?>) ReflectionTestUtils.getField(relay, "sinks")).hasSize(1);
+
+        // Once its write returns, its connection is closed; EventSource resumes from Last-Event-ID
+        release.countDown();
+        stalled.getAsyncResult(5000);
+        assertThat(stalled.getResponse().getContentAsString()).isIn("", message(1, events.subList(0, 1)));
+    }
+}
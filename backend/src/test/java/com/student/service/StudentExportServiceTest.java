@@ -0,0 +1,169 @@
+package com.student.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "student.export.group-rows=2")
+@ActiveProfiles("test")
+class StudentExportServiceTest {
+
+    @Autowired
+    private StudentExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM students");
+        jdbcTemplate.update("INSERT INTO students (id, name, email, course, department) VALUES"
+                + " (3, 'Ali Khan', 'ali@example.edu', 'MCA', 'Civil'),"
+                + " (10, 'Diya \"D\" Rao', 'diya@example.edu', 'MBA', 'Management'),"
+                + " (11, 'Neha, Das', 'neha@example.edu', 'MCA', 'Civil'),"
+                + " (500, 'Zoë Émile', 'zoe@example.edu', 'B.Tech', 'Civil')");
+    }
+
+    private byte[] export(StudentExportService.Format format, StudentExportService.Compression compression)
+            throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exportService.export(format, compression, out);
+        assertThat(rows).isEqualTo(4);
+        return out.toByteArray();
+    }
+
+    // ─── CSV ───────────────────────────────────────────────────────────────────
+
+    @Test
+    void csvHasTheImportHeaderAndQuotesWhereNeeded() throws IOException {
+        String csv = new String(export(StudentExportService.Format.CSV, StudentExportService.Compression.NONE),
+                StandardCharsets.UTF_8);
+
+        assertThat(csv.split("\r?\n")).containsExactly(
+                "id,name,email,course,department",
+                "3,Ali Khan,ali@example.edu,MCA,Civil",
+                "10,\"Diya \"\"D\"\" Rao\",diya@example.edu,MBA,Management",
+                "11,\"Neha, Das\",neha@example.edu,MCA,Civil",
+                "500,Zoë Émile,zoe@example.edu,B.Tech,Civil");
+    }
+
+    @Test
+    void gzipDecompressesToTheSameCsv() throws IOException {
+        byte[] plain = export(StudentExportService.Format.CSV, StudentExportService.Compression.NONE);
+        byte[] gzip = export(StudentExportService.Format.CSV, StudentExportService.Compression.GZIP);
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            assertThat(in.readAllBytes()).isEqualTo(plain);
+        }
+    }
+
+    // ─── BINARY ────────────────────────────────────────────────────────────────
+
+    @Test
+    void binaryDecodesBackToTheRowsAcrossRowGroups() throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(export(StudentExportService.Format.BINARY, StudentExportService.Compression.NONE));
+
+        byte[] magic = new byte[5];
+        in.get(magic);
+        assertThat(magic).isEqualTo(new byte[] { 'S', 'T', 'E', 'X', 1 });
+
+        List<String> rows = new ArrayList<>();
+        List<String> courses = new ArrayList<>();
+        List<String> departments = new ArrayList<>();
+        int groups = 0;
+        long id = 0;
+        for (int count = (int) varint(in); count > 0; count = (int) varint(in)) {
+            groups++;
+            long[] ids = new long[count];
+            int idsEnd = block(in);
+            for (int i = 0; i < count; i++) {
+                ids[i] = id += varint(in);
+            }
+            assertThat(in.position()).isEqualTo(idsEnd);
+            String[] names = strings(in, count);
+            String[] emails = strings(in, count);
+            String[] course = dictionary(in, count, courses);
+            String[] department = dictionary(in, count, departments);
+            for (int i = 0; i < count; i++) {
+                rows.add(ids[i] + "|" + names[i] + "|" + emails[i] + "|" + course[i] + "|" + department[i]);
+            }
+        }
+
+        assertThat(groups).isEqualTo(2);
+        assertThat(in.hasRemaining()).isFalse();
+        assertThat(rows).containsExactly(
+                "3|Ali Khan|ali@example.edu|MCA|Civil",
+                "10|Diya \"D\" Rao|diya@example.edu|MBA|Management",
+                "11|Neha, Das|neha@example.edu|MCA|Civil",
+                "500|Zoë Émile|zoe@example.edu|B.Tech|Civil");
+        assertThat(courses).containsExactly("MCA", "MBA", "B.Tech");
+        assertThat(departments).containsExactly("Civil", "Management");
+    }
+
+    // ─── DECODING ──────────────────────────────────────────────────────────────
+
+    private static long varint(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private static String string(ByteBuffer in) {
+        int length = (int) varint(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String[] strings(ByteBuffer in, int count) {
+        int end = block(in);
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = string(in);
+        }
+        assertThat(in.position()).isEqualTo(end);
+        return values;
+    }
+
+    private static String[] dictionary(ByteBuffer in, int count, List<String> dictionary) {
+        int end = block(in);
+        for (int added = (int) varint(in); added > 0; added--) {
+            dictionary.add(string(in));
+        }
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            int code = (int) varint(in);
+            values[i] = code == 0 ? null : code == 1 ? string(in) : dictionary.get(code - 2);
+        }
+        assertThat(in.position()).isEqualTo(end);
+        return values;
+    }
+
+    /** Read a block's byte length; returns where the block ends. */
+    private static int block(ByteBuffer in) {
+        int length = (int) varint(in);
+        return in.position() + length;
+    }
+}
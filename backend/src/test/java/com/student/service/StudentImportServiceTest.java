@@ -0,0 +1,145 @@
+package com.student.service;
+
+import com.student.dto.BulkImportResult;
+import com.student.model.Student;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "student.import.batch-size=3")
+@ActiveProfiles("test")
+class StudentImportServiceTest {
+
+    @Autowired
+    private StudentImportService importService;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static ByteArrayInputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Map<String, Object> row(String email) {
+        return jdbcTemplate.queryForMap("SELECT * FROM students WHERE email = ?", email);
+    }
+
+    private static List<Long> errorRows(BulkImportResult result) {
+        return result.getErrors().stream().map(BulkImportResult.RowError::row).toList();
+    }
+
+    // ─── CSV ───────────────────────────────────────────────────────────────────
+
+    @Test
+    void csvColumnsAreFoundByNameAndQuotedFieldsAreParsed() throws IOException {
+        String csv = "\uFEFFEmail,NAME,department,course\n"
+                + "csv1@example.edu,\"Khan, Ali \"\"AK\"\"\",Computer Science,MCA\n"
+                + "\n"
+                + "csv2@example.edu,\"Diya\nRao\",Civil,B.Tech\n"
+                + "csv3@example.edu,Neha Das,Mechanical,MBA\n";
+
+        BulkImportResult result = importService.importCsv(body(csv));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getFailed()).isZero();
+        assertThat(row("csv1@example.edu")).containsEntry("name", "Khan, Ali \"AK\"").containsEntry("course", "MCA");
+        assertThat(row("csv2@example.edu")).containsEntry("name", "Diya\nRao");
+    }
+
+    @Test
+    void invalidRowsAndDuplicatesAreReportedByLineWhileTheRestIsImported() throws IOException {
+        String csv = "name,email,course,department\n"
+                + "Ali Khan,bad1@example.edu,MCA,Computer Science\n"    // line 2
+                + "No Email,,MCA,Computer Science\n"                     // line 3
+                + "Bad Email,not-an-email,MCA,Computer Science\n"        // line 4
+                + "No Course,bad2@example.edu,,Computer Science\n"       // line 5
+                + "Same Again,BAD1@example.edu,MCA,Computer Science\n"   // line 6
+                + "Diya Rao,bad3@example.edu,MCA,Civil\n";               // line 7
+
+        BulkImportResult result = importService.importCsv(body(csv));
+
+        assertThat(result.getReceived()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(errorRows(result)).containsExactly(3L, 4L, 5L, 6L);
+        assertThat(result.getErrors().get(0).message()).isEqualTo("email is required");
+    }
+
+    @Test
+    void aHeaderWithoutAllColumnsIsRefused() {
+        assertThatThrownBy(() -> importService.importCsv(body("name,email,course\nA,a@x.edu,MCA\n")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("'department'");
+    }
+
+    // ─── BATCHES ───────────────────────────────────────────────────────────────
+
+    @Test
+    void aRowTheDatabaseRejectsOnlyFailsItself() throws IOException {
+        // Written behind the application's back, so only the unique key knows it
+        jdbcTemplate.update("INSERT INTO students (name, email, course, department) VALUES (?, ?, ?, ?)",
+                "Outside", "outside@example.edu", "MCA", "Civil");
+        String csv = "name,email,course,department\n"
+                + "Batch One,batch1@example.edu,MCA,Civil\n"
+                + "Clash,outside@example.edu,MCA,Civil\n"
+                + "Batch Three,batch3@example.edu,MCA,Civil\n"
+                + "Batch Four,batch4@example.edu,MCA,Civil\n";
+
+        BulkImportResult result = importService.importCsv(body(csv));
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(errorRows(result)).containsExactly(3L);
+        assertThat(result.getErrors().get(0).message()).startsWith("Rejected by database");
+        assertThat(row("batch3@example.edu")).isNotEmpty();
+    }
+
+    @Test
+    void importedStudentsGetIdsAndChangeNumbersAndAreSearchable() throws IOException {
+        long before = studentService.currentChangeSeq();
+        StringBuilder csv = new StringBuilder("name,email,course,department\n");
+        for (int i = 0; i < 7; i++) {
+            csv.append("Zebulon Import").append(i).append(",zeb").append(i).append("@example.edu,MCA,Civil\n");
+        }
+
+        BulkImportResult result = importService.importCsv(body(csv.toString()));
+
+        assertThat(result.getImported()).isEqualTo(7);
+        List<Long> seqs = jdbcTemplate.queryForList(
+                "SELECT change_seq FROM students WHERE email LIKE 'zeb%' ORDER BY id", Long.class);
+        assertThat(seqs).hasSize(7).doesNotHaveDuplicates().allMatch(seq -> seq > before);
+        assertThat(studentService.currentChangeSeq()).isGreaterThanOrEqualTo(before + 7);
+        assertThat(studentService.searchByName("zebulon", 10)).extracting(Student::getEmail).hasSize(7);
+    }
+
+    // ─── NDJSON ────────────────────────────────────────────────────────────────
+
+    @Test
+    void ndjsonSkipsBadLinesAndIgnoresClientIds() throws IOException {
+        String ndjson = "{\"id\":999999,\"name\":\"Json One\",\"email\":\"json1@example.edu\",\"course\":\"MCA\",\"department\":\"Civil\"}\n"
+                + "{not json}\n"
+                + "\n"
+                + "{\"name\":\"Json Two\",\"email\":\"json2@example.edu\",\"course\":\"MCA\",\"department\":\"Civil\"}\n";
+
+        BulkImportResult result = importService.importNdjson(body(ndjson));
+
+        assertThat(result.getReceived()).isEqualTo(3);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(errorRows(result)).containsExactly(2L);
+        assertThat(result.getErrors().get(0).message()).startsWith("Invalid JSON");
+        assertThat((Long) row("json1@example.edu").get("id")).isNotEqualTo(999999L);
+    }
+}
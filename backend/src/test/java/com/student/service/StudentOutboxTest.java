@@ -0,0 +1,95 @@
+package com.student.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.student.model.Student;
+import com.student.model.StudentEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "student.outbox.enabled=true")
+@ActiveProfiles("test")
+class StudentOutboxTest {
+
+    @Autowired
+    private StudentOutbox outbox;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentImportService importService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void everyWriteAddsItsEventInChangeOrder() throws Exception {
+        long before = outbox.watermark();
+
+        Student added = studentService.addStudent(new Student("Ali Khan", "outbox-ali@example.edu", "MCA", "Civil"));
+        studentService.updateStudent(added.getId(), new Student("Ali Rao", null, null, null));
+        studentService.deleteStudent(added.getId());
+
+        List<StudentOutbox.Event> events = outbox.readAfter(before, 10);
+        assertThat(events).extracting(StudentOutbox.Event::type).containsExactly("SAVED", "SAVED", "DELETED");
+        assertThat(events).extracting(StudentOutbox.Event::studentId).containsOnly(added.getId());
+        assertThat(events).extracting(StudentOutbox.Event::changeSeq).isSorted().doesNotHaveDuplicates();
+        assertThat(events.get(events.size() - 1).changeSeq()).isEqualTo(outbox.watermark());
+        assertThat(objectMapper.readTree(events.get(1).student()).get("name").asText()).isEqualTo("Ali Rao");
+    }
+
+    @Test
+    void aRolledBackWriteLeavesNoEvent() {
+        long before = outbox.watermark();
+        Student ghost = new Student(-1L, "Ghost", "outbox-ghost@example.edu", "MCA", "Civil", before + 1, null);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(StudentEvent.Type.SAVED, ghost);
+            status.setRollbackOnly();
+        });
+
+        assertThat(outbox.readAfter(before, 10)).extracting(StudentOutbox.Event::studentId).doesNotContain(-1L);
+    }
+
+    @Test
+    void importedRowsGetOneEventEach() throws Exception {
+        long before = outbox.watermark();
+        String csv = "name,email,course,department\n"
+                + "Diya Rao,outbox-diya@example.edu,MBA,Management\n"
+                + "Neha Das,outbox-neha@example.edu,MCA,Civil\n";
+
+        importService.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(outbox.readAfter(before, 10)).extracting(e -> objectMapper.readTree(e.student()).get("email").asText())
+                .containsExactly("outbox-diya@example.edu", "outbox-neha@example.edu");
+    }
+
+    @Test
+    void purgedEventsAreGoneAndReportedAsPurged() {
+        studentService.addStudent(new Student("Old Event", "outbox-old@example.edu", "MCA", "Civil"));
+        long through = outbox.watermark();
+        ReflectionTestUtils.setField(outbox, "retentionHours", -1L); // everything is past retention
+
+        try {
+            outbox.purge();
+        } finally {
+            ReflectionTestUtils.setField(outbox, "retentionHours", 168L);
+        }
+
+        assertThat(outbox.purgedThrough()).isEqualTo(through);
+        assertThat(outbox.readAfter(0, 10)).isEmpty();
+    }
+}
@@ -0,0 +1,162 @@
+package com.student.service;
+
+import com.student.TestStudents;
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentSearchIndexTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private ShardedStudentRepository shards;
+
+    @InjectMocks
+    private StudentSearchIndex index;
+
+    /** Numbered by id: saved in id order. */
+    private static Student student(long id, String name) {
+        return TestStudents.student(id, name, id);
+    }
+
+    private void build(Student... students) {
+        when(studentRepository.streamAllOrderById()).thenReturn(List.of(students).stream());
+        index.build();
+    }
+
+    private static List<String> names(List<Student> students) {
+        return students.stream().map(Student::getName).toList();
+    }
+
+    // ─── SEARCH ────────────────────────────────────────────────────────────────
+
+    @Test
+    void findsNamesContainingTheQueryIgnoringCase() {
+        build(student(1, "Ali Khan"), student(2, "Diya Rao"), student(3, "Malik Iyer"), student(4, "ALINA Das"));
+
+        assertThat(names(index.search("ALI", 10))).containsExactlyInAnyOrder("Ali Khan", "Malik Iyer", "ALINA Das");
+        assertThat(index.search("zzz", 10)).isEmpty();
+    }
+
+    @Test
+    void ranksNameStartThenWordStartThenAnywhere() {
+        build(student(1, "Malik Rao"), student(2, "Sara Ali"), student(3, "Alia Dasgupta"), student(4, "Ali Khan"));
+
+        // "Ali Khan" and "Alia Dasgupta" start with it (shorter first), "Sara Ali" has a word starting with it
+        assertThat(names(index.search("ali", 10))).containsExactly("Ali Khan", "Alia Dasgupta", "Sara Ali", "Malik Rao");
+    }
+
+    @Test
+    void keepsOnlyTheBestHitsUpToTheLimit() {
+        build(student(1, "Malik Rao"), student(2, "Ali Khan"), student(3, "Sara Ali"));
+
+        assertThat(names(index.search("ali", 2))).containsExactly("Ali Khan", "Sara Ali");
+    }
+
+    @Test
+    void queriesShorterThanATrigramScanTheNames() {
+        build(student(1, "Ali Khan"), student(2, "Diya Rao"));
+
+        assertThat(names(index.search("ya", 10))).containsExactly("Diya Rao");
+    }
+
+    @Test
+    void resultsAreCopiesTheCallerMayChange() {
+        build(student(1, "Ali Khan"));
+
+        index.search("ali", 10).get(0).setName("Changed");
+
+        assertThat(names(index.search("ali", 10))).containsExactly("Ali Khan");
+    }
+
+    @Test
+    void trigramsInTheWrongOrderDoNotMatch() {
+        // "abcab" holds both trigrams of "cabc" ("cab", "abc") but not the text itself
+        build(student(1, "abcab"));
+
+        assertThat(index.search("cabc", 10)).isEmpty();
+    }
+
+    @Test
+    void matchesTheDatabaseContainsQueryOnRandomNames() {
+        Random random = new Random(7);
+        List<Student> students = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 0; i < 4 + random.nextInt(8); i++) {
+                name.append((char) ('a' + random.nextInt(4)));
+            }
+            students.add(student(id, name.toString()));
+        }
+        build(students.toArray(Student[]::new));
+
+        for (String query : List.of("ab", "abc", "dab", "abca", "cccc", "bad")) {
+            List<Long> expected = students.stream()
+                    .filter(s -> s.getName().toLowerCase(Locale.ROOT).contains(query))
+                    .map(Student::getId).sorted().toList();
+            List<Long> found = index.search(query, 1000).stream().map(Student::getId).sorted().toList();
+            assertThat(found).as(query).isEqualTo(expected);
+        }
+    }
+
+    // ─── UPDATES ───────────────────────────────────────────────────────────────
+
+    @Test
+    void savedAndDeletedStudentsAreReflectedInSearches() {
+        build(student(1, "Ali Khan"), student(2, "Diya Rao"));
+
+        index.onStudentSaved(student(1, "Ali Khan"), student(1, "Rohan Menon"));
+        index.onStudentSaved(null, student(3, "Alisha Nair"));
+        index.onStudentDeleted(student(2, "Diya Rao"));
+
+        assertThat(names(index.search("ali", 10))).containsExactly("Alisha Nair");
+        assertThat(names(index.search("rohan", 10))).containsExactly("Rohan Menon");
+        assertThat(index.search("diya", 10)).isEmpty();
+        assertThat(index.get(1L).getName()).isEqualTo("Rohan Menon");
+        assertThat(index.get(2L)).isNull();
+    }
+
+    @Test
+    void anOlderSaveArrivingLateIsIgnored() {
+        build(student(1, "Ali Khan"));
+        Student older = TestStudents.student(1, "Ali Rao", 5);
+        Student newer = TestStudents.student(1, "Ali Menon", 6);
+
+        index.onStudentSaved(null, newer);
+        index.onStudentSaved(null, older);
+
+        assertThat(index.get(1L).getName()).isEqualTo("Ali Menon");
+        assertThat(index.search("rao", 10)).isEmpty();
+    }
+
+    @Test
+    void getReturnsACopy() {
+        build(student(1, "Ali Khan"));
+
+        index.get(1L).setName("Changed");
+
+        assertThat(index.get(1L).getName()).isEqualTo("Ali Khan");
+    }
+
+    @Test
+    void nothingIsServedBeforeTheBuild() {
+        assertThat(index.isReady()).isFalse();
+        assertThat(index.get(1L)).isNull();
+    }
+}
@@ -0,0 +1,182 @@
+package com.student.service;
+
+import com.student.TestStudents;
+import com.student.cache.StudentCache;
+import com.student.dto.StudentPage;
+import com.student.model.ChangeSequence;
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StudentServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private ShardedStudentRepository shards;
+
+    @Mock
+    private StudentChangeLog changeLog;
+
+    @Mock
+    private StudentCache studentCache;
+
+    @Mock
+    private StudentEmailIndex emailIndex;
+
+    @Mock
+    private StudentWriteBehind writeBehind;
+
+    @InjectMocks
+    private StudentService service;
+
+    @BeforeEach
+    void setUp() {
+        ChangeSequence sequence = new ChangeSequence("students");
+        sequence.setValue(42L);
+        when(changeLog.current()).thenReturn(sequence);
+    }
+
+    private static List<Student> students(long fromId, int count) {
+        List<Student> rows = new ArrayList<>();
+        for (long id = fromId; id < fromId + count; id++) {
+            rows.add(TestStudents.student(id, "Student " + id, id));
+        }
+        return rows;
+    }
+
+    // ─── PAGES ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void pageReadsOneExtraRowToKnowThereIsMore() {
+        when(studentRepository.findPageAfter(10L, PageRequest.of(0, 4))).thenReturn(students(11, 4));
+
+        StudentPage page = service.getStudentsPage(10L, 3);
+
+        assertThat(page.getItems()).extracting(Student::getId).containsExactly(11L, 12L, 13L);
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextCursor()).isEqualTo("13");
+        assertThat(page.getWatermark()).isEqualTo(42L);
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        when(studentRepository.findPageAfter(0L, PageRequest.of(0, 4))).thenReturn(students(1, 2));
+
+        StudentPage page = service.getStudentsPage(null, 3);
+
+        assertThat(page.getItems()).hasSize(2);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageSizeIsClampedToTheMaximum() {
+        when(studentRepository.findPageAfter(0L, PageRequest.of(0, StudentService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(students(1, 1));
+
+        assertThat(service.getStudentsPage(0L, 100_000).getLimit()).isEqualTo(StudentService.MAX_PAGE_SIZE);
+        assertThat(service.getStudentsPage(0L, 0).getLimit()).isEqualTo(1);
+    }
+
+    // ─── CHUNKED STREAM ────────────────────────────────────────────────────────
+
+    @Test
+    void chunksFollowEachOtherByIdAndStopAtAShortOne() {
+        when(studentRepository.findPageAfter(0L, PageRequest.of(0, 2))).thenReturn(students(1, 2));
+        when(studentRepository.findPageAfter(2L, PageRequest.of(0, 2))).thenReturn(students(3, 2));
+        when(studentRepository.findPageAfter(4L, PageRequest.of(0, 2))).thenReturn(students(5, 1));
+        List<List<Long>> chunks = new ArrayList<>();
+
+        service.streamAllStudentsInChunks(2, chunk -> chunks.add(chunk.stream().map(Student::getId).toList()));
+
+        assertThat(chunks).containsExactly(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+        verify(studentRepository, never()).findPageAfter(5L, PageRequest.of(0, 2));
+    }
+
+    @Test
+    void theNextChunkIsOnlyReadOnceTheSinkHasTakenThePreviousOne() {
+        when(studentRepository.findPageAfter(0L, PageRequest.of(0, 2))).thenReturn(students(1, 2));
+        when(studentRepository.findPageAfter(2L, PageRequest.of(0, 2))).thenReturn(List.of());
+
+        service.streamAllStudentsInChunks(2, chunk -> {
+            // A slow client: nothing more has been read while its chunk is being written
+            verify(studentRepository, never()).findPageAfter(2L, PageRequest.of(0, 2));
+        });
+
+        verify(studentRepository).findPageAfter(2L, PageRequest.of(0, 2));
+    }
+
+    // ─── GET BY ID (READ-THROUGH CACHE) ────────────────────────────────────────
+
+    @Test
+    void aCachedStudentIsServedWithoutTheDatabase() {
+        Student cached = students(5, 1).get(0);
+        when(studentCache.get(5L)).thenReturn(cached);
+
+        assertThat(service.getStudentById(5L)).containsSame(cached);
+        verify(studentRepository, never()).readById(anyLong());
+    }
+
+    @Test
+    void aMissIsLoadedAndCachedWithTheStampTakenBeforeTheRead() {
+        Student loaded = students(5, 1).get(0);
+        when(studentCache.stamp(5L)).thenReturn(9L);
+        when(studentRepository.readById(5L)).thenReturn(Optional.of(loaded));
+
+        assertThat(service.getStudentById(5L)).containsSame(loaded);
+        verify(studentCache).putIfUnchanged(loaded, 9L);
+    }
+
+    // ─── DUPLICATE EMAILS ──────────────────────────────────────────────────────
+
+    @Test
+    void aDuplicateKeyFromTheDatabaseIsReportedLikeOneFoundUpFront() {
+        StudentEmailIndex.Claim claim = StudentEmailIndex.Claim.NONE;
+        when(emailIndex.claim("ali@example.edu", null)).thenReturn(claim);
+        when(changeLog.execute(anyInt(), any())).thenThrow(new DataIntegrityViolationException("insert",
+                new SQLException("Duplicate entry 'ali@example.edu' for key 'uk_students_email'", "23000", 1062)));
+
+        assertThatThrownBy(() -> service.addStudent(new Student("Ali Khan", "ali@example.edu", "MCA", "Civil")))
+                .isInstanceOf(StudentEmailIndex.DuplicateEmailException.class)
+                .hasMessage("A student with email ali@example.edu already exists.");
+        verify(emailIndex).release(claim);
+    }
+
+    @Test
+    void otherConstraintViolationsPassThrough() {
+        DataIntegrityViolationException notNull = new DataIntegrityViolationException("update",
+                new SQLException("Column 'name' cannot be null", "23000", 1048));
+        when(changeLog.execute(anyInt(), any())).thenThrow(notNull);
+
+        assertThatThrownBy(() -> service.updateStudent(1L, new Student(null, "ali@example.edu", null, null)))
+                .isSameAs(notNull);
+    }
+}
@@ -0,0 +1,150 @@
+package com.student.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.student.dto.StudentChanges;
+import com.student.TestStudents;
+import com.student.model.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentSnapshotTest {
+
+    private static final JsonMapper MAPPER = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Mock
+    private StudentService studentService;
+
+    private StudentSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        snapshot = snapshot(false);
+    }
+
+    private StudentSnapshot snapshot(boolean offHeap) {
+        StudentSnapshot created = new StudentSnapshot();
+        ReflectionTestUtils.setField(created, "enabled", true);
+        ReflectionTestUtils.setField(created, "offHeap", offHeap);
+        ReflectionTestUtils.setField(created, "compactThreshold", 2);
+        ReflectionTestUtils.setField(created, "studentService", studentService);
+        return created;
+    }
+
+    private static Student student(long id, String name, String course, long changeSeq) {
+        Student student = TestStudents.student(id, name, changeSeq);
+        student.setCourse(course);
+        return student;
+    }
+
+    private static final List<Student> ROWS = List.of(
+            student(1, "Ali Khan", "MCA", 10),
+            student(2, "Zoë \"Z\" Émile", "MBA", 11),
+            student(5, "Neha Das", "MCA", 12));
+
+    private static JsonNode json(StudentSnapshot.Page page) {
+        return MAPPER.valueToTree(page);
+    }
+
+    private static List<Long> ids(JsonNode page) {
+        return page.get("items").findValues("id").stream().map(JsonNode::asLong).toList();
+    }
+
+    private static String ndjson(StudentSnapshot snapshot) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = MAPPER.getFactory().createGenerator(out)) {
+            snapshot.writeAll(generator);
+        }
+        return out.toString();
+    }
+
+    // ─── READ ──────────────────────────────────────────────────────────────────
+
+    @Test
+    void pagesCarryTheSameJsonAsTheEntities() {
+        snapshot.load(ROWS, 12);
+
+        JsonNode first = json(snapshot.page(null, 2));
+        JsonNode rest = json(snapshot.page(first.get("nextCursor").asLong(), 2));
+
+        assertThat(first.get("items")).isEqualTo(MAPPER.valueToTree(ROWS.subList(0, 2)));
+        assertThat(first.get("hasMore").asBoolean()).isTrue();
+        assertThat(first.get("watermark").asLong()).isEqualTo(12);
+        assertThat(rest.get("items")).isEqualTo(MAPPER.valueToTree(ROWS.subList(2, 3)));
+        assertThat(rest.get("hasMore").asBoolean()).isFalse();
+        assertThat(rest.get("nextCursor").isNull()).isTrue();
+    }
+
+    @Test
+    void offHeapColumnsWriteTheSameBytes() throws IOException {
+        StudentSnapshot offHeap = snapshot(true);
+        snapshot.load(ROWS, 12);
+        offHeap.load(ROWS, 12);
+
+        assertThat(offHeap.offHeapBytes()).isPositive();
+        assertThat(ndjson(offHeap)).isEqualTo(ndjson(snapshot));
+        assertThat(json(offHeap.page(null, 10))).isEqualTo(json(snapshot.page(null, 10)));
+    }
+
+    // ─── KEEP IN SYNC ──────────────────────────────────────────────────────────
+
+    @Test
+    void localWritesShowUpAtOnceAndOlderSavesAreIgnored() {
+        snapshot.load(ROWS, 12);
+        String version = snapshot.page(null, 10).getVersion();
+
+        snapshot.onStudentSaved(null, student(3, "New Row", "MBA", 13));
+        snapshot.onStudentSaved(null, student(1, "Renamed", "MCA", 14));
+        snapshot.onStudentSaved(null, student(1, "Stale", "MCA", 9)); // arrived late
+        snapshot.onStudentDeleted(ROWS.get(1));
+
+        StudentSnapshot.Page page = snapshot.page(null, 10);
+        JsonNode json = json(page);
+        assertThat(ids(json)).containsExactly(1L, 3L, 5L);
+        assertThat(json.get("items").get(0).get("name").asText()).isEqualTo("Renamed");
+        assertThat(page.getVersion()).isNotEqualTo(version);
+    }
+
+    @Test
+    void refreshPullsOtherNodesChangesAndCompactsThemIn() throws IOException {
+        snapshot.load(ROWS, 12);
+        when(studentService.getChangesSince(eq(12L), anyInt())).thenReturn(new StudentChanges(
+                List.of(student(7, "Other Node", "MBA", 13), student(5, "Neha D", "MCA", 14)),
+                List.of(1L), 15, false, false));
+
+        snapshot.refresh();
+
+        JsonNode json = json(snapshot.page(null, 10));
+        assertThat(ids(json)).containsExactly(2L, 5L, 7L);
+        assertThat(json.get("watermark").asLong()).isEqualTo(15);
+        // Compacted: only the delete is kept, until a refresh that started after it
+        assertThat(overlaySize()).isEqualTo(1);
+        assertThat(ndjson(snapshot).lines()).hasSize(3);
+    }
+
+    private int overlaySize() {
+        Object state = ReflectionTestUtils.getField(snapshot, "state");
+        return ((Map<?, ?>) ReflectionTestUtils.getField(state, "overlay")).size();
+    }
+}
@@ -0,0 +1,114 @@
+package com.student.service;
+
+import com.student.TestStudents;
+import com.student.model.Student;
+import com.student.repository.ShardedStudentRepository;
+import com.student.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentStatsServiceTest {
+
+    @Mock
+    private StudentRepository studentRepository;
+
+    @Mock
+    private ShardedStudentRepository shards;
+
+    @InjectMocks
+    private StudentStatsService stats;
+
+    private static Student student(long id, String course, String department) {
+        Student student = TestStudents.student(id, "Student " + id);
+        student.setCourse(course);
+        student.setDepartment(department);
+        return student;
+    }
+
+    private void databaseHas(List<Object[]> departments, List<Object[]> courses) {
+        when(studentRepository.countByDepartment()).thenReturn(departments);
+        when(studentRepository.countByCourse()).thenReturn(courses);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Long> counts(String key) {
+        return (Map<String, Long>) stats.snapshot().get(key);
+    }
+
+    @Test
+    void startsFromTheDatabaseCounts() {
+        databaseHas(List.<Object[]>of(new Object[] { "Civil", 2L }, new Object[] { "Management", 3L }),
+                List.<Object[]>of(new Object[] { "MCA", 5L }));
+
+        assertThat(stats.isReady()).isFalse();
+        stats.reconcile();
+
+        assertThat(stats.isReady()).isTrue();
+        assertThat(stats.total()).isEqualTo(5);
+        assertThat(counts("byDepartment")).isEqualTo(Map.of("Civil", 2L, "Management", 3L));
+        assertThat(counts("byCourse")).isEqualTo(Map.of("MCA", 5L));
+    }
+
+    @Test
+    void addsMovesAndDeletesAdjustTheCounters() {
+        stats.onStudentSaved(null, student(1, "MCA", "Civil"));
+        stats.onStudentSaved(null, student(2, "MCA", "Civil"));
+        stats.onStudentSaved(student(2, "MCA", "Civil"), student(2, "MBA", "Management"));
+        stats.onStudentSaved(student(1, "MCA", "Civil"), student(1, "MCA", "Civil")); // name-only change
+        stats.onStudentDeleted(student(1, "MCA", "Civil"));
+
+        assertThat(stats.total()).isEqualTo(1);
+        assertThat(counts("byDepartment")).isEqualTo(Map.of("Management", 1L));
+        assertThat(counts("byCourse")).isEqualTo(Map.of("MBA", 1L));
+    }
+
+    @Test
+    void reconcileRepairsDriftAndDropsVanishedKeys() {
+        stats.onStudentSaved(null, student(1, "MCA", "Civil"));
+        stats.onStudentSaved(null, student(2, "BCA", "Electrical"));
+        // Meanwhile someone deleted student 2 and added two rows directly in MySQL
+        databaseHas(List.<Object[]>of(new Object[] { "Civil", 3L }), List.<Object[]>of(new Object[] { "MCA", 3L }));
+
+        stats.reconcile();
+
+        assertThat(stats.total()).isEqualTo(3);
+        assertThat(counts("byDepartment")).isEqualTo(Map.of("Civil", 3L));
+        assertThat(counts("byCourse")).isEqualTo(Map.of("MCA", 3L));
+    }
+
+    @Test
+    void concurrentWritesAreAllCounted() throws InterruptedException {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    Student s = student(thread * 1000L + i, i % 2 == 0 ? "MCA" : "MBA", "Civil");
+                    stats.onStudentSaved(null, s);
+                    if (i % 4 == 0) {
+                        stats.onStudentDeleted(s);
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(stats.total()).isEqualTo(6000);
+        assertThat(counts("byDepartment")).isEqualTo(Map.of("Civil", 6000L));
+        assertThat(counts("byCourse")).isEqualTo(Map.of("MCA", 2000L, "MBA", 4000L));
+    }
+}
@@ -0,0 +1,245 @@
+package com.student.service;
+
+import com.student.repository.ShardedStudentRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class StudentWriteBehindTest {
+
+    @Mock
+    private StudentChangeLog changeLog;
+
+    @Mock
+    private ShardedStudentRepository shards;
+
+    private final StudentWriteBehind writeBehind = new StudentWriteBehind();
+
+    // How many batch transactions the flusher opened, and how many writes were in each
+    private final List<Integer> batches = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        // The transaction itself is not what's under test: just run the callback
+        when(changeLog.execute(anyInt(), any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(1).doInTransaction(null));
+        doAnswer(invocation -> {
+            synchronized (batches) {
+                batches.add(invocation.getArgument(0));
+            }
+            invocation.<Consumer<Object>>getArgument(1).accept(null);
+            return null;
+        }).when(changeLog).executeWithoutResult(anyInt(), any());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        writeBehind.stop();
+    }
+
+    private void start(int queueCapacity, int batchSize, long maxDelayMs) {
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", batchSize);
+        ReflectionTestUtils.setField(writeBehind, "maxDelayMs", maxDelayMs);
+        ReflectionTestUtils.setField(writeBehind, "enqueueTimeoutMs", 50L);
+        ReflectionTestUtils.setField(writeBehind, "ackTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(writeBehind, "changeLog", changeLog);
+        ReflectionTestUtils.setField(writeBehind, "shards", shards);
+        writeBehind.start();
+    }
+
+    private <T> CompletableFuture<T> submit(StudentWriteBehind.Kind kind, Long id, Supplier<T> action) {
+        return CompletableFuture.supplyAsync(() -> writeBehind.submit(kind, id, false, action));
+    }
+
+    /** A write that keeps the flusher busy until released, so the next ones queue up behind it. */
+    private CountDownLatch blockFlusher() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        submit(StudentWriteBehind.Kind.INSERT, null, () -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "blocker";
+        });
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        return release;
+    }
+
+    private void awaitQueued(int count) throws InterruptedException {
+        Queue<?> queue = (Queue<?>) ReflectionTestUtils.getField(writeBehind, "queue");
+        for (int i = 0; i < 500 && queue.size() < count; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(queue).hasSize(count);
+    }
+
+    // ─── GROUP COMMIT ──────────────────────────────────────────────────────────
+
+    @Test
+    void writesWaitingTogetherCommitInOneTransaction() throws Exception {
+        start(100, 100, 5);
+        CountDownLatch release = blockFlusher();
+        List<CompletableFuture<Integer>> writes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int value = i;
+            writes.add(submit(StudentWriteBehind.Kind.INSERT, null, () -> value));
+        }
+        awaitQueued(10);
+
+        release.countDown();
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(writes.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i);
+        }
+        assertThat(batches).containsExactly(1, 10);
+    }
+
+    @Test
+    void aFailingWriteOnlyFailsItself() throws Exception {
+        start(100, 100, 5);
+        CountDownLatch release = blockFlusher();
+        AtomicInteger applied = new AtomicInteger();
+        CompletableFuture<String> good = submit(StudentWriteBehind.Kind.INSERT, null, () -> {
+            applied.incrementAndGet();
+            return "ok";
+        });
+        awaitQueued(1);
+        CompletableFuture<String> bad = submit(StudentWriteBehind.Kind.INSERT, null, () -> {
+            throw new IllegalStateException("duplicate email");
+        });
+        awaitQueued(2);
+
+        release.countDown();
+
+        assertThat(good.get(5, TimeUnit.SECONDS)).isEqualTo("ok");
+        assertThatThrownBy(() -> bad.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseMessage("duplicate email");
+        assertThat(applied).hasValue(2); // once in the failed batch, once on its own
+        verify(changeLog, times(2)).execute(eq(1), any());
+    }
+
+    // ─── COALESCING ────────────────────────────────────────────────────────────
+
+    @Test
+    void anUpdateFollowedByADeleteIsSkippedAndReportsNotFound() throws Exception {
+        start(100, 100, 5);
+        CountDownLatch release = blockFlusher();
+        AtomicInteger updates = new AtomicInteger();
+        CompletableFuture<String> update = submit(StudentWriteBehind.Kind.UPDATE, 7L, () -> {
+            updates.incrementAndGet();
+            return "updated";
+        });
+        awaitQueued(1);
+        CompletableFuture<Boolean> delete = submit(StudentWriteBehind.Kind.DELETE, 7L, () -> true);
+        awaitQueued(2);
+
+        release.countDown();
+
+        assertThat(delete.get(5, TimeUnit.SECONDS)).isTrue();
+        // The student is gone once the batch commits: the update answers 404, not its own fields
+        assertThat(update.get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(updates).hasValue(0);
+        assertThat(batches).containsExactly(1, 1);
+    }
+
+    @Test
+    void twoUpdatesOfOneStudentAreBothApplied() throws Exception {
+        start(100, 100, 5);
+        CountDownLatch release = blockFlusher();
+        List<String> applied = new ArrayList<>();
+        CompletableFuture<String> name = submit(StudentWriteBehind.Kind.UPDATE, 7L, () -> {
+            applied.add("name");
+            return "name";
+        });
+        awaitQueued(1);
+        CompletableFuture<String> course = submit(StudentWriteBehind.Kind.UPDATE, 7L, () -> {
+            applied.add("course");
+            return "course";
+        });
+        awaitQueued(2);
+
+        release.countDown();
+
+        // A PATCH of the name followed by one of the course: neither may be lost
+        assertThat(name.get(5, TimeUnit.SECONDS)).isEqualTo("name");
+        assertThat(course.get(5, TimeUnit.SECONDS)).isEqualTo("course");
+        assertThat(applied).containsExactly("name", "course");
+    }
+
+    @Test
+    void everyUpdateBeforeADeleteIsSkipped() throws Exception {
+        start(100, 100, 5);
+        CountDownLatch release = blockFlusher();
+        AtomicInteger updates = new AtomicInteger();
+        List<CompletableFuture<String>> writes = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            writes.add(submit(StudentWriteBehind.Kind.UPDATE, 7L, () -> {
+                updates.incrementAndGet();
+                return "updated";
+            }));
+            awaitQueued(i + 1);
+        }
+        CompletableFuture<Boolean> delete = submit(StudentWriteBehind.Kind.DELETE, 7L, () -> true);
+        awaitQueued(3);
+
+        release.countDown();
+
+        assertThat(delete.get(5, TimeUnit.SECONDS)).isTrue();
+        for (CompletableFuture<String> write : writes) {
+            assertThat(write.get(5, TimeUnit.SECONDS)).isNull();
+        }
+        assertThat(updates).hasValue(0);
+    }
+
+    // ─── BACKPRESSURE ──────────────────────────────────────────────────────────
+
+    @Test
+    void aFullQueueRefusesTheWrite() throws Exception {
+        start(1, 100, 5);
+        CountDownLatch release = blockFlusher();
+        CompletableFuture<String> queued = submit(StudentWriteBehind.Kind.INSERT, null, () -> "queued");
+        awaitQueued(1);
+
+        assertThatThrownBy(() -> writeBehind.submit(StudentWriteBehind.Kind.INSERT, null, false, () -> "refused"))
+                .isInstanceOf(StudentWriteBehind.BusyException.class);
+
+        release.countDown();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("queued");
+    }
+}
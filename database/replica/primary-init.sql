@@ -0,0 +1,5 @@
+-- Replication account on the primary (not replicated itself)
+SET SQL_LOG_BIN = 0;
+CREATE USER IF NOT EXISTS 'repl'@'%' IDENTIFIED BY 'repl';
+GRANT REPLICATION SLAVE ON *.* TO 'repl'@'%';
+SET SQL_LOG_BIN = 1;
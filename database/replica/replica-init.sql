@@ -0,0 +1,8 @@
+-- Follow the primary; START REPLICA keeps retrying until the primary is up
+CHANGE REPLICATION SOURCE TO
+    SOURCE_HOST = 'primary',
+    SOURCE_USER = 'repl',
+    SOURCE_PASSWORD = 'repl',
+    SOURCE_AUTO_POSITION = 1,
+    GET_SOURCE_PUBLIC_KEY = 1;
+START REPLICA;
@@ -11,10 +11,14 @@ USE student_db;
 -- NOTE: The 'users' and 'students' tables will be AUTO-CREATED
 -- by Spring Boot JPA when you run the backend for the first time.
 -- Just run the INSERT statements AFTER starting the backend once.
+-- (With the prod profile they are created by the Flyway migrations in
+-- backend/src/main/java/db/migration instead — Step 4 included.)
 -- ============================================================
 
 -- Step 2: Insert default users (run AFTER backend has started once)
 -- The tables will exist after first run.
+-- Passwords are inserted as plain text here; the backend replaces each one
+-- with a PBKDF2 hash the first time that user logs in.
 
 -- Default ADMIN user
 INSERT INTO users (username, password, role)
@@ -36,6 +40,12 @@ VALUES
   ('Emma Davis', 'emma@college.edu', 'BCA', 'Computer Science')
 ON DUPLICATE KEY UPDATE name = VALUES(name);
 
+-- Step 4: Index for the email-domain filter of GET /api/students?emailDomain=
+-- (MySQL 8.0.13+). The other list indexes — (course, department),
+-- (department, course) and (name) — are created by JPA with the table.
+-- With sharding, run this on every shard database as well.
+CREATE INDEX idx_students_email_domain ON students ((SUBSTRING_INDEX(email, '@', -1)));
+
 -- ============================================================
 -- Verify your data
 -- ============================================================
@@ -44,3 +54,7 @@ SELECT id, username, role FROM users;
 
 SELECT 'Students:' AS info;
 SELECT * FROM students;
+
+-- The filtered list should use an index ("key" column), not a full scan:
+EXPLAIN SELECT id, name FROM students WHERE course = 'MCA' AND department = 'Computer Science' ORDER BY id LIMIT 51;
+EXPLAIN SELECT id, name FROM students WHERE SUBSTRING_INDEX(email, '@', -1) = 'college.edu' ORDER BY id LIMIT 51;
@@ -18,4 +18,27 @@ const api = axios.create({
     timeout: 10000, // 10 second timeout
 });
 
+// Send the signed login token with every request so the backend can check the role
+api.interceptors.request.use((config) => {
+    const token = localStorage.getItem('token');
+    if (token) {
+        config.headers.Authorization = `Bearer ${token}`;
+    }
+    const readAfter = localStorage.getItem('readAfter');
+    if (readAfter) {
+        config.headers['X-Read-After'] = readAfter;
+    }
+    return config;
+});
+
+// After a write the backend says which change our next reads must include;
+// sending it back keeps them off read replicas that don't have it yet
+api.interceptors.response.use((response) => {
+    const readAfter = response.headers['x-read-after'];
+    if (readAfter) {
+        localStorage.setItem('readAfter', readAfter);
+    }
+    return response;
+});
+
 export default api;
@@ -22,6 +22,7 @@ function Navbar() {
         // Clear all stored user data
         localStorage.removeItem('username');
         localStorage.removeItem('role');
+        localStorage.removeItem('token');
         // Redirect to login page
         navigate('/');
     };
@@ -9,12 +9,15 @@ import api from '../api/axios';
  * Displays:
  *  - Welcome message with the logged-in username
  *  - Total student count (fetched from API)
+ *  - Student counts per department and per course
  *  - Role badge (ADMIN / USER)
  *  - Quick action cards
  */
 function DashboardPage() {
     // ─── State ───────────────────────────────────────────────────────────────────
     const [totalStudents, setTotalStudents] = useState(0);
+    const [byDepartment, setByDepartment] = useState({});
+    const [byCourse, setByCourse] = useState({});
     const [loading, setLoading] = useState(true);
     const [error, setError] = useState('');
 
@@ -24,23 +27,45 @@ function DashboardPage() {
     const username = localStorage.getItem('username') || 'User';
     const role = localStorage.getItem('role') || 'USER';
 
-    // ─── Fetch Student Count on Mount ────────────────────────────────────────────
+    // ─── Fetch Student Stats on Mount ────────────────────────────────────────────
     useEffect(() => {
-        const fetchCount = async () => {
+        const fetchStats = async () => {
             try {
-                const response = await api.get('/students/count');
+                // Served from in-memory counters on the backend — no COUNT(*) query
+                const response = await api.get('/students/stats');
                 setTotalStudents(response.data.total);
+                setByDepartment(response.data.byDepartment);
+                setByCourse(response.data.byCourse);
             } catch (err) {
                 setError('Could not fetch student count.');
-                console.error('Error fetching count:', err);
+                console.error('Error fetching stats:', err);
             } finally {
                 setLoading(false);
             }
         };
 
-        fetchCount();
+        fetchStats();
     }, []); // Empty array = run once when component mounts
 
+    // Renders one breakdown card (e.g. students per department)
+    const renderBreakdown = (title, counts) => (
+        <div className="system-info-card breakdown-card">
+            <h3 className="system-info-title">{title}</h3>
+            <div className="system-info-grid">
+                {Object.keys(counts).length === 0 ? (
+                    <span className="info-label">No data yet</span>
+                ) : (
+                    Object.entries(counts).map(([name, count]) => (
+                        <div className="info-item" key={name}>
+                            <span className="info-label">{name}</span>
+                            <span className="info-value">{count}</span>
+                        </div>
+                    ))
+                )}
+            </div>
+        </div>
+    );
+
     // ─── Render ──────────────────────────────────────────────────────────────────
     return (
         <div className="page-wrapper">
@@ -106,6 +131,14 @@ function DashboardPage() {
                     </div>
                 </div>
 
+                {/* Breakdowns */}
+                {!loading && (
+                    <div className="breakdown-grid">
+                        {renderBreakdown('Students by Department', byDepartment)}
+                        {renderBreakdown('Students by Course', byCourse)}
+                    </div>
+                )}
+
                 {/* Quick Actions */}
                 <div className="quick-actions-section">
                     <h2 className="section-title">Quick Actions</h2>
@@ -8,7 +8,7 @@ import api from '../api/axios';
  * Features:
  *  - Username and password form
  *  - Calls POST /api/auth/login
- *  - On success: stores username and role in localStorage
+ *  - On success: stores username, role and the signed token in localStorage
  *  - Redirects to /dashboard after login
  *  - Shows error message if login fails
  * 
@@ -43,6 +43,7 @@ function LoginPage() {
 
             localStorage.setItem('username', data.username);
             localStorage.setItem('role', data.role);
+            localStorage.setItem('token', data.token);
 
             navigate('/dashboard');
 
@@ -50,6 +51,8 @@ function LoginPage() {
 
             if (err.response && err.response.status === 401) {
                 setError('Invalid username or password. Please try again.');
+            } else if (err.response && err.response.status === 429) {
+                setError('Too many login attempts. Please wait a minute and try again.');
             } else {
                 setError('Cannot connect to server. Make sure the backend is running.');
             }
@@ -1,4 +1,4 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { useNavigate } from 'react-router-dom';
 import Navbar from '../components/Navbar';
 import api from '../api/axios';
@@ -7,8 +7,11 @@ import api from '../api/axios';
  * StudentsListPage Component — Shows all students in a table.
  * 
  * Features:
- *  - Fetches all students from GET /api/students
+ *  - Fetches students page by page from GET /api/students?after=&limit=
+ *  - After an edit or delete, fetches only what changed (GET /api/students/changes?since=)
  *  - Search by name (GET /api/students/search?name=xxx)
+ *  - Filter by course, department, name prefix and email domain, and sort —
+ *    done by the server, with counts per course / department (?facets=true)
  *  - Edit button → navigates to edit form (shown to ADMIN only)
  *  - Delete button → removes student (ADMIN only, with confirmation)
  *  - Inline edit form within the table row
@@ -24,18 +27,32 @@ function StudentsListPage() {
         name: '', email: '', course: '', department: ''
     });
     const [successMsg, setSuccessMsg] = useState('');       // Success message
+    const [nextCursor, setNextCursor] = useState(null);     // Cursor for the next page (null = no more)
+    const [loadingMore, setLoadingMore] = useState(false);  // "Load more" indicator
+    const [filters, setFilters] = useState(NO_FILTERS);     // Filter inputs (applied by the server)
+    const [facets, setFacets] = useState({ course: {}, department: {} }); // Matching students per course / department
+    const watermarkRef = useRef(0);                         // Last change number we are up to date with
+    const filtersRef = useRef(NO_FILTERS);                  // Filters of the list that is shown
+    const showingSearchRef = useRef(false);                 // True while search results are shown
 
     const navigate = useNavigate();
     const role = localStorage.getItem('role');              // 'ADMIN' or 'USER'
     const isAdmin = role === 'ADMIN';
 
     // ─── Fetch All Students ───────────────────────────────────────────────────────
-    const fetchStudents = async () => {
+    const fetchStudents = async (activeFilters = filtersRef.current) => {
         setLoading(true);
         setError('');
         try {
-            const response = await api.get('/students');
-            setStudents(response.data);
+            const params = listParams(activeFilters);
+            params.set('facets', 'true');
+            const response = await api.get(`/students?${params}`);
+            setStudents(response.data.items);
+            setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+            if (response.data.facets) setFacets(response.data.facets);
+            watermarkRef.current = response.data.watermark;
+            filtersRef.current = activeFilters;
+            showingSearchRef.current = false;
         } catch (err) {
             setError('Failed to load students. Make sure the backend is running.');
             console.error('Error fetching students:', err);
@@ -44,6 +61,65 @@ function StudentsListPage() {
         }
     };
 
+    // ─── Load Next Page ───────────────────────────────────────────────────────────
+    const loadMore = async () => {
+        if (!nextCursor) return;
+        setLoadingMore(true);
+        try {
+            const params = listParams(filtersRef.current);
+            params.set('after', nextCursor);
+            const response = await api.get(`/students?${params}`);
+            setStudents((prev) => [...prev, ...response.data.items]);
+            setNextCursor(response.data.hasMore ? response.data.nextCursor : null);
+        } catch (err) {
+            setError('Failed to load more students. Please try again.');
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
+    // ─── Sync Changes ─────────────────────────────────────────────────────────────
+    // Applies only the inserts, updates and deletes since the last sync,
+    // instead of downloading the whole list again.
+    const syncChanges = async () => {
+        try {
+            let hasMore = true;
+            while (hasMore) {
+                const response = await api.get(`/students/changes?since=${watermarkRef.current}`);
+                const data = response.data;
+                if (data.resync) {
+                    fetchStudents(); // Too far behind — reload everything
+                    return;
+                }
+                applyChanges(data.upserts, data.deletes);
+                watermarkRef.current = data.watermark;
+                hasMore = data.hasMore;
+            }
+        } catch (err) {
+            fetchStudents(); // Fall back to a full reload
+        }
+    };
+
+    const applyChanges = (upserts, deletes) => {
+        if (upserts.length === 0 && deletes.length === 0) return;
+        const deleted = new Set(deletes);
+        const changed = new Map(upserts.map((s) => [s.id, s]));
+        const active = filtersRef.current;
+        setStudents((prev) => {
+            const known = new Set(prev.map((s) => s.id));
+            const next = prev
+                .filter((s) => !deleted.has(s.id))
+                .map((s) => changed.get(s.id) || s)
+                .filter((s) => matchesFilters(s, active)); // An edit may move a student out of the filter
+            // New students have the highest ids, so they belong at the end —
+            // but only once every page is loaded, and never into search or filtered results
+            if (!showingSearchRef.current && !nextCursor && !isFiltered(active)) {
+                upserts.filter((s) => !known.has(s.id)).forEach((s) => next.push(s));
+            }
+            return next;
+        });
+    };
+
     // Fetch students when component mounts
     useEffect(() => {
         fetchStudents();
@@ -61,6 +137,8 @@ function StudentsListPage() {
         try {
             const response = await api.get(`/students/search?name=${encodeURIComponent(searchName)}`);
             setStudents(response.data);
+            setNextCursor(null); // Search results are not paged
+            showingSearchRef.current = true;
             if (response.data.length === 0) {
                 setError(`No students found with name containing "${searchName}"`);
             }
@@ -71,6 +149,32 @@ function StudentsListPage() {
         }
     };
 
+    // ─── Filter Handlers ──────────────────────────────────────────────────────────
+    // Dropdowns apply at once; the text filters on Enter or "Apply"
+    const handleFilterChange = (e) => {
+        const next = { ...filters, [e.target.name]: e.target.value };
+        setFilters(next);
+        if (e.target.tagName === 'SELECT') fetchStudents(next);
+    };
+
+    const handleFilterKeyDown = (e) => {
+        if (e.key === 'Enter') fetchStudents(filters);
+    };
+
+    const clearFilters = () => {
+        setFilters(NO_FILTERS);
+        fetchStudents(NO_FILTERS);
+    };
+
+    // Facet values as [value, count], keeping the selected one even if it has no students now
+    const facetOptions = (name) => {
+        const entries = Object.entries(facets[name] || {});
+        if (filters[name] && !entries.some(([value]) => value === filters[name])) {
+            entries.push([filters[name], 0]);
+        }
+        return entries;
+    };
+
     // Allow pressing Enter to search
     const handleSearchKeyDown = (e) => {
         if (e.key === 'Enter') handleSearch();
@@ -108,17 +212,34 @@ function StudentsListPage() {
             setError('All fields are required for update.');
             return;
         }
+        // Send only the fields that changed, guarded by the version we edited
+        const original = students.find((s) => s.id === id);
+        const changes = {};
+        ['name', 'email', 'course', 'department'].forEach((field) => {
+            if (!original || editForm[field] !== original[field]) changes[field] = editForm[field];
+        });
         try {
-            await api.put(`/students/${id}`, editForm);
+            await api.patch(`/students/${id}`, changes, { headers: versionHeader(original) });
             setSuccessMsg('✅ Student updated successfully!');
             setEditingId(null);
-            fetchStudents(); // Reload list
+            syncChanges(); // Fetch only what changed
             setTimeout(() => setSuccessMsg(''), 3000); // Hide after 3s
         } catch (err) {
+            if (err.response?.status === 412) {
+                setError('Someone else changed this student meanwhile — the list was refreshed, please edit again.');
+                setEditingId(null);
+                syncChanges();
+                return;
+            }
             setError('Failed to update student. Please try again.');
         }
     };
 
+    // If-Match header for a student we have loaded: the server rejects the
+    // write (412) if the student changed since
+    const versionHeader = (student) =>
+        student && student.changeSeq != null ? { 'If-Match': `"${student.id}-${student.changeSeq}"` } : {};
+
     // ─── Delete Handler ───────────────────────────────────────────────────────────
     const handleDelete = async (id, name) => {
         // Confirm before deleting
@@ -126,11 +247,17 @@ function StudentsListPage() {
             return;
         }
         try {
-            await api.delete(`/students/${id}`);
+            const original = students.find((s) => s.id === id);
+            await api.delete(`/students/${id}`, { headers: versionHeader(original) });
             setSuccessMsg(`✅ Student "${name}" deleted successfully!`);
-            fetchStudents(); // Reload list
+            syncChanges(); // Fetch only what changed
             setTimeout(() => setSuccessMsg(''), 3000);
         } catch (err) {
+            if (err.response?.status === 412) {
+                setError(`"${name}" was changed by someone else — the list was refreshed, please check it again.`);
+                syncChanges();
+                return;
+            }
             setError('Failed to delete student. Please try again.');
         }
     };
@@ -146,7 +273,7 @@ function StudentsListPage() {
                     <div>
                         <h1 className="page-title">👥 Students</h1>
                         <p className="page-subtitle">
-                            {students.length} student{students.length !== 1 ? 's' : ''} found
+                            {students.length} student{students.length !== 1 ? 's' : ''} {nextCursor ? 'loaded' : 'found'}
                         </p>
                     </div>
                     {/* Add Student button for ADMIN */}
@@ -196,6 +323,44 @@ function StudentsListPage() {
                     )}
                 </div>
 
+                {/* Filters (applied by the server) */}
+                <div className="filter-bar">
+                    <select className="filter-select" name="course" value={filters.course}
+                        onChange={handleFilterChange} id="filter-course">
+                        <option value="">All courses</option>
+                        {facetOptions('course').map(([value, count]) => (
+                            <option key={value} value={value}>{value} ({count})</option>
+                        ))}
+                    </select>
+                    <select className="filter-select" name="department" value={filters.department}
+                        onChange={handleFilterChange} id="filter-department">
+                        <option value="">All departments</option>
+                        {facetOptions('department').map(([value, count]) => (
+                            <option key={value} value={value}>{value} ({count})</option>
+                        ))}
+                    </select>
+                    <input type="text" className="filter-input" name="namePrefix" placeholder="Name starts with..."
+                        value={filters.namePrefix} onChange={handleFilterChange} onKeyDown={handleFilterKeyDown}
+                        id="filter-name-prefix" />
+                    <input type="text" className="filter-input" name="emailDomain" placeholder="Email domain, e.g. college.edu"
+                        value={filters.emailDomain} onChange={handleFilterChange} onKeyDown={handleFilterKeyDown}
+                        id="filter-email-domain" />
+                    <select className="filter-select" name="sort" value={filters.sort}
+                        onChange={handleFilterChange} id="filter-sort">
+                        {SORT_OPTIONS.map(([value, label]) => (
+                            <option key={value} value={value}>{label}</option>
+                        ))}
+                    </select>
+                    <button className="btn btn-primary" onClick={() => fetchStudents(filters)} id="btn-apply-filters">
+                        Apply
+                    </button>
+                    {isFiltered(filters) && (
+                        <button className="btn btn-secondary" onClick={clearFilters} id="btn-clear-filters">
+                            Clear filters
+                        </button>
+                    )}
+                </div>
+
                 {/* Students Table */}
                 <div className="table-container">
                     {loading ? (
@@ -332,9 +497,56 @@ function StudentsListPage() {
                         </table>
                     )}
                 </div>
+
+                {/* Load More (keyset pagination) */}
+                {!loading && nextCursor && (
+                    <div className="load-more">
+                        <button
+                            className="btn btn-secondary"
+                            onClick={loadMore}
+                            disabled={loadingMore}
+                            id="btn-load-more"
+                        >
+                            {loadingMore ? 'Loading...' : 'Load more'}
+                        </button>
+                    </div>
+                )}
             </main>
         </div>
     );
 }
 
+// ─── Filter Helpers ───────────────────────────────────────────────────────────────
+const NO_FILTERS = { course: '', department: '', namePrefix: '', emailDomain: '', sort: '' };
+
+// [sort parameter, label] — a leading '-' sorts descending
+const SORT_OPTIONS = [
+    ['', 'Sort: oldest first'],
+    ['-id', 'Sort: newest first'],
+    ['name', 'Sort: name A–Z'],
+    ['-name', 'Sort: name Z–A'],
+    ['department,name', 'Sort: department, then name'],
+    ['course,name', 'Sort: course, then name'],
+];
+
+const isFiltered = (f) => Object.values(f).some((value) => value !== '');
+
+// Query string for GET /api/students with the non-empty filters
+const listParams = (f) => {
+    const params = new URLSearchParams();
+    Object.entries(f).forEach(([key, value]) => {
+        if (value.trim()) params.set(key, value.trim());
+    });
+    return params;
+};
+
+// Same checks as the server, for students that changed after the list was loaded
+const matchesFilters = (s, f) => {
+    const lower = (text) => (text || '').toLowerCase();
+    return (!f.course.trim() || s.course === f.course.trim())
+        && (!f.department.trim() || s.department === f.department.trim())
+        && (!f.namePrefix.trim() || lower(s.name).startsWith(lower(f.namePrefix.trim())))
+        && (!f.emailDomain.trim() || lower(s.email).endsWith('@' + lower(f.emailDomain.trim())));
+};
+
 export default StudentsListPage;